@@ -0,0 +1,24 @@
+package com.example.gateway.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.HttpProtocol;
+
+// Speaks cleartext HTTP/2 to the backend services: the first request on a connection upgrades it
+// (backends run with server.http2.enabled=true), after which requests to the same instance are
+// multiplexed over the pooled connection. Backends without HTTP/2 keep working over HTTP/1.1.
+@Configuration
+public class BackendHttpClientConfig {
+
+    @Value("${gateway.backend.http2.enabled:true}")
+    private boolean http2Enabled;
+
+    @Bean
+    public HttpClientCustomizer backendHttp2Customizer() {
+        return httpClient -> http2Enabled
+                ? httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11)
+                : httpClient;
+    }
+}
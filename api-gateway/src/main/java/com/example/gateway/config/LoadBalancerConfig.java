@@ -0,0 +1,42 @@
+package com.example.gateway.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplierBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Instance lists for every lb:// route. With health checks on, the gateway probes each instance itself
+// and routes only to instances that answer. That reacts faster than waiting for Eureka to expire a
+// dead lease, and new instances join after their first good check instead of after a cache TTL.
+// With health checks off, the default cached discovery list is used. Either way, new instances are
+// ramped up by WarmUpServiceInstanceListSupplier.
+@Configuration
+@LoadBalancerClients(defaultConfiguration = LoadBalancerConfig.InstanceListConfig.class)
+public class LoadBalancerConfig {
+
+    // Created once per service id in its own load balancer context, so not a @Configuration here
+    static class InstanceListConfig {
+
+        @Value("${gateway.load-balancer.health-check.enabled:false}")
+        private boolean healthCheckEnabled;
+
+        @Value("${gateway.load-balancer.warm-up-ms:30000}")
+        private long warmUpMs;
+
+        @Bean
+        public ServiceInstanceListSupplier serviceInstanceListSupplier(ConfigurableApplicationContext context) {
+            ServiceInstanceListSupplierBuilder builder = ServiceInstanceListSupplier.builder().withDiscoveryClient();
+            if (healthCheckEnabled) {
+                builder.withHealthChecks();
+            } else {
+                builder.withCaching();
+            }
+            return builder
+                    .with((ctx, delegate) -> new WarmUpServiceInstanceListSupplier(delegate, warmUpMs))
+                    .build(context);
+        }
+    }
+}
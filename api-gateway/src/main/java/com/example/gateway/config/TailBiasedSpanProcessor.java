@@ -0,0 +1,227 @@
+package com.example.gateway.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Every request is recorded (head sampling at 1.0); this decides which traces are exported, whole.
+// It sits in front of the span processors that feed the exporters and holds ended spans per trace id
+// until the trace's local root ends (the server span of a request, or a span without a parent in
+// this service). The trace is kept if any of its spans failed or ran for at least the slow threshold,
+// or if its trace id falls in the baseline share - hashed, so every service keeps the same baseline
+// traces. The fast Feign and Mongo spans under a slow request go out with it. Spans ending after
+// their local root follow the decision already made. Traces whose root has not ended within the max
+// age are decided on the spans seen so far by a background drain, so a quiet service holds nothing
+// longer than that; past max-buffered-spans the oldest traces are decided early.
+public class TailBiasedSpanProcessor implements SpanProcessor {
+
+    private static final long BASELINE_BUCKETS = 10_000;
+    private static final int DECIDED_TRACES = 10_000;
+    private static final AttributeKey<String> OUTCOME = AttributeKey.stringKey("outcome");
+    private static final AttributeKey<String> EXCEPTION = AttributeKey.stringKey("exception");
+    private static final String FAILED = "failed";
+    private static final String SLOW = "slow";
+    private static final String BASELINE = "baseline";
+    private static final String DROPPED = "dropped";
+
+    private final SpanProcessor next;
+    private final long slowThresholdNanos;
+    private final long baselineBuckets;
+    private final long maxTraceAgeNanos;
+    private final int maxBufferedSpans;
+    private final Map<String, Counter> spans = new LinkedHashMap<>();
+    // In order of each trace's first span, so the oldest traces are decided first
+    private final Map<String, PendingTrace> pending = new LinkedHashMap<>();
+    private final Map<String, String> decided = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > DECIDED_TRACES;
+        }
+    };
+    private final ScheduledExecutorService drain;
+    private int bufferedSpans;
+
+    public TailBiasedSpanProcessor(SpanProcessor next, Duration slowThreshold, double baselineRatio,
+                                   Duration maxTraceAge, int maxBufferedSpans, MeterRegistry meterRegistry) {
+        this.next = next;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.baselineBuckets = Math.round(Math.max(0.0, Math.min(1.0, baselineRatio)) * BASELINE_BUCKETS);
+        this.maxTraceAgeNanos = maxTraceAge.toNanos();
+        this.maxBufferedSpans = maxBufferedSpans;
+        for (String decision : List.of(FAILED, SLOW, BASELINE, DROPPED)) {
+            spans.put(decision, Counter.builder("tracing.spans")
+                    .tag("decision", decision)
+                    .register(meterRegistry));
+        }
+        this.drain = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tail-sampling-drain");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long periodMs = Math.max(100, maxTraceAge.toMillis() / 4);
+        drain.scheduleWithFixedDelay(this::drainExpired, periodMs, periodMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+        next.onStart(parentContext, span);
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return next.isStartRequired();
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        List<ReadableSpan> kept = new ArrayList<>();
+        SpanData data = span.toSpanData();
+        String reason = reason(data);
+        synchronized (this) {
+            String traceId = data.getTraceId();
+            String decision = decided.get(traceId);
+            if (decision != null) {
+                record(DROPPED.equals(decision) && reason != null ? reason : decision, List.of(span), kept);
+            } else {
+                PendingTrace trace = pending.computeIfAbsent(traceId, id -> new PendingTrace(System.nanoTime()));
+                trace.spans.add(span);
+                bufferedSpans++;
+                if (reason != null && !FAILED.equals(trace.reason)) {
+                    trace.reason = reason;
+                }
+                if (isLocalRoot(data)) {
+                    pending.remove(traceId);
+                    decide(traceId, trace, kept);
+                }
+                evict(System.nanoTime(), kept);
+            }
+        }
+        kept.forEach(next::onEnd);
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        decideAll();
+        return next.forceFlush();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        drain.shutdownNow();
+        decideAll();
+        return next.shutdown();
+    }
+
+    private void drainExpired() {
+        List<ReadableSpan> kept = new ArrayList<>();
+        synchronized (this) {
+            evict(System.nanoTime(), kept);
+        }
+        kept.forEach(next::onEnd);
+    }
+
+    private void decideAll() {
+        List<ReadableSpan> kept = new ArrayList<>();
+        synchronized (this) {
+            pending.forEach((traceId, trace) -> decide(traceId, trace, kept));
+            pending.clear();
+        }
+        kept.forEach(next::onEnd);
+    }
+
+    // Oldest first, while over the span bound or past the max age
+    private void evict(long now, List<ReadableSpan> kept) {
+        Iterator<Map.Entry<String, PendingTrace>> oldest = pending.entrySet().iterator();
+        while (oldest.hasNext()) {
+            Map.Entry<String, PendingTrace> entry = oldest.next();
+            if (bufferedSpans <= maxBufferedSpans && now - entry.getValue().firstSeen < maxTraceAgeNanos) {
+                break;
+            }
+            oldest.remove();
+            decide(entry.getKey(), entry.getValue(), kept);
+        }
+    }
+
+    private void decide(String traceId, PendingTrace trace, List<ReadableSpan> kept) {
+        bufferedSpans -= trace.spans.size();
+        String decision = trace.reason != null ? trace.reason : inBaseline(traceId) ? BASELINE : DROPPED;
+        decided.put(traceId, decision);
+        record(decision, trace.spans, kept);
+    }
+
+    private void record(String decision, List<ReadableSpan> traceSpans, List<ReadableSpan> kept) {
+        spans.get(decision).increment(traceSpans.size());
+        if (!DROPPED.equals(decision)) {
+            kept.addAll(traceSpans);
+        }
+    }
+
+    // A span whose parent ran in another service (or that has none) closes this service's part of the trace
+    private static boolean isLocalRoot(SpanData span) {
+        SpanContext parent = span.getParentSpanContext();
+        return !parent.isValid() || parent.isRemote();
+    }
+
+    private String reason(SpanData span) {
+        if (isFailed(span)) {
+            return FAILED;
+        }
+        return span.getEndEpochNanos() - span.getStartEpochNanos() >= slowThresholdNanos ? SLOW : null;
+    }
+
+    private static boolean isFailed(SpanData span) {
+        if (span.getStatus().getStatusCode() == StatusCode.ERROR) {
+            return true;
+        }
+        String outcome = span.getAttributes().get(OUTCOME);
+        if ("CLIENT_ERROR".equals(outcome) || "SERVER_ERROR".equals(outcome)) {
+            return true;
+        }
+        String exception = span.getAttributes().get(EXCEPTION);
+        return exception != null && !"none".equalsIgnoreCase(exception);
+    }
+
+    private boolean inBaseline(String traceId) {
+        if (baselineBuckets >= BASELINE_BUCKETS) {
+            return true;
+        }
+        if (baselineBuckets == 0 || traceId == null || traceId.length() < 16) {
+            return false;
+        }
+        long low = Long.parseUnsignedLong(traceId.substring(traceId.length() - 16), 16);
+        return Long.remainderUnsigned(low, BASELINE_BUCKETS) < baselineBuckets;
+    }
+
+    private static class PendingTrace {
+        final long firstSeen;
+        final List<ReadableSpan> spans = new ArrayList<>();
+        String reason;
+
+        PendingTrace(long firstSeen) {
+            this.firstSeen = firstSeen;
+        }
+    }
+}
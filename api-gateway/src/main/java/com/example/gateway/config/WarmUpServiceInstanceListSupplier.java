@@ -0,0 +1,74 @@
+package com.example.gateway.config;
+
+import com.netflix.appinfo.LeaseInfo;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.DelegatingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.netflix.eureka.EurekaServiceInstance;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Ramps a new instance's share of requests up over the warm-up period. Without it, the instance gets
+// a full round-robin share right away, while its JIT, connection pools and caches are still cold.
+// An instance's age counts from when Eureka marked it UP. The round-robin balancer walks the returned
+// list, so weights are expressed by listing an instance more than once, interleaved.
+public class WarmUpServiceInstanceListSupplier extends DelegatingServiceInstanceListSupplier {
+
+    private static final int FULL_WEIGHT = 10;
+
+    private final long warmUpMs;
+
+    public WarmUpServiceInstanceListSupplier(ServiceInstanceListSupplier delegate, long warmUpMs) {
+        super(delegate);
+        this.warmUpMs = warmUpMs;
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        return delegate.get().map(this::weighted);
+    }
+
+    List<ServiceInstance> weighted(List<ServiceInstance> instances) {
+        if (warmUpMs <= 0 || instances.size() < 2) {
+            return instances;
+        }
+        long now = System.currentTimeMillis();
+        int[] weights = new int[instances.size()];
+        boolean warming = false;
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = weight(instances.get(i), now);
+            warming |= weights[i] < FULL_WEIGHT;
+        }
+        if (!warming) {
+            return instances;
+        }
+
+        List<ServiceInstance> weighted = new ArrayList<>(instances.size() * FULL_WEIGHT);
+        for (int round = 0; round < FULL_WEIGHT; round++) {
+            for (int i = 0; i < weights.length; i++) {
+                if (weights[i] > round) {
+                    weighted.add(instances.get(i));
+                }
+            }
+        }
+        return weighted;
+    }
+
+    private int weight(ServiceInstance instance, long now) {
+        if (!(instance instanceof EurekaServiceInstance)) {
+            return FULL_WEIGHT;
+        }
+        LeaseInfo lease = ((EurekaServiceInstance) instance).getInstanceInfo().getLeaseInfo();
+        if (lease == null || lease.getServiceUpTimestamp() <= 0) {
+            return FULL_WEIGHT;
+        }
+        long age = now - lease.getServiceUpTimestamp();
+        if (age >= warmUpMs) {
+            return FULL_WEIGHT;
+        }
+        // At least one slot, so a warming instance still gets some traffic
+        return (int) Math.max(1, FULL_WEIGHT * Math.max(0, age) / warmUpMs);
+    }
+}
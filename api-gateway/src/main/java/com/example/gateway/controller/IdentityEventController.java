@@ -0,0 +1,24 @@
+package com.example.gateway.controller;
+
+import com.example.gateway.dto.UserIdentityEvent;
+import com.example.gateway.service.UserIdentityCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+// Called by user-service on every gateway instance directly. Only ever evicts, so a forged event
+// costs at most one extra lookup.
+@RestController
+public class IdentityEventController {
+
+    @Autowired
+    private UserIdentityCache userIdentityCache;
+
+    @PostMapping("/internal/identity-events")
+    public ResponseEntity<Void> onIdentityEvent(@RequestBody UserIdentityEvent event) {
+        userIdentityCache.evict(event.getUserId());
+        return ResponseEntity.accepted().build();
+    }
+}
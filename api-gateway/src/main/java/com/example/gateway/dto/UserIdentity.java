@@ -0,0 +1,40 @@
+package com.example.gateway.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// The caller as user-service describes it: id, CUSTOMER/CINEMA_ADMIN and the cinema an admin
+// manages. Immutable, so cached instances are shared between request threads.
+public final class UserIdentity {
+
+    public static final String CINEMA_ADMIN = "CINEMA_ADMIN";
+
+    private final String id;
+    private final String userType;
+    private final String cinemaId;
+
+    @JsonCreator
+    public UserIdentity(@JsonProperty("id") String id,
+                        @JsonProperty("userType") String userType,
+                        @JsonProperty("cinemaId") String cinemaId) {
+        this.id = id;
+        this.userType = userType;
+        this.cinemaId = cinemaId;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getUserType() {
+        return userType;
+    }
+
+    public String getCinemaId() {
+        return cinemaId;
+    }
+
+    public boolean isCinemaAdmin() {
+        return CINEMA_ADMIN.equals(userType);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.gateway.dto;
+
+// Sent by user-service after a user is created, changed or deleted
+public class UserIdentityEvent {
+
+    private String type;
+    private String userId;
+
+    public UserIdentityEvent() {
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.gateway.filter;
+
+import com.example.gateway.dto.UserIdentity;
+import com.example.gateway.service.UserIdentityCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+// Resolves the caller named by X-User-Id and forwards who they are to the backend as X-User-Type and
+// X-Cinema-Id. Values that a client sent for those headers are always dropped, and so is
+// X-Operator-Token, which only callers inside the network may send to the services. With
+// gateway.identity.require-admin=true, writes to the admin paths are answered 401/403 at the edge
+// unless the caller is a cinema admin. The cinema-scope check needs the target resource, so it stays
+// in admin-service. Resolution is an in-memory lookup in UserIdentityCache.
+//
+// THIS IS NOT AUTHENTICATION. X-User-Id itself is taken from the client as sent; nothing proves the
+// caller is that user. Every check built on it (require-admin, admin-service's cinema scope, the
+// analytics and export scopes) only holds behind an authenticating proxy that sets X-User-Id itself.
+@Component
+public class UserIdentityFilter implements GlobalFilter, Ordered {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserIdentityFilter.class);
+
+    public static final String USER_ID_HEADER = "X-User-Id";
+    public static final String USER_TYPE_HEADER = "X-User-Type";
+    public static final String CINEMA_ID_HEADER = "X-Cinema-Id";
+    public static final String OPERATOR_TOKEN_HEADER = "X-Operator-Token";
+
+    private static final Set<HttpMethod> WRITE_METHODS = Set.of(HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Autowired
+    private UserIdentityCache userIdentityCache;
+
+    @Value("${gateway.identity.require-admin:false}")
+    private boolean requireAdmin;
+
+    @Value("${gateway.identity.admin-paths:/api/admin/**}")
+    private List<String> adminPaths;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String userId = request.getHeaders().getFirst(USER_ID_HEADER);
+        boolean adminWrite = requireAdmin && isAdminWrite(request);
+        if (userId == null || userId.isBlank()) {
+            if (adminWrite) {
+                return reject(exchange, HttpStatus.UNAUTHORIZED);
+            }
+            return chain.filter(withIdentity(exchange, null));
+        }
+
+        return userIdentityCache.get(userId)
+                .onErrorResume(e -> {
+                    logger.warn("Could not resolve user {}", userId, e);
+                    return Mono.just(Optional.empty());
+                })
+                .flatMap(identity -> {
+                    if (adminWrite && !identity.map(UserIdentity::isCinemaAdmin).orElse(false)) {
+                        return reject(exchange, HttpStatus.FORBIDDEN);
+                    }
+                    return chain.filter(withIdentity(exchange, identity.orElse(null)));
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        // Before the load balancer and the routing filters
+        return 0;
+    }
+
+    private boolean isAdminWrite(ServerHttpRequest request) {
+        if (!WRITE_METHODS.contains(request.getMethod())) {
+            return false;
+        }
+        String path = request.getPath().value();
+        for (String pattern : adminPaths) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ServerWebExchange withIdentity(ServerWebExchange exchange, UserIdentity identity) {
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .headers(headers -> {
+                    headers.remove(USER_TYPE_HEADER);
+                    headers.remove(CINEMA_ID_HEADER);
+                    headers.remove(OPERATOR_TOKEN_HEADER);
+                    if (identity != null) {
+                        headers.set(USER_TYPE_HEADER, identity.getUserType());
+                        if (identity.getCinemaId() != null) {
+                            headers.set(CINEMA_ID_HEADER, identity.getCinemaId());
+                        }
+                    }
+                })
+                .build();
+        return exchange.mutate().request(request).build();
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, HttpStatus status) {
+        exchange.getResponse().setStatusCode(status);
+        return exchange.getResponse().setComplete();
+    }
+}
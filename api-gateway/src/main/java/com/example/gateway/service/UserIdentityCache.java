@@ -0,0 +1,153 @@
+package com.example.gateway.service;
+
+import com.example.gateway.dto.UserIdentity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// User identities for the identity filter, so resolving a caller costs a map lookup, not a call to
+// user-service. Cinema admins are preloaded from user-service's NDJSON identity stream and
+// refreshed periodically. Other users are loaded on first use, with concurrent misses for the same
+// id sharing one call. Unknown ids are cached briefly. user-service pushes an event when a user
+// changes (IdentityEventController), and the ttl bounds staleness after a missed event.
+@Service
+public class UserIdentityCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserIdentityCache.class);
+
+    private static final String USER_SERVICE = "http://user-service/api/users";
+
+    @Autowired
+    private ReactorLoadBalancerExchangeFilterFunction loadBalancer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${identity.cache.ttl-ms:600000}")
+    private long ttlMs;
+
+    @Value("${identity.cache.unknown-ttl-ms:10000}")
+    private long unknownTtlMs;
+
+    @Value("${identity.cache.max-entries:100000}")
+    private int maxEntries;
+
+    @Value("${identity.cache.lookup-timeout-ms:2000}")
+    private long lookupTimeoutMs;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Mono<Optional<UserIdentity>>> loading = new ConcurrentHashMap<>();
+
+    // Bumped by every eviction; a load that overlapped one is used but not cached
+    private final AtomicLong evictions = new AtomicLong();
+
+    private WebClient webClient;
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    public void start() {
+        webClient = WebClient.builder().filter(loadBalancer).build();
+        hits = Counter.builder("identity.cache.requests").tag("result", "hit")
+                .description("Identity lookups answered from memory").register(meterRegistry);
+        misses = Counter.builder("identity.cache.requests").tag("result", "miss")
+                .description("Identity lookups that called user-service").register(meterRegistry);
+        Gauge.builder("identity.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    // Empty when user-service does not know the id
+    public Mono<Optional<UserIdentity>> get(String userId) {
+        Entry entry = entries.get(userId);
+        if (entry != null && entry.expiresAt > System.currentTimeMillis()) {
+            hits.increment();
+            return entry.identity;
+        }
+        misses.increment();
+        return loading.computeIfAbsent(userId, this::load);
+    }
+
+    public void evict(String userId) {
+        evictions.incrementAndGet();
+        entries.remove(userId);
+    }
+
+    private Mono<Optional<UserIdentity>> load(String userId) {
+        long evictionsBefore = evictions.get();
+        return webClient.post()
+                .uri(USER_SERVICE + "/identities/lookup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(userId))
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<List<UserIdentity>>() {
+                })
+                .timeout(Duration.ofMillis(lookupTimeoutMs))
+                .map(found -> found.isEmpty() ? Optional.<UserIdentity>empty() : Optional.of(found.get(0)))
+                .doOnNext(identity -> {
+                    if (evictions.get() == evictionsBefore) {
+                        put(userId, identity.orElse(null));
+                    }
+                })
+                .doFinally(signal -> loading.remove(userId))
+                .cache();
+    }
+
+    // Also runs at startup, so admins are in memory before their first request
+    @Scheduled(fixedDelayString = "${identity.cache.admin-refresh-interval-ms:300000}")
+    public void preloadAdmins() {
+        long evictionsBefore = evictions.get();
+        webClient.get()
+                .uri(USER_SERVICE + "/identities?userType=" + UserIdentity.CINEMA_ADMIN)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .retrieve()
+                .bodyToFlux(UserIdentity.class)
+                .filter(identity -> evictions.get() == evictionsBefore)
+                .doOnNext(identity -> put(identity.getId(), identity))
+                .count()
+                .subscribe(
+                        loaded -> logger.debug("Preloaded {} cinema admin identities", loaded),
+                        error -> logger.warn("Could not preload cinema admin identities; they are loaded on first use", error));
+    }
+
+    private void put(String userId, UserIdentity identity) {
+        if (entries.size() >= maxEntries && !entries.containsKey(userId)) {
+            // Full: make room by dropping an arbitrary entry rather than growing without bound
+            Iterator<String> keys = entries.keySet().iterator();
+            if (keys.hasNext()) {
+                entries.remove(keys.next());
+            }
+        }
+        long expiresAt = System.currentTimeMillis() + (identity != null ? ttlMs : unknownTtlMs);
+        entries.put(userId, new Entry(Optional.ofNullable(identity), expiresAt));
+    }
+
+    private static class Entry {
+        // Kept as a completed Mono, so a hit allocates nothing
+        final Mono<Optional<UserIdentity>> identity;
+        final long expiresAt;
+
+        Entry(Optional<UserIdentity> identity, long expiresAt) {
+            this.identity = Mono.just(identity);
+            this.expiresAt = expiresAt;
+        }
+    }
+}
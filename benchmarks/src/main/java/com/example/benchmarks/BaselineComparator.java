@@ -0,0 +1,85 @@
+package com.example.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Compares a JMH JSON result file against a stored baseline and exits non-zero on regressions.
+// A missing or empty baseline, or one sharing no benchmark with the run, fails with status 3
+// instead of passing with nothing compared.
+// Usage: BaselineComparator <baseline.json> <current.json> [tolerance, default 0.10]
+public class BaselineComparator {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparator <baseline.json> <current.json> [tolerance]");
+            System.exit(2);
+        }
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 0.10;
+
+        Path baselineFile = Path.of(args[0]);
+        if (!Files.isRegularFile(baselineFile) || Files.size(baselineFile) == 0) {
+            noBaseline("No baseline at " + baselineFile);
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> baseline = index(objectMapper.readTree(baselineFile.toFile()));
+        Map<String, JsonNode> current = index(objectMapper.readTree(new File(args[1])));
+        if (baseline.keySet().stream().noneMatch(current::containsKey)) {
+            noBaseline("Baseline " + baselineFile + " has none of the benchmarks in " + args[1]);
+        }
+
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("NEW        %s%n", entry.getKey());
+                continue;
+            }
+            JsonNode after = entry.getValue();
+            double oldScore = before.path("primaryMetric").path("score").asDouble();
+            double newScore = after.path("primaryMetric").path("score").asDouble();
+            String unit = after.path("primaryMetric").path("scoreUnit").asText();
+            boolean higherIsBetter = "thrpt".equals(after.path("mode").asText());
+
+            double change = oldScore == 0 ? 0 : (newScore - oldScore) / oldScore;
+            double worsening = higherIsBetter ? -change : change;
+            String status = worsening > tolerance ? "REGRESSION" : worsening < -tolerance ? "IMPROVED" : "OK";
+            if (worsening > tolerance) {
+                regressions++;
+            }
+            System.out.printf("%-10s %s: %.3f -> %.3f %s (%+.1f%%)%n",
+                    status, entry.getKey(), oldScore, newScore, unit, change * 100);
+        }
+
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) regressed by more than %.0f%%%n", regressions, tolerance * 100);
+            System.exit(1);
+        }
+    }
+
+    private static void noBaseline(String reason) {
+        System.err.println(reason + "; nothing was compared. Record one on this machine profile with");
+        System.err.println("  java -jar target/benchmarks.jar -rf json -rff <baseline.json>");
+        System.err.println("and commit it (see benchmarks/README.md, Baselines).");
+        System.exit(3);
+    }
+
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            String key = result.path("benchmark").asText();
+            JsonNode params = result.path("params");
+            if (!params.isMissingNode() && params.size() > 0) {
+                key += params.toString();
+            }
+            byKey.put(key, result);
+        }
+        return byKey;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.benchmarks;
+
+import com.example.booking.model.Booking;
+import com.example.booking.model.BookingIds;
+import com.example.booking.repository.BookingBatchWriter;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Per-request insert (what BookingRepository.save does) against group commit through
+// BookingBatchWriter, both with the client's default write concern. Needs a running mongod:
+// -Dbenchmark.mongo-uri (default mongodb://127.0.0.1:27017); writes to a scratch database
+// that is dropped afterwards. Many threads, because batching only pays off under concurrency.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class BookingInsertBenchmark {
+
+    private static final String DATABASE = "booking_insert_benchmark";
+
+    @Param({"5"})
+    public long maxDelayMs;
+
+    @Param({"100"})
+    public int maxBatchSize;
+
+    private MongoClient mongoClient;
+    private MongoTemplate mongoTemplate;
+    private BookingBatchWriter batchWriter;
+
+    @Setup
+    public void setup() {
+        mongoClient = MongoClients.create(System.getProperty("benchmark.mongo-uri", "mongodb://127.0.0.1:27017"));
+        mongoTemplate = new MongoTemplate(mongoClient, DATABASE);
+        mongoTemplate.dropCollection(Booking.class);
+        batchWriter = new BookingBatchWriter(mongoTemplate, null, null,
+                maxBatchSize, maxDelayMs, 100_000, new SimpleMeterRegistry());
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        batchWriter.close();
+        mongoClient.getDatabase(DATABASE).drop();
+        mongoClient.close();
+    }
+
+    @Benchmark
+    public Booking perRequest() {
+        return mongoTemplate.insert(newBooking());
+    }
+
+    @Benchmark
+    public String groupCommit() {
+        return batchWriter.insert(newBooking()).join();
+    }
+
+    private static Booking newBooking() {
+        Booking booking = Fixtures.booking();
+        booking.setUserId("user-" + ThreadLocalRandom.current().nextInt(10_000));
+        booking.setId(BookingIds.generate(booking.getUserId()));
+        booking.setBookingTime(LocalDateTime.now());
+        return booking;
+    }
+}
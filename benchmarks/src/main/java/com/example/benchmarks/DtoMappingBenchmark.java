@@ -0,0 +1,107 @@
+package com.example.benchmarks;
+
+import com.example.booking.model.Booking;
+import com.example.booking.service.BookingService;
+import com.example.movie.model.Movie;
+import com.example.movie.service.MovieService;
+import com.example.showtime.model.Showtime;
+import com.example.showtime.service.ShowtimeService;
+import com.example.user.model.User;
+import com.example.user.service.UserService;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoMappingBenchmark {
+
+    private MethodHandle movieToDTO;
+    private MethodHandle movieToEntity;
+    private MethodHandle showtimeToDTO;
+    private MethodHandle showtimeToEntity;
+    private MethodHandle bookingToDTO;
+    private MethodHandle bookingToEntity;
+    private MethodHandle userToDTO;
+    private MethodHandle userToEntity;
+
+    private Movie movie;
+    private com.example.movie.dto.MovieDTO movieDTO;
+    private Showtime showtime;
+    private com.example.showtime.dto.ShowtimeDTO showtimeDTO;
+    private Booking booking;
+    private com.example.booking.dto.BookingDTO bookingDTO;
+    private User user;
+    private com.example.user.dto.UserDTO userDTO;
+
+    @Setup
+    public void setup() {
+        MovieService movieService = new MovieService();
+        ShowtimeService showtimeService = new ShowtimeService();
+        BookingService bookingService = new BookingService();
+        UserService userService = new UserService();
+
+        movieToDTO = Fixtures.privateMethod(movieService, "convertToDTO", Movie.class);
+        movieToEntity = Fixtures.privateMethod(movieService, "convertToEntity", com.example.movie.dto.MovieDTO.class);
+        showtimeToDTO = Fixtures.privateMethod(showtimeService, "convertToDTO", Showtime.class);
+        showtimeToEntity = Fixtures.privateMethod(showtimeService, "convertToEntity", com.example.showtime.dto.ShowtimeDTO.class);
+        bookingToDTO = Fixtures.privateMethod(bookingService, "convertToDTO", Booking.class);
+        bookingToEntity = Fixtures.privateMethod(bookingService, "convertToEntity", com.example.booking.dto.BookingDTO.class);
+        userToDTO = Fixtures.privateMethod(userService, "convertToDTO", User.class);
+        userToEntity = Fixtures.privateMethod(userService, "convertToEntity", com.example.user.dto.UserDTO.class);
+
+        movie = Fixtures.movie();
+        movieDTO = Fixtures.movieDTO();
+        showtime = Fixtures.showtime();
+        showtimeDTO = Fixtures.showtimeDTO();
+        booking = Fixtures.booking();
+        bookingDTO = Fixtures.bookingDTO();
+        user = Fixtures.user();
+        userDTO = Fixtures.userDTO();
+    }
+
+    @Benchmark
+    public Object movieToDTO() throws Throwable {
+        return movieToDTO.invoke(movie);
+    }
+
+    @Benchmark
+    public Object movieToEntity() throws Throwable {
+        return movieToEntity.invoke(movieDTO);
+    }
+
+    @Benchmark
+    public Object showtimeToDTO() throws Throwable {
+        return showtimeToDTO.invoke(showtime);
+    }
+
+    @Benchmark
+    public Object showtimeToEntity() throws Throwable {
+        return showtimeToEntity.invoke(showtimeDTO);
+    }
+
+    @Benchmark
+    public Object bookingToDTO() throws Throwable {
+        return bookingToDTO.invoke(booking);
+    }
+
+    @Benchmark
+    public Object bookingToEntity() throws Throwable {
+        return bookingToEntity.invoke(bookingDTO);
+    }
+
+    @Benchmark
+    public Object userToDTO() throws Throwable {
+        return userToDTO.invoke(user);
+    }
+
+    @Benchmark
+    public Object userToEntity() throws Throwable {
+        return userToEntity.invoke(userDTO);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.benchmarks;
+
+import com.example.showtime.exception.GlobalExceptionHandler;
+import com.example.showtime.exception.InsufficientSeatsException;
+import com.example.showtime.exception.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Exception construction, handler mapping and serialization of the error body,
+// which is what sold-out and unknown-id requests pay instead of the normal response path.
+// Errors are thrown stackDepth frames down, roughly where a service method sits below Tomcat and
+// Spring MVC. The *Stackful variants reproduce the previous exceptions (plain RuntimeException
+// subclasses that capture their stack) for a before/after comparison.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ErrorPathBenchmark {
+
+    @Param({"1", "80"})
+    public int stackDepth;
+
+    private GlobalExceptionHandler handler;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setup() {
+        handler = new GlobalExceptionHandler();
+        objectMapper = Fixtures.objectMapper();
+    }
+
+    @Benchmark
+    public byte[] soldOut() throws Exception {
+        ResponseEntity<?> response;
+        try {
+            throwAt(stackDepth, () -> InsufficientSeatsException.available(0));
+            return null;
+        } catch (InsufficientSeatsException ex) {
+            response = handler.handleDomainException(ex);
+        }
+        return objectMapper.writeValueAsBytes(response.getBody());
+    }
+
+    @Benchmark
+    public byte[] soldOutStackful() throws Exception {
+        ResponseEntity<?> response;
+        try {
+            throwAt(stackDepth, () -> new StackfulException("Not enough seats available. Available: " + 0));
+            return null;
+        } catch (StackfulException ex) {
+            response = handler.handleGlobalException(ex);
+        }
+        return objectMapper.writeValueAsBytes(response.getBody());
+    }
+
+    @Benchmark
+    public byte[] notFound() throws Exception {
+        ResponseEntity<?> response;
+        try {
+            throwAt(stackDepth, () -> new ResourceNotFoundException("Showtime not found with id: " + "6561f0c2a4b5c6d7e8f9a010"));
+            return null;
+        } catch (ResourceNotFoundException ex) {
+            response = handler.handleDomainException(ex);
+        }
+        return objectMapper.writeValueAsBytes(response.getBody());
+    }
+
+    @Benchmark
+    public byte[] notFoundStackful() throws Exception {
+        ResponseEntity<?> response;
+        try {
+            throwAt(stackDepth, () -> new StackfulException("Showtime not found with id: " + "6561f0c2a4b5c6d7e8f9a010"));
+            return null;
+        } catch (StackfulException ex) {
+            response = handler.handleGlobalException(ex);
+        }
+        return objectMapper.writeValueAsBytes(response.getBody());
+    }
+
+    private static void throwAt(int depth, Supplier<RuntimeException> error) {
+        if (depth <= 1) {
+            throw error.get();
+        }
+        throwAt(depth - 1, error);
+    }
+
+    // Shape of the exceptions before they became DomainException
+    private static class StackfulException extends RuntimeException {
+        StackfulException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.benchmarks;
+
+import com.example.booking.dto.BookingDTO;
+import com.example.booking.model.Booking;
+import com.example.movie.dto.MovieDTO;
+import com.example.movie.model.Movie;
+import com.example.showtime.dto.ShowtimeDTO;
+import com.example.showtime.model.Showtime;
+import com.example.user.dto.UserDTO;
+import com.example.user.model.User;
+import com.example.user.model.UserType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+// Representative payloads shared by the benchmarks, sized like production documents
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    // Same defaults Spring Boot applies to the ObjectMapper used by the controllers
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    // The mapper behind WireFormatConfig's Smile converter: same defaults, binary factory
+    static ObjectMapper smileMapper() {
+        return Jackson2ObjectMapperBuilder.smile()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    static Movie movie() {
+        Movie movie = new Movie(
+                "6561f0c2a4b5c6d7e8f90123",
+                "6561f0c2a4b5c6d7e8f90001",
+                "The Long Premiere",
+                "Jane Director",
+                "A sweeping drama about a cinema chain that outgrew its single database node. "
+                        + "Told across seven days of sold-out screenings and one very busy booking service.",
+                "Drama",
+                "English",
+                "PG-13",
+                148,
+                LocalDate.of(2025, 11, 21),
+                List.of("Actor One", "Actor Two", "Actor Three", "Actor Four", "Actor Five", "Actor Six"),
+                "https://images.example.com/posters/the-long-premiere.jpg",
+                "https://videos.example.com/trailers/the-long-premiere.mp4"
+        );
+        for (int i = 0; i < 8; i++) {
+            movie.addShowtime(new com.example.movie.model.Showtime(
+                    "6561f0c2a4b5c6d7e8f9a0" + (10 + i),
+                    "Screen " + (1 + i % 4),
+                    LocalDate.now().plusDays(i % 7),
+                    LocalTime.of(10 + i, 30),
+                    12.5,
+                    180,
+                    180 - i * 10
+            ));
+        }
+        return movie;
+    }
+
+    static MovieDTO movieDTO() {
+        Movie movie = movie();
+        return new MovieDTO(
+                movie.getId(),
+                movie.getCinemaId(),
+                movie.getTitle(),
+                movie.getDirector(),
+                movie.getGenre(),
+                movie.getLanguage(),
+                movie.getRating(),
+                movie.getDuration(),
+                movie.getDescription(),
+                movie.getReleaseDate(),
+                movie.getCast(),
+                movie.getPosterUrl(),
+                movie.getTrailerUrl(),
+                movie.getShowtimes()
+        );
+    }
+
+    static Showtime showtime() {
+        return new Showtime(
+                "6561f0c2a4b5c6d7e8f9a010",
+                "6561f0c2a4b5c6d7e8f90123",
+                "6561f0c2a4b5c6d7e8f90001",
+                "Screen 1",
+                LocalDate.now().plusDays(2),
+                LocalTime.of(19, 30),
+                12.5,
+                180,
+                42
+        );
+    }
+
+    static ShowtimeDTO showtimeDTO() {
+        Showtime showtime = showtime();
+        return new ShowtimeDTO(
+                showtime.getId(),
+                showtime.getMovieId(),
+                showtime.getCinemaId(),
+                showtime.getScreenNumber(),
+                showtime.getShowDate(),
+                showtime.getStartTime(),
+                showtime.getPrice(),
+                showtime.getTotalSeats(),
+                showtime.getAvailableSeats()
+        );
+    }
+
+    static Booking booking() {
+        return new Booking(
+                "6561f0c2a4b5c6d7e8f9b001",
+                "6561f0c2a4b5c6d7e8f9c001",
+                "6561f0c2a4b5c6d7e8f90001",
+                "6561f0c2a4b5c6d7e8f90123",
+                "6561f0c2a4b5c6d7e8f9a010",
+                2,
+                LocalDateTime.of(2025, 11, 20, 18, 5, 12)
+        );
+    }
+
+    static BookingDTO bookingDTO() {
+        Booking booking = booking();
+        return new BookingDTO(
+                booking.getId(),
+                booking.getUserId(),
+                booking.getCinemaId(),
+                booking.getMovieId(),
+                booking.getShowtimeId(),
+                booking.getSeatsBooked(),
+                booking.getBookingTime()
+        );
+    }
+
+    static User user() {
+        return new User(
+                "6561f0c2a4b5c6d7e8f9c001",
+                "Sam Customer",
+                "sam.customer@example.com",
+                "+1-555-0100",
+                UserType.CUSTOMER,
+                null
+        );
+    }
+
+    static UserDTO userDTO() {
+        User user = user();
+        return new UserDTO(user.getId(), user.getName(), user.getEmail(), user.getPhone(), user.getUserType(), user.getCinemaId());
+    }
+
+    // The services keep convertToDTO/convertToEntity private; benchmark the real methods rather than a copy
+    static MethodHandle privateMethod(Object target, String name, Class<?> parameterType) {
+        try {
+            Method method = target.getClass().getDeclaredMethod(name, parameterType);
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(target.getClass(), MethodHandles.lookup());
+            return lookup.unreflect(method).bindTo(target);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot access " + target.getClass().getSimpleName() + "." + name, e);
+        }
+    }
+}
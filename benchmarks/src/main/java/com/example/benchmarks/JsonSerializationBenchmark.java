@@ -0,0 +1,120 @@
+package com.example.benchmarks;
+
+import com.example.booking.dto.BookingDTO;
+import com.example.movie.dto.MovieDTO;
+import com.example.showtime.dto.ShowtimeDTO;
+import com.example.user.dto.UserDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    private static final TypeReference<List<MovieDTO>> MOVIE_LIST = new TypeReference<>() {
+    };
+
+    // Size of the list returned by GET /api/movies
+    @Param({"50"})
+    public int movieListSize;
+
+    private ObjectMapper objectMapper;
+
+    private MovieDTO movieDTO;
+    private List<MovieDTO> movieList;
+    private ShowtimeDTO showtimeDTO;
+    private BookingDTO bookingDTO;
+    private UserDTO userDTO;
+
+    private byte[] movieJson;
+    private byte[] movieListJson;
+    private byte[] showtimeJson;
+    private byte[] bookingJson;
+    private byte[] userJson;
+
+    @Setup
+    public void setup() throws Exception {
+        objectMapper = Fixtures.objectMapper();
+
+        movieDTO = Fixtures.movieDTO();
+        movieList = new ArrayList<>();
+        for (int i = 0; i < movieListSize; i++) {
+            movieList.add(Fixtures.movieDTO());
+        }
+        showtimeDTO = Fixtures.showtimeDTO();
+        bookingDTO = Fixtures.bookingDTO();
+        userDTO = Fixtures.userDTO();
+
+        movieJson = objectMapper.writeValueAsBytes(movieDTO);
+        movieListJson = objectMapper.writeValueAsBytes(movieList);
+        showtimeJson = objectMapper.writeValueAsBytes(showtimeDTO);
+        bookingJson = objectMapper.writeValueAsBytes(bookingDTO);
+        userJson = objectMapper.writeValueAsBytes(userDTO);
+    }
+
+    @Benchmark
+    public byte[] writeMovie() throws Exception {
+        return objectMapper.writeValueAsBytes(movieDTO);
+    }
+
+    @Benchmark
+    public MovieDTO readMovie() throws Exception {
+        return objectMapper.readValue(movieJson, MovieDTO.class);
+    }
+
+    @Benchmark
+    public byte[] writeMovieList() throws Exception {
+        return objectMapper.writeValueAsBytes(movieList);
+    }
+
+    @Benchmark
+    public List<MovieDTO> readMovieList() throws Exception {
+        return objectMapper.readValue(movieListJson, MOVIE_LIST);
+    }
+
+    // Exercises the @JsonFormat yyyy-MM-dd / HH:mm patterns
+    @Benchmark
+    public byte[] writeShowtime() throws Exception {
+        return objectMapper.writeValueAsBytes(showtimeDTO);
+    }
+
+    @Benchmark
+    public ShowtimeDTO readShowtime() throws Exception {
+        return objectMapper.readValue(showtimeJson, ShowtimeDTO.class);
+    }
+
+    // What ShowtimeClient decodes on every booking
+    @Benchmark
+    public com.example.booking.dto.ShowtimeDTO readShowtimeInBookingClient() throws Exception {
+        return objectMapper.readValue(showtimeJson, com.example.booking.dto.ShowtimeDTO.class);
+    }
+
+    @Benchmark
+    public byte[] writeBooking() throws Exception {
+        return objectMapper.writeValueAsBytes(bookingDTO);
+    }
+
+    @Benchmark
+    public BookingDTO readBooking() throws Exception {
+        return objectMapper.readValue(bookingJson, BookingDTO.class);
+    }
+
+    @Benchmark
+    public byte[] writeUser() throws Exception {
+        return objectMapper.writeValueAsBytes(userDTO);
+    }
+
+    @Benchmark
+    public UserDTO readUser() throws Exception {
+        return objectMapper.readValue(userJson, UserDTO.class);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.benchmarks;
+
+import com.example.showtime.ShowtimeServiceApplication;
+import com.example.showtime.dto.ShowtimeDTO;
+import com.example.showtime.exception.InsufficientSeatsException;
+import com.example.showtime.model.SeatStripe;
+import com.example.showtime.service.ShowtimeService;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Every thread books the same premiere through ShowtimeService.reduceSeats, with and without hot
+// showtime mode. Each iteration starts a fresh showtime that sells out part-way through, and the
+// iteration fails unless seats confirmed + seats left == seats on sale and no stripe went negative,
+// so the sold-out boundary is exercised under full contention. Runs showtime-service in-process
+// (no web server, no Eureka) against a real mongod: -Dbenchmark.mongo-host / -Dbenchmark.mongo-port.
+// createShowtime looks up the movie's duration in admin-service; a stub server answers for it, and
+// every premiere gets its own screen so the overlap check does not reject it.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class SeatContentionBenchmark {
+
+    private static final String DATABASE = "seat_contention_benchmark";
+
+    @Param({"false", "true"})
+    public boolean hotShowtimes;
+
+    @Param({"20000"})
+    public int seats;
+
+    private HttpServer adminService;
+    private ConfigurableApplicationContext context;
+    private ShowtimeService showtimeService;
+    private MongoTemplate mongoTemplate;
+    private String showtimeId;
+    private int premieres;
+    private final LongAdder confirmedSeats = new LongAdder();
+    private final LongAdder soldOut = new LongAdder();
+
+    @Setup(Level.Trial)
+    public void startService() throws IOException {
+        adminService = startAdminServiceStub();
+        context = new SpringApplicationBuilder(ShowtimeServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.application.name=showtime-service",
+                        "--spring.data.mongodb.host=" + System.getProperty("benchmark.mongo-host", "127.0.0.1"),
+                        "--spring.data.mongodb.port=" + System.getProperty("benchmark.mongo-port", "27017"),
+                        "--spring.data.mongodb.database=" + DATABASE,
+                        "--eureka.client.enabled=false",
+                        "--spring.cloud.discovery.client.simple.instances.admin-service[0].uri=http://127.0.0.1:"
+                                + adminService.getAddress().getPort(),
+                        "--now-showing.publish.enabled=false",
+                        "--management.tracing.enabled=false",
+                        "--mongodb.pool.max-size=100",
+                        "--hot-showtime.enabled=" + hotShowtimes,
+                        "--hot-showtime.reconcile-interval-ms=200",
+                        "--seat-feed.change-stream.enabled=false");
+        showtimeService = context.getBean(ShowtimeService.class);
+        mongoTemplate = context.getBean(MongoTemplate.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void newPremiere() {
+        ShowtimeDTO premiere = Fixtures.showtimeDTO();
+        premiere.setId(null);
+        premiere.setScreenNumber("Premiere " + ++premieres);
+        premiere.setShowDate(LocalDate.now().plusDays(1));
+        premiere.setTotalSeats(seats);
+        premiere.setAvailableSeats(seats);
+        showtimeId = showtimeService.createShowtime(premiere).getId();
+        confirmedSeats.reset();
+        soldOut.reset();
+    }
+
+    @Benchmark
+    public boolean book() {
+        int count = 1 + ThreadLocalRandom.current().nextInt(4);
+        try {
+            showtimeService.reduceSeats(showtimeId, count);
+            confirmedSeats.add(count);
+            return true;
+        } catch (InsufficientSeatsException e) {
+            soldOut.increment();
+            return false;
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void audit() {
+        int left = showtimeService.getShowtimeById(showtimeId, "primary").getAvailableSeats();
+        long negativeStripes = mongoTemplate.count(
+                new Query(Criteria.where("showtimeId").is(showtimeId).and("available").lt(0)), SeatStripe.class);
+        System.out.printf("%n  confirmed=%d left=%d soldOutRejections=%d%n", confirmedSeats.sum(), left, soldOut.sum());
+        if (left < 0 || negativeStripes > 0 || confirmedSeats.sum() + left != seats) {
+            throw new IllegalStateException("Oversold: " + seats + " seats, " + confirmedSeats.sum()
+                    + " confirmed, " + left + " left, " + negativeStripes + " negative stripes");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopService() {
+        mongoTemplate.getDb().drop();
+        context.close();
+        adminService.stop(0);
+    }
+
+    // GET /api/movies/{id} of admin-service: the fixture movie, in the fixture showtime's cinema
+    private static HttpServer startAdminServiceStub() throws IOException {
+        String cinemaId = Fixtures.showtime().getCinemaId();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/movies/", exchange -> {
+            String movieId = exchange.getRequestURI().getPath().substring("/api/movies/".length());
+            byte[] body = ("{\"id\":\"" + movieId + "\",\"cinemaId\":\"" + cinemaId + "\",\"title\":\"Premiere\",\"duration\":150}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        return server;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.benchmarks;
+
+import com.example.booking.config.InMemorySpanExporter;
+import com.example.booking.config.TailBiasedSpanProcessor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Per-request cost of tracing a booking: a server span with a Feign call and two Mongo commands under
+// it, recorded with head sampling at 1.0 and passed through TailBiasedSpanProcessor into the batch
+// processor and InMemorySpanExporter, as booking-service is configured. "off" uses the no-op tracer,
+// so the difference to it is the overhead of recording and tail sampling. drop-all keeps no fast
+// trace, baseline-10 keeps the default 10%, keep-all exports every trace.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class TracingOverheadBenchmark {
+
+    @Param({"off", "drop-all", "baseline-10", "keep-all"})
+    public String mode;
+
+    private SdkTracerProvider tracerProvider;
+    private Tracer tracer;
+
+    @Setup
+    public void setup() {
+        if (mode.equals("off")) {
+            tracer = OpenTelemetry.noop().getTracer("benchmark");
+            return;
+        }
+        double baselineRatio = switch (mode) {
+            case "drop-all" -> 0.0;
+            case "baseline-10" -> 0.1;
+            default -> 1.0;
+        };
+        BatchSpanProcessor batch = BatchSpanProcessor.builder(new InMemorySpanExporter(10_000)).build();
+        tracerProvider = SdkTracerProvider.builder()
+                .setSampler(Sampler.alwaysOn())
+                .addSpanProcessor(new TailBiasedSpanProcessor(batch, Duration.ofMillis(500), baselineRatio,
+                        Duration.ofSeconds(30), 50_000, new SimpleMeterRegistry()))
+                .build();
+        tracer = tracerProvider.get("benchmark");
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (tracerProvider != null) {
+            tracerProvider.shutdown().join(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Benchmark
+    public void bookingRequest(Blackhole blackhole) {
+        Span request = tracer.spanBuilder("http post /api/bookings").setSpanKind(SpanKind.SERVER).startSpan();
+        try (Scope ignored = request.makeCurrent()) {
+            child("http get /api/showtimes/{id}", blackhole);
+            child("showtimes.findAndModify", blackhole);
+            child("bookings.insert", blackhole);
+            request.setAttribute("outcome", "SUCCESS");
+        } finally {
+            request.end();
+        }
+    }
+
+    private void child(String name, Blackhole blackhole) {
+        Span span = tracer.spanBuilder(name).setSpanKind(SpanKind.CLIENT).startSpan();
+        blackhole.consume(span.getSpanContext().getSpanId());
+        span.end();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.benchmarks;
+
+import com.example.booking.dto.BookingDTO;
+import com.example.movie.dto.MovieDTO;
+import com.example.showtime.dto.ShowtimeDTO;
+import com.example.user.dto.UserDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Cost of the @Valid check Spring MVC runs on every request body
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+
+    private MovieDTO movieDTO;
+    private ShowtimeDTO showtimeDTO;
+    private ShowtimeDTO invalidShowtimeDTO;
+    private BookingDTO bookingDTO;
+    private UserDTO userDTO;
+
+    @Setup
+    public void setup() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+
+        movieDTO = Fixtures.movieDTO();
+        showtimeDTO = Fixtures.showtimeDTO();
+        invalidShowtimeDTO = Fixtures.showtimeDTO();
+        invalidShowtimeDTO.setMovieId("");
+        invalidShowtimeDTO.setPrice(-1.0);
+        invalidShowtimeDTO.setAvailableSeats(0);
+        bookingDTO = Fixtures.bookingDTO();
+        userDTO = Fixtures.userDTO();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<MovieDTO>> validMovie() {
+        return validator.validate(movieDTO);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ShowtimeDTO>> validShowtime() {
+        return validator.validate(showtimeDTO);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ShowtimeDTO>> invalidShowtime() {
+        return validator.validate(invalidShowtimeDTO);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<BookingDTO>> validBooking() {
+        return validator.validate(bookingDTO);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserDTO>> validUser() {
+        return validator.validate(userDTO);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.benchmarks;
+
+import com.example.showtime.dto.ShowtimeDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// What a ShowtimeClient call costs on each side in JSON vs Smile: showtime-service encodes its
+// ShowtimeDTO, booking-service (single showtime) or movie-service (a cinema's showtimes) decodes
+// it into its own DTO copy. Payload sizes are printed once per trial.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+
+    private static final TypeReference<List<com.example.movie.dto.ShowtimeDTO>> MOVIE_SHOWTIME_LIST = new TypeReference<>() {
+    };
+
+    @Param({"json", "smile"})
+    public String format;
+
+    // Showtimes returned by GET /api/showtimes/cinema/{cinemaId}
+    @Param({"50"})
+    public int cinemaShowtimes;
+
+    private ObjectMapper mapper;
+    private ShowtimeDTO showtime;
+    private List<ShowtimeDTO> showtimes;
+    private byte[] showtimeBytes;
+    private byte[] showtimesBytes;
+
+    @Setup
+    public void setup() throws Exception {
+        mapper = "smile".equals(format) ? Fixtures.smileMapper() : Fixtures.objectMapper();
+        showtime = Fixtures.showtimeDTO();
+        showtimes = new ArrayList<>();
+        for (int i = 0; i < cinemaShowtimes; i++) {
+            showtimes.add(Fixtures.showtimeDTO());
+        }
+        showtimeBytes = mapper.writeValueAsBytes(showtime);
+        showtimesBytes = mapper.writeValueAsBytes(showtimes);
+        System.out.printf("%n%s: showtime %d bytes, %d showtimes %d bytes%n",
+                format, showtimeBytes.length, cinemaShowtimes, showtimesBytes.length);
+    }
+
+    @Benchmark
+    public byte[] encodeShowtime() throws Exception {
+        return mapper.writeValueAsBytes(showtime);
+    }
+
+    @Benchmark
+    public com.example.booking.dto.ShowtimeDTO decodeShowtime() throws Exception {
+        return mapper.readValue(showtimeBytes, com.example.booking.dto.ShowtimeDTO.class);
+    }
+
+    @Benchmark
+    public byte[] encodeCinemaShowtimes() throws Exception {
+        return mapper.writeValueAsBytes(showtimes);
+    }
+
+    @Benchmark
+    public List<com.example.movie.dto.ShowtimeDTO> decodeCinemaShowtimes() throws Exception {
+        return mapper.readValue(showtimesBytes, MOVIE_SHOWTIME_LIST);
+    }
+}
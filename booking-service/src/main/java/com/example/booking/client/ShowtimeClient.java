@@ -1,5 +1,6 @@
 package com.example.booking.client;
 
+import com.example.booking.config.ReadPreferenceRouting;
 import com.example.booking.dto.ShowtimeDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,9 +11,14 @@ import org.springframework.web.bind.annotation.RequestParam;
 @FeignClient(name = "showtime-service", path = "/api/showtimes")
 public interface ShowtimeClient {
     
-    @GetMapping("/{id}")
+    // Seat check before reduceSeats: always answered by the primary, never a lagging secondary
+    @GetMapping(value = "/{id}", headers = ReadPreferenceRouting.READ_PREFERENCE_HEADER + "=primary")
     ShowtimeDTO getShowtimeById(@PathVariable String id);
     
     @PutMapping("/{id}/reduce")
     void reduceSeats(@PathVariable String id, @RequestParam int count);
+
+    // Gives back seats of a booking that could not be saved
+    @PutMapping("/{id}/release")
+    void releaseSeats(@PathVariable String id, @RequestParam int count);
 }
@@ -0,0 +1,31 @@
+package com.example.booking.client;
+
+import com.example.booking.exception.InsufficientSeatsException;
+import com.example.booking.exception.ResourceNotFoundException;
+import feign.Response;
+import feign.codec.ErrorDecoder;
+
+// Maps showtime-service's expected answers on the booking path to booking-service's own stackless
+// domain errors, so a seat race lost during a sell-out is a cheap 400 here too instead of a
+// FeignException (full stack trace) ending up as a 500. Anything else keeps Feign's default handling.
+public class ShowtimeErrorDecoder implements ErrorDecoder {
+
+    private static final ResourceNotFoundException SHOWTIME_NOT_FOUND =
+            new ResourceNotFoundException("Showtime not found");
+    private static final InsufficientSeatsException SEATS_TAKEN =
+            new InsufficientSeatsException("Not enough seats available");
+
+    private final ErrorDecoder defaultDecoder = new ErrorDecoder.Default();
+
+    @Override
+    public Exception decode(String methodKey, Response response) {
+        if (response.status() == 404) {
+            return SHOWTIME_NOT_FOUND;
+        }
+        // reduceSeats answers 400 only when the seats were taken after our availability check
+        if (response.status() == 400 && methodKey.contains("reduceSeats")) {
+            return SEATS_TAKEN;
+        }
+        return defaultDecoder.decode(methodKey, response);
+    }
+}
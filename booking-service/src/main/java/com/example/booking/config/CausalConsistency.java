@@ -0,0 +1,178 @@
+package com.example.booking.config;
+
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoClient;
+import jakarta.annotation.PostConstruct;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Optional;
+
+// Read-your-own-writes across requests. Creating a booking returns the session's operation and
+// cluster time as a token; a later read presenting it runs in a causally consistent session advanced
+// to that point, so even a secondary only answers once it has replicated the booking.
+//
+// The token comes back in a client header, so it is signed: a token this service did not issue, or
+// one that does not hold a well-formed cluster time, is never handed to the driver and the read runs
+// without it.
+@Component
+public class CausalConsistency {
+
+    private static final Logger log = LoggerFactory.getLogger(CausalConsistency.class);
+
+    public static final String TOKEN_HEADER = "X-Causal-Token";
+
+    private static final String HMAC = "HmacSHA256";
+
+    // Keeps the BSON types (keyId is an Int64) through the round trip
+    private static final JsonWriterSettings EXTENDED_JSON = JsonWriterSettings.builder().outputMode(JsonMode.EXTENDED).build();
+
+    // A real token is well under this; longer ones are not parsed
+    private static final int MAX_TOKEN_LENGTH = 1024;
+
+    private static final ClientSessionOptions CAUSAL = ClientSessionOptions.builder()
+            .causallyConsistent(true)
+            .build();
+
+    @Autowired
+    private MongoClient mongoClient;
+
+    @Autowired
+    private ReadPreferenceRouting readPreferenceRouting;
+
+    @Value("${mongodb.causal-consistency.enabled:true}")
+    private boolean enabled;
+
+    @Value("${mongodb.causal-consistency.read-preference:secondaryPreferred}")
+    private String readMode;
+
+    // Shared by all booking-service instances; empty = a random key per instance, so a token is only
+    // honoured by the instance that issued it and other instances read without it
+    @Value("${mongodb.causal-consistency.token-secret:}")
+    private String tokenSecret;
+
+    private SecretKeySpec signingKey;
+
+    @PostConstruct
+    public void init() {
+        byte[] key;
+        if (tokenSecret.isBlank()) {
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+        } else {
+            key = tokenSecret.getBytes(StandardCharsets.UTF_8);
+        }
+        signingKey = new SecretKeySpec(key, HMAC);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public ClientSession startSession() {
+        return mongoClient.startSession(CAUSAL);
+    }
+
+    // Empty when disabled or the token is missing, unsigned or malformed; the caller then reads without it
+    public Optional<ClientSession> startSession(String token) {
+        if (!enabled || token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        Optional<CausalToken> causalToken = parse(token);
+        if (causalToken.isEmpty()) {
+            log.debug("Ignoring invalid {}", TOKEN_HEADER);
+            return Optional.empty();
+        }
+        ClientSession session = startSession();
+        session.advanceClusterTime(causalToken.get().clusterTime);
+        session.advanceOperationTime(causalToken.get().operationTime);
+        return Optional.of(session);
+    }
+
+    // Null on a standalone mongod, which reports no cluster time; there is nothing to wait for there
+    public String tokenOf(ClientSession session) {
+        BsonTimestamp operationTime = session.getOperationTime();
+        BsonDocument clusterTime = session.getClusterTime();
+        if (!enabled || operationTime == null || clusterTime == null) {
+            return null;
+        }
+        String encodedClusterTime = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(clusterTime.toJson(EXTENDED_JSON).getBytes(StandardCharsets.UTF_8));
+        String payload = operationTime.getTime() + "." + operationTime.getInc() + "." + encodedClusterTime;
+        return payload + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(sign(payload));
+    }
+
+    // "<time>.<inc>.<cluster time>.<signature>"; the cluster time must carry a timestamp and the
+    // server's signature the way the driver expects them, and must not be behind the operation time
+    Optional<CausalToken> parse(String token) {
+        if (token.length() > MAX_TOKEN_LENGTH) {
+            return Optional.empty();
+        }
+        int signatureStart = token.lastIndexOf('.');
+        if (signatureStart < 0) {
+            return Optional.empty();
+        }
+        String payload = token.substring(0, signatureStart);
+        String[] parts = payload.split("\\.", -1);
+        if (parts.length != 3) {
+            return Optional.empty();
+        }
+        try {
+            byte[] signature = Base64.getUrlDecoder().decode(token.substring(signatureStart + 1));
+            if (!MessageDigest.isEqual(signature, sign(payload))) {
+                return Optional.empty();
+            }
+            BsonTimestamp operationTime = new BsonTimestamp(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+            BsonDocument clusterTime = BsonDocument.parse(new String(Base64.getUrlDecoder().decode(parts[2]), StandardCharsets.UTF_8));
+            if (!clusterTime.isTimestamp("clusterTime") || !clusterTime.isDocument("signature")
+                    || !clusterTime.getDocument("signature").isBinary("hash")
+                    || !clusterTime.getDocument("signature").isInt64("keyId")
+                    || clusterTime.getTimestamp("clusterTime").compareTo(operationTime) < 0) {
+                return Optional.empty();
+            }
+            return Optional.of(new CausalToken(operationTime, clusterTime));
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    public ReadPreference readPreference() {
+        return readPreferenceRouting.toReadPreference(readMode);
+    }
+
+    private byte[] sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(signingKey);
+            return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HMAC + " is not available", e);
+        }
+    }
+
+    static class CausalToken {
+        final BsonTimestamp operationTime;
+        final BsonDocument clusterTime;
+
+        CausalToken(BsonTimestamp operationTime, BsonDocument clusterTime) {
+            this.operationTime = operationTime;
+            this.clusterTime = clusterTime;
+        }
+    }
+}
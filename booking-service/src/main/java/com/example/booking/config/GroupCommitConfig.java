@@ -0,0 +1,39 @@
+package com.example.booking.config;
+
+import com.example.booking.repository.BookingBatchWriter;
+import com.mongodb.WriteConcern;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+@Configuration
+@ConditionalOnProperty(name = "booking.group-commit.enabled", havingValue = "true")
+public class GroupCommitConfig {
+
+    @Value("${booking.group-commit.max-batch-size:100}")
+    private int maxBatchSize;
+
+    @Value("${booking.group-commit.max-delay-ms:5}")
+    private long maxDelayMs;
+
+    @Value("${booking.group-commit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    // Empty keeps the client's default write concern, i.e. the same durability as a per-request save
+    @Value("${booking.group-commit.write-concern:}")
+    private String writeConcern;
+
+    @Bean(destroyMethod = "close")
+    public BookingBatchWriter bookingBatchWriter(MongoTemplate mongoTemplate, CausalConsistency causalConsistency,
+                                                 MeterRegistry meterRegistry) {
+        WriteConcern concern = writeConcern.isBlank() ? null : WriteConcern.valueOf(writeConcern);
+        if (!writeConcern.isBlank() && concern == null) {
+            throw new IllegalArgumentException("Unknown booking.group-commit.write-concern: " + writeConcern);
+        }
+        return new BookingBatchWriter(mongoTemplate, causalConsistency, concern,
+                maxBatchSize, maxDelayMs, queueCapacity, meterRegistry);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.booking.config;
+
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolCreatedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Times every connection checkout (mongodb.pool.checkout, tagged by server and outcome) so pool
+// exhaustion shows up as rising checkout latency and TIMEOUT outcomes before requests start failing.
+// Pool size, connections in use and wait-queue depth come from Spring Boot's mongodb.driver.pool.* gauges.
+public class MongoPoolMetricsListener implements ConnectionPoolListener {
+
+    private static final String SUCCESS = "SUCCESS";
+
+    private final MeterRegistry meterRegistry;
+
+    // Built once per server pool, by outcome, so a checkout only looks its timer up
+    private final Map<ServerId, Map<String, Timer>> timers = new ConcurrentHashMap<>();
+
+    // The sync driver raises checkout events on the calling thread
+    private final ThreadLocal<Long> checkoutStart = new ThreadLocal<>();
+
+    public MongoPoolMetricsListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void connectionPoolCreated(ConnectionPoolCreatedEvent event) {
+        timersFor(event.getServerId());
+    }
+
+    @Override
+    public void connectionCheckOutStarted(ConnectionCheckOutStartedEvent event) {
+        checkoutStart.set(System.nanoTime());
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        record(event.getConnectionId().getServerId(), SUCCESS);
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        record(event.getServerId(), event.getReason().name());
+    }
+
+    private void record(ServerId serverId, String outcome) {
+        Long start = checkoutStart.get();
+        if (start == null) {
+            return;
+        }
+        checkoutStart.remove();
+        timersFor(serverId).get(outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private Map<String, Timer> timersFor(ServerId serverId) {
+        return timers.computeIfAbsent(serverId, id -> {
+            Map<String, Timer> byOutcome = new HashMap<>();
+            byOutcome.put(SUCCESS, timer(id, SUCCESS));
+            for (ConnectionCheckOutFailedEvent.Reason reason : ConnectionCheckOutFailedEvent.Reason.values()) {
+                byOutcome.put(reason.name(), timer(id, reason.name()));
+            }
+            return byOutcome;
+        });
+    }
+
+    private Timer timer(ServerId serverId, String outcome) {
+        return Timer.builder("mongodb.pool.checkout")
+                .description("Time spent waiting for a pooled Mongo connection")
+                .tag("server", serverId.getAddress().toString())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
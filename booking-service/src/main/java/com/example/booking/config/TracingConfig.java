@@ -0,0 +1,73 @@
+package com.example.booking.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.tracing.SpanProcessors;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.observability.ContextProviderFactory;
+import org.springframework.data.mongodb.observability.MongoObservationCommandListener;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+public class TracingConfig {
+
+    @Value("${spring.application.name}")
+    private String serviceName;
+
+    @Value("${tracing.memory.capacity:10000}")
+    private int memoryCapacity;
+
+    @Value("${tracing.file.path:logs/spans.ndjson}")
+    private String filePath;
+
+    @Value("${tracing.sampling.slow-threshold-ms:500}")
+    private long slowThresholdMs;
+
+    @Value("${tracing.sampling.baseline-ratio:0.1}")
+    private double baselineRatio;
+
+    @Value("${tracing.sampling.max-trace-age-ms:30000}")
+    private long maxTraceAgeMs;
+
+    @Value("${tracing.sampling.max-buffered-spans:50000}")
+    private int maxBufferedSpans;
+
+    @Bean
+    @ConditionalOnProperty(name = "tracing.exporter", havingValue = "memory", matchIfMissing = true)
+    public InMemorySpanExporter inMemorySpanExporter() {
+        return new InMemorySpanExporter(memoryCapacity);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "tracing.exporter", havingValue = "file")
+    public FileSpanExporter fileSpanExporter(MeterRegistry meterRegistry) throws IOException {
+        return new FileSpanExporter(serviceName, Path.of(filePath), meterRegistry);
+    }
+
+    // Tail sampling in front of every span processor (the batch processor feeding the exporters), so
+    // the exporters receive whole traces and stay beans of their own type
+    @Bean
+    public SpanProcessors spanProcessors(ObjectProvider<SpanProcessor> spanProcessors, MeterRegistry meterRegistry) {
+        SpanProcessor downstream = SpanProcessor.composite(spanProcessors.orderedStream().toList());
+        return SpanProcessors.of(List.of(new TailBiasedSpanProcessor(downstream, Duration.ofMillis(slowThresholdMs),
+                baselineRatio, Duration.ofMillis(maxTraceAgeMs), maxBufferedSpans, meterRegistry)));
+    }
+
+    // Creates a child span per Mongo command under whatever request span is current
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoTracingCustomizer(ObservationRegistry observationRegistry) {
+        return builder -> builder
+                .contextProvider(ContextProviderFactory.create(observationRegistry))
+                .addCommandListener(new MongoObservationCommandListener(observationRegistry));
+    }
+}
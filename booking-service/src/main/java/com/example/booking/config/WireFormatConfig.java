@@ -0,0 +1,20 @@
+package com.example.booking.config;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+// Smile support for Feign responses: ShowtimeClient asks showtime-service for application/x-jackson-smile
+// (spring.cloud.openfeign.client.config.showtime-service.default-request-headers) and SpringDecoder
+// picks this converter for the binary body. Registered after the JSON converter, so JSON stays the
+// default for everything else.
+@Configuration
+public class WireFormatConfig {
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
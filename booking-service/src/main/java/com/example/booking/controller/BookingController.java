@@ -1,14 +1,33 @@
 package com.example.booking.controller;
 
+import com.example.booking.config.CausalConsistency;
 import com.example.booking.dto.BookingDTO;
+import com.example.booking.dto.FieldSelection;
+import com.example.booking.dto.SalesReportDTO;
+import com.example.booking.exception.ForbiddenException;
+import com.example.booking.exception.InvalidAnalyticsRequestException;
+import com.example.booking.exception.InvalidDateException;
+import com.example.booking.exception.InvalidExportRequestException;
+import com.example.booking.exception.UnauthorizedException;
+import com.example.booking.service.BookingAnalyticsService;
+import com.example.booking.service.BookingExportService;
 import com.example.booking.service.BookingService;
+import com.example.booking.service.BookingStatsBackfill;
+import com.example.booking.service.OperatorAccess;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/api/bookings")
@@ -17,21 +36,144 @@ public class BookingController {
     @Autowired
     private BookingService bookingService;
 
+    @Autowired
+    private BookingExportService bookingExportService;
+
+    @Autowired
+    private BookingAnalyticsService bookingAnalyticsService;
+
+    @Autowired
+    private BookingStatsBackfill bookingStatsBackfill;
+
+    @Autowired
+    private OperatorAccess operatorAccess;
+
+    // Set by the gateway from the caller's X-User-Id
+    private static final String USER_TYPE_HEADER = "X-User-Type";
+    private static final String CINEMA_ID_HEADER = "X-Cinema-Id";
+
     @PostMapping
     public ResponseEntity<BookingDTO> createBooking(@Valid @RequestBody BookingDTO bookingDTO) {
-        BookingDTO createdBooking = bookingService.createBooking(bookingDTO);
-        return new ResponseEntity<>(createdBooking, HttpStatus.CREATED);
+        HttpHeaders headers = new HttpHeaders();
+        BookingDTO createdBooking = bookingService.createBooking(bookingDTO,
+                token -> headers.set(CausalConsistency.TOKEN_HEADER, token));
+        return new ResponseEntity<>(createdBooking, headers, HttpStatus.CREATED);
     }
 
+    // Full bookings unless ?view=card|summary or ?fields=a,b,c narrows them
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<BookingDTO>> getBookingsByUserId(@PathVariable String userId) {
-        List<BookingDTO> bookings = bookingService.getBookingsByUserId(userId);
+    public ResponseEntity<List<?>> getBookingsByUserId(
+            @PathVariable String userId,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = CausalConsistency.TOKEN_HEADER, required = false) String causalToken) {
+        FieldSelection selection = FieldSelection.of(view, fields, BookingService.VIEWS, BookingService.FIELDS);
+        List<?> bookings = bookingService.getBookingsByUserId(userId, causalToken, selection);
         return ResponseEntity.ok(bookings);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<BookingDTO> getBookingById(@PathVariable String id) {
-        BookingDTO booking = bookingService.getBookingById(id);
+    public ResponseEntity<BookingDTO> getBookingById(
+            @PathVariable String id,
+            @RequestHeader(value = CausalConsistency.TOKEN_HEADER, required = false) String causalToken) {
+        BookingDTO booking = bookingService.getBookingById(id, causalToken);
         return ResponseEntity.ok(booking);
     }
+
+    // Every booking matching the filters, streamed as CSV or NDJSON; from/to are inclusive booking dates.
+    // Cinema admins only get their own cinema, operators any; customers and anonymous callers get nothing.
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBookings(
+            @RequestParam(required = false) String cinemaId,
+            @RequestParam(required = false) String movieId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestHeader(value = USER_TYPE_HEADER, required = false) String userType,
+            @RequestHeader(value = CINEMA_ID_HEADER, required = false) String callerCinemaId,
+            @RequestHeader(value = OperatorAccess.OPERATOR_TOKEN_HEADER, required = false) String operatorToken) {
+        cinemaId = cinemaScope(cinemaId, userType, callerCinemaId, operatorToken);
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new InvalidDateException("'to' must not be before 'from'");
+        }
+        BookingExportService.Format exportFormat;
+        try {
+            exportFormat = BookingExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidExportRequestException("Unsupported format '" + format + "', use csv or ndjson");
+        }
+
+        bookingExportService.acquire();
+        String exportCinemaId = cinemaId;
+        StreamingResponseBody body = out -> bookingExportService.export(exportCinemaId, movieId, from, to,
+                exportFormat, gzip, out);
+
+        String fileName = "bookings" + (exportFormat == BookingExportService.Format.CSV ? ".csv" : ".ndjson")
+                + (gzip ? ".gz" : "");
+        MediaType contentType = gzip ? MediaType.parseMediaType("application/gzip")
+                : exportFormat == BookingExportService.Format.CSV ? MediaType.parseMediaType("text/csv;charset=UTF-8")
+                : MediaType.APPLICATION_NDJSON;
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+
+    // Bookings, seats and revenue of one cinema between two booking dates (inclusive), same access rules as the export
+    @GetMapping("/analytics/sales")
+    public ResponseEntity<SalesReportDTO> getSales(
+            @RequestParam(required = false) String cinemaId,
+            @RequestParam(required = false) String movieId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String groupBy,
+            @RequestHeader(value = USER_TYPE_HEADER, required = false) String userType,
+            @RequestHeader(value = CINEMA_ID_HEADER, required = false) String callerCinemaId,
+            @RequestHeader(value = OperatorAccess.OPERATOR_TOKEN_HEADER, required = false) String operatorToken) {
+        cinemaId = cinemaScope(cinemaId, userType, callerCinemaId, operatorToken);
+        if (cinemaId == null) {
+            throw new InvalidAnalyticsRequestException("cinemaId is required");
+        }
+        return ResponseEntity.ok(bookingAnalyticsService.sales(cinemaId, movieId, from, to,
+                BookingAnalyticsService.GroupBy.of(groupBy)));
+    }
+
+    // Recounts the sales statistics of closed days from the bookings, e.g. after restoring a backup.
+    // Runs in the background; without from/to the whole history is rebuilt. Operators only.
+    @PostMapping("/analytics/rollups/rebuild")
+    public ResponseEntity<Void> rebuildSalesRollups(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestHeader(value = OperatorAccess.OPERATOR_TOKEN_HEADER, required = false) String operatorToken) {
+        if (!operatorAccess.isOperator(operatorToken)) {
+            throw new ForbiddenException("Statistics rebuilds are for operators");
+        }
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new InvalidDateException("'to' must not be before 'from'");
+        }
+        bookingStatsBackfill.rebuildAsync(from, to);
+        return ResponseEntity.accepted().build();
+    }
+
+    // The cinema a request may read: an operator any, a cinema admin only (and by default) their own,
+    // a customer none. Without an identity the gateway could resolve there is no access at all.
+    private String cinemaScope(String cinemaId, String userType, String callerCinemaId, String operatorToken) {
+        if (operatorAccess.isOperator(operatorToken)) {
+            return cinemaId;
+        }
+        if (userType == null) {
+            throw new UnauthorizedException("Bookings of a cinema need a cinema admin's X-User-Id or an operator token");
+        }
+        if (!"CINEMA_ADMIN".equals(userType)) {
+            throw new ForbiddenException("Only cinema admins and operators can read bookings of a cinema");
+        }
+        if (cinemaId == null) {
+            return callerCinemaId;
+        }
+        if (!cinemaId.equals(callerCinemaId)) {
+            throw new ForbiddenException("Cinema admins can only read their own cinema");
+        }
+        return cinemaId;
+    }
 }
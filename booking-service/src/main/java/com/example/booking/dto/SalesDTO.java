@@ -0,0 +1,51 @@
+package com.example.booking.dto;
+
+// One row of a sales report: the bookings of one movie, booking day or booking hour
+public class SalesDTO {
+    private String key;
+    private long bookings;
+    private long seatsBooked;
+    private double revenue;
+
+    public SalesDTO() {
+    }
+
+    public SalesDTO(String key, long bookings, long seatsBooked, double revenue) {
+        this.key = key;
+        this.bookings = bookings;
+        this.seatsBooked = seatsBooked;
+        this.revenue = revenue;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public long getBookings() {
+        return bookings;
+    }
+
+    public void setBookings(long bookings) {
+        this.bookings = bookings;
+    }
+
+    public long getSeatsBooked() {
+        return seatsBooked;
+    }
+
+    public void setSeatsBooked(long seatsBooked) {
+        this.seatsBooked = seatsBooked;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(double revenue) {
+        this.revenue = revenue;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.booking.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Bookings made at one cinema between two dates (inclusive), grouped by groupBy
+public class SalesReportDTO {
+    private String cinemaId;
+    private String movieId;
+    private LocalDate from;
+    private LocalDate to;
+    private String groupBy;
+    private SalesDTO totals;
+    private List<SalesDTO> rows;
+
+    public SalesReportDTO() {
+    }
+
+    public SalesReportDTO(String cinemaId, String movieId, LocalDate from, LocalDate to, String groupBy, SalesDTO totals,
+                          List<SalesDTO> rows) {
+        this.cinemaId = cinemaId;
+        this.movieId = movieId;
+        this.from = from;
+        this.to = to;
+        this.groupBy = groupBy;
+        this.totals = totals;
+        this.rows = rows;
+    }
+
+    public String getCinemaId() {
+        return cinemaId;
+    }
+
+    public void setCinemaId(String cinemaId) {
+        this.cinemaId = cinemaId;
+    }
+
+    public String getMovieId() {
+        return movieId;
+    }
+
+    public void setMovieId(String movieId) {
+        this.movieId = movieId;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public String getGroupBy() {
+        return groupBy;
+    }
+
+    public void setGroupBy(String groupBy) {
+        this.groupBy = groupBy;
+    }
+
+    public SalesDTO getTotals() {
+        return totals;
+    }
+
+    public void setTotals(SalesDTO totals) {
+        this.totals = totals;
+    }
+
+    public List<SalesDTO> getRows() {
+        return rows;
+    }
+
+    public void setRows(List<SalesDTO> rows) {
+        this.rows = rows;
+    }
+}
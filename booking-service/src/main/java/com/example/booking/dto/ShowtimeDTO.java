@@ -18,6 +18,8 @@ public class ShowtimeDTO {
     
     private Integer availableSeats;
 
+    private Double price;
+
     public ShowtimeDTO() {
     }
 
@@ -77,4 +79,12 @@ public class ShowtimeDTO {
     public void setAvailableSeats(Integer availableSeats) {
         this.availableSeats = availableSeats;
     }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public void setPrice(Double price) {
+        this.price = price;
+    }
 }
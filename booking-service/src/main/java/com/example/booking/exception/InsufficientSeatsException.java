@@ -0,0 +1,29 @@
+package com.example.booking.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class InsufficientSeatsException extends DomainException {
+
+    // Sell-outs reject most requests with only a handful of seats left: those are preallocated
+    private static final InsufficientSeatsException[] FEW_SEATS_LEFT = new InsufficientSeatsException[16];
+
+    static {
+        for (int available = 0; available < FEW_SEATS_LEFT.length; available++) {
+            FEW_SEATS_LEFT[available] = new InsufficientSeatsException(available);
+        }
+    }
+
+    public InsufficientSeatsException(String message) {
+        super(HttpStatus.BAD_REQUEST, message);
+    }
+
+    private InsufficientSeatsException(int available) {
+        this("Not enough seats available. Available: " + available);
+    }
+
+    public static InsufficientSeatsException available(int available) {
+        return available >= 0 && available < FEW_SEATS_LEFT.length
+                ? FEW_SEATS_LEFT[available]
+                : new InsufficientSeatsException(available);
+    }
+}
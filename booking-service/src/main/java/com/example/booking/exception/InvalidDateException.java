@@ -1,7 +1,9 @@
 package com.example.booking.exception;
 
-public class InvalidDateException extends RuntimeException {
+import org.springframework.http.HttpStatus;
+
+public class InvalidDateException extends DomainException {
     public InvalidDateException(String message) {
-        super(message);
+        super(HttpStatus.BAD_REQUEST, message);
     }
 }
@@ -0,0 +1,9 @@
+package com.example.booking.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class InvalidExportRequestException extends DomainException {
+    public InvalidExportRequestException(String message) {
+        super(HttpStatus.BAD_REQUEST, message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.booking.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ServiceUnavailableException extends DomainException {
+    public ServiceUnavailableException(String message) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, message);
+    }
+}
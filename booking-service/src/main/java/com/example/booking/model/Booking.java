@@ -1,20 +1,32 @@
 package com.example.booking.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Sharded;
+import org.springframework.data.mongodb.core.mapping.ShardingStrategy;
 
 import java.time.LocalDateTime;
 
+// Shard key { userId: "hashed" }: "my bookings" and lookups by id (ids embed the user, see BookingIds)
+// go to one shard, and hashing spreads the insert stream evenly instead of appending to one
+// chunk. The { cinemaId, bookingTime } index serves the export: one cinema's bookings for a date range, in order
 @Document(collection = "bookings")
+@CompoundIndex(name = "cinema_booking_time", def = "{'cinemaId': 1, 'bookingTime': 1}")
+@Sharded(shardKey = {"userId"}, shardingStrategy = ShardingStrategy.HASH, immutableKey = true)
 public class Booking {
     @Id
     private String id;
+    @Indexed
     private String userId;
     private String cinemaId;
     private String movieId;
     private String showtimeId;
     private Integer seatsBooked;
     private LocalDateTime bookingTime;
+    // Ticket price of the showtime when booked, for revenue figures
+    private Double price;
 
     public Booking() {
     }
@@ -84,4 +96,12 @@ public class Booking {
     public void setBookingTime(LocalDateTime bookingTime) {
         this.bookingTime = bookingTime;
     }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public void setPrice(Double price) {
+        this.price = price;
+    }
 }
@@ -0,0 +1,33 @@
+package com.example.booking.model;
+
+import org.bson.types.ObjectId;
+
+import java.util.Optional;
+
+// Booking ids carry the user they belong to ("<userId>_<ObjectId>"), so a lookup by id alone
+// can include the shard key and be routed to a single shard. Ids created before this scheme are
+// plain ObjectIds and fall back to an untargeted lookup.
+public final class BookingIds {
+
+    private static final char SEPARATOR = '_';
+    private static final int OBJECT_ID_LENGTH = 24;
+
+    private BookingIds() {
+    }
+
+    public static String generate(String userId) {
+        return userId + SEPARATOR + new ObjectId().toHexString();
+    }
+
+    public static Optional<String> userIdOf(String bookingId) {
+        if (bookingId == null) {
+            return Optional.empty();
+        }
+        int separator = bookingId.length() - OBJECT_ID_LENGTH - 1;
+        if (separator <= 0 || bookingId.charAt(separator) != SEPARATOR
+                || !ObjectId.isValid(bookingId.substring(separator + 1))) {
+            return Optional.empty();
+        }
+        return Optional.of(bookingId.substring(0, separator));
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.booking.repository;
+
+import com.example.booking.config.CausalConsistency;
+import com.example.booking.model.Booking;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.WriteConcern;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Group commit for booking inserts: concurrent callers enqueue their booking and a single writer
+// thread sends them as one unordered insertMany once max-batch-size documents are queued or
+// max-delay has passed since the first one. Each caller's future completes only after its batch is
+// acknowledged with the configured write concern, so a confirmed booking is exactly as durable as
+// with a per-request insert; the saving is the round trips. Callers that change other state before
+// the insert (the seat reduction) reserve a queue slot first, so a full queue never rejects a
+// booking whose seats are already gone. A future that fails with RejectedExecutionException means
+// the booking was not written (queue full, writer closed, withdrawn, or a write error on that
+// document); any other failure leaves it unknown whether it was.
+public class BookingBatchWriter implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingBatchWriter.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final CausalConsistency causalConsistency;
+    private final MongoCollection<Document> collection;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final BlockingQueue<PendingInsert> queue;
+    // One permit per free queue slot, taken by reserve() and returned when the writer dequeues
+    private final Semaphore slots;
+    private final Thread writer;
+    private final DistributionSummary batchSizes;
+    private final Timer batchLatency;
+    private volatile boolean running = true;
+    // The batch being written, for close() to fail if the writer does not finish in time
+    private volatile List<PendingInsert> inFlight = List.of();
+
+    // causalConsistency may be null; futures then complete with a null token
+    public BookingBatchWriter(MongoTemplate mongoTemplate, CausalConsistency causalConsistency, WriteConcern writeConcern,
+                              int maxBatchSize, long maxDelayMs, int queueCapacity, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.causalConsistency = causalConsistency;
+        MongoCollection<Document> bookings = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Booking.class));
+        this.collection = writeConcern != null ? bookings.withWriteConcern(writeConcern) : bookings;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.slots = new Semaphore(queueCapacity);
+        this.batchSizes = DistributionSummary.builder("booking.group-commit.batch.size")
+                .description("Bookings per insertMany")
+                .register(meterRegistry);
+        this.batchLatency = Timer.builder("booking.group-commit.batch.latency")
+                .description("insertMany round trip per batch")
+                .register(meterRegistry);
+        this.writer = new Thread(this::run, "booking-group-commit");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // Completes with the batch's causal token (null when causal consistency is off or unsupported)
+    // once the booking is acknowledged, or exceptionally if its insert failed
+    public CompletableFuture<String> insert(Booking booking) {
+        if (!reserve()) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Booking write queue is full"));
+        }
+        return insertReserved(booking);
+    }
+
+    // Takes a queue slot for a later insertReserved; false when the queue is full or closing.
+    // A reservation that is not used must be given back with cancel().
+    public boolean reserve() {
+        return running && slots.tryAcquire();
+    }
+
+    public void cancel() {
+        slots.release();
+    }
+
+    // Uses the slot taken by reserve(): never rejected for a full queue. If the booking cannot be
+    // converted the slot is given back before the exception propagates.
+    public CompletableFuture<String> insertReserved(Booking booking) {
+        PendingInsert pending;
+        try {
+            Document document = new Document();
+            mongoTemplate.getConverter().write(booking, document);
+            pending = new PendingInsert(document);
+        } catch (RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+        queue.add(pending);
+        // Closed meanwhile: the writer may already have drained the queue for the last time
+        if (!running && queue.remove(pending)) {
+            slots.release();
+            pending.completeExceptionally(new RejectedExecutionException("Booking writer is closed"));
+        }
+        return pending;
+    }
+
+    // Takes an insert back if the writer has not picked it up yet; it then fails with
+    // RejectedExecutionException and is never written. false when it is already being written.
+    public boolean withdraw(CompletableFuture<String> insert) {
+        if (insert instanceof PendingInsert pending && queue.remove(pending)) {
+            slots.release();
+            pending.completeExceptionally(new RejectedExecutionException("Booking insert withdrawn"));
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        failQueued("Booking writer is closed");
+        // Still being written after the grace period: the outcome is unknown, but nobody waits forever
+        inFlight.forEach(pending -> pending.completeExceptionally(
+                new IllegalStateException("Booking writer closed while the insert was in flight")));
+    }
+
+    private void failQueued(String reason) {
+        for (PendingInsert pending; (pending = queue.poll()) != null; ) {
+            slots.release();
+            pending.completeExceptionally(new RejectedExecutionException(reason));
+        }
+    }
+
+    private void run() {
+        try {
+            writeBatches();
+        } finally {
+            // Also when the thread dies: stop taking reservations and fail whatever is queued
+            running = false;
+            failQueued("Booking writer stopped");
+            inFlight.forEach(pending -> pending.completeExceptionally(new IllegalStateException("Booking writer stopped")));
+        }
+    }
+
+    private void writeBatches() {
+        List<PendingInsert> batch = new ArrayList<>(maxBatchSize);
+        inFlight = batch;
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingInsert first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                slots.release();
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingInsert next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    slots.release();
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (RuntimeException e) {
+                log.error("Booking group commit failed", e);
+                batch.forEach(pending -> pending.completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingInsert> batch) {
+        List<Document> documents = new ArrayList<>(batch.size());
+        batch.forEach(pending -> documents.add(pending.document));
+        InsertManyOptions unordered = new InsertManyOptions().ordered(false);
+        batchSizes.record(batch.size());
+
+        long start = System.nanoTime();
+        String causalToken = null;
+        try {
+            if (causalConsistency != null && causalConsistency.isEnabled()) {
+                try (ClientSession session = causalConsistency.startSession()) {
+                    collection.insertMany(session, documents, unordered);
+                    causalToken = causalConsistency.tokenOf(session);
+                }
+            } else {
+                collection.insertMany(documents, unordered);
+            }
+        } catch (MongoBulkWriteException e) {
+            // Unordered: everything except the reported indexes was written
+            boolean[] failed = new boolean[batch.size()];
+            for (BulkWriteError error : e.getWriteErrors()) {
+                failed[error.getIndex()] = true;
+                batch.get(error.getIndex()).completeExceptionally(
+                        new RejectedExecutionException("Booking insert failed: " + error.getMessage()));
+            }
+            if (e.getWriteConcernError() != null) {
+                // Written but not acknowledged as durable: fail the rest rather than confirm them
+                batch.forEach(pending -> pending.completeExceptionally(e));
+                return;
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                if (!failed[i]) {
+                    batch.get(i).complete(null);
+                }
+            }
+            return;
+        } finally {
+            batchLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        String token = causalToken;
+        batch.forEach(pending -> pending.complete(token));
+    }
+
+    // The caller's future itself, so withdraw() can find it in the queue
+    private static class PendingInsert extends CompletableFuture<String> {
+        final Document document;
+
+        PendingInsert(Document document) {
+            this.document = document;
+        }
+    }
+}
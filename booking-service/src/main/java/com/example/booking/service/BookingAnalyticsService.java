@@ -0,0 +1,167 @@
+package com.example.booking.service;
+
+import com.example.booking.config.ReadPreferenceRouting;
+import com.example.booking.dto.SalesDTO;
+import com.example.booking.dto.SalesReportDTO;
+import com.example.booking.exception.InvalidAnalyticsRequestException;
+import com.example.booking.exception.InvalidDateException;
+import com.example.booking.model.Booking;
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+// Bookings, seats and revenue (price * seats) of one cinema per movie, booking day or booking hour.
+// Reports read the summary documents kept by BookingStatsRollup: one per cinema, movie and day (or
+// hour) in the range, however many bookings they stand for. With booking.stats.enabled=false they are
+// computed from the bookings instead; the $match on cinemaId and a bookingTime range is then served
+// by the { cinemaId, bookingTime } index.
+@Service
+public class BookingAnalyticsService {
+
+    public enum GroupBy {
+        MOVIE,
+        DAY,
+        HOUR;
+
+        public static GroupBy of(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidAnalyticsRequestException("Unsupported groupBy '" + value + "', use movie, day or hour");
+            }
+        }
+    }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ReadPreferenceRouting readPreferenceRouting;
+
+    @Autowired
+    private BookingStatsRollup bookingStatsRollup;
+
+    @Value("${analytics.max-days:366}")
+    private int maxDays;
+
+    private String timezone;
+
+    @PostConstruct
+    public void start() {
+        // Spring Data stores LocalDateTime as a date in the JVM's zone; days and hours are read back in it
+        ZoneId zone = ZoneId.systemDefault();
+        timezone = zone.equals(ZoneOffset.UTC) ? "+00:00" : zone.getId();
+    }
+
+    public SalesReportDTO sales(String cinemaId, String movieId, LocalDate from, LocalDate to, GroupBy groupBy) {
+        if (to.isBefore(from)) {
+            throw new InvalidDateException("'to' must not be before 'from'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxDays) {
+            throw new InvalidAnalyticsRequestException("Reports cover at most " + maxDays + " days");
+        }
+
+        List<Bson> pipeline = bookingStatsRollup.isEnabled()
+                ? fromRollups(cinemaId, movieId, from, to, groupBy)
+                : fromBookings(cinemaId, movieId, from, to, groupBy);
+        String collection = !bookingStatsRollup.isEnabled() ? mongoTemplate.getCollectionName(Booking.class)
+                : groupBy == GroupBy.HOUR ? BookingStatsRollup.HOURLY_COLLECTION : BookingStatsRollup.DAILY_COLLECTION;
+
+        List<SalesDTO> rows = new ArrayList<>();
+        long bookings = 0;
+        long seatsBooked = 0;
+        double total = 0;
+        for (Document row : mongoTemplate.getCollection(collection)
+                .withReadPreference(readPreferenceRouting.forEndpoint("sales-analytics"))
+                .aggregate(pipeline)) {
+            Object key = row.get("_id");
+            SalesDTO sales = new SalesDTO(
+                    groupBy == GroupBy.HOUR && key instanceof Number ? String.format("%02d:00", ((Number) key).intValue())
+                            : String.valueOf(key),
+                    number(row, "bookings").longValue(),
+                    number(row, "seatsBooked").longValue(),
+                    number(row, "revenue").doubleValue());
+            rows.add(sales);
+            bookings += sales.getBookings();
+            seatsBooked += sales.getSeatsBooked();
+            total += sales.getRevenue();
+        }
+        return new SalesReportDTO(cinemaId, movieId, from, to, groupBy.name().toLowerCase(Locale.ROOT),
+                new SalesDTO("total", bookings, seatsBooked, total), rows);
+    }
+
+    // Bucket ids start with "<cinemaId>|<ISO day>", so the range is one _id index scan
+    private List<Bson> fromRollups(String cinemaId, String movieId, LocalDate from, LocalDate to, GroupBy groupBy) {
+        List<Bson> filters = new ArrayList<>();
+        filters.add(Filters.gte("_id", cinemaId + "|" + from));
+        filters.add(Filters.lt("_id", cinemaId + "|" + to.plusDays(1)));
+        if (StringUtils.hasText(movieId)) {
+            filters.add(Filters.eq("movieId", movieId));
+        }
+        String key = groupBy == GroupBy.MOVIE ? "$movieId" : groupBy == GroupBy.HOUR ? "$hour" : "$day";
+        return List.of(
+                Aggregates.match(Filters.and(filters)),
+                Aggregates.group(key,
+                        Accumulators.sum("bookings", "$bookings"),
+                        Accumulators.sum("seatsBooked", "$seatsBooked"),
+                        Accumulators.sum("revenue", "$revenue")),
+                Aggregates.sort(Sorts.ascending("_id")));
+    }
+
+    private List<Bson> fromBookings(String cinemaId, String movieId, LocalDate from, LocalDate to, GroupBy groupBy) {
+        List<Bson> filters = new ArrayList<>();
+        filters.add(Filters.eq("cinemaId", cinemaId));
+        filters.add(Filters.gte("bookingTime", mongoTemplate.getConverter().convertToMongoType(from.atStartOfDay())));
+        filters.add(Filters.lt("bookingTime", mongoTemplate.getConverter().convertToMongoType(to.plusDays(1).atStartOfDay())));
+        if (StringUtils.hasText(movieId)) {
+            filters.add(Filters.eq("movieId", movieId));
+        }
+        Document revenue = new Document("$multiply", Arrays.asList(
+                new Document("$ifNull", Arrays.asList("$price", 0)),
+                new Document("$ifNull", Arrays.asList("$seatsBooked", 0))));
+
+        return List.of(
+                Aggregates.match(Filters.and(filters)),
+                Aggregates.group(groupKey(groupBy),
+                        Accumulators.sum("bookings", 1),
+                        Accumulators.sum("seatsBooked", "$seatsBooked"),
+                        Accumulators.sum("revenue", revenue)),
+                Aggregates.sort(Sorts.ascending("_id")));
+    }
+
+    private Object groupKey(GroupBy groupBy) {
+        switch (groupBy) {
+            case DAY:
+                return new Document("$dateToString", new Document("date", "$bookingTime")
+                        .append("format", "%Y-%m-%d")
+                        .append("timezone", timezone));
+            case HOUR:
+                return new Document("$hour", new Document("date", "$bookingTime").append("timezone", timezone));
+            default:
+                return "$movieId";
+        }
+    }
+
+    private static Number number(Document row, String field) {
+        Object value = row.get(field);
+        return value instanceof Number ? (Number) value : 0;
+    }
+}
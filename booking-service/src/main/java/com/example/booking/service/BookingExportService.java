@@ -0,0 +1,221 @@
+package com.example.booking.service;
+
+import com.example.booking.config.ReadPreferenceRouting;
+import com.example.booking.exception.TooManyRequestsException;
+import com.example.booking.model.Booking;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+// Writes bookings as CSV or NDJSON straight from a MongoDB cursor. Rows are read one batch at a time
+// and written through a fixed-size buffer. The response stream blocks while the client is slow, so
+// the cursor is not advanced either. Heap use therefore stays flat at any row count. Rows are read
+// as raw documents and written field by field, with no entity or DTO per row.
+@Service
+public class BookingExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingExportService.class);
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private static final String CSV_HEADER = "id,userId,cinemaId,movieId,showtimeId,seatsBooked,bookingTime\n";
+
+    private static final TooManyRequestsException BUSY =
+            new TooManyRequestsException("Too many exports running, try again later");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ReadPreferenceRouting readPreferenceRouting;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${booking.export.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${booking.export.buffer-size:65536}")
+    private int bufferSize;
+
+    @Value("${booking.export.max-concurrent:2}")
+    private int maxConcurrent;
+
+    private Semaphore running;
+    private Counter rows;
+
+    @PostConstruct
+    public void start() {
+        running = new Semaphore(maxConcurrent);
+        rows = Counter.builder("bookings.export.rows")
+                .description("Bookings written by exports")
+                .register(meterRegistry);
+    }
+
+    // Reserves an export slot before the response starts, so a rejection is still a clean 429
+    public void acquire() {
+        if (!running.tryAcquire()) {
+            throw BUSY;
+        }
+    }
+
+    // Runs on the async response thread; releases the slot taken by acquire()
+    public void export(String cinemaId, String movieId, LocalDate from, LocalDate to, Format format, boolean gzip,
+                       OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        long written = 0;
+        try (Stream<Document> bookings = mongoTemplate.stream(query(cinemaId, movieId, from, to), Document.class,
+                mongoTemplate.getCollectionName(Booking.class))) {
+            OutputStream target = gzip ? new GZIPOutputStream(out, bufferSize) : out;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), bufferSize);
+            written = format == Format.CSV ? writeCsv(bookings, writer) : writeNdjson(bookings, writer);
+            writer.flush();
+            if (gzip) {
+                ((GZIPOutputStream) target).finish();
+            }
+        } finally {
+            running.release();
+            rows.increment(written);
+            logger.info("Exported {} bookings (cinema {}, movie {}, {}..{}) as {} in {} ms", written, cinemaId, movieId,
+                    from, to, format, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    private Query query(String cinemaId, String movieId, LocalDate from, LocalDate to) {
+        Criteria criteria = new Criteria();
+        if (StringUtils.hasText(cinemaId)) {
+            criteria.and("cinemaId").is(cinemaId);
+        }
+        if (StringUtils.hasText(movieId)) {
+            criteria.and("movieId").is(movieId);
+        }
+        if (from != null || to != null) {
+            Criteria bookingTime = criteria.and("bookingTime");
+            if (from != null) {
+                bookingTime.gte(from.atStartOfDay());
+            }
+            if (to != null) {
+                bookingTime.lt(to.plusDays(1).atStartOfDay());
+            }
+        }
+        Query query = new Query(criteria)
+                .cursorBatchSize(batchSize)
+                .withReadPreference(readPreferenceRouting.forEndpoint("bookings-export"));
+        query.fields().exclude("_class");
+        // In booking order when the { cinemaId, bookingTime } index can deliver it; a sort that
+        // needs memory could not hold tens of millions of rows
+        if (StringUtils.hasText(cinemaId)) {
+            query.with(Sort.by("bookingTime"));
+        }
+        return query;
+    }
+
+    private long writeCsv(Stream<Document> bookings, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        long written = 0;
+        for (Document booking : (Iterable<Document>) bookings::iterator) {
+            csv(writer, booking.getString("_id"));
+            writer.write(',');
+            csv(writer, booking.getString("userId"));
+            writer.write(',');
+            csv(writer, booking.getString("cinemaId"));
+            writer.write(',');
+            csv(writer, booking.getString("movieId"));
+            writer.write(',');
+            csv(writer, booking.getString("showtimeId"));
+            writer.write(',');
+            Integer seats = booking.getInteger("seatsBooked");
+            if (seats != null) {
+                writer.write(Integer.toString(seats));
+            }
+            writer.write(',');
+            String bookingTime = bookingTime(booking);
+            if (bookingTime != null) {
+                writer.write(bookingTime);
+            }
+            writer.write('\n');
+            written++;
+        }
+        return written;
+    }
+
+    private long writeNdjson(Stream<Document> bookings, Writer writer) throws IOException {
+        long written = 0;
+        // Closing the generator would close the response; it is only flushed
+        JsonGenerator json = objectMapper.getFactory().createGenerator(writer)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        for (Document booking : (Iterable<Document>) bookings::iterator) {
+            json.writeStartObject();
+            json.writeStringField("id", booking.getString("_id"));
+            json.writeStringField("userId", booking.getString("userId"));
+            json.writeStringField("cinemaId", booking.getString("cinemaId"));
+            json.writeStringField("movieId", booking.getString("movieId"));
+            json.writeStringField("showtimeId", booking.getString("showtimeId"));
+            Integer seats = booking.getInteger("seatsBooked");
+            if (seats != null) {
+                json.writeNumberField("seatsBooked", seats);
+            } else {
+                json.writeNullField("seatsBooked");
+            }
+            json.writeStringField("bookingTime", bookingTime(booking));
+            json.writeEndObject();
+            json.writeRaw('\n');
+            written++;
+        }
+        json.flush();
+        return written;
+    }
+
+    // Same local date-time the JSON API returns (stored as a Date in the JVM's zone by Spring Data)
+    private String bookingTime(Document booking) {
+        Date bookingTime = booking.getDate("bookingTime");
+        return bookingTime == null ? null
+                : LocalDateTime.ofInstant(bookingTime.toInstant(), ZoneId.systemDefault()).toString();
+    }
+
+    private void csv(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -1,32 +1,93 @@
 package com.example.booking.service;
 
 import com.example.booking.client.ShowtimeClient;
+import com.example.booking.config.CausalConsistency;
+import com.example.booking.config.ReadPreferenceRouting;
 import com.example.booking.dto.BookingDTO;
+import com.example.booking.dto.FieldSelection;
 import com.example.booking.dto.ShowtimeDTO;
+import com.example.booking.exception.InsufficientSeatsException;
 import com.example.booking.exception.InvalidDateException;
 import com.example.booking.exception.ResourceNotFoundException;
+import com.example.booking.exception.ServiceUnavailableException;
+import com.example.booking.exception.TooManyRequestsException;
 import com.example.booking.model.Booking;
+import com.example.booking.model.BookingIds;
+import com.example.booking.repository.BookingBatchWriter;
 import com.example.booking.repository.BookingRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.ClientSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 public class BookingService {
 
+    private static final Logger log = LoggerFactory.getLogger(BookingService.class);
+
+    // Fields of BookingDTO that list requests can select; card is a line of the user's booking history
+    public static final List<String> FIELDS = List.of("id", "userId", "cinemaId", "movieId", "showtimeId",
+            "seatsBooked", "bookingTime");
+    public static final Map<String, List<String>> VIEWS = Map.of(
+            "card", List.of("id", "showtimeId", "seatsBooked", "bookingTime"),
+            "summary", List.of("id", "cinemaId", "movieId", "showtimeId", "seatsBooked", "bookingTime"));
+
     @Autowired
     private BookingRepository bookingRepository;
 
     @Autowired
     private ShowtimeClient showtimeClient;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ReadPreferenceRouting readPreferenceRouting;
+
+    @Autowired
+    private CausalConsistency causalConsistency;
+
+    @Autowired
+    private BookingStatsRollup bookingStatsRollup;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Only present when booking.group-commit.enabled=true
+    @Autowired(required = false)
+    private BookingBatchWriter bookingBatchWriter;
+
+    @Value("${booking.group-commit.insert-timeout-ms:5000}")
+    private long insertTimeoutMs;
+
     private static final int MAX_DAYS_AHEAD = 7;
 
-    public BookingDTO createBooking(BookingDTO bookingDTO) {
+    private static final InvalidDateException PAST_SHOW =
+            new InvalidDateException("Cannot book for past shows");
+    private static final InvalidDateException SHOW_TOO_FAR_AHEAD =
+            new InvalidDateException("Can only book shows within the next " + MAX_DAYS_AHEAD + " days");
+
+    // causalToken receives the token a client can present to read this booking back from a secondary
+    public BookingDTO createBooking(BookingDTO bookingDTO, Consumer<String> causalToken) {
         // Step 1: Verify showtime exists
         ShowtimeDTO showtime = showtimeClient.getShowtimeById(bookingDTO.getShowtimeId());
         
@@ -39,42 +100,142 @@ public class BookingService {
         
         // Step 3: Verify enough seats available
         if (showtime.getAvailableSeats() < bookingDTO.getSeatsBooked()) {
-            throw new InvalidDateException("Not enough seats available. Available: " + showtime.getAvailableSeats());
+            throw InsufficientSeatsException.available(showtime.getAvailableSeats());
+        }
+        
+        Booking booking = convertToEntity(bookingDTO);
+        booking.setId(BookingIds.generate(booking.getUserId()));
+        booking.setBookingTime(LocalDateTime.now());
+        booking.setPrice(showtime.getPrice());
+
+        // Group commit: take a write queue slot before the seats, so a full queue turns the booking
+        // away while its seats are still untouched
+        if (bookingBatchWriter != null && !bookingBatchWriter.reserve()) {
+            throw new TooManyRequestsException("Booking write queue is full, try again shortly");
         }
         
         // Step 4: Reduce seats via Feign client
-        showtimeClient.reduceSeats(bookingDTO.getShowtimeId(), bookingDTO.getSeatsBooked());
+        try {
+            showtimeClient.reduceSeats(bookingDTO.getShowtimeId(), bookingDTO.getSeatsBooked());
+        } catch (RuntimeException e) {
+            if (bookingBatchWriter != null) {
+                bookingBatchWriter.cancel();
+            }
+            throw e;
+        }
         
         // Step 5: Save booking
-        Booking booking = convertToEntity(bookingDTO);
-        booking.setBookingTime(LocalDateTime.now());
-        Booking savedBooking = bookingRepository.save(booking);
+        Booking savedBooking;
+        try {
+            savedBooking = saveBooking(booking, causalToken);
+        } catch (RejectedExecutionException e) {
+            // Group commit says it was not written: the seats go back
+            releaseSeats(bookingDTO.getShowtimeId(), bookingDTO.getSeatsBooked());
+            throw new ServiceUnavailableException("Booking could not be saved, try again shortly");
+        }
+        bookingStatsRollup.bookingCreated(savedBooking);
         
         return convertToDTO(savedBooking);
     }
 
-    public List<BookingDTO> getBookingsByUserId(String userId) {
-        return bookingRepository.findByUserId(userId).stream()
-                .map(this::convertToDTO)
+    public List<?> getBookingsByUserId(String userId, String causalToken, FieldSelection selection) {
+        Query query = selection.applyTo(new Query(Criteria.where("userId").is(userId)));
+        List<Booking> bookings = findBookings(query, "bookings-by-user", causalToken);
+        if (selection.isAll()) {
+            return bookings.stream().map(this::convertToDTO).collect(Collectors.toList());
+        }
+        return bookings.stream()
+                .map(booking -> selection.project(convertToDTO(booking), objectMapper))
                 .collect(Collectors.toList());
     }
 
-    public BookingDTO getBookingById(String id) {
-        Booking booking = bookingRepository.findById(id)
+    public BookingDTO getBookingById(String id, String causalToken) {
+        Criteria byId = BookingIds.userIdOf(id)
+                .map(userId -> Criteria.where("userId").is(userId).and("_id").is(id))
+                .orElseGet(() -> Criteria.where("_id").is(id));
+        Booking booking = findBookings(new Query(byId), "booking-by-id", causalToken).stream()
+                .findFirst()
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found with id: " + id));
         return convertToDTO(booking);
     }
 
+    // With a causal token the read may go to a secondary but waits until it has caught up with the
+    // client's own writes; without one the endpoint's configured read preference applies
+    private List<Booking> findBookings(Query query, String endpoint, String causalToken) {
+        Optional<ClientSession> causalSession = causalConsistency.startSession(causalToken);
+        if (causalSession.isEmpty()) {
+            query.withReadPreference(readPreferenceRouting.forEndpoint(endpoint));
+            return mongoTemplate.find(query, Booking.class);
+        }
+        try (ClientSession session = causalSession.get()) {
+            query.withReadPreference(causalConsistency.readPreference());
+            return mongoTemplate.withSession(session).find(query, Booking.class);
+        }
+    }
+
+    private Booking saveBooking(Booking booking, Consumer<String> causalToken) {
+        if (bookingBatchWriter != null) {
+            // Group commit: returns once the batch holding this booking is acknowledged
+            String token = awaitInsert(bookingBatchWriter.insertReserved(booking));
+            if (token != null) {
+                causalToken.accept(token);
+            }
+            return booking;
+        }
+        if (causalConsistency.isEnabled()) {
+            try (ClientSession session = causalConsistency.startSession()) {
+                Booking savedBooking = mongoTemplate.withSession(session).insert(booking);
+                String token = causalConsistency.tokenOf(session);
+                if (token != null) {
+                    causalToken.accept(token);
+                }
+                return savedBooking;
+            }
+        }
+        return bookingRepository.save(booking);
+    }
+
+    // Bounded, so a stuck writer cannot hold the request (and the seats) forever. An insert still
+    // queued is withdrawn, which means it is never written; one already being written gets one more
+    // timeout before its outcome is reported as unknown.
+    private String awaitInsert(CompletableFuture<String> insert) {
+        try {
+            try {
+                return insert.get(insertTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (bookingBatchWriter.withdraw(insert)) {
+                    throw new RejectedExecutionException("Booking insert timed out in the write queue");
+                }
+                return insert.get(insertTimeoutMs, TimeUnit.MILLISECONDS);
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ServiceUnavailableException("Booking is taking too long to save; check your bookings before retrying");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Booking save was interrupted; check your bookings before retrying");
+        }
+    }
+
+    private void releaseSeats(String showtimeId, int count) {
+        try {
+            showtimeClient.releaseSeats(showtimeId, count);
+        } catch (RuntimeException e) {
+            log.error("Could not give back {} seats of showtime {} after a failed booking", count, showtimeId, e);
+        }
+    }
+
     private void validateShowDate(LocalDate showDate) {
         LocalDate today = LocalDate.now();
         LocalDate maxDate = today.plusDays(MAX_DAYS_AHEAD);
         
         if (showDate.isBefore(today)) {
-            throw new InvalidDateException("Cannot book for past shows");
+            throw PAST_SHOW;
         }
         
         if (showDate.isAfter(maxDate)) {
-            throw new InvalidDateException("Can only book shows within the next " + MAX_DAYS_AHEAD + " days");
+            throw SHOW_TOO_FAR_AHEAD;
         }
     }
 
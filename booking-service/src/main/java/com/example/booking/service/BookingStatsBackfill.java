@@ -0,0 +1,385 @@
+package com.example.booking.service;
+
+import com.example.booking.exception.TooManyRequestsException;
+import com.example.booking.model.Booking;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.MergeOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.Updates;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Rebuilds the booking statistics of closed days from the bookings themselves. The work is split
+// into chunks of one cinema and chunk-days days; each chunk is an aggregation over the
+// { cinemaId, bookingTime } index whose hourly buckets replace the old ones with $merge, and the
+// chunk's daily buckets are then summed from its hourly ones. Chunks run on a small pool.
+//
+// Only days that ended at least settle-minutes ago are rebuilt. Bookings never move to another
+// day, so no live $inc can still arrive for such a day and the rebuild cannot race the rollup.
+//
+// Rebuilds must not race each other either: each one deletes the buckets of its chunks that it did
+// not write itself, which would include another rebuild's. So only the instance holding the lease
+// document in booking_stats_lease rebuilds; it renews the lease while it runs and the others skip.
+@Service
+public class BookingStatsBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingStatsBackfill.class);
+
+    private static final TooManyRequestsException ALREADY_RUNNING =
+            new TooManyRequestsException("A statistics rebuild is already running");
+
+    static final String LEASE_COLLECTION = "booking_stats_lease";
+    private static final String LEASE_ID = "backfill";
+    private static final int DUPLICATE_KEY = 11000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private BookingStatsRollup bookingStatsRollup;
+
+    @Value("${booking.stats.backfill.parallelism:4}")
+    private int parallelism;
+
+    @Value("${booking.stats.backfill.chunk-days:7}")
+    private int chunkDays;
+
+    @Value("${booking.stats.backfill.settle-minutes:10}")
+    private long settleMinutes;
+
+    @Value("${booking.stats.backfill.on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @Value("${booking.stats.repair.days:2}")
+    private int repairDays;
+
+    @Value("${booking.stats.backfill.lease-ms:300000}")
+    private long leaseMs;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicBoolean running = new AtomicBoolean();
+    private String timezone;
+
+    @PostConstruct
+    public void start() {
+        // Spring Data stores LocalDateTime as a date in the JVM's zone; days and hours are read back in it
+        ZoneId zone = ZoneId.systemDefault();
+        timezone = zone.equals(ZoneOffset.UTC) ? "+00:00" : zone.getId();
+        if (bookingStatsRollup.isEnabled() && backfillOnStartup) {
+            Thread thread = new Thread(this::backfillIfEmpty, "booking-stats-backfill");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    // Starts a rebuild of [from, to] in the background; null bounds mean all history / the last closed day
+    public void rebuildAsync(LocalDate from, LocalDate to) {
+        if (!lock()) {
+            throw ALREADY_RUNNING;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                rebuild(from, to);
+            } finally {
+                unlock();
+            }
+        }, "booking-stats-backfill");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Recounts the last few closed days, which also covers increments lost to restarts or a full queue
+    @Scheduled(cron = "${booking.stats.repair.cron:0 30 3 * * *}")
+    // Fires on every instance; the first to take the lease repairs, the others skip
+    public void repairRecentDays() {
+        if (!bookingStatsRollup.isEnabled() || !lock()) {
+            return;
+        }
+        try {
+            LocalDate lastClosedDay = lastClosedDay();
+            rebuild(lastClosedDay.minusDays(repairDays - 1L), lastClosedDay);
+        } finally {
+            unlock();
+        }
+    }
+
+    private void backfillIfEmpty() {
+        try {
+            if (!lock()) {
+                return;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Initial booking statistics backfill failed", e);
+            return;
+        }
+        try {
+            // Checked under the lease: another instance may have just filled the rollups
+            if (mongoTemplate.getCollection(BookingStatsRollup.DAILY_COLLECTION).estimatedDocumentCount() == 0) {
+                rebuild(null, null);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Initial booking statistics backfill failed", e);
+        } finally {
+            unlock();
+        }
+    }
+
+    // This instance's flag first, so only one of its threads competes for the lease
+    private boolean lock() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            if (takeLease()) {
+                return true;
+            }
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+        running.set(false);
+        return false;
+    }
+
+    private void unlock() {
+        try {
+            leases().deleteOne(Filters.and(Filters.eq("_id", LEASE_ID), Filters.eq("owner", instanceId)));
+        } catch (RuntimeException e) {
+            log.warn("Could not release the booking statistics lease; it expires in {} ms", leaseMs, e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // Takes a free or expired lease, or extends our own. When another instance holds it the filter
+    // matches nothing and the upsert collides with its document on _id.
+    private boolean takeLease() {
+        Date now = new Date();
+        try {
+            leases().findOneAndUpdate(
+                    Filters.and(Filters.eq("_id", LEASE_ID),
+                            Filters.or(Filters.eq("owner", instanceId), Filters.lt("expiresAt", now))),
+                    Updates.combine(Updates.set("owner", instanceId),
+                            Updates.set("expiresAt", new Date(now.getTime() + leaseMs))),
+                    new FindOneAndUpdateOptions().upsert(true));
+            return true;
+        } catch (MongoException e) {
+            if (e.getCode() == DUPLICATE_KEY) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    private MongoCollection<Document> leases() {
+        return mongoTemplate.getCollection(LEASE_COLLECTION);
+    }
+
+    private void rebuild(LocalDate from, LocalDate to) {
+        LocalDate lastClosedDay = lastClosedDay();
+        LocalDate end = to == null || to.isAfter(lastClosedDay) ? lastClosedDay : to;
+        MongoCollection<Document> bookings = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Booking.class));
+
+        List<Chunk> chunks = new ArrayList<>();
+        for (String cinemaId : bookings.distinct("cinemaId", String.class)) {
+            LocalDate start = from != null ? from : firstBookingDay(bookings, cinemaId);
+            for (LocalDate day = start; day != null && !day.isAfter(end); day = day.plusDays(chunkDays)) {
+                LocalDate chunkEnd = day.plusDays(chunkDays - 1L);
+                chunks.add(new Chunk(cinemaId, day, chunkEnd.isAfter(end) ? end : chunkEnd));
+            }
+        }
+        if (chunks.isEmpty()) {
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger threadNumber = new AtomicInteger();
+        AtomicBoolean leaseLost = new AtomicBoolean();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "booking-stats-backfill-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        ScheduledExecutorService renewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-stats-lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+        renewer.scheduleAtFixedRate(() -> {
+            try {
+                if (!takeLease()) {
+                    leaseLost.set(true);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not renew the booking statistics lease", e);
+            }
+        }, leaseMs / 3, leaseMs / 3, TimeUnit.MILLISECONDS);
+        try {
+            List<Future<?>> futures = new ArrayList<>(chunks.size());
+            for (Chunk chunk : chunks) {
+                futures.add(pool.submit(() -> {
+                    // Another instance owns the rebuild now; leave the remaining chunks to it
+                    if (leaseLost.get()) {
+                        failed.incrementAndGet();
+                        return;
+                    }
+                    try {
+                        rebuildChunk(chunk);
+                    } catch (RuntimeException e) {
+                        failed.incrementAndGet();
+                        log.warn("Could not rebuild booking statistics of {} {}..{}", chunk.cinemaId, chunk.from, chunk.to, e);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Booking statistics rebuild interrupted");
+            return;
+        } catch (ExecutionException e) {
+            log.warn("Booking statistics rebuild failed", e);
+            return;
+        } finally {
+            renewer.shutdownNow();
+            pool.shutdownNow();
+        }
+        if (leaseLost.get()) {
+            log.warn("Lost the booking statistics lease; {} of {} chunks were not rebuilt", failed.get(), chunks.size());
+            return;
+        }
+        log.info("Rebuilt booking statistics in {} chunks ({} failed) up to {} in {} ms", chunks.size(), failed.get(),
+                end, (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    void rebuildChunk(Chunk chunk) {
+        Date rebuiltAt = new Date();
+        Object start = mongoTemplate.getConverter().convertToMongoType(chunk.from.atStartOfDay());
+        Object end = mongoTemplate.getConverter().convertToMongoType(chunk.to.plusDays(1).atStartOfDay());
+        Document movieId = new Document("$ifNull", Arrays.asList("$movieId", ""));
+        Document revenue = new Document("$multiply", Arrays.asList(
+                new Document("$ifNull", Arrays.asList("$price", 0)),
+                new Document("$ifNull", Arrays.asList("$seatsBooked", 0))));
+
+        // Hourly buckets straight from the chunk's bookings
+        List<Bson> hourly = List.of(
+                Aggregates.match(Filters.and(Filters.eq("cinemaId", chunk.cinemaId),
+                        Filters.gte("bookingTime", start), Filters.lt("bookingTime", end))),
+                Aggregates.group(new Document("movieId", movieId)
+                                .append("slot", new Document("$dateToString", new Document("date", "$bookingTime")
+                                        .append("format", "%Y-%m-%d|%H")
+                                        .append("timezone", timezone))),
+                        Accumulators.sum("bookings", 1),
+                        Accumulators.sum("seatsBooked", "$seatsBooked"),
+                        Accumulators.sum("revenue", revenue)),
+                Aggregates.project(new Document("_id", new Document("$concat",
+                                Arrays.asList(chunk.cinemaId + "|", "$_id.slot", "|", "$_id.movieId")))
+                        .append("cinemaId", new Document("$literal", chunk.cinemaId))
+                        .append("movieId", "$_id.movieId")
+                        .append("day", new Document("$substrCP", Arrays.asList("$_id.slot", 0, 10)))
+                        .append("hour", new Document("$toInt", new Document("$substrCP", Arrays.asList("$_id.slot", 11, 2))))
+                        .append("bookings", 1)
+                        .append("seatsBooked", 1)
+                        .append("revenue", 1)
+                        .append("rebuiltAt", new Document("$literal", rebuiltAt))),
+                Aggregates.merge(BookingStatsRollup.HOURLY_COLLECTION, replace()));
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(Booking.class)).aggregate(hourly).toCollection();
+        removeStale(BookingStatsRollup.HOURLY_COLLECTION, chunk, rebuiltAt);
+
+        // Daily buckets summed from the hourly ones just written
+        List<Bson> daily = List.of(
+                Aggregates.match(idRange(chunk)),
+                Aggregates.group(new Document("day", "$day").append("movieId", "$movieId"),
+                        Accumulators.sum("bookings", "$bookings"),
+                        Accumulators.sum("seatsBooked", "$seatsBooked"),
+                        Accumulators.sum("revenue", "$revenue")),
+                Aggregates.project(new Document("_id", new Document("$concat",
+                                Arrays.asList(chunk.cinemaId + "|", "$_id.day", "|", "$_id.movieId")))
+                        .append("cinemaId", new Document("$literal", chunk.cinemaId))
+                        .append("movieId", "$_id.movieId")
+                        .append("day", "$_id.day")
+                        .append("bookings", 1)
+                        .append("seatsBooked", 1)
+                        .append("revenue", 1)
+                        .append("rebuiltAt", new Document("$literal", rebuiltAt))),
+                Aggregates.merge(BookingStatsRollup.DAILY_COLLECTION, replace()));
+        mongoTemplate.getCollection(BookingStatsRollup.HOURLY_COLLECTION).aggregate(daily).toCollection();
+        removeStale(BookingStatsRollup.DAILY_COLLECTION, chunk, rebuiltAt);
+    }
+
+    // Buckets of the chunk that no booking produced this time
+    private void removeStale(String collection, Chunk chunk, Date rebuiltAt) {
+        mongoTemplate.getCollection(collection).deleteMany(Filters.and(idRange(chunk), Filters.ne("rebuiltAt", rebuiltAt)));
+    }
+
+    private static Bson idRange(Chunk chunk) {
+        return Filters.and(
+                Filters.gte("_id", chunk.cinemaId + "|" + chunk.from),
+                Filters.lt("_id", chunk.cinemaId + "|" + chunk.to.plusDays(1)));
+    }
+
+    private LocalDate firstBookingDay(MongoCollection<Document> bookings, String cinemaId) {
+        Document first = bookings.find(Filters.eq("cinemaId", cinemaId))
+                .sort(Sorts.ascending("bookingTime"))
+                .projection(Projections.include("bookingTime"))
+                .first();
+        Date bookingTime = first != null ? first.getDate("bookingTime") : null;
+        return bookingTime == null ? null : LocalDate.ofInstant(bookingTime.toInstant(), ZoneId.systemDefault());
+    }
+
+    private LocalDate lastClosedDay() {
+        return LocalDateTime.now().minusMinutes(settleMinutes).toLocalDate().minusDays(1);
+    }
+
+    private static MergeOptions replace() {
+        return new MergeOptions()
+                .whenMatched(MergeOptions.WhenMatched.REPLACE)
+                .whenNotMatched(MergeOptions.WhenNotMatched.INSERT);
+    }
+
+    static class Chunk {
+        final String cinemaId;
+        final LocalDate from;
+        final LocalDate to;
+
+        Chunk(String cinemaId, LocalDate from, LocalDate to) {
+            this.cinemaId = cinemaId;
+            this.from = from;
+            this.to = to;
+        }
+    }
+}
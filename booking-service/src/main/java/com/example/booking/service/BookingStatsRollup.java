@@ -0,0 +1,202 @@
+package com.example.booking.service;
+
+import com.example.booking.model.Booking;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Incremental booking statistics. Every new booking is added with $inc to two summary documents:
+// its cinema, movie and hour in booking_stats_hourly and its cinema, movie and day in
+// booking_stats_daily. A single writer thread takes bookings from a queue, sums a batch per bucket
+// and sends one unordered bulk of upserts, so a busy hour costs one update per bucket per batch.
+// Reports then read one document per bucket instead of every booking.
+//
+// Counting happens after the booking is saved and is not retried: a crash or a full queue loses
+// increments, never bookings. BookingStatsBackfill rebuilds closed days from the bookings, which
+// repairs such gaps.
+@Service
+public class BookingStatsRollup {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingStatsRollup.class);
+
+    public static final String HOURLY_COLLECTION = "booking_stats_hourly";
+    public static final String DAILY_COLLECTION = "booking_stats_daily";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${booking.stats.enabled:true}")
+    private boolean enabled;
+
+    @Value("${booking.stats.max-batch-size:1000}")
+    private int maxBatchSize;
+
+    @Value("${booking.stats.queue-capacity:100000}")
+    private int queueCapacity;
+
+    private BlockingQueue<Booking> queue;
+    private Thread writer;
+    private volatile boolean running = true;
+    private Counter dropped;
+    private DistributionSummary bucketsPerBatch;
+
+    @PostConstruct
+    public void start() {
+        dropped = Counter.builder("bookings.stats.dropped")
+                .description("Bookings not counted in the rollups (queue full or write failed); repaired by the backfill")
+                .register(meterRegistry);
+        bucketsPerBatch = DistributionSummary.builder("bookings.stats.batch.buckets")
+                .description("Summary documents updated per batch")
+                .register(meterRegistry);
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        writer = new Thread(this::run, "booking-stats-rollup");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // After the booking is saved; never blocks the booking request
+    public void bookingCreated(Booking booking) {
+        if (!enabled || booking.getCinemaId() == null || booking.getBookingTime() == null) {
+            return;
+        }
+        if (!queue.offer(booking)) {
+            dropped.increment();
+        }
+    }
+
+    private void run() {
+        List<Booking> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Booking first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (RuntimeException e) {
+                // An unordered bulk may have applied part of the batch; $inc cannot be safely retried
+                log.warn("Could not update booking statistics for {} bookings", batch.size(), e);
+                dropped.increment(batch.size());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Booking> batch) {
+        Map<String, Increment> hourly = new LinkedHashMap<>();
+        Map<String, Increment> daily = new LinkedHashMap<>();
+        for (Booking booking : batch) {
+            LocalDateTime time = booking.getBookingTime();
+            String movieId = booking.getMovieId() != null ? booking.getMovieId() : "";
+            LocalDate day = time.toLocalDate();
+            hourly.computeIfAbsent(hourlyId(booking.getCinemaId(), day, time.getHour(), movieId),
+                    id -> new Increment(booking.getCinemaId(), movieId, day, time.getHour())).add(booking);
+            daily.computeIfAbsent(dailyId(booking.getCinemaId(), day, movieId),
+                    id -> new Increment(booking.getCinemaId(), movieId, day, null)).add(booking);
+        }
+        write(mongoTemplate.getCollection(HOURLY_COLLECTION), hourly);
+        write(mongoTemplate.getCollection(DAILY_COLLECTION), daily);
+        bucketsPerBatch.record(hourly.size() + daily.size());
+    }
+
+    private void write(MongoCollection<Document> collection, Map<String, Increment> increments) {
+        UpdateOptions upsert = new UpdateOptions().upsert(true);
+        List<WriteModel<Document>> updates = new ArrayList<>(increments.size());
+        increments.forEach((id, increment) -> {
+            Document bucket = new Document("cinemaId", increment.cinemaId)
+                    .append("movieId", increment.movieId)
+                    .append("day", increment.day.toString());
+            if (increment.hour != null) {
+                bucket.append("hour", increment.hour);
+            }
+            Document update = new Document("$setOnInsert", bucket)
+                    .append("$inc", new Document("bookings", increment.bookings)
+                            .append("seatsBooked", increment.seatsBooked)
+                            .append("revenue", increment.revenue));
+            updates.add(new UpdateOneModel<>(Filters.eq("_id", id), update, upsert));
+        });
+        collection.bulkWrite(updates, new BulkWriteOptions().ordered(false));
+    }
+
+    // Ids start with the cinema and the ISO day, so one cinema's date range is one _id range
+    public static String hourlyId(String cinemaId, LocalDate day, int hour, String movieId) {
+        return cinemaId + "|" + day + "|" + String.format("%02d", hour) + "|" + movieId;
+    }
+
+    public static String dailyId(String cinemaId, LocalDate day, String movieId) {
+        return cinemaId + "|" + day + "|" + movieId;
+    }
+
+    private static class Increment {
+        final String cinemaId;
+        final String movieId;
+        final LocalDate day;
+        final Integer hour;
+        long bookings;
+        long seatsBooked;
+        double revenue;
+
+        Increment(String cinemaId, String movieId, LocalDate day, Integer hour) {
+            this.cinemaId = cinemaId;
+            this.movieId = movieId;
+            this.day = day;
+            this.hour = hour;
+        }
+
+        void add(Booking booking) {
+            int seats = booking.getSeatsBooked() != null ? booking.getSeatsBooked() : 0;
+            bookings++;
+            seatsBooked += seats;
+            revenue += booking.getPrice() != null ? booking.getPrice() * seats : 0;
+        }
+    }
+}
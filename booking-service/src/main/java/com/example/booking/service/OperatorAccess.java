@@ -0,0 +1,26 @@
+package com.example.booking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+// Finance and operations tools read across cinemas by sending X-Operator-Token with the value of
+// operator.token. The gateway drops that header from client requests, so it only works for callers
+// inside the network that know the token. An empty operator.token (the default) turns it off.
+@Service
+public class OperatorAccess {
+
+    public static final String OPERATOR_TOKEN_HEADER = "X-Operator-Token";
+
+    @Value("${operator.token:}")
+    private String token;
+
+    public boolean isOperator(String presentedToken) {
+        if (token.isEmpty() || presentedToken == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8), presentedToken.getBytes(StandardCharsets.UTF_8));
+    }
+}
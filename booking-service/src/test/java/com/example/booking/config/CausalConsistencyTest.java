@@ -0,0 +1,95 @@
+package com.example.booking.config;
+
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoClient;
+import org.bson.BsonBinary;
+import org.bson.BsonDocument;
+import org.bson.BsonInt64;
+import org.bson.BsonTimestamp;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CausalConsistencyTest {
+
+    private static final BsonTimestamp OPERATION_TIME = new BsonTimestamp(1700000000, 7);
+
+    private final MongoClient mongoClient = mock(MongoClient.class);
+
+    @Test
+    void issuedTokenAdvancesTheSession() {
+        CausalConsistency causalConsistency = causalConsistency("secret");
+        ClientSession session = mock(ClientSession.class);
+        when(mongoClient.startSession(any())).thenReturn(session);
+
+        assertThat(causalConsistency.startSession(causalConsistency.tokenOf(writeSession()))).contains(session);
+
+        verify(session).advanceClusterTime(clusterTime(OPERATION_TIME));
+        verify(session).advanceOperationTime(OPERATION_TIME);
+    }
+
+    @Test
+    void tamperedTokenIsIgnored() {
+        CausalConsistency causalConsistency = causalConsistency("secret");
+        String token = causalConsistency.tokenOf(writeSession());
+        String laterOperation = (OPERATION_TIME.getTime() + 3600) + token.substring(token.indexOf('.'));
+
+        assertThat(causalConsistency.startSession(laterOperation)).isEmpty();
+        verifyNoInteractions(mongoClient);
+    }
+
+    @Test
+    void tokenSignedWithAnotherKeyIsIgnored() {
+        String token = causalConsistency("other").tokenOf(writeSession());
+
+        assertThat(causalConsistency("secret").startSession(token)).isEmpty();
+        verifyNoInteractions(mongoClient);
+    }
+
+    // Correctly signed, but without the cluster time timestamp the driver expects
+    @Test
+    void malformedClusterTimeIsIgnored() {
+        CausalConsistency causalConsistency = causalConsistency("secret");
+        String clusterTime = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"clusterTime\": 1}".getBytes(StandardCharsets.UTF_8));
+        String payload = OPERATION_TIME.getTime() + "." + OPERATION_TIME.getInc() + "." + clusterTime;
+        String signature = causalConsistency.tokenOf(writeSession());
+        String forged = payload + signature.substring(signature.lastIndexOf('.'));
+
+        assertThat(causalConsistency.parse(forged)).isEmpty();
+        assertThat(causalConsistency.startSession("not-a-token")).isEmpty();
+        assertThat(causalConsistency.startSession("1.2.%%%.x")).isEmpty();
+        verifyNoInteractions(mongoClient);
+    }
+
+    private CausalConsistency causalConsistency(String secret) {
+        CausalConsistency causalConsistency = new CausalConsistency();
+        ReflectionTestUtils.setField(causalConsistency, "mongoClient", mongoClient);
+        ReflectionTestUtils.setField(causalConsistency, "enabled", true);
+        ReflectionTestUtils.setField(causalConsistency, "tokenSecret", secret);
+        causalConsistency.init();
+        return causalConsistency;
+    }
+
+    private static ClientSession writeSession() {
+        ClientSession session = mock(ClientSession.class);
+        when(session.getOperationTime()).thenReturn(OPERATION_TIME);
+        when(session.getClusterTime()).thenReturn(clusterTime(OPERATION_TIME));
+        return session;
+    }
+
+    private static BsonDocument clusterTime(BsonTimestamp timestamp) {
+        return new BsonDocument("clusterTime", timestamp)
+                .append("signature", new BsonDocument("hash", new BsonBinary(new byte[20]))
+                        .append("keyId", new BsonInt64(7300000000000000001L)));
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.booking.repository;
+
+import com.example.booking.model.Booking;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookingBatchWriterTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final MongoConverter converter = mock(MongoConverter.class);
+    @SuppressWarnings("unchecked")
+    private final MongoCollection<Document> collection = mock(MongoCollection.class);
+    private BookingBatchWriter writer;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    @Test
+    void reserveIsBoundedByQueueCapacityAndCancelGivesTheSlotBack() {
+        writer = writer(2);
+
+        assertThat(writer.reserve()).isTrue();
+        assertThat(writer.reserve()).isTrue();
+        assertThat(writer.reserve()).isFalse();
+
+        writer.cancel();
+        assertThat(writer.reserve()).isTrue();
+    }
+
+    @Test
+    void reservedInsertIsWrittenAndFreesItsSlot() throws Exception {
+        writer = writer(1);
+
+        assertThat(writer.reserve()).isTrue();
+        assertThat(writer.insertReserved(new Booking()).get(5, TimeUnit.SECONDS)).isNull();
+
+        assertThat(writer.reserve()).isTrue();
+    }
+
+    // A booking that cannot be converted never reaches the queue; its slot must not leak
+    @Test
+    void failedConversionGivesTheSlotBack() {
+        writer = writer(1);
+        doThrow(new IllegalArgumentException("unmappable")).when(converter).write(any(), any());
+
+        assertThat(writer.reserve()).isTrue();
+        assertThatThrownBy(() -> writer.insertReserved(new Booking())).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(writer.reserve()).isTrue();
+    }
+
+    // Only a queued insert can be withdrawn; it then fails as not written and frees its slot
+    @Test
+    void withdrawTakesBackOnlyQueuedInserts() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(collection).insertMany(anyList(), any(InsertManyOptions.class));
+        writer = writer(2);
+
+        assertThat(writer.reserve()).isTrue();
+        CompletableFuture<String> inFlight = writer.insertReserved(new Booking());
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(writer.reserve()).isTrue();
+        CompletableFuture<String> queued = writer.insertReserved(new Booking());
+
+        assertThat(writer.withdraw(queued)).isTrue();
+        assertThat(writer.withdraw(inFlight)).isFalse();
+        assertThatThrownBy(() -> queued.get(1, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThat(writer.reserve()).isTrue();
+
+        release.countDown();
+        assertThat(inFlight.get(5, TimeUnit.SECONDS)).isNull();
+    }
+
+    @Test
+    void insertAfterCloseFailsAsNotWritten() throws Exception {
+        writer = writer(1);
+        writer.close();
+
+        assertThat(writer.reserve()).isFalse();
+        CompletableFuture<String> insert = writer.insert(new Booking());
+        assertThatThrownBy(() -> insert.get(1, TimeUnit.SECONDS)).hasCauseInstanceOf(RejectedExecutionException.class);
+        writer = null;
+    }
+
+    private BookingBatchWriter writer(int queueCapacity) {
+        when(mongoTemplate.getCollectionName(Booking.class)).thenReturn("bookings");
+        when(mongoTemplate.getCollection(anyString())).thenReturn(collection);
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        return new BookingBatchWriter(mongoTemplate, null, null, 10, 1, queueCapacity, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+// Thin JSON-over-HTTP client for the gateway; every response carries its own latency
+class ApiClient {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final Duration requestTimeout;
+
+    ApiClient(String baseUrl, Duration requestTimeout) {
+        this.baseUrl = baseUrl;
+        this.requestTimeout = requestTimeout;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    CompletableFuture<Response> sendAsync(String method, String path, Object body) {
+        HttpRequest request = request(method, path, body);
+        long start = System.nanoTime();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, error) -> error != null
+                        ? new Response(-1, new byte[0], System.nanoTime() - start, error)
+                        : new Response(response.statusCode(), response.body(), System.nanoTime() - start, null));
+    }
+
+    Response send(String method, String path, Object body) {
+        return sendAsync(method, path, body).join();
+    }
+
+    JsonNode sendForJson(String method, String path, Object body) {
+        Response response = send(method, path, body);
+        if (!response.isSuccess()) {
+            throw new IllegalStateException(method + " " + path + " failed with " + response.status + ": " + response.bodyAsString());
+        }
+        return response.json();
+    }
+
+    private HttpRequest request(String method, String path, Object body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(requestTimeout)
+                .header("Accept", "application/json");
+        if (body == null) {
+            return builder.method(method, HttpRequest.BodyPublishers.noBody()).build();
+        }
+        try {
+            return builder.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    class Response {
+        final int status;
+        final byte[] body;
+        final long latencyNanos;
+        final Throwable error;
+
+        Response(int status, byte[] body, long latencyNanos, Throwable error) {
+            this.status = status;
+            this.body = body;
+            this.latencyNanos = latencyNanos;
+            this.error = error;
+        }
+
+        boolean isSuccess() {
+            return status >= 200 && status < 300;
+        }
+
+        String bodyAsString() {
+            return error != null ? error.toString() : new String(body);
+        }
+
+        JsonNode json() {
+            try {
+                return objectMapper.readTree(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.loadtest;
+
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+// Open-model load: sessions start on a Poisson schedule regardless of how fast earlier ones finish,
+// so a slow system builds up in-flight work instead of silently lowering the offered load.
+class ArrivalDriver {
+
+    private final LoadTestConfig config;
+    private final LoadTestMetrics metrics;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    ArrivalDriver(LoadTestConfig config, LoadTestMetrics metrics) {
+        this.config = config;
+        this.metrics = metrics;
+    }
+
+    void run(Function<Random, CompletableFuture<Void>> session) throws InterruptedException {
+        Random arrivals = new Random();
+        for (LoadTestConfig.Stage stage : config.stages) {
+            System.out.println("Stage: " + stage);
+            double meanGapNanos = 1_000_000_000.0 / stage.sessionsPerSecond;
+            long end = System.nanoTime() + stage.duration.toNanos();
+            long next = System.nanoTime();
+            while (next < end) {
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                start(session, new Random(arrivals.nextLong()));
+                next += (long) (-Math.log(1.0 - arrivals.nextDouble()) * meanGapNanos);
+            }
+        }
+        long deadline = System.nanoTime() + config.requestTimeout.toNanos() * 4;
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+    }
+
+    private void start(Function<Random, CompletableFuture<Void>> session, Random random) {
+        if (inFlight.get() >= config.maxInFlight) {
+            metrics.sessionsDropped.increment();
+            return;
+        }
+        metrics.sessionsStarted.increment();
+        inFlight.incrementAndGet();
+        session.apply(random).whenComplete((ignored, error) -> {
+            if (error != null) {
+                metrics.sessionsFailed.increment();
+            }
+            inFlight.decrementAndGet();
+        });
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+// One customer session: browse the catalogue, open a movie's showtimes, book seats.
+// A configurable share of sessions goes for the same "premiere" showtime to create contention.
+class BookingScenario {
+
+    private final ApiClient api;
+    private final SeedData seed;
+    private final LoadTestConfig config;
+    private final LoadTestMetrics metrics;
+
+    BookingScenario(ApiClient api, SeedData seed, LoadTestConfig config, LoadTestMetrics metrics) {
+        this.api = api;
+        this.seed = seed;
+        this.config = config;
+        this.metrics = metrics;
+    }
+
+    CompletableFuture<Void> run(Random random) {
+        boolean premiere = random.nextDouble() < config.hotShowtimeShare;
+        SeedData.MovieRef movie = premiere ? seed.hotShowtime.movie : seed.randomMovie(random);
+
+        return api.sendAsync("GET", "/api/movies", null).thenCompose(browse -> {
+            metrics.record("1-browse", browse);
+            if (!browse.isSuccess()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return api.sendAsync("GET", "/api/showtimes/movie/" + movie.id, null).thenCompose(showtimes -> {
+                metrics.record("2-showtimes", showtimes);
+                if (!showtimes.isSuccess()) {
+                    return CompletableFuture.completedFuture(null);
+                }
+                String showtimeId = pickShowtime(showtimes.json(), premiere, random);
+                if (showtimeId == null) {
+                    metrics.bookingsSoldOut.increment();
+                    return CompletableFuture.completedFuture(null);
+                }
+                return book(movie, showtimeId, random);
+            });
+        });
+    }
+
+    private String pickShowtime(JsonNode showtimes, boolean premiere, Random random) {
+        List<String> open = new ArrayList<>();
+        for (JsonNode showtime : showtimes) {
+            if (showtime.path("availableSeats").asInt() > 0) {
+                open.add(showtime.path("id").asText());
+            }
+        }
+        if (premiere && open.contains(seed.hotShowtime.id)) {
+            return seed.hotShowtime.id;
+        }
+        return open.isEmpty() ? null : open.get(random.nextInt(open.size()));
+    }
+
+    private CompletableFuture<Void> book(SeedData.MovieRef movie, String showtimeId, Random random) {
+        int seats = 1 + random.nextInt(config.maxSeatsPerBooking);
+        Map<String, Object> booking = new LinkedHashMap<>();
+        booking.put("userId", seed.randomUserId(random));
+        booking.put("cinemaId", movie.cinemaId);
+        booking.put("movieId", movie.id);
+        booking.put("showtimeId", showtimeId);
+        booking.put("seatsBooked", seats);
+
+        return api.sendAsync("POST", "/api/bookings", booking).thenAccept(response -> {
+            metrics.record("3-book", response);
+            if (response.isSuccess()) {
+                metrics.bookingConfirmed(showtimeId, seats);
+            } else if (response.status == 400 && response.bodyAsString().contains("Not enough seats")) {
+                metrics.bookingsSoldOut.increment();
+            } else {
+                metrics.bookingsFailed.increment();
+            }
+        });
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Bytes on the wire and latency of the list endpoints through the gateway for every combination of
+// protocol (HTTP/1.1, h2c) and Accept-Encoding (identity, gzip, br). Bodies are not decoded, so the
+// sizes are exactly what crossed the network. Uses the same system-under-test startup and seeding as
+// LoadTestMain; a larger catalogue makes the list payloads realistic.
+public class CompressionBenchmarkMain {
+
+    private static final List<String> ENCODINGS = List.of("identity", "gzip", "br");
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        int requests = Integer.parseInt(System.getProperty("loadtest.compression.requests", "500"));
+        int concurrency = Integer.parseInt(System.getProperty("loadtest.compression.concurrency", "8"));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        try (SystemUnderTest ignored = SystemUnderTest.start(config)) {
+            ApiClient api = new ApiClient(config.gatewayUrl, config.requestTimeout);
+            SeedData seed = SeedData.create(api, config);
+            String cinemaId = seed.movies.get(0).cinemaId;
+            List<String> endpoints = List.of(
+                    "/api/movies",
+                    "/api/movies/cinema/" + cinemaId,
+                    "/api/showtimes/cinema/" + cinemaId);
+
+            System.out.printf("%-34s %-9s %-9s %10s %8s %9s %9s %9s%n",
+                    "endpoint", "protocol", "encoding", "bytes", "ratio", "p50 ms", "p99 ms", "req/s");
+            ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+            try {
+                for (String endpoint : endpoints) {
+                    Map<String, Object> variants = new LinkedHashMap<>();
+                    long identityBytes = 0;
+                    for (HttpClient.Version version : List.of(HttpClient.Version.HTTP_1_1, HttpClient.Version.HTTP_2)) {
+                        HttpClient client = HttpClient.newBuilder()
+                                .version(version)
+                                .connectTimeout(Duration.ofSeconds(5))
+                                .executor(executor)
+                                .build();
+                        for (String encoding : ENCODINGS) {
+                            Variant variant = run(client, config.gatewayUrl + endpoint, encoding, requests, concurrency, config.requestTimeout);
+                            if (encoding.equals("identity") && version == HttpClient.Version.HTTP_1_1) {
+                                identityBytes = variant.bytes;
+                            }
+                            double ratio = identityBytes == 0 ? 1.0 : (double) variant.bytes / identityBytes;
+                            System.out.printf("%-34s %-9s %-9s %10d %8.2f %9.2f %9.2f %9.1f%n",
+                                    shorten(endpoint), variant.protocol, variant.contentEncoding, variant.bytes, ratio,
+                                    variant.p50Ms, variant.p99Ms, variant.requestsPerSecond);
+
+                            Map<String, Object> result = new LinkedHashMap<>();
+                            result.put("protocol", variant.protocol);
+                            result.put("contentEncoding", variant.contentEncoding);
+                            result.put("bytes", variant.bytes);
+                            result.put("ratioToIdentity", Math.round(ratio * 1000) / 1000.0);
+                            result.put("p50Ms", variant.p50Ms);
+                            result.put("p99Ms", variant.p99Ms);
+                            result.put("requestsPerSecond", variant.requestsPerSecond);
+                            result.put("errors", variant.errors);
+                            variants.put(version + "/" + encoding, result);
+                        }
+                    }
+                    report.put(endpoint, variants);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(Path.of("target", "compression-report.json").toFile(), report);
+    }
+
+    private static Variant run(HttpClient client, String url, String encoding, int requests, int concurrency,
+                               Duration timeout) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(timeout)
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", encoding)
+                .GET()
+                .build();
+
+        // Warm up connections (and the h2c upgrade) before measuring
+        for (int i = 0; i < 20; i++) {
+            client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        }
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<long[]>> futures = new ArrayList<>();
+        AtomicReference<HttpResponse<byte[]>> sample = new AtomicReference<>();
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < requests; i++) {
+                futures.add(workers.submit(() -> {
+                    long sent = System.nanoTime();
+                    HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                    sample.set(response);
+                    return new long[]{System.nanoTime() - sent, response.statusCode() < 400 ? response.body().length : -1};
+                }));
+            }
+            long[] latencies = new long[requests];
+            long bytes = 0;
+            int errors = 0;
+            for (int i = 0; i < requests; i++) {
+                long[] result = futures.get(i).get();
+                latencies[i] = result[0] / 1000;
+                if (result[1] < 0) {
+                    errors++;
+                } else {
+                    bytes = result[1];
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            Arrays.sort(latencies);
+
+            Variant variant = new Variant();
+            variant.protocol = sample.get().version() == HttpClient.Version.HTTP_2 ? "h2c" : "http/1.1";
+            variant.contentEncoding = sample.get().headers().firstValue("Content-Encoding").orElse("identity");
+            variant.bytes = bytes;
+            variant.p50Ms = LoadTestMetrics.StepStats.percentile(latencies, 50) / 1000.0;
+            variant.p99Ms = LoadTestMetrics.StepStats.percentile(latencies, 99) / 1000.0;
+            variant.requestsPerSecond = Math.round(requests / seconds * 10) / 10.0;
+            variant.errors = errors;
+            return variant;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private static String shorten(String endpoint) {
+        return endpoint.length() > 34 ? endpoint.substring(0, 31) + "..." : endpoint;
+    }
+
+    private static class Variant {
+        String protocol;
+        String contentEncoding;
+        long bytes;
+        double p50Ms;
+        double p99Ms;
+        double requestsPerSecond;
+        int errors;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.loadtest;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Throwaway mongod on a free loopback port with a temporary data directory, removed on close.
+// Uses a locally installed binary so nothing is downloaded.
+class EphemeralMongo implements AutoCloseable {
+
+    final int port;
+    private final Process process;
+    private final Path dbPath;
+
+    private EphemeralMongo(int port, Process process, Path dbPath) {
+        this.port = port;
+        this.process = process;
+        this.dbPath = dbPath;
+    }
+
+    static EphemeralMongo start(String mongodBinary, Path logDir, Duration timeout) throws IOException, InterruptedException {
+        int port = freePort();
+        Path dbPath = Files.createTempDirectory("loadtest-mongo");
+        Process process = new ProcessBuilder(mongodBinary,
+                "--port", String.valueOf(port),
+                "--bind_ip", "127.0.0.1",
+                "--dbpath", dbPath.toString(),
+                "--wiredTigerCacheSizeGB", "0.5")
+                .redirectErrorStream(true)
+                .redirectOutput(logDir.resolve("mongod.log").toFile())
+                .start();
+
+        EphemeralMongo mongo = new EphemeralMongo(port, process, dbPath);
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!mongo.acceptsConnections()) {
+            if (!process.isAlive() || System.nanoTime() > deadline) {
+                mongo.close();
+                throw new IllegalStateException("mongod did not start, see " + logDir.resolve("mongod.log"));
+            }
+            Thread.sleep(200);
+        }
+        return mongo;
+    }
+
+    private boolean acceptsConnections() {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress("127.0.0.1", port), 200);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    @Override
+    public void close() throws IOException, InterruptedException {
+        process.destroy();
+        if (!process.waitFor(15, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+        try (Stream<Path> files = Files.walk(dbPath)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+import org.bson.Document;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Throughput and heap of GET /api/bookings/export on a large bookings collection. Seeds rows bookings
+// straight into MongoDB, starts booking-service alone with a small heap (-Xmx), then downloads each
+// variant once while sampling the service's used heap. The heap should stay flat whatever the row
+// count; an export that buffered its rows would run out of memory instead.
+public class ExportBenchmarkMain {
+
+    private static final int PORT = 8084;
+    // Exports across cinemas need operator access
+    private static final String OPERATOR_TOKEN = "export-benchmark";
+    private static final int INSERT_BATCH = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        long rows = Long.parseLong(System.getProperty("loadtest.export.rows", "2000000"));
+        int cinemas = Integer.parseInt(System.getProperty("loadtest.export.cinemas", "4"));
+        String heap = System.getProperty("loadtest.export.heap", "256m");
+        List<String> variants = List.of(System.getProperty("loadtest.export.variants",
+                "csv,ndjson,csv-gzip,all-cinemas-csv").split(","));
+        Path logDir = Files.createDirectories(Path.of("target", "loadtest-logs"));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("rows", rows);
+        report.put("heap", heap);
+        EphemeralMongo mongo = config.mongoPort == null
+                ? EphemeralMongo.start(config.mongodBinary, logDir, config.startupTimeout)
+                : null;
+        int mongoPort = mongo != null ? mongo.port : config.mongoPort;
+        try {
+            seed(config.mongoHost, mongoPort, rows, cinemas);
+
+            List<String> command = new ArrayList<>();
+            command.add(config.javaBinary);
+            command.addAll(config.jvmArgs);
+            command.add("-Xmx" + heap);
+            command.add("-jar");
+            command.add(config.repoRoot.resolve("booking-service").resolve("target").resolve("booking-service-1.0.0.jar").toString());
+            command.add("--eureka.client.enabled=false");
+            command.add("--operator.token=" + OPERATOR_TOKEN);
+            command.add("--spring.data.mongodb.host=" + config.mongoHost);
+            command.add("--spring.data.mongodb.port=" + mongoPort);
+            try (ServiceProcess booking = ServiceProcess.start("booking-service-export", command, logDir)) {
+                ApiClient api = new ApiClient("http://127.0.0.1:" + PORT, Duration.ofSeconds(2));
+                waitUntilUp(api, booking, config.startupTimeout);
+
+                HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+                System.out.printf("%-16s %12s %12s %10s %10s %14s%n",
+                        "variant", "bytes", "lines", "seconds", "rows/s", "max heap MB");
+                for (String variant : variants) {
+                    String query = query(variant.trim());
+                    report.put(variant.trim(), download(http, api, "http://127.0.0.1:" + PORT + "/api/bookings/export?" + query,
+                            variant.trim()));
+                }
+            }
+        } finally {
+            if (mongo != null) {
+                mongo.close();
+            }
+        }
+
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(Path.of("target", "export-report.json").toFile(), report);
+    }
+
+    // One cinema unless the variant says otherwise; every booking falls in the last 365 days
+    private static String query(String variant) {
+        StringBuilder query = new StringBuilder("format=").append(variant.contains("ndjson") ? "ndjson" : "csv");
+        if (variant.contains("gzip")) {
+            query.append("&gzip=true");
+        }
+        if (!variant.startsWith("all-cinemas")) {
+            query.append("&cinemaId=").append(URLEncoder.encode("export-cinema-0", StandardCharsets.UTF_8));
+        }
+        return query.toString();
+    }
+
+    private static Map<String, Object> download(HttpClient http, ApiClient api, String url, String variant) throws Exception {
+        AtomicLong maxHeap = new AtomicLong(usedHeap(api));
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> maxHeap.accumulateAndGet(usedHeap(api), Math::max), 0, 250, TimeUnit.MILLISECONDS);
+
+        long start = System.nanoTime();
+        long bytes = 0;
+        long lines = 0;
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                    .header("X-Operator-Token", OPERATOR_TOKEN)
+                    .GET()
+                    .build();
+            HttpResponse<InputStream> response = http.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException(variant + ": HTTP " + response.statusCode());
+            }
+            // Read at network speed without keeping anything, like a client writing to disk
+            byte[] buffer = new byte[64 * 1024];
+            try (InputStream body = response.body()) {
+                for (int read; (read = body.read(buffer)) > 0; ) {
+                    bytes += read;
+                    for (int i = 0; i < read; i++) {
+                        if (buffer[i] == '\n') {
+                            lines++;
+                        }
+                    }
+                }
+            }
+        } finally {
+            sampler.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        // CSV has a header line; gzip output is not split into lines
+        long exported = variant.contains("gzip") ? -1 : variant.contains("ndjson") ? lines : lines - 1;
+        long heapMb = maxHeap.get() / (1024 * 1024);
+        System.out.printf("%-16s %12d %12s %10.1f %10s %14d%n", variant, bytes, exported < 0 ? "n/a" : exported,
+                seconds, exported < 0 ? "n/a" : Math.round(exported / seconds), heapMb);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("bytes", bytes);
+        result.put("rowsExported", exported < 0 ? null : exported);
+        result.put("seconds", Math.round(seconds * 10) / 10.0);
+        result.put("rowsPerSecond", exported < 0 ? null : Math.round(exported / seconds));
+        result.put("maxHeapUsedMb", heapMb);
+        return result;
+    }
+
+    private static void seed(String host, int port, long rows, int cinemas) {
+        try (MongoClient client = MongoClients.create("mongodb://" + host + ":" + port)) {
+            MongoCollection<Document> bookings = client.getDatabase("booking_db").getCollection("bookings");
+            bookings.drop();
+            Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+            long secondsPerYear = Duration.ofDays(365).getSeconds();
+            long start = System.nanoTime();
+            List<Document> batch = new ArrayList<>(INSERT_BATCH);
+            for (long i = 0; i < rows; i++) {
+                batch.add(new Document("_id", "export-booking-" + i)
+                        .append("userId", "export-user-" + (i % 50_000))
+                        .append("cinemaId", "export-cinema-" + (i % cinemas))
+                        .append("movieId", "export-movie-" + (i % 40))
+                        .append("showtimeId", "export-showtime-" + (i % 5_000))
+                        .append("seatsBooked", (int) (i % 6) + 1)
+                        .append("bookingTime", Date.from(now.minusSeconds(i * 7919 % secondsPerYear))));
+                if (batch.size() == INSERT_BATCH) {
+                    bookings.insertMany(batch, new InsertManyOptions().ordered(false));
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                bookings.insertMany(batch, new InsertManyOptions().ordered(false));
+            }
+            System.out.printf("Seeded %d bookings in %.1fs%n", rows, (System.nanoTime() - start) / 1e9);
+        }
+    }
+
+    private static void waitUntilUp(ApiClient api, ServiceProcess booking, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!booking.isAlive()) {
+                throw new IllegalStateException("booking-service exited, see " + booking.logFile);
+            }
+            if (api.send("GET", "/actuator/health", null).isSuccess()) {
+                return;
+            }
+            Thread.sleep(200);
+        }
+        throw new IllegalStateException("booking-service not up within " + timeout);
+    }
+
+    private static long usedHeap(ApiClient api) {
+        ApiClient.Response response = api.send("GET", "/actuator/metrics/jvm.memory.used?tag=area:heap", null);
+        if (!response.isSuccess()) {
+            return 0;
+        }
+        for (JsonNode measurement : response.json().path("measurements")) {
+            if ("VALUE".equals(measurement.path("statistic").asText())) {
+                return measurement.path("value").asLong();
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// All settings come from -Dloadtest.* system properties so runs can be scripted without editing code
+class LoadTestConfig {
+
+    final Path repoRoot;
+    final boolean external;
+    final String gatewayUrl;
+    final String eurekaUrl;
+    final String javaBinary;
+    final List<String> jvmArgs;
+    final Duration startupTimeout;
+
+    final String mongodBinary;
+    final String mongoHost;
+    final Integer mongoPort;
+
+    final List<Stage> stages;
+    final int maxInFlight;
+    final Duration requestTimeout;
+
+    final int cinemas;
+    final int moviesPerCinema;
+    final int showtimesPerMovie;
+    final int seatsPerShowtime;
+    final int users;
+    final int maxSeatsPerBooking;
+    final double hotShowtimeShare;
+
+    private LoadTestConfig() {
+        repoRoot = Path.of(property("repo-root", "..")).toAbsolutePath().normalize();
+        external = Boolean.parseBoolean(property("external", "false"));
+        gatewayUrl = property("gateway-url", "http://127.0.0.1:9090");
+        eurekaUrl = property("eureka-url", "http://127.0.0.1:8761");
+        javaBinary = property("java", Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        jvmArgs = List.of(property("jvm-args", "-Xmx512m").trim().split("\\s+"));
+        startupTimeout = Duration.ofSeconds(Long.parseLong(property("startup-timeout", "180")));
+
+        mongodBinary = property("mongod", "mongod");
+        mongoHost = property("mongo-host", "127.0.0.1");
+        String port = property("mongo-port", "");
+        mongoPort = port.isEmpty() ? null : Integer.valueOf(port);
+
+        stages = parseStages(property("stages", "20:60"));
+        maxInFlight = Integer.parseInt(property("max-in-flight", "2000"));
+        requestTimeout = Duration.ofSeconds(Long.parseLong(property("request-timeout", "10")));
+
+        cinemas = Integer.parseInt(property("cinemas", "3"));
+        moviesPerCinema = Integer.parseInt(property("movies-per-cinema", "5"));
+        showtimesPerMovie = Integer.parseInt(property("showtimes-per-movie", "4"));
+        seatsPerShowtime = Integer.parseInt(property("seats-per-showtime", "100"));
+        users = Integer.parseInt(property("users", "500"));
+        maxSeatsPerBooking = Integer.parseInt(property("max-seats-per-booking", "4"));
+        hotShowtimeShare = Double.parseDouble(property("hot-showtime-share", "0.3"));
+    }
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig();
+    }
+
+    // "rate:seconds" pairs, e.g. "10:30,50:60,100:30" ramps from 10 to 100 sessions per second
+    private static List<Stage> parseStages(String value) {
+        List<Stage> stages = new ArrayList<>();
+        for (String part : value.split(",")) {
+            String[] rateAndSeconds = part.trim().split(":");
+            stages.add(new Stage(Double.parseDouble(rateAndSeconds[0]),
+                    Duration.ofSeconds(Long.parseLong(rateAndSeconds[1]))));
+        }
+        return stages;
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty("loadtest." + name, defaultValue);
+    }
+
+    static class Stage {
+        final double sessionsPerSecond;
+        final Duration duration;
+
+        Stage(double sessionsPerSecond, Duration duration) {
+            this.sessionsPerSecond = sessionsPerSecond;
+            this.duration = duration;
+        }
+
+        @Override
+        public String toString() {
+            return sessionsPerSecond + "/s for " + duration.getSeconds() + "s";
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        boolean failOnOversell = Boolean.parseBoolean(System.getProperty("loadtest.fail-on-oversell", "true"));
+
+        long oversoldSeats;
+        try (SystemUnderTest ignored = SystemUnderTest.start(config)) {
+            ApiClient api = new ApiClient(config.gatewayUrl, config.requestTimeout);
+
+            System.out.println("Seeding test data...");
+            SeedData seed = SeedData.create(api, config);
+            System.out.printf("Seeded %d movies, %d showtimes, %d users%n",
+                    seed.movies.size(), seed.showtimes.size(), seed.userIds.size());
+
+            LoadTestMetrics metrics = new LoadTestMetrics();
+            BookingScenario scenario = new BookingScenario(api, seed, config, metrics);
+            ArrivalDriver driver = new ArrivalDriver(config, metrics);
+
+            long start = System.nanoTime();
+            driver.run(scenario::run);
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            LoadTestReport report = new LoadTestReport(config, metrics, seed, api, elapsed);
+            report.print();
+            report.write(Path.of("target", "loadtest-report.json"));
+            oversoldSeats = report.oversoldSeats;
+        }
+
+        if (failOnOversell && oversoldSeats > 0) {
+            System.err.println("Oversold " + oversoldSeats + " seats");
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+class LoadTestMetrics {
+
+    final Map<String, StepStats> steps = new ConcurrentSkipListMap<>();
+    final LongAdder sessionsStarted = new LongAdder();
+    final LongAdder sessionsDropped = new LongAdder();
+    final LongAdder sessionsFailed = new LongAdder();
+    final LongAdder bookingsConfirmed = new LongAdder();
+    final LongAdder bookingsSoldOut = new LongAdder();
+    final LongAdder bookingsFailed = new LongAdder();
+    final Map<String, LongAdder> seatsConfirmedByShowtime = new ConcurrentHashMap<>();
+
+    void record(String step, ApiClient.Response response) {
+        steps.computeIfAbsent(step, name -> new StepStats()).record(response);
+    }
+
+    void bookingConfirmed(String showtimeId, int seats) {
+        bookingsConfirmed.increment();
+        seatsConfirmedByShowtime.computeIfAbsent(showtimeId, id -> new LongAdder()).add(seats);
+    }
+
+    long seatsConfirmed(String showtimeId) {
+        LongAdder seats = seatsConfirmedByShowtime.get(showtimeId);
+        return seats == null ? 0 : seats.sum();
+    }
+
+    static class StepStats {
+        final LongAdder successes = new LongAdder();
+        final LongAdder failures = new LongAdder();
+        private long[] latenciesMicros = new long[1024];
+        private int count;
+
+        void record(ApiClient.Response response) {
+            if (response.isSuccess()) {
+                successes.increment();
+            } else {
+                failures.increment();
+            }
+            synchronized (this) {
+                if (count == latenciesMicros.length) {
+                    latenciesMicros = Arrays.copyOf(latenciesMicros, count * 2);
+                }
+                latenciesMicros[count++] = response.latencyNanos / 1_000;
+            }
+        }
+
+        synchronized long[] sortedLatenciesMicros() {
+            long[] sorted = Arrays.copyOf(latenciesMicros, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+        static long percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        }
+    }
+}
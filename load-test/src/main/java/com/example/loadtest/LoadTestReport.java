@@ -0,0 +1,118 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Throughput, latency percentiles and error rates per step, plus a seat inventory audit:
+// confirmed seats are compared with what each showtime actually lost, so oversell and
+// lost seat updates both show up
+class LoadTestReport {
+
+    private final Map<String, Object> report = new LinkedHashMap<>();
+    long oversoldSeats;
+
+    LoadTestReport(LoadTestConfig config, LoadTestMetrics metrics, SeedData seed, ApiClient api, Duration elapsed) {
+        double seconds = Math.max(0.001, elapsed.toNanos() / 1e9);
+
+        report.put("stages", config.stages.toString());
+        report.put("elapsedSeconds", round(seconds));
+        report.put("sessionsStarted", metrics.sessionsStarted.sum());
+        report.put("sessionsDropped", metrics.sessionsDropped.sum());
+        report.put("sessionsFailed", metrics.sessionsFailed.sum());
+
+        Map<String, Object> steps = new LinkedHashMap<>();
+        metrics.steps.forEach((name, stats) -> {
+            long[] sorted = stats.sortedLatenciesMicros();
+            long total = stats.successes.sum() + stats.failures.sum();
+            Map<String, Object> step = new LinkedHashMap<>();
+            step.put("requests", total);
+            step.put("throughputPerSecond", round(total / seconds));
+            step.put("errorRate", total == 0 ? 0.0 : round((double) stats.failures.sum() / total));
+            step.put("p50Ms", millis(LoadTestMetrics.StepStats.percentile(sorted, 50)));
+            step.put("p90Ms", millis(LoadTestMetrics.StepStats.percentile(sorted, 90)));
+            step.put("p99Ms", millis(LoadTestMetrics.StepStats.percentile(sorted, 99)));
+            step.put("p999Ms", millis(LoadTestMetrics.StepStats.percentile(sorted, 99.9)));
+            step.put("maxMs", millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]));
+            steps.put(name, step);
+        });
+        report.put("steps", steps);
+
+        long attempts = metrics.bookingsConfirmed.sum() + metrics.bookingsSoldOut.sum() + metrics.bookingsFailed.sum();
+        Map<String, Object> bookings = new LinkedHashMap<>();
+        bookings.put("confirmed", metrics.bookingsConfirmed.sum());
+        bookings.put("soldOut", metrics.bookingsSoldOut.sum());
+        bookings.put("failed", metrics.bookingsFailed.sum());
+        bookings.put("confirmedPerSecond", round(metrics.bookingsConfirmed.sum() / seconds));
+        bookings.put("errorRate", attempts == 0 ? 0.0 : round((double) metrics.bookingsFailed.sum() / attempts));
+        report.put("bookings", bookings);
+
+        report.put("inventory", auditInventory(metrics, seed, api));
+    }
+
+    private Map<String, Object> auditInventory(LoadTestMetrics metrics, SeedData seed, ApiClient api) {
+        long seatDrift = 0;
+        int oversoldShowtimes = 0;
+        List<Map<String, Object>> problems = new ArrayList<>();
+        for (SeedData.ShowtimeRef showtime : seed.showtimes.values()) {
+            JsonNode current = api.sendForJson("GET", "/api/showtimes/" + showtime.id, null);
+            long available = current.path("availableSeats").asLong();
+            long confirmed = metrics.seatsConfirmed(showtime.id);
+            long decremented = showtime.initialSeats - available;
+            long oversold = Math.max(0, confirmed - showtime.initialSeats);
+            long drift = confirmed - decremented;
+
+            oversoldSeats += oversold;
+            seatDrift += Math.abs(drift);
+            if (oversold > 0) {
+                oversoldShowtimes++;
+            }
+            if (oversold > 0 || drift != 0 || available < 0) {
+                Map<String, Object> problem = new LinkedHashMap<>();
+                problem.put("showtimeId", showtime.id);
+                problem.put("initialSeats", showtime.initialSeats);
+                problem.put("availableSeats", available);
+                problem.put("confirmedSeats", confirmed);
+                problem.put("oversoldSeats", oversold);
+                problem.put("lostUpdates", drift);
+                problems.add(problem);
+            }
+        }
+        Map<String, Object> inventory = new LinkedHashMap<>();
+        inventory.put("showtimes", seed.showtimes.size());
+        inventory.put("oversoldSeats", oversoldSeats);
+        inventory.put("oversoldShowtimes", oversoldShowtimes);
+        inventory.put("seatDrift", seatDrift);
+        inventory.put("problems", problems);
+        return inventory;
+    }
+
+    void print() throws IOException {
+        System.out.println(mapper().writeValueAsString(report));
+    }
+
+    void write(Path path) throws IOException {
+        mapper().writeValue(path.toFile(), report);
+        System.out.println("Report written to " + path.toAbsolutePath());
+    }
+
+    private static ObjectMapper mapper() {
+        return new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    private static double millis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000.0) / 1000.0;
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoTimeoutException;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import org.bson.Document;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Drives a Mongo connection pool configured like the services (mongodb.pool.max-size / max-wait-time-ms)
+// past saturation and checks it degrades predictably:
+// - connections in use never exceed max-size
+// - no checkout times out while concurrency <= max-size
+// - every checkout, successful or not, finishes within max-wait-time plus a small slack
+// - throughput plateaus at max-size / hold-time instead of collapsing
+//
+// Each operation holds its connection for hold-ms on the server ($where sleep), so the expected
+// numbers can be computed up front.
+public class PoolStressMain {
+
+    public static void main(String[] args) throws Exception {
+        int maxSize = Integer.parseInt(property("max-size", "10"));
+        long maxWaitMs = Long.parseLong(property("max-wait-time-ms", "250"));
+        long holdMs = Long.parseLong(property("hold-ms", "50"));
+        Duration levelDuration = Duration.ofSeconds(Long.parseLong(property("seconds-per-level", "10")));
+        List<Integer> levels = new ArrayList<>();
+        for (String level : property("concurrency", maxSize / 2 + "," + maxSize + "," + 2 * maxSize + "," + 4 * maxSize).split(",")) {
+            levels.add(Integer.parseInt(level.trim()));
+        }
+        long slackMs = Math.max(50, maxWaitMs / 5);
+
+        Path logDir = Files.createDirectories(Path.of("target", "loadtest-logs"));
+        String port = System.getProperty("loadtest.mongo-port", "");
+        EphemeralMongo mongo = port.isEmpty()
+                ? EphemeralMongo.start(System.getProperty("loadtest.mongod", "mongod"), logDir, Duration.ofSeconds(60))
+                : null;
+        String host = System.getProperty("loadtest.mongo-host", "127.0.0.1");
+        int mongoPort = mongo != null ? mongo.port : Integer.parseInt(port);
+
+        PoolObserver observer = new PoolObserver();
+        MongoClientSettings settings = MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString("mongodb://" + host + ":" + mongoPort))
+                .applyToConnectionPoolSettings(pool -> pool
+                        .minSize(maxSize)
+                        .maxSize(maxSize)
+                        .maxWaitTime(maxWaitMs, TimeUnit.MILLISECONDS)
+                        .addConnectionPoolListener(observer))
+                .build();
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        List<String> violations = new ArrayList<>();
+        try (MongoClient client = MongoClients.create(settings)) {
+            MongoCollection<Document> collection = client.getDatabase("pool_stress").getCollection("probe");
+            collection.drop();
+            collection.insertOne(new Document("_id", 1));
+            Document query = new Document("$where", "sleep(" + holdMs + ") || true");
+
+            // Warm the pool so connection establishment does not count as waiting
+            runLevel(collection, query, maxSize, Duration.ofSeconds(2));
+
+            System.out.printf("Pool max-size=%d, max-wait=%dms, hold=%dms%n", maxSize, maxWaitMs, holdMs);
+            System.out.printf("%-11s %10s %10s %9s %12s %12s %12s %9s%n",
+                    "concurrency", "ops/s", "expected", "timeouts", "p50 wait ms", "p99 wait ms", "max wait ms", "max used");
+            for (int concurrency : levels) {
+                observer.reset();
+                LevelResult result = runLevel(collection, query, concurrency, levelDuration);
+
+                double expected = Math.min(concurrency, maxSize) * 1000.0 / holdMs;
+                long[] waits = observer.sortedWaitsMicros();
+                long maxWaitObservedMs = waits.length == 0 ? 0 : waits[waits.length - 1] / 1000;
+                System.out.printf("%-11d %10.1f %10.1f %9d %12.1f %12.1f %12d %9d%n",
+                        concurrency, result.opsPerSecond, expected, result.timeouts,
+                        LoadTestMetrics.StepStats.percentile(waits, 50) / 1000.0,
+                        LoadTestMetrics.StepStats.percentile(waits, 99) / 1000.0,
+                        maxWaitObservedMs, observer.maxCheckedOut.get());
+
+                if (observer.maxCheckedOut.get() > maxSize) {
+                    violations.add(concurrency + ": " + observer.maxCheckedOut.get() + " connections in use, max-size is " + maxSize);
+                }
+                if (concurrency <= maxSize && result.timeouts > 0) {
+                    violations.add(concurrency + ": " + result.timeouts + " checkout timeouts below pool capacity");
+                }
+                if (maxWaitObservedMs > maxWaitMs + slackMs) {
+                    violations.add(concurrency + ": a checkout waited " + maxWaitObservedMs + "ms, max-wait-time is " + maxWaitMs + "ms");
+                }
+                if (result.errors > 0) {
+                    violations.add(concurrency + ": " + result.errors + " operations failed with errors other than checkout timeouts");
+                }
+
+                Map<String, Object> level = new LinkedHashMap<>();
+                level.put("concurrency", concurrency);
+                level.put("opsPerSecond", Math.round(result.opsPerSecond * 10) / 10.0);
+                level.put("expectedOpsPerSecond", Math.round(expected * 10) / 10.0);
+                level.put("timeouts", result.timeouts);
+                level.put("errors", result.errors);
+                level.put("p50WaitMs", LoadTestMetrics.StepStats.percentile(waits, 50) / 1000.0);
+                level.put("p99WaitMs", LoadTestMetrics.StepStats.percentile(waits, 99) / 1000.0);
+                level.put("maxWaitMs", maxWaitObservedMs);
+                level.put("maxCheckedOut", observer.maxCheckedOut.get());
+                level.put("maxWaiting", observer.maxWaiting.get());
+                results.add(level);
+            }
+        } finally {
+            if (mongo != null) {
+                mongo.close();
+            }
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("maxSize", maxSize);
+        report.put("maxWaitTimeMs", maxWaitMs);
+        report.put("holdMs", holdMs);
+        report.put("levels", results);
+        report.put("violations", violations);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(Path.of("target", "pool-stress-report.json").toFile(), report);
+
+        if (!violations.isEmpty()) {
+            violations.forEach(violation -> System.err.println("Unpredictable pool behaviour at concurrency " + violation));
+            System.exit(1);
+        }
+        System.out.println("Pool saturation behaved as configured");
+    }
+
+    private static LevelResult runLevel(MongoCollection<Document> collection, Document query, int concurrency,
+                                        Duration duration) throws InterruptedException {
+        LongAdder completed = new LongAdder();
+        LongAdder timeouts = new LongAdder();
+        LongAdder errors = new LongAdder();
+        long deadline = System.nanoTime() + duration.toNanos();
+        CountDownLatch done = new CountDownLatch(concurrency);
+
+        for (int i = 0; i < concurrency; i++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        try {
+                            collection.find(query).first();
+                            completed.increment();
+                        } catch (MongoTimeoutException e) {
+                            timeouts.increment();
+                        } catch (RuntimeException e) {
+                            errors.increment();
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "pool-stress-" + i);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        done.await();
+
+        LevelResult result = new LevelResult();
+        result.opsPerSecond = completed.sum() / (duration.toNanos() / 1e9);
+        result.timeouts = timeouts.sum();
+        result.errors = errors.sum();
+        return result;
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty("loadtest.pool." + name, defaultValue);
+    }
+
+    private static class LevelResult {
+        double opsPerSecond;
+        long timeouts;
+        long errors;
+    }
+
+    // Tracks connections in use, threads waiting and how long each checkout waited
+    private static class PoolObserver implements ConnectionPoolListener {
+
+        final AtomicInteger checkedOut = new AtomicInteger();
+        final AtomicInteger maxCheckedOut = new AtomicInteger();
+        final AtomicInteger waiting = new AtomicInteger();
+        final AtomicInteger maxWaiting = new AtomicInteger();
+        private final ConcurrentLinkedQueue<Long> waitsMicros = new ConcurrentLinkedQueue<>();
+        private final ThreadLocal<Long> checkoutStart = new ThreadLocal<>();
+
+        void reset() {
+            maxCheckedOut.set(checkedOut.get());
+            maxWaiting.set(0);
+            waitsMicros.clear();
+        }
+
+        long[] sortedWaitsMicros() {
+            return waitsMicros.stream().mapToLong(Long::longValue).sorted().toArray();
+        }
+
+        @Override
+        public void connectionCheckOutStarted(ConnectionCheckOutStartedEvent event) {
+            checkoutStart.set(System.nanoTime());
+            maxWaiting.accumulateAndGet(waiting.incrementAndGet(), Math::max);
+        }
+
+        @Override
+        public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+            checkoutFinished();
+            maxCheckedOut.accumulateAndGet(checkedOut.incrementAndGet(), Math::max);
+        }
+
+        @Override
+        public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+            checkoutFinished();
+        }
+
+        @Override
+        public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+            checkedOut.decrementAndGet();
+        }
+
+        private void checkoutFinished() {
+            waiting.decrementAndGet();
+            Long start = checkoutStart.get();
+            if (start != null) {
+                checkoutStart.remove();
+                waitsMicros.add((System.nanoTime() - start) / 1000);
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Payload size and latency of the list endpoints through the gateway with the full DTOs and with the
+// card and summary views, uncompressed and gzipped. Uses the same system-under-test startup and
+// seeding as LoadTestMain; a larger catalogue makes the list payloads realistic.
+public class ProjectionBenchmarkMain {
+
+    private static final List<String> VIEWS = List.of("full", "summary", "card");
+    private static final List<String> ENCODINGS = List.of("identity", "gzip");
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        int requests = Integer.parseInt(System.getProperty("loadtest.projection.requests", "500"));
+        int concurrency = Integer.parseInt(System.getProperty("loadtest.projection.concurrency", "8"));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        try (SystemUnderTest ignored = SystemUnderTest.start(config)) {
+            ApiClient api = new ApiClient(config.gatewayUrl, config.requestTimeout);
+            SeedData seed = SeedData.create(api, config);
+            String cinemaId = seed.movies.get(0).cinemaId;
+            List<String> endpoints = List.of(
+                    "/api/movies",
+                    "/api/movies/cinema/" + cinemaId,
+                    "/api/showtimes/cinema/" + cinemaId);
+
+            System.out.printf("%-34s %-8s %-9s %10s %8s %9s %9s %9s%n",
+                    "endpoint", "view", "encoding", "bytes", "ratio", "p50 ms", "p99 ms", "req/s");
+            ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+            try {
+                HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(Duration.ofSeconds(5))
+                        .executor(executor)
+                        .build();
+                for (String endpoint : endpoints) {
+                    Map<String, Object> variants = new LinkedHashMap<>();
+                    Map<String, Long> fullBytes = new LinkedHashMap<>();
+                    for (String view : VIEWS) {
+                        String url = config.gatewayUrl + endpoint + (view.equals("full") ? "" : "?view=" + view);
+                        for (String encoding : ENCODINGS) {
+                            Variant variant = run(client, url, encoding, requests, concurrency, config.requestTimeout);
+                            if (view.equals("full")) {
+                                fullBytes.put(encoding, variant.bytes);
+                            }
+                            long full = fullBytes.getOrDefault(encoding, 0L);
+                            double ratio = full == 0 ? 1.0 : (double) variant.bytes / full;
+                            System.out.printf("%-34s %-8s %-9s %10d %8.2f %9.2f %9.2f %9.1f%n",
+                                    shorten(endpoint), view, encoding, variant.bytes, ratio,
+                                    variant.p50Ms, variant.p99Ms, variant.requestsPerSecond);
+
+                            Map<String, Object> result = new LinkedHashMap<>();
+                            result.put("bytes", variant.bytes);
+                            result.put("ratioToFull", Math.round(ratio * 1000) / 1000.0);
+                            result.put("p50Ms", variant.p50Ms);
+                            result.put("p99Ms", variant.p99Ms);
+                            result.put("requestsPerSecond", variant.requestsPerSecond);
+                            result.put("errors", variant.errors);
+                            variants.put(view + "/" + encoding, result);
+                        }
+                    }
+                    report.put(endpoint, variants);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(Path.of("target", "projection-report.json").toFile(), report);
+    }
+
+    private static Variant run(HttpClient client, String url, String encoding, int requests, int concurrency,
+                               Duration timeout) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(timeout)
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", encoding)
+                .GET()
+                .build();
+
+        for (int i = 0; i < 20; i++) {
+            client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        }
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<long[]>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < requests; i++) {
+                futures.add(workers.submit(() -> {
+                    long sent = System.nanoTime();
+                    HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                    return new long[]{System.nanoTime() - sent, response.statusCode() < 400 ? response.body().length : -1};
+                }));
+            }
+            long[] latencies = new long[requests];
+            long bytes = 0;
+            int errors = 0;
+            for (int i = 0; i < requests; i++) {
+                long[] result = futures.get(i).get();
+                latencies[i] = result[0] / 1000;
+                if (result[1] < 0) {
+                    errors++;
+                } else {
+                    bytes = result[1];
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            Arrays.sort(latencies);
+
+            Variant variant = new Variant();
+            variant.bytes = bytes;
+            variant.p50Ms = LoadTestMetrics.StepStats.percentile(latencies, 50) / 1000.0;
+            variant.p99Ms = LoadTestMetrics.StepStats.percentile(latencies, 99) / 1000.0;
+            variant.requestsPerSecond = Math.round(requests / seconds * 10) / 10.0;
+            variant.errors = errors;
+            return variant;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private static String shorten(String endpoint) {
+        return endpoint.length() > 34 ? endpoint.substring(0, 31) + "..." : endpoint;
+    }
+
+    private static class Variant {
+        long bytes;
+        double p50Ms;
+        double p99Ms;
+        double requestsPerSecond;
+        int errors;
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// How quickly the gateway shifts traffic when showtime-service scales out and back in, per discovery
+// mode:
+// - default:        the shipped Eureka, load balancer and cache intervals
+// - fast-discovery: every process runs with the fast-discovery profile
+// Under steady load through the gateway, a second showtime-service instance is started. The run
+// records when Eureka lists it, when it gets its first request, and when its share of the requests
+// reaches 25% and 50%. Shares are read from each instance's own request counter. The instance is then
+// killed without deregistering, and the run records how long the gateway keeps sending requests to it.
+public class ScaleOutMain {
+
+    private static final String PATH_TEMPLATE = "/api/showtimes/cinema/{cinemaId}";
+    private static final String PATH = "/api/showtimes/cinema/scale-out-probe";
+    private static final int FIRST_PORT = 8083;
+    private static final int SECOND_PORT = 8183;
+    private static final long SAMPLE_MS = 1000;
+    // Round-robin over two instances reaches 50% only up to sampling noise
+    private static final double SHARE_TOLERANCE = 0.03;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        List<String> modes = List.of(System.getProperty("loadtest.scaleout.modes", "default,fast-discovery").split(","));
+        int concurrency = Integer.parseInt(System.getProperty("loadtest.scaleout.concurrency", "16"));
+        Duration observe = Duration.ofSeconds(Long.parseLong(System.getProperty("loadtest.scaleout.observe-seconds", "300")));
+        Path logDir = Files.createDirectories(Path.of("target", "loadtest-logs"));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        EphemeralMongo mongo = config.mongoPort == null
+                ? EphemeralMongo.start(config.mongodBinary, logDir, config.startupTimeout)
+                : null;
+        int mongoPort = mongo != null ? mongo.port : config.mongoPort;
+        try {
+            for (String mode : modes) {
+                report.put(mode.trim(), run(config, mode.trim(), mongoPort, concurrency, observe, logDir));
+            }
+        } finally {
+            if (mongo != null) {
+                mongo.close();
+            }
+        }
+
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(Path.of("target", "scale-out-report.json").toFile(), report);
+    }
+
+    private static Map<String, Object> run(LoadTestConfig config, String mode, int mongoPort, int concurrency,
+                                           Duration observe, Path logDir) throws Exception {
+        List<String> profile = mode.equals("default") ? List.of() : List.of("--spring.profiles.active=" + mode);
+        List<String> clientArgs = new ArrayList<>(profile);
+        clientArgs.add("--eureka.client.service-url.defaultZone=" + config.eurekaUrl + "/eureka/");
+        clientArgs.add("--eureka.instance.prefer-ip-address=true");
+        clientArgs.add("--eureka.instance.ip-address=127.0.0.1");
+        clientArgs.add("--spring.data.mongodb.host=" + config.mongoHost);
+        clientArgs.add("--spring.data.mongodb.port=" + mongoPort);
+
+        List<ServiceProcess> processes = new ArrayList<>();
+        ExecutorService load = Executors.newFixedThreadPool(concurrency);
+        AtomicBoolean running = new AtomicBoolean(true);
+        try {
+            processes.add(ServiceProcess.start(config, "eureka-server-" + mode, jar(config, "eureka-server", "eureka-server"),
+                    profile, logDir));
+            processes.add(ServiceProcess.start(config, "showtime-service-" + mode, jar(config, "showtime-service", "showtime-service"),
+                    clientArgs, logDir));
+            processes.add(ServiceProcess.start(config, "api-gateway-" + mode, jar(config, "api-gateway", "api-gateway"),
+                    clientArgs, logDir));
+            ApiClient gateway = new ApiClient(config.gatewayUrl, Duration.ofSeconds(2));
+            waitFor(config.startupTimeout, () -> gateway.send("GET", PATH, null).isSuccess());
+            System.out.println(mode + ": gateway routes to showtime-service");
+
+            // Steady closed-loop load; failures are counted, not retried
+            HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+            HttpRequest request = HttpRequest.newBuilder(URI.create(config.gatewayUrl + PATH))
+                    .timeout(config.requestTimeout).GET().build();
+            AtomicLong failures = new AtomicLong();
+            for (int i = 0; i < concurrency; i++) {
+                load.execute(() -> {
+                    while (running.get()) {
+                        try {
+                            if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() >= 400) {
+                                failures.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            Thread.sleep(5000);
+
+            ApiClient eureka = new ApiClient(config.eurekaUrl, Duration.ofSeconds(2));
+            ApiClient first = new ApiClient("http://127.0.0.1:" + FIRST_PORT, Duration.ofSeconds(2));
+            ApiClient second = new ApiClient("http://127.0.0.1:" + SECOND_PORT, Duration.ofSeconds(2));
+            List<String> secondArgs = new ArrayList<>(clientArgs);
+            secondArgs.add("--server.port=" + SECOND_PORT);
+
+            // Scale out
+            long launched = System.nanoTime();
+            ServiceProcess secondInstance = ServiceProcess.start(config, "showtime-service-" + mode + "-2",
+                    jar(config, "showtime-service", "showtime-service"), secondArgs, logDir);
+            processes.add(secondInstance);
+            Long registeredMs = null;
+            Long firstRequestMs = null;
+            Long share25Ms = null;
+            Long share50Ms = null;
+            List<Double> shares = new ArrayList<>();
+            long firstCount = requestCount(first);
+            long secondCount = 0;
+            long deadline = launched + observe.toNanos();
+            while (share50Ms == null && System.nanoTime() < deadline) {
+                Thread.sleep(SAMPLE_MS);
+                long elapsedMs = (System.nanoTime() - launched) / 1_000_000;
+                if (registeredMs == null && upInstances(eureka) >= 2) {
+                    registeredMs = elapsedMs;
+                }
+                long firstNow = requestCount(first);
+                long secondNow = requestCount(second);
+                long firstDelta = firstNow - firstCount;
+                long secondDelta = secondNow - secondCount;
+                firstCount = firstNow;
+                secondCount = secondNow;
+                double share = firstDelta + secondDelta == 0 ? 0 : (double) secondDelta / (firstDelta + secondDelta);
+                shares.add(Math.round(share * 1000) / 1000.0);
+                if (firstRequestMs == null && secondDelta > 0) {
+                    firstRequestMs = elapsedMs;
+                }
+                if (share25Ms == null && share >= 0.25 - SHARE_TOLERANCE) {
+                    share25Ms = elapsedMs;
+                }
+                if (share >= 0.5 - SHARE_TOLERANCE) {
+                    share50Ms = elapsedMs;
+                }
+            }
+            System.out.printf("%-15s scale-out: registered %s   first request %s   25%% share %s   50%% share %s%n",
+                    mode, seconds(registeredMs), seconds(firstRequestMs), seconds(share25Ms), seconds(share50Ms));
+
+            // Scale in by crashing the new instance: how long are requests still routed to it?
+            long failuresBefore = failures.get();
+            long killed = System.nanoTime();
+            secondInstance.kill();
+            Long lastFailureMs = null;
+            long lastFailures = failuresBefore;
+            long quietSince = System.nanoTime();
+            deadline = killed + observe.toNanos();
+            while (System.nanoTime() < deadline && System.nanoTime() - quietSince < Duration.ofSeconds(30).toNanos()) {
+                Thread.sleep(SAMPLE_MS);
+                long now = failures.get();
+                if (now > lastFailures) {
+                    lastFailureMs = (System.nanoTime() - killed) / 1_000_000;
+                    quietSince = System.nanoTime();
+                    lastFailures = now;
+                }
+            }
+            long failedAfterKill = failures.get() - failuresBefore;
+            System.out.printf("%-15s scale-in:  %d failed requests, last one after %s%n",
+                    mode, failedAfterKill, seconds(lastFailureMs));
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("registeredMs", registeredMs);
+            result.put("firstRequestMs", firstRequestMs);
+            result.put("share25Ms", share25Ms);
+            result.put("share50Ms", share50Ms);
+            result.put("sharePerSecond", shares);
+            result.put("failedRequestsAfterKill", failedAfterKill);
+            result.put("lastFailureAfterKillMs", lastFailureMs);
+            return result;
+        } finally {
+            running.set(false);
+            load.shutdownNow();
+            for (int i = processes.size() - 1; i >= 0; i--) {
+                processes.get(i).close();
+            }
+        }
+    }
+
+    // Requests this instance has served on the probe path, from its own metrics
+    private static long requestCount(ApiClient instance) {
+        String uri = URLEncoder.encode("uri:" + PATH_TEMPLATE, StandardCharsets.UTF_8);
+        ApiClient.Response response = instance.send("GET", "/actuator/metrics/http.server.requests?tag=" + uri, null);
+        if (!response.isSuccess()) {
+            return 0;
+        }
+        for (JsonNode measurement : response.json().path("measurements")) {
+            if ("COUNT".equals(measurement.path("statistic").asText())) {
+                return measurement.path("value").asLong();
+            }
+        }
+        return 0;
+    }
+
+    private static int upInstances(ApiClient eureka) {
+        ApiClient.Response response = eureka.send("GET", "/eureka/apps/SHOWTIME-SERVICE", null);
+        if (!response.isSuccess()) {
+            return 0;
+        }
+        int up = 0;
+        for (JsonNode instance : response.json().path("application").path("instance")) {
+            if ("UP".equals(instance.path("status").asText())) {
+                up++;
+            }
+        }
+        return up;
+    }
+
+    private static void waitFor(Duration timeout, Probe probe) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                if (probe.ready()) {
+                    return;
+                }
+            } catch (RuntimeException e) {
+                // not reachable yet
+            }
+            Thread.sleep(1000);
+        }
+        throw new IllegalStateException("Timed out after " + timeout);
+    }
+
+    private static Path jar(LoadTestConfig config, String module, String artifactId) {
+        return config.repoRoot.resolve(module).resolve("target").resolve(artifactId + "-1.0.0.jar");
+    }
+
+    private static String seconds(Long ms) {
+        return ms == null ? "n/a" : String.format("%.1fs", ms / 1000.0);
+    }
+
+    private interface Probe {
+        boolean ready();
+    }
+}
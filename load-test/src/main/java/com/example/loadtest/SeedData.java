@@ -0,0 +1,101 @@
+package com.example.loadtest;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Cinemas, movies, showtimes and customers created through the public API before the run
+class SeedData {
+
+    final List<String> userIds = new ArrayList<>();
+    final List<MovieRef> movies = new ArrayList<>();
+    final Map<String, ShowtimeRef> showtimes = new LinkedHashMap<>();
+    ShowtimeRef hotShowtime;
+
+    static SeedData create(ApiClient api, LoadTestConfig config) {
+        SeedData seed = new SeedData();
+        for (int c = 0; c < config.cinemas; c++) {
+            String cinemaId = api.sendForJson("POST", "/api/admin/cinemas",
+                    Map.of("name", "Load Test Cinema " + c, "location", "City " + c)).path("id").asText();
+
+            for (int m = 0; m < config.moviesPerCinema; m++) {
+                Map<String, Object> movie = new LinkedHashMap<>();
+                movie.put("cinemaId", cinemaId);
+                movie.put("title", "Load Test Movie " + c + "-" + m);
+                movie.put("director", "Director " + m);
+                movie.put("genre", m % 2 == 0 ? "Drama" : "Action");
+                movie.put("language", "English");
+                movie.put("rating", "PG-13");
+                movie.put("duration", 90 + m * 10);
+                movie.put("description", "Seeded by the load test harness");
+                movie.put("releaseDate", LocalDate.now().minusDays(m).toString());
+                movie.put("cast", List.of("Actor A", "Actor B", "Actor C"));
+                String movieId = api.sendForJson("POST", "/api/admin/movies", movie).path("id").asText();
+                MovieRef movieRef = new MovieRef(movieId, cinemaId);
+                seed.movies.add(movieRef);
+
+                for (int s = 0; s < config.showtimesPerMovie; s++) {
+                    Map<String, Object> showtime = new LinkedHashMap<>();
+                    showtime.put("movieId", movieId);
+                    showtime.put("cinemaId", cinemaId);
+                    showtime.put("screenNumber", "Screen " + (m + 1));
+                    showtime.put("showDate", LocalDate.now().plusDays(1 + s % 6).toString());
+                    showtime.put("startTime", LocalTime.of(12 + (s * 3) % 12, 0).toString());
+                    showtime.put("price", 12.5);
+                    showtime.put("totalSeats", config.seatsPerShowtime);
+                    showtime.put("availableSeats", config.seatsPerShowtime);
+                    String showtimeId = api.sendForJson("POST", "/api/showtimes", showtime).path("id").asText();
+                    ShowtimeRef showtimeRef = new ShowtimeRef(showtimeId, movieRef, config.seatsPerShowtime);
+                    seed.showtimes.put(showtimeId, showtimeRef);
+                    if (seed.hotShowtime == null) {
+                        seed.hotShowtime = showtimeRef;
+                    }
+                }
+            }
+        }
+
+        for (int u = 0; u < config.users; u++) {
+            Map<String, Object> user = new LinkedHashMap<>();
+            user.put("name", "Load Test User " + u);
+            user.put("email", "loadtest-" + u + "-" + System.nanoTime() + "@example.com");
+            user.put("phone", "+1-555-" + String.format("%04d", u % 10_000));
+            user.put("userType", "CUSTOMER");
+            seed.userIds.add(api.sendForJson("POST", "/api/users", user).path("id").asText());
+        }
+        return seed;
+    }
+
+    MovieRef randomMovie(Random random) {
+        return movies.get(random.nextInt(movies.size()));
+    }
+
+    String randomUserId(Random random) {
+        return userIds.get(random.nextInt(userIds.size()));
+    }
+
+    static class MovieRef {
+        final String id;
+        final String cinemaId;
+
+        MovieRef(String id, String cinemaId) {
+            this.id = id;
+            this.cinemaId = cinemaId;
+        }
+    }
+
+    static class ShowtimeRef {
+        final String id;
+        final MovieRef movie;
+        final int initialSeats;
+
+        ShowtimeRef(String id, MovieRef movie, int initialSeats) {
+            this.id = id;
+            this.movie = movie;
+            this.initialSeats = initialSeats;
+        }
+    }
+}
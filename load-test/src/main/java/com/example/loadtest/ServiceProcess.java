@@ -0,0 +1,62 @@
+package com.example.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// One service jar running as a local child process, output captured in the log directory
+class ServiceProcess implements AutoCloseable {
+
+    final String name;
+    final Path logFile;
+    private final Process process;
+
+    private ServiceProcess(String name, Path logFile, Process process) {
+        this.name = name;
+        this.logFile = logFile;
+        this.process = process;
+    }
+
+    static ServiceProcess start(LoadTestConfig config, String name, Path jar, List<String> args, Path logDir) throws IOException {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException("Missing " + jar + " - build the service first (mvn -B package -DskipTests)");
+        }
+        List<String> command = new ArrayList<>();
+        command.add(config.javaBinary);
+        command.addAll(config.jvmArgs);
+        command.add("-jar");
+        command.add(jar.toString());
+        command.addAll(args);
+        return start(name, command, logDir);
+    }
+
+    // Any launch command, e.g. a fast-start jar with its CDS archive or a native executable
+    static ServiceProcess start(String name, List<String> command, Path logDir) throws IOException {
+        Path logFile = logDir.resolve(name + ".log");
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile.toFile())
+                .start();
+        return new ServiceProcess(name, logFile, process);
+    }
+
+    boolean isAlive() {
+        return process.isAlive();
+    }
+
+    // Like a crashed host: no deregistration, connections are simply refused
+    void kill() throws InterruptedException {
+        process.destroyForcibly().waitFor();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(20, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+}
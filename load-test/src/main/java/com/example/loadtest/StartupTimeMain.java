@@ -0,0 +1,209 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Time-to-first-served-request of a service instance, per launch mode:
+// - jar:        the regular Spring Boot fat jar
+// - fast-start: the -Pfast-start build (AOT + AppCDS archive + fast-start profile)
+// - native:     the -Pnative executable (user-service, eureka-server)
+// Each run starts the instance on its own next to a shared MongoDB and eureka-server, and reports
+// when its first request was answered and when Eureka first listed it as UP, both measured from
+// process launch. Modes whose build output is missing are skipped.
+public class StartupTimeMain {
+
+    private static final Map<String, Target> TARGETS = new LinkedHashMap<>();
+
+    static {
+        TARGETS.put("eureka-server", new Target("eureka-server", "eureka-server", 8761, "/eureka/apps", null));
+        TARGETS.put("user-service", new Target("user-service", "user-service", 8081, "/api/users", "USER-SERVICE"));
+        TARGETS.put("movie-service", new Target("movie-service", "admin-service", 8082, "/api/movies", "ADMIN-SERVICE"));
+        TARGETS.put("showtime-service", new Target("showtime-service", "showtime-service", 8083,
+                "/api/showtimes/cinema/startup-probe", "SHOWTIME-SERVICE"));
+        TARGETS.put("booking-service", new Target("booking-service", "booking-service", 8084,
+                "/api/bookings/user/startup-probe", "BOOKING-SERVICE"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        List<String> services = list(System.getProperty("loadtest.startup.services", "showtime-service,booking-service"));
+        List<String> modes = list(System.getProperty("loadtest.startup.modes", "jar,fast-start"));
+        int runs = Integer.parseInt(System.getProperty("loadtest.startup.runs", "3"));
+        Path logDir = Files.createDirectories(Path.of("target", "loadtest-logs"));
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(500)).build();
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        EphemeralMongo mongo = config.mongoPort == null
+                ? EphemeralMongo.start(config.mongodBinary, logDir, config.startupTimeout)
+                : null;
+        int mongoPort = mongo != null ? mongo.port : config.mongoPort;
+        ServiceProcess eureka = null;
+        try {
+            // eureka-server itself is measured before the shared registry is started
+            if (services.contains("eureka-server")) {
+                report.put("eureka-server", measure(config, TARGETS.get("eureka-server"), modes, runs, List.of(), http, logDir));
+            }
+            eureka = launch(config, TARGETS.get("eureka-server"), "jar", List.of(), logDir);
+            waitForFirstResponse(http, config.eurekaUrl + "/eureka/apps", System.nanoTime(), config.startupTimeout);
+
+            List<String> clientArgs = List.of(
+                    "--eureka.client.service-url.defaultZone=" + config.eurekaUrl + "/eureka/",
+                    "--eureka.instance.prefer-ip-address=true",
+                    "--eureka.instance.ip-address=127.0.0.1",
+                    "--spring.data.mongodb.host=" + config.mongoHost,
+                    "--spring.data.mongodb.port=" + mongoPort);
+            for (String service : services) {
+                if (!service.equals("eureka-server")) {
+                    report.put(service, measure(config, TARGETS.get(service), modes, runs, clientArgs, http, logDir));
+                }
+            }
+        } finally {
+            if (eureka != null) {
+                eureka.close();
+            }
+            if (mongo != null) {
+                mongo.close();
+            }
+        }
+
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(Path.of("target", "startup-report.json").toFile(), report);
+    }
+
+    private static Map<String, Object> measure(LoadTestConfig config, Target target, List<String> modes, int runs,
+                                               List<String> args, HttpClient http, Path logDir) throws Exception {
+        Map<String, Object> results = new LinkedHashMap<>();
+        for (String mode : modes) {
+            if (!Files.exists(launchFile(config, target, mode))) {
+                System.out.printf("%-17s %-10s skipped, %s not built%n", target.module, mode, launchFile(config, target, mode));
+                continue;
+            }
+            long[] firstRequestMs = new long[runs];
+            long[] registeredMs = new long[runs];
+            for (int run = 0; run < runs; run++) {
+                long start = System.nanoTime();
+                try (ServiceProcess process = launch(config, target, mode, args, logDir)) {
+                    String probe = "http://127.0.0.1:" + target.port + target.probePath;
+                    firstRequestMs[run] = waitForFirstResponse(http, probe, start, config.startupTimeout);
+                    registeredMs[run] = target.eurekaName == null ? 0
+                            : waitForFirstResponse(http, config.eurekaUrl + "/eureka/apps/" + target.eurekaName, start,
+                            config.startupTimeout);
+                    if (!process.isAlive()) {
+                        throw new IllegalStateException(target.module + " exited, see " + process.logFile);
+                    }
+                }
+            }
+            Arrays.sort(firstRequestMs);
+            Arrays.sort(registeredMs);
+            long medianFirstRequest = firstRequestMs[runs / 2];
+            long medianRegistered = registeredMs[runs / 2];
+            System.out.printf("%-17s %-10s first request %6d ms   registered %6d ms   (median of %d)%n",
+                    target.module, mode, medianFirstRequest, medianRegistered, runs);
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("firstRequestMs", medianFirstRequest);
+            result.put("registeredMs", medianRegistered);
+            result.put("firstRequestRunsMs", firstRequestMs);
+            result.put("registeredRunsMs", registeredMs);
+            results.put(mode, result);
+        }
+        return results;
+    }
+
+    private static ServiceProcess launch(LoadTestConfig config, Target target, String mode, List<String> args,
+                                         Path logDir) throws IOException {
+        List<String> command = new ArrayList<>();
+        if (mode.equals("native")) {
+            command.add(launchFile(config, target, mode).toString());
+        } else {
+            command.add(config.javaBinary);
+            command.addAll(config.jvmArgs);
+            if (mode.equals("fast-start")) {
+                Path dir = launchFile(config, target, mode).getParent();
+                command.add("-XX:SharedArchiveFile=" + dir.resolve("application.jsa"));
+                command.add("-Dspring.aot.enabled=true");
+                if (target.eurekaName != null) {
+                    command.add("-Dspring.profiles.active=fast-start");
+                }
+            }
+            command.add("-jar");
+            command.add(launchFile(config, target, mode).toString());
+        }
+        command.addAll(args);
+        return ServiceProcess.start(target.module + "-" + mode, command, logDir);
+    }
+
+    private static Path launchFile(LoadTestConfig config, Target target, String mode) {
+        Path targetDir = config.repoRoot.resolve(target.module).resolve("target");
+        switch (mode) {
+            case "jar":
+                return targetDir.resolve(target.artifactId + "-1.0.0.jar");
+            case "fast-start":
+                return targetDir.resolve("fast-start").resolve(target.artifactId + "-1.0.0-fast-start.jar");
+            case "native":
+                return targetDir.resolve(System.getProperty("os.name").startsWith("Windows")
+                        ? target.artifactId + ".exe" : target.artifactId);
+            default:
+                throw new IllegalArgumentException("Unknown mode " + mode + " (jar, fast-start, native)");
+        }
+    }
+
+    // Milliseconds from start until url first answers 200
+    private static long waitForFirstResponse(HttpClient http, String url, long start, Duration timeout) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(1))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        long deadline = start + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return (System.nanoTime() - start) / 1_000_000;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(20);
+        }
+        throw new IllegalStateException("No answer from " + url + " within " + timeout);
+    }
+
+    private static List<String> list(String value) {
+        List<String> items = new ArrayList<>();
+        for (String item : value.split(",")) {
+            items.add(item.trim());
+        }
+        return items;
+    }
+
+    private static class Target {
+        final String module;
+        final String artifactId;
+        final int port;
+        final String probePath;
+        final String eurekaName;
+
+        Target(String module, String artifactId, int port, String probePath, String eurekaName) {
+            this.module = module;
+            this.artifactId = artifactId;
+            this.port = port;
+            this.probePath = probePath;
+            this.eurekaName = eurekaName;
+        }
+    }
+}
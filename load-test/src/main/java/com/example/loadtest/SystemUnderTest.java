@@ -0,0 +1,148 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Eureka, the four services and the gateway as local processes against one ephemeral mongod.
+// Discovery intervals are shortened so the whole system is routable within seconds.
+class SystemUnderTest implements AutoCloseable {
+
+    private static final List<String> REGISTERED_APPS = List.of(
+            "USER-SERVICE", "ADMIN-SERVICE", "SHOWTIME-SERVICE", "BOOKING-SERVICE", "API-GATEWAY");
+
+    private static final List<String> ROUTE_PROBES = List.of(
+            "/api/users", "/api/movies", "/api/showtimes/cinema/probe", "/api/bookings/user/probe");
+
+    private final LoadTestConfig config;
+    private final Path logDir;
+    private final List<ServiceProcess> processes = new ArrayList<>();
+    private EphemeralMongo mongo;
+
+    private SystemUnderTest(LoadTestConfig config, Path logDir) {
+        this.config = config;
+        this.logDir = logDir;
+    }
+
+    static SystemUnderTest start(LoadTestConfig config) throws IOException, InterruptedException {
+        Path logDir = Files.createDirectories(Path.of("target", "loadtest-logs"));
+        SystemUnderTest system = new SystemUnderTest(config, logDir);
+        if (config.external) {
+            return system;
+        }
+        try {
+            system.startAll();
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            system.close();
+            throw e;
+        }
+        return system;
+    }
+
+    private void startAll() throws IOException, InterruptedException {
+        int mongoPort;
+        if (config.mongoPort != null) {
+            mongoPort = config.mongoPort;
+        } else {
+            mongo = EphemeralMongo.start(config.mongodBinary, logDir, config.startupTimeout);
+            mongoPort = mongo.port;
+        }
+        System.out.println("MongoDB on port " + mongoPort);
+
+        processes.add(ServiceProcess.start(config, "eureka-server", jar("eureka-server", "eureka-server"), List.of(
+                "--eureka.server.response-cache-update-interval-ms=1000",
+                "--eureka.server.wait-time-in-ms-when-sync-empty=0"), logDir));
+        ApiClient eureka = new ApiClient(config.eurekaUrl, Duration.ofSeconds(2));
+        waitUntil("eureka-server", () -> eureka.send("GET", "/eureka/apps", null).isSuccess());
+
+        List<String> clientArgs = List.of(
+                "--eureka.client.service-url.defaultZone=" + config.eurekaUrl + "/eureka/",
+                "--eureka.instance.prefer-ip-address=true",
+                "--eureka.instance.ip-address=127.0.0.1",
+                "--eureka.instance.lease-renewal-interval-in-seconds=5",
+                "--eureka.client.registry-fetch-interval-seconds=5",
+                "--eureka.client.initial-instance-info-replication-interval-seconds=1",
+                "--spring.data.mongodb.host=" + config.mongoHost,
+                "--spring.data.mongodb.port=" + mongoPort);
+
+        processes.add(ServiceProcess.start(config, "user-service", jar("user-service", "user-service"), clientArgs, logDir));
+        processes.add(ServiceProcess.start(config, "admin-service", jar("movie-service", "admin-service"), clientArgs, logDir));
+        processes.add(ServiceProcess.start(config, "showtime-service", jar("showtime-service", "showtime-service"), clientArgs, logDir));
+        processes.add(ServiceProcess.start(config, "booking-service", jar("booking-service", "booking-service"), clientArgs, logDir));
+
+        List<String> gatewayArgs = new ArrayList<>(clientArgs);
+        gatewayArgs.add("--spring.cloud.loadbalancer.cache.ttl=5s");
+        processes.add(ServiceProcess.start(config, "api-gateway", jar("api-gateway", "api-gateway"), gatewayArgs, logDir));
+
+        waitUntil("service registration", () -> registeredApps(eureka).containsAll(REGISTERED_APPS));
+
+        ApiClient gateway = new ApiClient(config.gatewayUrl, Duration.ofSeconds(5));
+        waitUntil("gateway routes", () -> ROUTE_PROBES.stream()
+                .allMatch(path -> gateway.send("GET", path, null).isSuccess()));
+    }
+
+    private Set<String> registeredApps(ApiClient eureka) {
+        Set<String> names = new HashSet<>();
+        ApiClient.Response response = eureka.send("GET", "/eureka/apps", null);
+        if (!response.isSuccess()) {
+            return names;
+        }
+        for (JsonNode app : response.json().path("applications").path("application")) {
+            for (JsonNode instance : app.path("instance")) {
+                if ("UP".equals(instance.path("status").asText())) {
+                    names.add(app.path("name").asText());
+                }
+            }
+        }
+        return names;
+    }
+
+    private void waitUntil(String what, Probe probe) throws InterruptedException {
+        long deadline = System.nanoTime() + config.startupTimeout.toNanos();
+        while (true) {
+            for (ServiceProcess process : processes) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(process.name + " exited, see " + process.logFile);
+                }
+            }
+            try {
+                if (probe.ready()) {
+                    System.out.println("Ready: " + what);
+                    return;
+                }
+            } catch (RuntimeException e) {
+                // not reachable yet
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Timed out waiting for " + what + ", logs in " + logDir);
+            }
+            Thread.sleep(1000);
+        }
+    }
+
+    private Path jar(String module, String artifactId) {
+        return config.repoRoot.resolve(module).resolve("target").resolve(artifactId + "-1.0.0.jar");
+    }
+
+    @Override
+    public void close() throws IOException, InterruptedException {
+        for (int i = processes.size() - 1; i >= 0; i--) {
+            processes.get(i).close();
+        }
+        processes.clear();
+        if (mongo != null) {
+            mongo.close();
+        }
+    }
+
+    private interface Probe {
+        boolean ready();
+    }
+}
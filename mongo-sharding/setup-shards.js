@@ -0,0 +1,29 @@
+// Registers both shards and shards the showtime and booking collections.
+// Safe to run more than once.
+
+const shards = db.adminCommand({ listShards: 1 }).shards.map(s => s._id);
+if (!shards.includes('shard1')) sh.addShard('shard1/localhost:27101');
+if (!shards.includes('shard2')) sh.addShard('shard2/localhost:27102');
+
+sh.enableSharding('showtime_db');
+sh.enableSharding('booking_db');
+
+// Showtimes: ranged on cinema, then id. Ids are "<cinemaId>_<ObjectId>" so lookups by id are targeted.
+sh.shardCollection('showtime_db.showtimes', { cinemaId: 1, _id: 1 });
+
+// Seat stripes of hot showtimes: hashed on id, so one showtime's stripes land on different shards
+sh.shardCollection('showtime_db.seat_stripes', { _id: 'hashed' });
+
+// Bookings: hashed on user, so inserts spread evenly and "my bookings" hits one shard.
+sh.shardCollection('booking_db.bookings', { userId: 'hashed' });
+
+// Cinema ids are ObjectId hex strings: split the range in the middle up front so both shards
+// take cinemas from the start instead of waiting for the balancer
+const config = db.getSiblingDB('config');
+const showtimesUuid = config.collections.findOne({ _id: 'showtime_db.showtimes' }).uuid;
+if (config.chunks.countDocuments({ uuid: showtimesUuid }) === 1) {
+    sh.splitAt('showtime_db.showtimes', { cinemaId: '8', _id: MinKey });
+    sh.moveChunk('showtime_db.showtimes', { cinemaId: 'f', _id: MinKey }, 'shard2');
+}
+
+sh.status();
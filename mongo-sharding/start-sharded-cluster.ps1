@@ -0,0 +1,55 @@
+# Local sharded MongoDB cluster for testing shard targeting
+# One config server, two single-node shard replica sets and a mongos on port 27017,
+# so the services connect to it without configuration changes.
+# Stop any standalone mongod on 27017 first.
+
+param(
+    [string]$DataDir = "$PSScriptRoot\data"
+)
+
+Write-Host "🗄️  Starting local sharded MongoDB cluster..." -ForegroundColor Cyan
+
+foreach ($dir in @("config", "shard1", "shard2")) {
+    New-Item -ItemType Directory -Force -Path "$DataDir\$dir" | Out-Null
+}
+
+function Start-Mongod {
+    param(
+        [string]$Name,
+        [string[]]$Arguments
+    )
+
+    Write-Host "Starting $Name..." -ForegroundColor Yellow
+    Start-Process mongod -ArgumentList $Arguments -WindowStyle Minimized
+}
+
+function Wait-Port {
+    param([int]$Port)
+
+    while (-not (Test-NetConnection -ComputerName localhost -Port $Port -InformationLevel Quiet -WarningAction SilentlyContinue)) {
+        Start-Sleep -Seconds 1
+    }
+}
+
+Start-Mongod "config server (27019)" @("--configsvr", "--replSet", "cfg", "--port", "27019", "--dbpath", "$DataDir\config", "--bind_ip", "localhost")
+Start-Mongod "shard1 (27101)" @("--shardsvr", "--replSet", "shard1", "--port", "27101", "--dbpath", "$DataDir\shard1", "--bind_ip", "localhost")
+Start-Mongod "shard2 (27102)" @("--shardsvr", "--replSet", "shard2", "--port", "27102", "--dbpath", "$DataDir\shard2", "--bind_ip", "localhost")
+
+Wait-Port 27019
+Wait-Port 27101
+Wait-Port 27102
+
+mongosh --quiet --port 27019 --eval "try { rs.status() } catch (e) { rs.initiate({ _id: 'cfg', configsvr: true, members: [{ _id: 0, host: 'localhost:27019' }] }) }"
+mongosh --quiet --port 27101 --eval "try { rs.status() } catch (e) { rs.initiate({ _id: 'shard1', members: [{ _id: 0, host: 'localhost:27101' }] }) }"
+mongosh --quiet --port 27102 --eval "try { rs.status() } catch (e) { rs.initiate({ _id: 'shard2', members: [{ _id: 0, host: 'localhost:27102' }] }) }"
+
+Write-Host "Starting mongos (27017)..." -ForegroundColor Yellow
+Start-Process mongos -ArgumentList @("--configdb", "cfg/localhost:27019", "--port", "27017", "--bind_ip", "localhost") -WindowStyle Minimized
+Wait-Port 27017
+
+mongosh --quiet --port 27017 "$PSScriptRoot\setup-shards.js"
+
+Write-Host ""
+Write-Host "✓ Sharded cluster ready on localhost:27017" -ForegroundColor Green
+Write-Host "Start the services, create some data, then run:" -ForegroundColor Cyan
+Write-Host "  mongosh --port 27017 .\mongo-sharding\verify-targeting.js" -ForegroundColor White
@@ -0,0 +1,52 @@
+// Checks that the hot queries of showtime-service and booking-service are routed to a single shard.
+// Run against mongos after creating some showtimes and bookings through the API.
+
+let failures = 0;
+
+function shardsUsed(explain) {
+    const winning = explain.queryPlanner.winningPlan;
+    return winning.shards ? winning.shards.length : 1;
+}
+
+function check(name, explain) {
+    const used = shardsUsed(explain);
+    const stage = explain.queryPlanner.winningPlan.stage;
+    const targeted = used === 1 && stage !== 'SHARD_MERGE';
+    print(`${targeted ? 'OK  ' : 'FAIL'} ${name}: ${stage}, ${used} shard(s)`);
+    if (!targeted) failures++;
+}
+
+const showtimes = db.getSiblingDB('showtime_db').showtimes;
+const bookings = db.getSiblingDB('booking_db').bookings;
+
+const showtime = showtimes.findOne({ _id: /_[0-9a-f]{24}$/ });
+if (showtime) {
+    check('showtime by id', showtimes.find({ cinemaId: showtime.cinemaId, _id: showtime._id }).explain());
+    check('showtimes by cinema', showtimes.find({ cinemaId: showtime.cinemaId }).explain());
+    check('showtimes by cinema and movie', showtimes.find({ cinemaId: showtime.cinemaId, movieId: showtime.movieId }).explain());
+    check('reduce seats', showtimes.explain().findAndModify({
+        query: { cinemaId: showtime.cinemaId, _id: showtime._id, availableSeats: { $gte: 1 } },
+        update: { $inc: { availableSeats: -1 } },
+        new: true
+    }));
+} else {
+    print('SKIP showtime checks: no showtimes with shard-aware ids yet');
+}
+
+const booking = bookings.findOne({ _id: /_[0-9a-f]{24}$/ });
+if (booking) {
+    check('bookings by user', bookings.find({ userId: booking.userId }).explain());
+    check('booking by id', bookings.find({ userId: booking.userId, _id: booking._id }).explain());
+} else {
+    print('SKIP booking checks: no bookings with shard-aware ids yet');
+}
+
+print('');
+print('Chunk distribution:');
+showtimes.getShardDistribution();
+bookings.getShardDistribution();
+
+if (failures > 0) {
+    print(`${failures} quer${failures === 1 ? 'y is' : 'ies are'} scatter-gather`);
+    quit(1);
+}
@@ -1,4 +1,5 @@
 import axios from 'axios';
+import { useAppStore } from '../store';
 
 // Create axios instance with base configuration
 const axiosClient = axios.create({
@@ -17,6 +18,11 @@ axiosClient.interceptors.request.use(
     if (token) {
       config.headers.Authorization = `Bearer ${token}`;
     }
+    // Identifies the caller to the gateway and admin-service for admin authorization
+    const userId = useAppStore.getState().currentUser?.id;
+    if (userId) {
+      config.headers['X-User-Id'] = userId;
+    }
     return config;
   },
   (error) => {
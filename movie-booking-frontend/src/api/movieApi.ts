@@ -1,5 +1,5 @@
 import axiosClient from './axiosClient';
-import type { Movie, MovieDTO } from '../types';
+import type { Movie, MovieCardData, MovieDTO } from '../types';
 
 /**
  * Movie Service API
@@ -12,15 +12,15 @@ export const createMovie = async (movieData: MovieDTO): Promise<Movie> => {
   return response.data;
 };
 
-// Get all movies
-export const getAllMovies = async (): Promise<Movie[]> => {
-  const response = await axiosClient.get('/movies');
+// Get all movies (card fields only)
+export const getAllMovies = async (): Promise<MovieCardData[]> => {
+  const response = await axiosClient.get('/movies?view=card');
   return response.data;
 };
 
-// Search movies
-export const searchMovies = async (query: string): Promise<Movie[]> => {
-  const response = await axiosClient.get(`/movies/search?query=${encodeURIComponent(query)}`);
+// Search movies (card fields only)
+export const searchMovies = async (query: string): Promise<MovieCardData[]> => {
+  const response = await axiosClient.get(`/movies/search?query=${encodeURIComponent(query)}&view=card`);
   return response.data;
 };
 
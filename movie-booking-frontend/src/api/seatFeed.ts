@@ -0,0 +1,69 @@
+/**
+ * Live seat availability (Server-Sent Events)
+ * Endpoint: /api/showtimes/seats/stream?showtimeIds=...
+ *
+ * All components share one EventSource that watches every subscribed showtime, so a page full of
+ * showtime cards uses a single connection. The connection is reopened (batched) when the set of
+ * watched showtimes changes; EventSource reconnects on its own after network errors.
+ */
+
+type SeatListener = (availableSeats: number) => void;
+
+const MAX_SHOWTIMES_PER_STREAM = 50;
+const baseURL = import.meta.env.VITE_API_BASE_URL || 'http://localhost:9090/api';
+
+const listeners = new Map<string, Set<SeatListener>>();
+const latest = new Map<string, number>();
+let source: EventSource | null = null;
+let reopenTimer: ReturnType<typeof setTimeout> | null = null;
+
+const reopen = () => {
+  reopenTimer = null;
+  source?.close();
+  source = null;
+
+  const showtimeIds = Array.from(listeners.keys()).slice(0, MAX_SHOWTIMES_PER_STREAM);
+  if (showtimeIds.length === 0) {
+    return;
+  }
+
+  const params = new URLSearchParams({ showtimeIds: showtimeIds.join(',') });
+  source = new EventSource(`${baseURL}/showtimes/seats/stream?${params}`);
+  source.addEventListener('seats', (event) => {
+    const { showtimeId, availableSeats } = JSON.parse((event as MessageEvent).data);
+    latest.set(showtimeId, availableSeats);
+    listeners.get(showtimeId)?.forEach((listener) => listener(availableSeats));
+  });
+};
+
+const scheduleReopen = () => {
+  if (reopenTimer === null) {
+    reopenTimer = setTimeout(reopen, 50);
+  }
+};
+
+// Calls onChange with every new availableSeats of the showtime; returns the unsubscribe function
+export const subscribeToSeatAvailability = (showtimeId: string, onChange: SeatListener): (() => void) => {
+  let showtimeListeners = listeners.get(showtimeId);
+  if (!showtimeListeners) {
+    showtimeListeners = new Set();
+    listeners.set(showtimeId, showtimeListeners);
+    scheduleReopen();
+  }
+  showtimeListeners.add(onChange);
+
+  const known = latest.get(showtimeId);
+  if (known !== undefined) {
+    onChange(known);
+  }
+
+  return () => {
+    const current = listeners.get(showtimeId);
+    current?.delete(onChange);
+    if (current && current.size === 0) {
+      listeners.delete(showtimeId);
+      latest.delete(showtimeId);
+      scheduleReopen();
+    }
+  };
+};
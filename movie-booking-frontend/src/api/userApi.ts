@@ -35,28 +35,23 @@ export const deleteUser = async (userId: string): Promise<void> => {
   await axiosClient.delete(`/users/${userId}`);
 };
 
+// Get user by email (404 when no user has it)
+export const getUserByEmail = async (email: string): Promise<User> => {
+  const response = await axiosClient.get('/users/by-email', { params: { email } });
+  return response.data;
+};
+
 // Login helper - finds user by email (demo only, no real authentication)
 export const loginUser = async (email: string, _password: string): Promise<User> => {
   try {
-    console.log('Attempting login for:', email);
-    console.log('API Base URL:', import.meta.env.VITE_API_BASE_URL);
-    
-    // Fetch all users and find by email
-    const users = await getAllUsers();
-    console.log('Fetched users:', users.length);
-    
-    const user = users.find(u => u.email.toLowerCase() === email.toLowerCase());
-    
-    if (!user) {
-      throw new Error('User not found. Please check your email or register.');
-    }
-    
     // In a real app, password would be verified on backend
     // For demo purposes, we accept any password if user exists
-    console.log('Login successful:', user);
-    return user;
+    return await getUserByEmail(email);
   } catch (error: any) {
     console.error('Login error:', error);
+    if (error.response?.status === 404) {
+      throw new Error('User not found. Please check your email or register.');
+    }
     throw new Error(error.response?.data?.message || error.message || 'Login failed');
   }
 };
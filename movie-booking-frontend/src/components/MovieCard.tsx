@@ -1,9 +1,9 @@
 import { Link } from 'react-router-dom';
 import { Clock, Star } from 'lucide-react';
-import type { Movie } from '../types';
+import type { MovieCardData } from '../types';
 
 interface MovieCardProps {
-  movie: Movie;
+  movie: MovieCardData;
 }
 
 const MovieCard: React.FC<MovieCardProps> = ({ movie }) => {
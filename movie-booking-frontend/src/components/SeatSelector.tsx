@@ -3,6 +3,8 @@ import { SEAT_COLS } from '../utils/constants';
 
 interface SeatSelectorProps {
   totalSeats: number;
+  // Live count from the seat availability stream, shown above the grid
+  availableSeats?: number;
   bookedSeats: number[];
   selectedSeats: number[];
   onSeatSelect: (seatNumber: number) => void;
@@ -11,6 +13,7 @@ interface SeatSelectorProps {
 
 const SeatSelector: React.FC<SeatSelectorProps> = ({
   totalSeats,
+  availableSeats,
   bookedSeats = [],
   selectedSeats = [],
   onSeatSelect,
@@ -50,6 +53,14 @@ const SeatSelector: React.FC<SeatSelectorProps> = ({
 
   return (
     <div className="space-y-6">
+      {availableSeats !== undefined && (
+        <p className="text-center text-sm text-gray-400" aria-live="polite">
+          <span className={availableSeats > 0 ? 'text-green-500 font-semibold' : 'text-red-500 font-semibold'}>
+            {availableSeats}
+          </span> of {totalSeats} seats left
+        </p>
+      )}
+
       <div className="text-center">
         <div className="inline-block bg-gray-700 px-16 py-2 rounded-t-3xl">
           <span className="text-gray-400 text-sm">SCREEN</span>
@@ -1,7 +1,9 @@
+import { useEffect, useState } from 'react';
 import { Link } from 'react-router-dom';
 import { Calendar, Clock, MapPin } from 'lucide-react';
 import type { Showtime } from '../types';
 import { formatPrice, formatDateForDisplay } from '../utils/helpers';
+import { subscribeToSeatAvailability } from '../api/seatFeed';
 
 interface ShowtimeCardProps {
   showtime: Showtime;
@@ -10,7 +12,15 @@ interface ShowtimeCardProps {
 }
 
 const ShowtimeCard: React.FC<ShowtimeCardProps> = ({ showtime, movieTitle, movieId }) => {
-  const availabilityPercentage = (showtime.availableSeats / showtime.totalSeats) * 100;
+  const [availableSeats, setAvailableSeats] = useState(showtime.availableSeats);
+
+  // Live count pushed by the server instead of the one loaded with the page
+  useEffect(() => {
+    setAvailableSeats(showtime.availableSeats);
+    return subscribeToSeatAvailability(showtime.id, setAvailableSeats);
+  }, [showtime.id, showtime.availableSeats]);
+
+  const availabilityPercentage = (availableSeats / showtime.totalSeats) * 100;
 
   const getAvailabilityColor = () => {
     if (availabilityPercentage > 50) return 'text-green-500';
@@ -49,23 +59,23 @@ const ShowtimeCard: React.FC<ShowtimeCardProps> = ({ showtime, movieTitle, movie
       <div className="flex items-center justify-between mb-3">
         <span className="text-sm text-gray-400">
           Available: <span className={`font-semibold ${getAvailabilityColor()}`}>
-            {showtime.availableSeats}/{showtime.totalSeats}
+            {availableSeats}/{showtime.totalSeats}
           </span>
         </span>
       </div>
 
       <Link
         to={bookingUrl}
-        className={`btn-primary w-full text-center block ${showtime.availableSeats === 0 ? 'opacity-50 cursor-not-allowed' : ''
+        className={`btn-primary w-full text-center block ${availableSeats === 0 ? 'opacity-50 cursor-not-allowed' : ''
           }`}
         onClick={(e) => {
-          if (showtime.availableSeats === 0) {
+          if (availableSeats === 0) {
             e.preventDefault();
             alert('No seats available for this showtime');
           }
         }}
       >
-        {showtime.availableSeats > 0 ? 'Select Seats' : 'Sold Out'}
+        {availableSeats > 0 ? 'Select Seats' : 'Sold Out'}
       </Link>
     </div>
   );
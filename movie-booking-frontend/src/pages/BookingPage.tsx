@@ -1,6 +1,7 @@
 import { useState, useEffect } from 'react';
 import { useParams, useNavigate } from 'react-router-dom';
 import { reduceSeats } from '../api/showtimeApi';
+import { subscribeToSeatAvailability } from '../api/seatFeed';
 import { getMovieById } from '../api/movieApi';
 import { createBooking } from '../api/bookingApi';
 import { createUser } from '../api/userApi';
@@ -28,6 +29,21 @@ const BookingPage = () => {
     clearSelectedSeats();
   }, [movieId, showtimeId]);
 
+  // Seats taken by other users show up as booked while this page is open
+  useEffect(() => {
+    if (!showtime) {
+      return;
+    }
+    return subscribeToSeatAvailability(showtime.id, (availableSeats) => {
+      const bookedCount = showtime.totalSeats - availableSeats;
+      setShowtime((current) => (current ? { ...current, availableSeats } : current));
+      setBookedSeats(Array.from({ length: bookedCount }, (_, i) => i + 1));
+      useAppStore.getState().selectedSeats
+        .filter((seat) => seat <= bookedCount)
+        .forEach((seat) => removeSelectedSeat(seat));
+    });
+  }, [showtime?.id]);
+
   const loadMovieDetails = async () => {
     try {
       const movieData = await getMovieById(movieId!);
@@ -175,6 +191,7 @@ const BookingPage = () => {
             <h2 className="text-2xl font-bold text-white mb-6">Select Seats</h2>
             <SeatSelector
               totalSeats={showtime.totalSeats}
+              availableSeats={showtime.availableSeats}
               bookedSeats={bookedSeats}
               selectedSeats={selectedSeats}
               onSeatSelect={handleSeatSelect}
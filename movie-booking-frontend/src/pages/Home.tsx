@@ -2,12 +2,12 @@ import { Link } from 'react-router-dom';
 import { Search, Film, Ticket } from 'lucide-react';
 import { useState, useEffect } from 'react';
 import { getAllMovies } from '../api/movieApi';
-import type { Movie } from '../types';
+import type { MovieCardData } from '../types';
 import MovieCard from '../components/MovieCard';
 import Loading from '../components/Loading';
 
 const Home = () => {
-  const [movies, setMovies] = useState<Movie[]>([]);
+  const [movies, setMovies] = useState<MovieCardData[]>([]);
   const [loading, setLoading] = useState(true);
   const [searchQuery, setSearchQuery] = useState('');
 
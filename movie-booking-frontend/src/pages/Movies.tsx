@@ -1,15 +1,15 @@
 import { useState, useEffect } from 'react';
 import { useSearchParams } from 'react-router-dom';
 import { getAllMovies, searchMovies } from '../api/movieApi';
-import type { Movie } from '../types';
+import type { MovieCardData } from '../types';
 import MovieCard from '../components/MovieCard';
 import Loading from '../components/Loading';
 import { GENRES, LANGUAGES } from '../utils/constants';
 
 const Movies = () => {
   const [searchParams, setSearchParams] = useSearchParams();
-  const [movies, setMovies] = useState<Movie[]>([]);
-  const [filteredMovies, setFilteredMovies] = useState<Movie[]>([]);
+  const [movies, setMovies] = useState<MovieCardData[]>([]);
+  const [filteredMovies, setFilteredMovies] = useState<MovieCardData[]>([]);
   const [loading, setLoading] = useState(true);
 
   const searchQuery = searchParams.get('search') || '';
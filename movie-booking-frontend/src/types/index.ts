@@ -35,6 +35,9 @@ export interface Movie {
   showtimes: Showtime[];
 }
 
+// What the movie lists return with ?view=card
+export type MovieCardData = Pick<Movie, 'id' | 'title' | 'posterUrl' | 'rating' | 'genre' | 'language' | 'duration'>;
+
 export interface MovieDTO {
   title: string;
   description: string;
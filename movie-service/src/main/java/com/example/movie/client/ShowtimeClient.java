@@ -0,0 +1,15 @@
+package com.example.movie.client;
+
+import com.example.movie.dto.ShowtimeDTO;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+import java.util.List;
+
+@FeignClient(name = "showtime-service", path = "/api/showtimes")
+public interface ShowtimeClient {
+
+    @GetMapping("/cinema/{cinemaId}")
+    List<ShowtimeDTO> getShowtimesByCinemaId(@PathVariable String cinemaId);
+}
@@ -0,0 +1,22 @@
+package com.example.movie.client;
+
+import com.example.movie.dto.UserIdentity;
+import feign.Response;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
+
+@FeignClient(name = "user-service", path = "/api/users")
+public interface UserClient {
+
+    @PostMapping("/identities/lookup")
+    List<UserIdentity> lookupIdentities(@RequestBody List<String> ids);
+
+    // Newline-delimited JSON; the caller reads the body as a stream and closes the response
+    @GetMapping(value = "/identities", produces = "application/x-ndjson")
+    Response streamIdentities(@RequestParam("userType") String userType);
+}
@@ -0,0 +1,36 @@
+package com.example.movie.config;
+
+import com.example.movie.service.AdminAccess;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Set;
+
+// Writes under /api/admin need a cinema admin (see AdminAccess); reads stay public because the
+// catalogue pages list cinemas and movies for everyone
+@Configuration
+public class AdminAccessConfig implements WebMvcConfigurer {
+
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    @Autowired
+    private AdminAccess adminAccess;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                if (WRITE_METHODS.contains(request.getMethod())) {
+                    adminAccess.authenticate(request.getHeader(AdminAccess.USER_ID_HEADER));
+                }
+                return true;
+            }
+        }).addPathPatterns("/api/admin/**");
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.movie.config;
+
+import com.example.movie.service.NowShowingService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+
+// Selective lazy initialization for the fast-start profile (spring.main.lazy-initialization=true).
+// Controllers and exception handlers, and everything they depend on, are still created at startup
+// so the first request does not pay for them. Beans with @Scheduled methods or background threads
+// started in @PostConstruct only run once they exist, so they are eager too. The rest (actuator
+// endpoints, tracing exporters, anything no request needs) is created on first use.
+@Configuration
+@Profile("fast-start")
+public class FastStartConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerRequestPath() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && (AnnotatedElementUtils.hasAnnotation(beanType, Controller.class)
+                || AnnotatedElementUtils.hasAnnotation(beanType, ControllerAdvice.class)
+                || NowShowingService.class.isAssignableFrom(beanType));
+    }
+}
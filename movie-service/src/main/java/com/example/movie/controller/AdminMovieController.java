@@ -1,15 +1,21 @@
 package com.example.movie.controller;
 
 import com.example.movie.dto.MovieDTO;
+import com.example.movie.dto.MovieImportResultDTO;
 import com.example.movie.model.Showtime;
+import com.example.movie.service.MovieImportService;
 import com.example.movie.service.MovieService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 @RestController
 @RequestMapping("/api/admin/movies")
@@ -18,12 +24,31 @@ public class AdminMovieController {
     @Autowired
     private MovieService movieService;
 
+    @Autowired
+    private MovieImportService movieImportService;
+
     @PostMapping
     public ResponseEntity<MovieDTO> createMovie(@Valid @RequestBody MovieDTO movieDTO) {
         MovieDTO createdMovie = movieService.createMovie(movieDTO);
         return new ResponseEntity<>(createdMovie, HttpStatus.CREATED);
     }
 
+    // Streams an NDJSON or CSV upload into the catalogue; row errors are reported in the 200 response.
+    // The format comes from ?format= or else the Content-Type; Content-Encoding: gzip is accepted.
+    @PostMapping("/import")
+    public ResponseEntity<MovieImportResultDTO> importMovies(
+            @RequestParam(required = false) String format,
+            HttpServletRequest request) throws IOException {
+        MovieImportService.Format importFormat = format != null ? MovieImportService.Format.of(format)
+                : request.getContentType() != null && request.getContentType().contains("csv")
+                        ? MovieImportService.Format.CSV : MovieImportService.Format.NDJSON;
+        InputStream body = request.getInputStream();
+        if ("gzip".equalsIgnoreCase(request.getHeader("Content-Encoding"))) {
+            body = new GZIPInputStream(body, 64 * 1024);
+        }
+        return ResponseEntity.ok(movieImportService.importMovies(body, importFormat));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<MovieDTO> updateMovie(@PathVariable String id, @Valid @RequestBody MovieDTO movieDTO) {
         MovieDTO updatedMovie = movieService.updateMovie(id, movieDTO);
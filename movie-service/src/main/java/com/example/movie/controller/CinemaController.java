@@ -1,5 +1,6 @@
 package com.example.movie.controller;
 
+import com.example.movie.dto.NearbyCinemasDTO;
 import com.example.movie.model.Cinema;
 import com.example.movie.service.CinemaService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,4 +27,15 @@ public class CinemaController {
     public ResponseEntity<List<Cinema>> getAllCinemas() {
         return ResponseEntity.ok(cinemaService.getAllCinemas());
     }
+
+    // Cinemas within radius km of lat/lng, nearest first, one page at a time
+    @GetMapping("/near")
+    public ResponseEntity<NearbyCinemasDTO> getCinemasNear(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "10") double radius,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(cinemaService.findNear(lat, lng, radius, page, size));
+    }
 }
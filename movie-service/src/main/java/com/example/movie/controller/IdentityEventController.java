@@ -0,0 +1,23 @@
+package com.example.movie.controller;
+
+import com.example.movie.dto.UserIdentityEvent;
+import com.example.movie.service.UserIdentityCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+// Called by user-service on every instance directly, not through the gateway
+@RestController
+public class IdentityEventController {
+
+    @Autowired
+    private UserIdentityCache userIdentityCache;
+
+    @PostMapping("/internal/identity-events")
+    public ResponseEntity<Void> onIdentityEvent(@RequestBody UserIdentityEvent event) {
+        userIdentityCache.evict(event.getUserId());
+        return ResponseEntity.accepted().build();
+    }
+}
@@ -1,7 +1,10 @@
 package com.example.movie.controller;
 
+import com.example.movie.dto.FieldSelection;
 import com.example.movie.dto.MovieDTO;
+import com.example.movie.dto.NowShowingDTO;
 import com.example.movie.service.MovieService;
+import com.example.movie.service.NowShowingService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -17,14 +20,23 @@ public class MovieController {
     @Autowired
     private MovieService movieService;
 
+    @Autowired
+    private NowShowingService nowShowingService;
+
+    // List endpoints return full movies unless ?view=card|summary or ?fields=a,b,c narrows them
     @GetMapping
-    public ResponseEntity<List<MovieDTO>> getAllMovies() {
-        return ResponseEntity.ok(movieService.getAllMovies());
+    public ResponseEntity<List<?>> getAllMovies(
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(movieService.getAllMovies(selection(view, fields)));
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<MovieDTO>> searchMovies(@RequestParam String query) {
-        return ResponseEntity.ok(movieService.searchMovies(query));
+    public ResponseEntity<List<?>> searchMovies(
+            @RequestParam String query,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(movieService.searchMovies(query, selection(view, fields)));
     }
 
     @GetMapping("/{id}")
@@ -33,8 +45,20 @@ public class MovieController {
     }
 
     @GetMapping("/cinema/{cinemaId}")
-    public ResponseEntity<List<MovieDTO>> getMoviesByCinemaId(@PathVariable String cinemaId) {
-        List<MovieDTO> movies = movieService.getMoviesByCinemaId(cinemaId);
+    public ResponseEntity<List<?>> getMoviesByCinemaId(
+            @PathVariable String cinemaId,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) String fields) {
+        List<?> movies = movieService.getMoviesByCinemaId(cinemaId, selection(view, fields));
         return ResponseEntity.ok(movies);
     }
+
+    @GetMapping("/cinema/{cinemaId}/now-showing")
+    public ResponseEntity<NowShowingDTO> getNowShowing(@PathVariable String cinemaId) {
+        return ResponseEntity.ok(nowShowingService.getNowShowing(cinemaId));
+    }
+
+    private static FieldSelection selection(String view, String fields) {
+        return FieldSelection.of(view, fields, MovieService.VIEWS, MovieService.FIELDS);
+    }
 }
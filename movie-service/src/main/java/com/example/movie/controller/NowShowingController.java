@@ -0,0 +1,28 @@
+package com.example.movie.controller;
+
+import com.example.movie.dto.ShowtimeEvent;
+import com.example.movie.service.NowShowingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+// Service-to-service endpoints for keeping the now-showing read model current
+@RestController
+@RequestMapping("/api/admin/now-showing")
+public class NowShowingController {
+
+    @Autowired
+    private NowShowingService nowShowingService;
+
+    @PostMapping("/showtime-events")
+    public ResponseEntity<Void> onShowtimeEvent(@RequestBody ShowtimeEvent event) {
+        nowShowingService.onShowtimeEvent(event);
+        return ResponseEntity.accepted().build();
+    }
+
+    @PostMapping("/{cinemaId}/rebuild")
+    public ResponseEntity<Void> rebuild(@PathVariable String cinemaId) {
+        nowShowingService.rebuild(cinemaId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.movie.dto;
+
+import com.example.movie.exception.InvalidFieldSelectionException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// The fields of a list response the caller asked for: a named view (?view=card) or ?fields=a,b,c, both
+// checked against the fields the DTO has; id is always included. The selection becomes the MongoDB
+// projection, so other fields are never read or mapped, and each result is then cut down to the
+// selected fields before it is written. Without view or fields the full DTOs are returned as before.
+public final class FieldSelection {
+
+    public static final FieldSelection ALL = new FieldSelection(null);
+
+    private final List<String> fields;
+
+    private FieldSelection(List<String> fields) {
+        this.fields = fields;
+    }
+
+    public static FieldSelection of(String view, String fields, Map<String, List<String>> views, List<String> available) {
+        if (fields != null && !fields.isBlank()) {
+            if (view != null) {
+                throw new InvalidFieldSelectionException("Use either view or fields, not both");
+            }
+            Set<String> selected = new LinkedHashSet<>();
+            selected.add("id");
+            for (String field : fields.split(",")) {
+                String name = field.trim();
+                if (name.isEmpty()) {
+                    continue;
+                }
+                if (!available.contains(name)) {
+                    throw new InvalidFieldSelectionException("Unknown field '" + name + "', use some of " + available);
+                }
+                selected.add(name);
+            }
+            return new FieldSelection(new ArrayList<>(selected));
+        }
+        if (view == null || "full".equalsIgnoreCase(view)) {
+            return ALL;
+        }
+        List<String> viewFields = views.get(view.toLowerCase(Locale.ROOT));
+        if (viewFields == null) {
+            throw new InvalidFieldSelectionException("Unknown view '" + view + "', use full or one of " + views.keySet());
+        }
+        return new FieldSelection(viewFields);
+    }
+
+    public boolean isAll() {
+        return fields == null;
+    }
+
+    public Query applyTo(Query query) {
+        if (fields != null) {
+            query.fields().include(fields.toArray(new String[0]));
+        }
+        return query;
+    }
+
+    // Through the ObjectMapper so that dates keep the DTO's formats
+    public ObjectNode project(Object dto, ObjectMapper objectMapper) {
+        ObjectNode node = objectMapper.valueToTree(dto);
+        node.retain(fields);
+        return node;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.movie.dto;
+
+// A rejected upload row: its number (1 = first movie, a CSV header is not counted) and why
+public class ImportRowErrorDTO {
+    private long row;
+    private String title;
+    private String message;
+
+    public ImportRowErrorDTO() {
+    }
+
+    public ImportRowErrorDTO(long row, String title, String message) {
+        this.row = row;
+        this.title = title;
+        this.message = message;
+    }
+
+    public long getRow() {
+        return row;
+    }
+
+    public void setRow(long row) {
+        this.row = row;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.movie.dto;
+
+import java.util.List;
+
+// Outcome of a catalogue import. Rows are inserted, update an existing movie with the same
+// cinemaId, title and releaseDate, or fail; errors lists the first failures only.
+public class MovieImportResultDTO {
+    private long rows;
+    private long inserted;
+    private long updated;
+    private long failed;
+    private List<ImportRowErrorDTO> errors;
+    private boolean errorsTruncated;
+
+    public MovieImportResultDTO() {
+    }
+
+    public MovieImportResultDTO(long rows, long inserted, long updated, long failed, List<ImportRowErrorDTO> errors,
+                                boolean errorsTruncated) {
+        this.rows = rows;
+        this.inserted = inserted;
+        this.updated = updated;
+        this.failed = failed;
+        this.errors = errors;
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    public void setInserted(long inserted) {
+        this.inserted = inserted;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(long updated) {
+        this.updated = updated;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public List<ImportRowErrorDTO> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<ImportRowErrorDTO> errors) {
+        this.errors = errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public void setErrorsTruncated(boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+}
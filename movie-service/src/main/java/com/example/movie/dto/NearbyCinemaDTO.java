@@ -0,0 +1,62 @@
+package com.example.movie.dto;
+
+import com.example.movie.model.GeoLocation;
+
+public class NearbyCinemaDTO {
+    private String id;
+    private String name;
+    private String location;
+    private GeoLocation coordinates;
+    private double distanceKm;
+
+    public NearbyCinemaDTO() {
+    }
+
+    public NearbyCinemaDTO(String id, String name, String location, GeoLocation coordinates, double distanceKm) {
+        this.id = id;
+        this.name = name;
+        this.location = location;
+        this.coordinates = coordinates;
+        this.distanceKm = distanceKm;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public GeoLocation getCoordinates() {
+        return coordinates;
+    }
+
+    public void setCoordinates(GeoLocation coordinates) {
+        this.coordinates = coordinates;
+    }
+
+    public double getDistanceKm() {
+        return distanceKm;
+    }
+
+    public void setDistanceKm(double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+}
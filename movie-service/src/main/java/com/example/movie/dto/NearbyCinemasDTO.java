@@ -0,0 +1,84 @@
+package com.example.movie.dto;
+
+import java.util.List;
+
+// One page of the cinemas within radiusKm of a point, nearest first
+public class NearbyCinemasDTO {
+    private double latitude;
+    private double longitude;
+    private double radiusKm;
+    private int page;
+    private int size;
+    private boolean hasMore;
+    private List<NearbyCinemaDTO> cinemas;
+
+    public NearbyCinemasDTO() {
+    }
+
+    public NearbyCinemasDTO(double latitude, double longitude, double radiusKm, int page, int size, boolean hasMore,
+                            List<NearbyCinemaDTO> cinemas) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.radiusKm = radiusKm;
+        this.page = page;
+        this.size = size;
+        this.hasMore = hasMore;
+        this.cinemas = cinemas;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(double latitude) {
+        this.latitude = latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(double longitude) {
+        this.longitude = longitude;
+    }
+
+    public double getRadiusKm() {
+        return radiusKm;
+    }
+
+    public void setRadiusKm(double radiusKm) {
+        this.radiusKm = radiusKm;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public List<NearbyCinemaDTO> getCinemas() {
+        return cinemas;
+    }
+
+    public void setCinemas(List<NearbyCinemaDTO> cinemas) {
+        this.cinemas = cinemas;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.movie.dto;
+
+import com.example.movie.model.NowShowingSlot;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class NowShowingDTO {
+    private String cinemaId;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private List<Day> days = new ArrayList<>();
+
+    public NowShowingDTO() {
+    }
+
+    public NowShowingDTO(String cinemaId, LocalDate fromDate, LocalDate toDate, List<Day> days) {
+        this.cinemaId = cinemaId;
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+        this.days = days;
+    }
+
+    public String getCinemaId() {
+        return cinemaId;
+    }
+
+    public LocalDate getFromDate() {
+        return fromDate;
+    }
+
+    public LocalDate getToDate() {
+        return toDate;
+    }
+
+    public List<Day> getDays() {
+        return days;
+    }
+
+    public static class Day {
+        private LocalDate date;
+        private List<MovieEntry> movies;
+
+        public Day(LocalDate date, List<MovieEntry> movies) {
+            this.date = date;
+            this.movies = movies;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public List<MovieEntry> getMovies() {
+            return movies;
+        }
+    }
+
+    public static class MovieEntry {
+        private String movieId;
+        private String title;
+        private String genre;
+        private String language;
+        private String rating;
+        private Integer duration;
+        private String posterUrl;
+        private List<NowShowingSlot> showtimes;
+
+        public MovieEntry(String movieId, String title, String genre, String language, String rating,
+                          Integer duration, String posterUrl, List<NowShowingSlot> showtimes) {
+            this.movieId = movieId;
+            this.title = title;
+            this.genre = genre;
+            this.language = language;
+            this.rating = rating;
+            this.duration = duration;
+            this.posterUrl = posterUrl;
+            this.showtimes = showtimes;
+        }
+
+        public String getMovieId() {
+            return movieId;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String getGenre() {
+            return genre;
+        }
+
+        public String getLanguage() {
+            return language;
+        }
+
+        public String getRating() {
+            return rating;
+        }
+
+        public Integer getDuration() {
+            return duration;
+        }
+
+        public String getPosterUrl() {
+            return posterUrl;
+        }
+
+        public List<NowShowingSlot> getShowtimes() {
+            return showtimes;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.movie.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class InvalidLocationException extends DomainException {
+    public InvalidLocationException(String message) {
+        super(HttpStatus.BAD_REQUEST, message);
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.movie.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
+import org.springframework.data.mongodb.core.index.GeoSpatialIndexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "cinemas")
@@ -9,6 +11,9 @@ public class Cinema {
     private String id;
     private String name;
     private String location;
+    // Optional; cinemas without coordinates are not found by "near me" searches
+    @GeoSpatialIndexed(type = GeoSpatialIndexType.GEO_2DSPHERE)
+    private GeoLocation coordinates;
 
     public Cinema() {
     }
@@ -42,4 +47,12 @@ public class Cinema {
     public void setLocation(String location) {
         this.location = location;
     }
+
+    public GeoLocation getCoordinates() {
+        return coordinates;
+    }
+
+    public void setCoordinates(GeoLocation coordinates) {
+        this.coordinates = coordinates;
+    }
 }
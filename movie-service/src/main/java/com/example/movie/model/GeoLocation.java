@@ -0,0 +1,32 @@
+package com.example.movie.model;
+
+// A point on the map, stored as a legacy coordinate pair { longitude, latitude } (longitude first, as
+// MongoDB reads it) so that it can carry a 2dsphere index and still read naturally in JSON
+public class GeoLocation {
+    private Double longitude;
+    private Double latitude;
+
+    public GeoLocation() {
+    }
+
+    public GeoLocation(Double longitude, Double latitude) {
+        this.longitude = longitude;
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+}
@@ -1,12 +1,15 @@
 package com.example.movie.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
 @Document(collection = "movies")
+// Natural key of catalogue imports; also serves the movies-by-cinema reads
+@CompoundIndex(name = "cinema_title_release", def = "{'cinemaId': 1, 'title': 1, 'releaseDate': 1}")
 public class Movie {
     @Id
     private String id;
@@ -168,7 +171,7 @@ public class Movie {
 
     public void removeShowtime(String showtimeId) {
         if (this.showtimes != null) {
-            this.showtimes.removeIf(s -> s.getId().equals(showtimeId));
+            this.showtimes.removeIf(s -> showtimeId.equals(s.getId()));
         }
     }
 }
@@ -0,0 +1,72 @@
+package com.example.movie.model;
+
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+import org.springframework.data.mongodb.core.mapping.MongoId;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+// Read model for the home and cinema pages: one document per cinema holding
+// day (yyyy-MM-dd) -> movie id -> showtimes for the next 7 days
+@Document(collection = "now_showing")
+public class NowShowing {
+    @MongoId(FieldType.STRING) // kept as a plain string so incremental updates can match it directly
+    private String cinemaId;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private LocalDateTime builtAt;
+    private Map<String, Map<String, NowShowingMovie>> days = new HashMap<>();
+
+    public NowShowing() {
+    }
+
+    public NowShowing(String cinemaId, LocalDate fromDate, LocalDate toDate) {
+        this.cinemaId = cinemaId;
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+        this.builtAt = LocalDateTime.now();
+    }
+
+    public String getCinemaId() {
+        return cinemaId;
+    }
+
+    public void setCinemaId(String cinemaId) {
+        this.cinemaId = cinemaId;
+    }
+
+    public LocalDate getFromDate() {
+        return fromDate;
+    }
+
+    public void setFromDate(LocalDate fromDate) {
+        this.fromDate = fromDate;
+    }
+
+    public LocalDate getToDate() {
+        return toDate;
+    }
+
+    public void setToDate(LocalDate toDate) {
+        this.toDate = toDate;
+    }
+
+    public LocalDateTime getBuiltAt() {
+        return builtAt;
+    }
+
+    public void setBuiltAt(LocalDateTime builtAt) {
+        this.builtAt = builtAt;
+    }
+
+    public Map<String, Map<String, NowShowingMovie>> getDays() {
+        return days;
+    }
+
+    public void setDays(Map<String, Map<String, NowShowingMovie>> days) {
+        this.days = days;
+    }
+}
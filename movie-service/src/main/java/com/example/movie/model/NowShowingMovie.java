@@ -0,0 +1,92 @@
+package com.example.movie.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class NowShowingMovie {
+    private String movieId;
+    private String title;
+    private String genre;
+    private String language;
+    private String rating;
+    private Integer duration;
+    private String posterUrl;
+    private Map<String, NowShowingSlot> showtimes = new HashMap<>(); // keyed by showtime id
+
+    public NowShowingMovie() {
+    }
+
+    public NowShowingMovie(Movie movie) {
+        this.movieId = movie.getId();
+        this.title = movie.getTitle();
+        this.genre = movie.getGenre();
+        this.language = movie.getLanguage();
+        this.rating = movie.getRating();
+        this.duration = movie.getDuration();
+        this.posterUrl = movie.getPosterUrl();
+    }
+
+    public String getMovieId() {
+        return movieId;
+    }
+
+    public void setMovieId(String movieId) {
+        this.movieId = movieId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getGenre() {
+        return genre;
+    }
+
+    public void setGenre(String genre) {
+        this.genre = genre;
+    }
+
+    public String getLanguage() {
+        return language;
+    }
+
+    public void setLanguage(String language) {
+        this.language = language;
+    }
+
+    public String getRating() {
+        return rating;
+    }
+
+    public void setRating(String rating) {
+        this.rating = rating;
+    }
+
+    public Integer getDuration() {
+        return duration;
+    }
+
+    public void setDuration(Integer duration) {
+        this.duration = duration;
+    }
+
+    public String getPosterUrl() {
+        return posterUrl;
+    }
+
+    public void setPosterUrl(String posterUrl) {
+        this.posterUrl = posterUrl;
+    }
+
+    public Map<String, NowShowingSlot> getShowtimes() {
+        return showtimes;
+    }
+
+    public void setShowtimes(Map<String, NowShowingSlot> showtimes) {
+        this.showtimes = showtimes;
+    }
+}
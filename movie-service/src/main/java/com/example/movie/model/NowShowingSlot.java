@@ -0,0 +1,70 @@
+package com.example.movie.model;
+
+public class NowShowingSlot {
+    private String showtimeId;
+    private String screenNumber;
+    private String startTime; // HH:mm
+    private Double price;
+    private Integer totalSeats;
+    private Integer availableSeats;
+
+    public NowShowingSlot() {
+    }
+
+    public NowShowingSlot(String showtimeId, String screenNumber, String startTime, Double price, Integer totalSeats, Integer availableSeats) {
+        this.showtimeId = showtimeId;
+        this.screenNumber = screenNumber;
+        this.startTime = startTime;
+        this.price = price;
+        this.totalSeats = totalSeats;
+        this.availableSeats = availableSeats;
+    }
+
+    public String getShowtimeId() {
+        return showtimeId;
+    }
+
+    public void setShowtimeId(String showtimeId) {
+        this.showtimeId = showtimeId;
+    }
+
+    public String getScreenNumber() {
+        return screenNumber;
+    }
+
+    public void setScreenNumber(String screenNumber) {
+        this.screenNumber = screenNumber;
+    }
+
+    public String getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(String startTime) {
+        this.startTime = startTime;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public void setPrice(Double price) {
+        this.price = price;
+    }
+
+    public Integer getTotalSeats() {
+        return totalSeats;
+    }
+
+    public void setTotalSeats(Integer totalSeats) {
+        this.totalSeats = totalSeats;
+    }
+
+    public Integer getAvailableSeats() {
+        return availableSeats;
+    }
+
+    public void setAvailableSeats(Integer availableSeats) {
+        this.availableSeats = availableSeats;
+    }
+}
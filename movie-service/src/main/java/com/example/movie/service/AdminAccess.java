@@ -0,0 +1,82 @@
+package com.example.movie.service;
+
+import com.example.movie.dto.UserIdentity;
+import com.example.movie.exception.ForbiddenException;
+import com.example.movie.exception.UnauthorizedException;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+// Who may change what under /api/admin: the caller (X-User-Id) must be a CINEMA_ADMIN, and may only
+// touch movies of the cinema they manage. Identities come from UserIdentityCache. Enforced only with
+// admin.authorization.enabled=true, so existing clients that send no user id keep working.
+//
+// THIS IS NOT AUTHENTICATION. X-User-Id is whatever the client sends: nothing checks that the caller
+// is that user, so anyone who knows an admin's id can act as that admin. It only keeps honest clients
+// of one cinema away from another cinema's movies. Do not expose it to untrusted callers without an
+// authenticating proxy in front of the gateway that sets X-User-Id itself and drops the client's value.
+@Service
+public class AdminAccess {
+
+    private static final Logger log = LoggerFactory.getLogger(AdminAccess.class);
+
+    public static final String USER_ID_HEADER = "X-User-Id";
+
+    private static final String CALLER_ATTRIBUTE = AdminAccess.class.getName() + ".caller";
+
+    private static final UnauthorizedException NO_USER =
+            new UnauthorizedException(USER_ID_HEADER + " is required for admin operations");
+    private static final ForbiddenException NOT_AN_ADMIN =
+            new ForbiddenException("Only cinema admins can change the catalogue");
+    private static final ForbiddenException OTHER_CINEMA =
+            new ForbiddenException("Cinema admins can only change their own cinema");
+
+    @Autowired
+    private UserIdentityCache userIdentityCache;
+
+    @Value("${admin.authorization.enabled:false}")
+    private boolean enabled;
+
+    @PostConstruct
+    public void warnIfEnabled() {
+        if (enabled) {
+            log.warn("admin.authorization.enabled trusts the client-supplied {} header; it is not authentication. "
+                    + "Put an authenticating proxy in front of the gateway before exposing admin writes.", USER_ID_HEADER);
+        }
+    }
+
+    // Called once per admin write request (AdminAccessInterceptor)
+    public void authenticate(String userId) {
+        if (!enabled) {
+            return;
+        }
+        if (userId == null || userId.isBlank()) {
+            throw NO_USER;
+        }
+        UserIdentity caller = userIdentityCache.get(userId);
+        if (caller == null || !caller.isCinemaAdmin()) {
+            throw NOT_AN_ADMIN;
+        }
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.setAttribute(CALLER_ATTRIBUTE, caller, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    // Outside an authenticated admin request (disabled, or not on a request thread) this allows everything
+    public void checkCinema(String cinemaId) {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (!enabled || request == null) {
+            return;
+        }
+        UserIdentity caller = (UserIdentity) request.getAttribute(CALLER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (caller != null && (caller.getCinemaId() == null || !caller.getCinemaId().equals(cinemaId))) {
+            throw OTHER_CINEMA;
+        }
+    }
+}
@@ -1,11 +1,23 @@
 package com.example.movie.service;
 
+import com.example.movie.config.ReadPreferenceRouting;
+import com.example.movie.dto.NearbyCinemaDTO;
+import com.example.movie.dto.NearbyCinemasDTO;
+import com.example.movie.exception.InvalidLocationException;
 import com.example.movie.model.Cinema;
+import com.example.movie.model.GeoLocation;
 import com.example.movie.repository.CinemaRepository;
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 public class CinemaService {
@@ -13,12 +25,97 @@ public class CinemaService {
     @Autowired
     private CinemaRepository cinemaRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ReadPreferenceRouting readPreferenceRouting;
+
+    @Autowired
+    private CinemaTileCache cinemaTileCache;
+
+    @Value("${cinemas.near.max-page-size:100}")
+    private int maxPageSize;
+
     public Cinema createCinema(Cinema cinema) {
-        return cinemaRepository.save(cinema);
+        GeoLocation coordinates = cinema.getCoordinates();
+        if (coordinates != null) {
+            if (coordinates.getLatitude() == null || coordinates.getLongitude() == null) {
+                throw new InvalidLocationException("Coordinates need both latitude and longitude");
+            }
+            validatePoint(coordinates.getLatitude(), coordinates.getLongitude());
+        }
+        Cinema savedCinema = cinemaRepository.save(cinema);
+        cinemaTileCache.clear();
+        return savedCinema;
+    }
+
+    // Cinemas within radiusKm of the point, nearest first. Served from the point's cached map tile
+    // (CinemaTileCache); tiles too dense to cache are searched with $geoNear on the 2dsphere index.
+    public NearbyCinemasDTO findNear(double latitude, double longitude, double radiusKm, int page, int size) {
+        validatePoint(latitude, longitude);
+        if (!(radiusKm > 0) || radiusKm > cinemaTileCache.getMaxRadiusKm()) {
+            throw new InvalidLocationException("radius must be between 0 and " + cinemaTileCache.getMaxRadiusKm() + " km");
+        }
+        if (page < 0 || size < 1 || size > maxPageSize) {
+            throw new InvalidLocationException("page must be 0 or more and size between 1 and " + maxPageSize);
+        }
+
+        List<NearbyCinemaDTO> matches;
+        List<Cinema> candidates = cinemaTileCache.candidates(latitude, longitude);
+        if (candidates != null) {
+            matches = new ArrayList<>();
+            for (Cinema cinema : candidates) {
+                double distanceKm = CinemaTileCache.distanceKm(latitude, longitude,
+                        cinema.getCoordinates().getLatitude(), cinema.getCoordinates().getLongitude());
+                if (distanceKm <= radiusKm) {
+                    matches.add(toNearby(cinema, distanceKm));
+                }
+            }
+            matches.sort(Comparator.comparingDouble(NearbyCinemaDTO::getDistanceKm).thenComparing(NearbyCinemaDTO::getId));
+            matches = matches.stream().skip((long) page * size).limit(size + 1L).collect(Collectors.toList());
+        } else {
+            matches = geoNear(latitude, longitude, radiusKm, (long) page * size, size + 1);
+        }
+
+        boolean hasMore = matches.size() > size;
+        return new NearbyCinemasDTO(latitude, longitude, radiusKm, page, size, hasMore,
+                hasMore ? matches.subList(0, size) : matches);
+    }
+
+    private List<NearbyCinemaDTO> geoNear(double latitude, double longitude, double radiusKm, long skip, int limit) {
+        List<Document> pipeline = List.of(
+                new Document("$geoNear", new Document("near", new Document("type", "Point")
+                        .append("coordinates", List.of(longitude, latitude)))
+                        .append("distanceField", "distance")
+                        .append("maxDistance", radiusKm * 1000)
+                        .append("spherical", true)),
+                new Document("$skip", skip),
+                new Document("$limit", limit));
+        List<NearbyCinemaDTO> cinemas = new ArrayList<>();
+        for (Document document : mongoTemplate.getCollection(mongoTemplate.getCollectionName(Cinema.class))
+                .withReadPreference(readPreferenceRouting.forEndpoint("cinemas-near"))
+                .aggregate(pipeline)) {
+            Cinema cinema = mongoTemplate.getConverter().read(Cinema.class, document);
+            cinemas.add(toNearby(cinema, document.get("distance", Number.class).doubleValue() / 1000));
+        }
+        return cinemas;
+    }
+
+    private static NearbyCinemaDTO toNearby(Cinema cinema, double distanceKm) {
+        return new NearbyCinemaDTO(cinema.getId(), cinema.getName(), cinema.getLocation(), cinema.getCoordinates(),
+                Math.round(distanceKm * 1000) / 1000.0);
+    }
+
+    private static void validatePoint(double latitude, double longitude) {
+        if (!(latitude >= -90 && latitude <= 90) || !(longitude >= -180 && longitude <= 180)) {
+            throw new InvalidLocationException("Latitude must be within [-90, 90] and longitude within [-180, 180]");
+        }
     }
 
     public List<Cinema> getAllCinemas() {
-        return cinemaRepository.findAll();
+        Query query = new Query().withReadPreference(readPreferenceRouting.forEndpoint("cinemas-all"));
+        return mongoTemplate.find(query, Cinema.class);
     }
     
     public Cinema getCinemaById(String id) {
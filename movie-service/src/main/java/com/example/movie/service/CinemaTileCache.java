@@ -0,0 +1,152 @@
+package com.example.movie.service;
+
+import com.example.movie.config.ReadPreferenceRouting;
+import com.example.movie.model.Cinema;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Cinemas by map tile for "near me" searches. The map is cut into tiles of tile-degrees; a tile
+// holds every cinema that any search starting inside it could return, i.e. within max-radius-km of
+// any point of the tile. A search then filters and sorts that short list in memory. Searches come
+// from a few busy cities, so only the most recently used max-tiles tiles are kept, each for ttl-ms;
+// a cinema created on this instance clears them all.
+@Service
+public class CinemaTileCache {
+
+    static final double EARTH_RADIUS_KM = 6371.0088;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ReadPreferenceRouting readPreferenceRouting;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${cinemas.near.tile-degrees:0.05}")
+    private double tileDegrees;
+
+    @Value("${cinemas.near.max-radius-km:50}")
+    private double maxRadiusKm;
+
+    @Value("${cinemas.near.cache.max-tiles:2000}")
+    private int maxTiles;
+
+    @Value("${cinemas.near.cache.max-cinemas-per-tile:2000}")
+    private int maxCinemasPerTile;
+
+    @Value("${cinemas.near.cache.ttl-ms:300000}")
+    private long ttlMs;
+
+    // Access order: the eldest entry is the least recently searched tile
+    private final Map<String, Tile> tiles = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Tile> eldest) {
+            return size() > maxTiles;
+        }
+    });
+
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    public void start() {
+        hits = Counter.builder("cinemas.near.tiles").tag("result", "hit")
+                .description("Near-me searches answered from a cached tile").register(meterRegistry);
+        misses = Counter.builder("cinemas.near.tiles").tag("result", "miss")
+                .description("Near-me searches that loaded their tile").register(meterRegistry);
+        Gauge.builder("cinemas.near.tiles.size", tiles, Map::size).register(meterRegistry);
+    }
+
+    public double getMaxRadiusKm() {
+        return maxRadiusKm;
+    }
+
+    // Every cinema within maxRadiusKm of the point, and possibly some further away; null when the
+    // tile is too dense to cache and the caller should ask MongoDB directly
+    public List<Cinema> candidates(double latitude, double longitude) {
+        long row = (long) Math.floor(latitude / tileDegrees);
+        long column = (long) Math.floor(longitude / tileDegrees);
+        String key = row + ":" + column;
+        long now = System.currentTimeMillis();
+        Tile tile = tiles.get(key);
+        if (tile != null && tile.expiresAt > now) {
+            hits.increment();
+            return tile.cinemas;
+        }
+        misses.increment();
+        tile = load(row, column, now);
+        tiles.put(key, tile);
+        return tile.cinemas;
+    }
+
+    public void clear() {
+        tiles.clear();
+    }
+
+    private Tile load(long row, long column, long now) {
+        double south = row * tileDegrees;
+        double west = column * tileDegrees;
+        double centerLatitude = Math.max(-90, Math.min(90, south + tileDegrees / 2));
+        double centerLongitude = west + tileDegrees / 2;
+        // The corner on the equator side is the furthest from the center
+        double halfDiagonalKm = Math.max(
+                distanceKm(centerLatitude, centerLongitude, Math.max(-90, south), west),
+                distanceKm(centerLatitude, centerLongitude, Math.min(90, south + tileDegrees), west));
+        // 1% slack for MongoDB's slightly different earth model
+        double reachMeters = (maxRadiusKm + halfDiagonalKm) * 1010;
+
+        List<Document> pipeline = List.of(
+                new Document("$geoNear", new Document("near", new Document("type", "Point")
+                        .append("coordinates", List.of(normalizeLongitude(centerLongitude), centerLatitude)))
+                        .append("distanceField", "distance")
+                        .append("maxDistance", reachMeters)
+                        .append("spherical", true)),
+                new Document("$limit", maxCinemasPerTile + 1));
+        List<Cinema> cinemas = new ArrayList<>();
+        for (Document document : mongoTemplate.getCollection(mongoTemplate.getCollectionName(Cinema.class))
+                .withReadPreference(readPreferenceRouting.forEndpoint("cinemas-near"))
+                .aggregate(pipeline)) {
+            cinemas.add(mongoTemplate.getConverter().read(Cinema.class, document));
+        }
+        return new Tile(cinemas.size() > maxCinemasPerTile ? null : cinemas, now + ttlMs);
+    }
+
+    static double normalizeLongitude(double longitude) {
+        return ((longitude + 180) % 360 + 360) % 360 - 180;
+    }
+
+    // Haversine
+    static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double deltaLatitude = Math.toRadians(latitude2 - latitude1);
+        double deltaLongitude = Math.toRadians(longitude2 - longitude1);
+        double a = Math.sin(deltaLatitude / 2) * Math.sin(deltaLatitude / 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+                * Math.sin(deltaLongitude / 2) * Math.sin(deltaLongitude / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static class Tile {
+        final List<Cinema> cinemas;
+        final long expiresAt;
+
+        Tile(List<Cinema> cinemas, long expiresAt) {
+            this.cinemas = cinemas;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.movie.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// Reads an upload one row at a time, either as NDJSON lines or as CSV records (RFC 4180: quoted
+// fields may contain commas, line breaks and doubled quotes). A row longer than maxRowChars is
+// still consumed to its end but the excess is dropped, so one bad row cannot exhaust memory;
+// tooLong() reports it.
+class ImportReader {
+
+    private final Reader reader;
+    private final int maxRowChars;
+    private int rowChars;
+    private boolean tooLong;
+
+    ImportReader(Reader reader, int maxRowChars) {
+        this.reader = reader;
+        this.maxRowChars = maxRowChars;
+    }
+
+    // Next line without its terminator, or null at the end of the upload
+    String nextLine() throws IOException {
+        startRow();
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        StringBuilder line = new StringBuilder();
+        for (; c != -1 && c != '\n'; c = reader.read()) {
+            if (c != '\r') {
+                append(line, (char) c);
+            }
+        }
+        return line.toString();
+    }
+
+    // Fields of the next CSV record, or null at the end of the upload
+    List<String> nextRecord() throws IOException {
+        startRow();
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStarted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    break;
+                }
+                if (c == '"') {
+                    c = reader.read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                }
+                append(field, (char) c);
+            } else if (c == -1 || c == '\n') {
+                break;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStarted = false;
+            } else if (c == '"' && !fieldStarted) {
+                quoted = true;
+                fieldStarted = true;
+            } else if (c != '\r') {
+                append(field, (char) c);
+                fieldStarted = true;
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    boolean tooLong() {
+        return tooLong;
+    }
+
+    private void startRow() {
+        rowChars = 0;
+        tooLong = false;
+    }
+
+    private void append(StringBuilder builder, char c) {
+        if (++rowChars > maxRowChars) {
+            tooLong = true;
+        } else {
+            builder.append(c);
+        }
+    }
+}
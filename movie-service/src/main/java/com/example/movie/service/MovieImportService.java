@@ -0,0 +1,416 @@
+package com.example.movie.service;
+
+import com.example.movie.dto.ImportRowErrorDTO;
+import com.example.movie.dto.MovieDTO;
+import com.example.movie.dto.MovieImportResultDTO;
+import com.example.movie.exception.DomainException;
+import com.example.movie.exception.InvalidImportException;
+import com.example.movie.model.Movie;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+// Catalogue import from an NDJSON or CSV upload. The request thread reads the upload one row at a
+// time and cuts it into batches of batch-size rows; each batch is validated on a small pool while
+// the next ones are read, and written in upload order as one unordered bulkWrite of upserts keyed by
+// cinemaId + title + releaseDate. At most max-in-flight-batches batches are held at once, so memory
+// does not depend on the size of the upload. A bad row is reported and skipped; it never fails its batch.
+@Service
+public class MovieImportService {
+
+    public enum Format {
+        NDJSON,
+        CSV;
+
+        public static Format of(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidImportException("Unsupported format '" + value + "', use ndjson or csv");
+            }
+        }
+    }
+
+    // CSV columns; cast is a list separated by '|'
+    static final List<String> CSV_COLUMNS = List.of("cinemaId", "title", "director", "genre", "language", "rating",
+            "duration", "description", "releaseDate", "cast", "posterUrl", "trailerUrl");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private AdminAccess adminAccess;
+
+    @Autowired
+    private NowShowingService nowShowingService;
+
+    @Value("${movie.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${movie.import.parallelism:4}")
+    private int parallelism;
+
+    @Value("${movie.import.max-in-flight-batches:8}")
+    private int maxInFlightBatches;
+
+    @Value("${movie.import.max-row-chars:65536}")
+    private int maxRowChars;
+
+    @Value("${movie.import.max-errors:1000}")
+    private int maxErrors;
+
+    private ExecutorService validators;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        validators = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "movie-import-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        validators.shutdownNow();
+    }
+
+    public MovieImportResultDTO importMovies(InputStream input, Format format) throws IOException {
+        ImportReader reader = new ImportReader(
+                new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024), maxRowChars);
+        Map<String, Integer> columns = format == Format.CSV ? readHeader(reader) : null;
+        Progress progress = new Progress();
+        Deque<Future<List<Row>>> inFlight = new ArrayDeque<>();
+        List<Row> batch = new ArrayList<>(batchSize);
+
+        for (long number = 1; ; number++) {
+            Row row = format == Format.CSV ? nextCsvRow(reader, columns, number) : nextNdjsonRow(reader, number);
+            if (row == null) {
+                break;
+            }
+            if (row.movie == null && row.error == null) {
+                // Blank line
+                number--;
+                continue;
+            }
+            progress.rows++;
+            if (row.error == null) {
+                try {
+                    // On the request thread: the caller's identity is bound to it
+                    adminAccess.checkCinema(row.movie.getCinemaId());
+                } catch (DomainException e) {
+                    row.error = e.getMessage();
+                }
+            }
+            batch.add(row);
+            if (batch.size() == batchSize) {
+                List<Row> full = batch;
+                inFlight.add(validators.submit(() -> validate(full)));
+                batch = new ArrayList<>(batchSize);
+                while (inFlight.size() >= maxInFlightBatches) {
+                    write(await(inFlight.poll()), progress);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            List<Row> last = batch;
+            inFlight.add(validators.submit(() -> validate(last)));
+        }
+        while (!inFlight.isEmpty()) {
+            write(await(inFlight.poll()), progress);
+        }
+
+        // Movies that already had showtimes may be listed in a now-showing view under their old details
+        progress.updatedCinemas.forEach(nowShowingService::onMoviesImported);
+
+        List<ImportRowErrorDTO> errors = new ArrayList<>(progress.errors);
+        errors.sort(Comparator.comparingLong(ImportRowErrorDTO::getRow));
+        return new MovieImportResultDTO(progress.rows, progress.inserted, progress.updated, progress.failed,
+                errors, progress.errorsTruncated);
+    }
+
+    private Map<String, Integer> readHeader(ImportReader reader) throws IOException {
+        List<String> header = reader.nextRecord();
+        if (header == null) {
+            throw new InvalidImportException("The upload is empty; a CSV import starts with a header row");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i).trim();
+            if (i == 0 && column.startsWith("\uFEFF")) {
+                column = column.substring(1);
+            }
+            if (!CSV_COLUMNS.contains(column)) {
+                throw new InvalidImportException("Unknown CSV column '" + column + "', expected some of " + CSV_COLUMNS);
+            }
+            columns.put(column, i);
+        }
+        if (!columns.containsKey("cinemaId") || !columns.containsKey("title")) {
+            throw new InvalidImportException("The CSV header needs at least the cinemaId and title columns");
+        }
+        return columns;
+    }
+
+    private Row nextNdjsonRow(ImportReader reader, long number) throws IOException {
+        String line = reader.nextLine();
+        if (line == null) {
+            return null;
+        }
+        if (reader.tooLong()) {
+            return Row.failed(number, "Row is longer than " + maxRowChars + " characters");
+        }
+        if (line.isBlank()) {
+            return new Row(number, null);
+        }
+        try {
+            MovieDTO movie = objectMapper.readValue(line, MovieDTO.class);
+            return new Row(number, movie);
+        } catch (JsonProcessingException e) {
+            return Row.failed(number, "Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private Row nextCsvRow(ImportReader reader, Map<String, Integer> columns, long number) throws IOException {
+        List<String> fields = reader.nextRecord();
+        if (fields == null) {
+            return null;
+        }
+        if (reader.tooLong()) {
+            return Row.failed(number, "Row is longer than " + maxRowChars + " characters");
+        }
+        if (fields.size() == 1 && fields.get(0).isBlank()) {
+            return new Row(number, null);
+        }
+        MovieDTO movie = new MovieDTO();
+        movie.setCinemaId(field(fields, columns, "cinemaId"));
+        movie.setTitle(field(fields, columns, "title"));
+        movie.setDirector(field(fields, columns, "director"));
+        movie.setGenre(field(fields, columns, "genre"));
+        movie.setLanguage(field(fields, columns, "language"));
+        movie.setRating(field(fields, columns, "rating"));
+        movie.setDescription(field(fields, columns, "description"));
+        movie.setPosterUrl(field(fields, columns, "posterUrl"));
+        movie.setTrailerUrl(field(fields, columns, "trailerUrl"));
+        String cast = field(fields, columns, "cast");
+        if (cast != null) {
+            movie.setCast(Arrays.stream(cast.split("\\|")).map(String::trim).filter(name -> !name.isEmpty())
+                    .collect(Collectors.toList()));
+        }
+        String duration = field(fields, columns, "duration");
+        String releaseDate = field(fields, columns, "releaseDate");
+        try {
+            movie.setDuration(duration != null ? Integer.valueOf(duration) : null);
+        } catch (NumberFormatException e) {
+            return Row.failed(number, movie.getTitle(), "duration: '" + duration + "' is not a number of minutes");
+        }
+        try {
+            movie.setReleaseDate(releaseDate != null ? LocalDate.parse(releaseDate) : null);
+        } catch (DateTimeParseException e) {
+            return Row.failed(number, movie.getTitle(), "releaseDate: '" + releaseDate + "' is not a yyyy-MM-dd date");
+        }
+        return new Row(number, movie);
+    }
+
+    // Empty cells are missing values
+    private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // On the pool: bean validation and mapping to the upsert of each row
+    private List<Row> validate(List<Row> rows) {
+        for (Row row : rows) {
+            if (row.error != null) {
+                continue;
+            }
+            MovieDTO movie = row.movie;
+            movie.setTitle(movie.getTitle() != null ? movie.getTitle().trim() : null);
+            Set<ConstraintViolation<MovieDTO>> violations = validator.validate(movie);
+            if (!violations.isEmpty()) {
+                row.error = violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", "));
+                continue;
+            }
+
+            Movie entity = new Movie(null, movie.getCinemaId(), movie.getTitle(), movie.getDirector(),
+                    movie.getDescription(), movie.getGenre(), movie.getLanguage(), movie.getRating(),
+                    movie.getDuration(), movie.getReleaseDate(), movie.getCast(), movie.getPosterUrl(),
+                    movie.getTrailerUrl());
+            Document fields = new Document();
+            mongoTemplate.getConverter().write(entity, fields);
+            fields.remove("_id");
+            // Showtimes added to an existing movie are kept
+            fields.remove("showtimes");
+            Object releaseDate = mongoTemplate.getConverter().convertToMongoType(movie.getReleaseDate());
+            row.key = movie.getCinemaId() + "|" + movie.getTitle() + "|" + movie.getReleaseDate();
+            row.upsert = new UpdateOneModel<>(
+                    new Document("cinemaId", movie.getCinemaId())
+                            .append("title", movie.getTitle())
+                            .append("releaseDate", releaseDate),
+                    new Document("$set", fields).append("$setOnInsert", new Document("showtimes", List.of())),
+                    new UpdateOptions().upsert(true));
+        }
+        return rows;
+    }
+
+    // On the request thread, in upload order
+    private void write(List<Row> rows, Progress progress) {
+        // A key repeated within the batch: the last row wins, the earlier ones count as updates of it
+        Map<String, Row> byKey = new LinkedHashMap<>();
+        for (Row row : rows) {
+            if (row.error != null) {
+                progress.fail(row.number, row.movie != null ? row.movie.getTitle() : row.title, row.error);
+            } else if (byKey.remove(row.key) != null) {
+                progress.updated++;
+                byKey.put(row.key, row);
+            } else {
+                byKey.put(row.key, row);
+            }
+        }
+        if (byKey.isEmpty()) {
+            return;
+        }
+
+        List<Row> writes = new ArrayList<>(byKey.values());
+        List<WriteModel<Document>> upserts = writes.stream().map(row -> row.upsert).collect(Collectors.toList());
+        BulkWriteResult result;
+        Set<Integer> failedIndexes = new HashSet<>();
+        try {
+            result = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Movie.class))
+                    .bulkWrite(upserts, new BulkWriteOptions().ordered(false));
+        } catch (MongoBulkWriteException e) {
+            result = e.getWriteResult();
+            for (BulkWriteError error : e.getWriteErrors()) {
+                Row row = writes.get(error.getIndex());
+                failedIndexes.add(error.getIndex());
+                progress.fail(row.number, row.movie.getTitle(), error.getMessage());
+            }
+        }
+        Set<Integer> insertedIndexes = result.getUpserts().stream()
+                .map(BulkWriteUpsert::getIndex)
+                .collect(Collectors.toSet());
+        progress.inserted += insertedIndexes.size();
+        for (int i = 0; i < writes.size(); i++) {
+            if (!insertedIndexes.contains(i) && !failedIndexes.contains(i)) {
+                progress.updated++;
+                progress.updatedCinemas.add(writes.get(i).movie.getCinemaId());
+            }
+        }
+    }
+
+    private static List<Row> await(Future<List<Row>> batch) {
+        try {
+            return batch.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Movie import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Movie import validation failed", e.getCause());
+        }
+    }
+
+    private static class Row {
+        final long number;
+        final MovieDTO movie;
+        String title;
+        String error;
+        String key;
+        UpdateOneModel<Document> upsert;
+
+        Row(long number, MovieDTO movie) {
+            this.number = number;
+            this.movie = movie;
+            if (movie != null) {
+                // Imports never touch showtimes or choose ids
+                movie.setId(null);
+                movie.setShowtimes(null);
+            }
+        }
+
+        static Row failed(long number, String message) {
+            return failed(number, null, message);
+        }
+
+        static Row failed(long number, String title, String message) {
+            Row row = new Row(number, null);
+            row.title = title;
+            row.error = message;
+            return row;
+        }
+    }
+
+    // Only touched by the request thread
+    private class Progress {
+        long rows;
+        long inserted;
+        long updated;
+        long failed;
+        final List<ImportRowErrorDTO> errors = new ArrayList<>();
+        boolean errorsTruncated;
+        final Set<String> updatedCinemas = new HashSet<>();
+
+        void fail(long number, String title, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportRowErrorDTO(number, title, message));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+    }
+}
@@ -1,58 +1,107 @@
 package com.example.movie.service;
 
+import com.example.movie.config.ReadPreferenceRouting;
+import com.example.movie.dto.FieldSelection;
 import com.example.movie.dto.MovieDTO;
 import com.example.movie.exception.ResourceNotFoundException;
 import com.example.movie.model.Movie;
 import com.example.movie.model.Showtime;
 import com.example.movie.repository.MovieRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
 public class MovieService {
 
+    // Fields of MovieDTO that list requests can select; card is what a movie tile shows
+    public static final List<String> FIELDS = List.of("id", "cinemaId", "title", "director", "genre", "language",
+            "rating", "duration", "description", "releaseDate", "cast", "posterUrl", "trailerUrl", "showtimes");
+    public static final Map<String, List<String>> VIEWS = Map.of(
+            "card", List.of("id", "title", "posterUrl", "rating", "genre", "language", "duration"),
+            "summary", List.of("id", "cinemaId", "title", "director", "genre", "language", "rating", "duration",
+                    "releaseDate", "posterUrl"));
+
     @Autowired
     private MovieRepository movieRepository;
 
+    @Autowired
+    private NowShowingService nowShowingService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ReadPreferenceRouting readPreferenceRouting;
+
+    @Autowired
+    private AdminAccess adminAccess;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     public MovieDTO createMovie(MovieDTO movieDTO) {
         // Note: The 7-day constraint is handled at the Showtime level
         // Movies themselves don't have dates, only showtimes do
+        adminAccess.checkCinema(movieDTO.getCinemaId());
         Movie movie = convertToEntity(movieDTO);
         Movie savedMovie = movieRepository.save(movie);
         return convertToDTO(savedMovie);
     }
 
-    public List<MovieDTO> getAllMovies() {
-        return movieRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    // Catalogue reads below are routed by ReadPreferenceRouting; writes and the lookups that
+    // precede them go through the repository and stay on the primary
+
+    public List<?> getAllMovies(FieldSelection selection) {
+        return findMovies(new Query(), "movies-all", selection);
     }
 
-    public List<MovieDTO> searchMovies(String query) {
-        return movieRepository.findByTitleContainingIgnoreCase(query).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public List<?> searchMovies(String query, FieldSelection selection) {
+        Pattern title = Pattern.compile(Pattern.quote(query), Pattern.CASE_INSENSITIVE);
+        return findMovies(new Query(Criteria.where("title").regex(title)), "movies-search", selection);
     }
 
-    public List<MovieDTO> getMoviesByCinemaId(String cinemaId) {
-        return movieRepository.findByCinemaId(cinemaId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public List<?> getMoviesByCinemaId(String cinemaId, FieldSelection selection) {
+        return findMovies(new Query(Criteria.where("cinemaId").is(cinemaId)), "movies-by-cinema", selection);
     }
 
     public MovieDTO getMovieById(String id) {
-        Movie movie = movieRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Movie not found with id: " + id));
+        Query query = new Query(Criteria.where("_id").is(id))
+                .withReadPreference(readPreferenceRouting.forEndpoint("movie-by-id"));
+        Movie movie = mongoTemplate.findOne(query, Movie.class);
+        if (movie == null) {
+            throw new ResourceNotFoundException("Movie not found with id: " + id);
+        }
         return convertToDTO(movie);
     }
 
+    private List<?> findMovies(Query query, String endpoint, FieldSelection selection) {
+        selection.applyTo(query).withReadPreference(readPreferenceRouting.forEndpoint(endpoint));
+        List<Movie> movies = mongoTemplate.find(query, Movie.class);
+        if (selection.isAll()) {
+            return movies.stream().map(this::convertToDTO).collect(Collectors.toList());
+        }
+        return movies.stream()
+                .map(movie -> selection.project(convertToDTO(movie), objectMapper))
+                .collect(Collectors.toList());
+    }
+
     public MovieDTO updateMovie(String id, MovieDTO movieDTO) {
         Movie movie = movieRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Movie not found with id: " + id));
         
+        adminAccess.checkCinema(movie.getCinemaId());
+        adminAccess.checkCinema(movieDTO.getCinemaId());
+        String previousCinemaId = movie.getCinemaId();
         movie.setCinemaId(movieDTO.getCinemaId());
         movie.setTitle(movieDTO.getTitle());
         movie.setDirector(movieDTO.getDirector());
@@ -67,18 +116,22 @@ public class MovieService {
         movie.setTrailerUrl(movieDTO.getTrailerUrl());
         
         Movie updatedMovie = movieRepository.save(movie);
+        nowShowingService.onMovieUpdated(updatedMovie, previousCinemaId);
         return convertToDTO(updatedMovie);
     }
 
     public void deleteMovie(String id) {
         Movie movie = movieRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Movie not found with id: " + id));
+        adminAccess.checkCinema(movie.getCinemaId());
         movieRepository.delete(movie);
+        nowShowingService.onMovieDeleted(movie.getCinemaId(), movie.getId());
     }
 
     public Movie addShowtimeToMovie(String movieId, Showtime showtime) {
         Movie movie = movieRepository.findById(movieId)
                 .orElseThrow(() -> new ResourceNotFoundException("Movie not found with id: " + movieId));
+        adminAccess.checkCinema(movie.getCinemaId());
         
         if (movie.getShowtimes() == null) {
             movie.setShowtimes(new java.util.ArrayList<>());
@@ -89,8 +142,13 @@ public class MovieService {
             return movie;
         }
         
+        if (showtime.getId() == null) {
+            showtime.setId(new ObjectId().toHexString());
+        }
+        
         movie.addShowtime(showtime);
         movieRepository.save(movie);
+        nowShowingService.onMovieShowtimeAdded(movie, showtime);
         
         return movie;
     }
@@ -98,10 +156,15 @@ public class MovieService {
     public Movie removeShowtimeFromMovie(String movieId, String showtimeId) {
         Movie movie = movieRepository.findById(movieId)
                 .orElseThrow(() -> new ResourceNotFoundException("Movie not found with id: " + movieId));
+        adminAccess.checkCinema(movie.getCinemaId());
         
         if (movie.getShowtimes() != null) {
+            List<Showtime> removed = movie.getShowtimes().stream()
+                    .filter(s -> showtimeId.equals(s.getId()))
+                    .collect(Collectors.toList());
             movie.removeShowtime(showtimeId);
             movieRepository.save(movie);
+            removed.forEach(s -> nowShowingService.onMovieShowtimeRemoved(movie, s));
         }
         
         return movie;
@@ -0,0 +1,306 @@
+package com.example.movie.service;
+
+import com.example.movie.client.ShowtimeClient;
+import com.example.movie.dto.NowShowingDTO;
+import com.example.movie.dto.ShowtimeDTO;
+import com.example.movie.dto.ShowtimeEvent;
+import com.example.movie.model.Movie;
+import com.example.movie.model.NowShowing;
+import com.example.movie.model.NowShowingMovie;
+import com.example.movie.model.NowShowingSlot;
+import com.example.movie.model.Showtime;
+import com.example.movie.repository.MovieRepository;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Maintains the per-cinema "now showing" documents. Writes are applied incrementally as
+// targeted $set/$unset updates on one document; a full rebuild only happens when a cinema
+// is first requested and at midnight, when the 7-day window rolls over.
+@Service
+public class NowShowingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NowShowingService.class);
+
+    private static final int MAX_DAYS_AHEAD = 7;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private ShowtimeClient showtimeClient;
+
+    public NowShowingDTO getNowShowing(String cinemaId) {
+        NowShowing view = mongoTemplate.findById(cinemaId, NowShowing.class);
+        if (view == null || view.getFromDate() == null || view.getFromDate().isBefore(LocalDate.now())) {
+            view = rebuild(cinemaId);
+        }
+        return convertToDTO(view);
+    }
+
+    public NowShowing rebuild(String cinemaId) {
+        LocalDate today = LocalDate.now();
+        NowShowing view = new NowShowing(cinemaId, today, today.plusDays(MAX_DAYS_AHEAD));
+
+        Map<String, Movie> movies = new HashMap<>();
+        for (Movie movie : movieRepository.findByCinemaId(cinemaId)) {
+            movies.put(movie.getId(), movie);
+            if (movie.getShowtimes() != null) {
+                for (Showtime showtime : movie.getShowtimes()) {
+                    addToView(view, movie, showtime.getShowDate(), convertToSlot(showtime));
+                }
+            }
+        }
+
+        try {
+            for (ShowtimeDTO showtime : showtimeClient.getShowtimesByCinemaId(cinemaId)) {
+                Movie movie = movies.get(showtime.getMovieId());
+                if (movie != null) {
+                    addToView(view, movie, showtime.getShowDate(), convertToSlot(showtime));
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Showtime service unavailable, now-showing for cinema {} built from movie data only", cinemaId, e);
+        }
+
+        mongoTemplate.save(view);
+        return view;
+    }
+
+    @Scheduled(cron = "${now-showing.rollover-cron:0 0 0 * * *}")
+    public void rollOver() {
+        Query allCinemas = new Query();
+        allCinemas.fields().include("_id");
+        for (NowShowing view : mongoTemplate.find(allCinemas, NowShowing.class)) {
+            try {
+                rebuild(view.getCinemaId());
+            } catch (RuntimeException e) {
+                logger.error("Now-showing rollover failed for cinema {}", view.getCinemaId(), e);
+            }
+        }
+    }
+
+    public void onShowtimeEvent(ShowtimeEvent event) {
+        ShowtimeDTO showtime = event.getShowtime();
+        switch (event.getType()) {
+            case UPSERTED:
+                if (event.getPreviousShowDate() != null
+                        && (!event.getPreviousShowDate().equals(showtime.getShowDate())
+                        || !Objects.equals(event.getPreviousMovieId(), showtime.getMovieId()))) {
+                    removeSlot(showtime.getCinemaId(), event.getPreviousMovieId(), event.getPreviousShowDate(), showtime.getId());
+                }
+                movieRepository.findById(showtime.getMovieId()).ifPresent(movie ->
+                        upsertSlot(showtime.getCinemaId(), movie, showtime.getShowDate(), convertToSlot(showtime)));
+                break;
+            case SEATS_CHANGED:
+                updateSeats(showtime.getCinemaId(), showtime.getMovieId(), showtime.getShowDate(),
+                        showtime.getId(), showtime.getAvailableSeats());
+                break;
+            case REMOVED:
+                removeSlot(showtime.getCinemaId(), showtime.getMovieId(), showtime.getShowDate(), showtime.getId());
+                break;
+        }
+    }
+
+    public void onMovieShowtimeAdded(Movie movie, Showtime showtime) {
+        upsertSlot(movie.getCinemaId(), movie, showtime.getShowDate(), convertToSlot(showtime));
+    }
+
+    public void onMovieShowtimeRemoved(Movie movie, Showtime showtime) {
+        removeSlot(movie.getCinemaId(), movie.getId(), showtime.getShowDate(), showtime.getId());
+    }
+
+    public void onMovieUpdated(Movie movie, String previousCinemaId) {
+        if (previousCinemaId != null && !previousCinemaId.equals(movie.getCinemaId())) {
+            onMovieDeleted(previousCinemaId, movie.getId());
+        }
+        NowShowing view = mongoTemplate.findById(movie.getCinemaId(), NowShowing.class);
+        if (view == null) {
+            return;
+        }
+        Document set = new Document();
+        view.getDays().forEach((day, movies) -> {
+            if (movies.containsKey(movie.getId())) {
+                set.putAll(movieFields(day + "." + movie.getId(), movie));
+            }
+        });
+        if (!set.isEmpty()) {
+            collection().updateOne(Filters.eq("_id", movie.getCinemaId()), new Document("$set", set));
+        }
+    }
+
+    // Bulk imports update many movies at once; one rebuild is cheaper than patching each of them
+    public void onMoviesImported(String cinemaId) {
+        if (mongoTemplate.exists(new Query(Criteria.where("_id").is(cinemaId)), NowShowing.class)) {
+            rebuild(cinemaId);
+        }
+    }
+
+    public void onMovieDeleted(String cinemaId, String movieId) {
+        NowShowing view = mongoTemplate.findById(cinemaId, NowShowing.class);
+        if (view == null) {
+            return;
+        }
+        Document unset = new Document();
+        view.getDays().forEach((day, movies) -> {
+            if (movies.containsKey(movieId)) {
+                unset.append("days." + day + "." + movieId, "");
+            }
+        });
+        if (!unset.isEmpty()) {
+            collection().updateOne(Filters.eq("_id", cinemaId), new Document("$unset", unset));
+        }
+    }
+
+    // Views that do not exist yet are left alone; they are built in full on first read
+    private void upsertSlot(String cinemaId, Movie movie, LocalDate showDate, NowShowingSlot slot) {
+        if (!isInWindow(showDate) || slot.getShowtimeId() == null) {
+            return;
+        }
+        String moviePath = showDate + "." + movie.getId();
+        Document set = movieFields(moviePath, movie);
+        set.append("days." + moviePath + ".showtimes." + slot.getShowtimeId(), new Document()
+                .append("showtimeId", slot.getShowtimeId())
+                .append("screenNumber", slot.getScreenNumber())
+                .append("startTime", slot.getStartTime())
+                .append("price", slot.getPrice())
+                .append("totalSeats", slot.getTotalSeats())
+                .append("availableSeats", slot.getAvailableSeats()));
+        collection().updateOne(Filters.eq("_id", cinemaId), new Document("$set", set));
+    }
+
+    private void updateSeats(String cinemaId, String movieId, LocalDate showDate, String showtimeId, Integer availableSeats) {
+        if (!isInWindow(showDate)) {
+            return;
+        }
+        String slotPath = slotPath(showDate, movieId, showtimeId);
+        collection().updateOne(
+                Filters.and(Filters.eq("_id", cinemaId), Filters.exists(slotPath)),
+                new Document("$set", new Document(slotPath + ".availableSeats", availableSeats)));
+    }
+
+    private void removeSlot(String cinemaId, String movieId, LocalDate showDate, String showtimeId) {
+        if (showDate == null || movieId == null || showtimeId == null) {
+            return;
+        }
+        collection().updateOne(Filters.eq("_id", cinemaId),
+                new Document("$unset", new Document(slotPath(showDate, movieId, showtimeId), "")));
+    }
+
+    private Document movieFields(String moviePath, Movie movie) {
+        String prefix = "days." + moviePath + ".";
+        return new Document()
+                .append(prefix + "movieId", movie.getId())
+                .append(prefix + "title", movie.getTitle())
+                .append(prefix + "genre", movie.getGenre())
+                .append(prefix + "language", movie.getLanguage())
+                .append(prefix + "rating", movie.getRating())
+                .append(prefix + "duration", movie.getDuration())
+                .append(prefix + "posterUrl", movie.getPosterUrl());
+    }
+
+    private String slotPath(LocalDate showDate, String movieId, String showtimeId) {
+        return "days." + showDate + "." + movieId + ".showtimes." + showtimeId;
+    }
+
+    private boolean isInWindow(LocalDate showDate) {
+        LocalDate today = LocalDate.now();
+        return showDate != null && !showDate.isBefore(today) && !showDate.isAfter(today.plusDays(MAX_DAYS_AHEAD));
+    }
+
+    private void addToView(NowShowing view, Movie movie, LocalDate showDate, NowShowingSlot slot) {
+        if (!isInWindow(showDate) || slot.getShowtimeId() == null) {
+            return;
+        }
+        view.getDays()
+                .computeIfAbsent(showDate.toString(), day -> new HashMap<>())
+                .computeIfAbsent(movie.getId(), id -> new NowShowingMovie(movie))
+                .getShowtimes()
+                .put(slot.getShowtimeId(), slot);
+    }
+
+    private MongoCollection<Document> collection() {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(NowShowing.class));
+    }
+
+    private NowShowingSlot convertToSlot(Showtime showtime) {
+        return new NowShowingSlot(
+                showtime.getId(),
+                showtime.getScreenNumber(),
+                formatTime(showtime.getStartTime()),
+                showtime.getPrice(),
+                showtime.getTotalSeats(),
+                showtime.getAvailableSeats()
+        );
+    }
+
+    private NowShowingSlot convertToSlot(ShowtimeDTO showtime) {
+        return new NowShowingSlot(
+                showtime.getId(),
+                showtime.getScreenNumber(),
+                formatTime(showtime.getStartTime()),
+                showtime.getPrice(),
+                showtime.getTotalSeats(),
+                showtime.getAvailableSeats()
+        );
+    }
+
+    private String formatTime(LocalTime time) {
+        return time != null ? time.format(TIME_FORMAT) : null;
+    }
+
+    private NowShowingDTO convertToDTO(NowShowing view) {
+        LocalDate today = LocalDate.now();
+        List<NowShowingDTO.Day> days = new ArrayList<>();
+        view.getDays().entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .filter(day -> !LocalDate.parse(day.getKey()).isBefore(today))
+                .forEach(day -> {
+                    List<NowShowingDTO.MovieEntry> movies = new ArrayList<>();
+                    for (NowShowingMovie movie : day.getValue().values()) {
+                        if (movie.getShowtimes() == null || movie.getShowtimes().isEmpty()) {
+                            continue;
+                        }
+                        List<NowShowingSlot> slots = new ArrayList<>(movie.getShowtimes().values());
+                        slots.sort(Comparator.comparing(NowShowingSlot::getStartTime, Comparator.nullsLast(String::compareTo)));
+                        movies.add(new NowShowingDTO.MovieEntry(
+                                movie.getMovieId(),
+                                movie.getTitle(),
+                                movie.getGenre(),
+                                movie.getLanguage(),
+                                movie.getRating(),
+                                movie.getDuration(),
+                                movie.getPosterUrl(),
+                                slots
+                        ));
+                    }
+                    movies.sort(Comparator.comparing(NowShowingDTO.MovieEntry::getTitle, Comparator.nullsLast(String::compareTo)));
+                    if (!movies.isEmpty()) {
+                        days.add(new NowShowingDTO.Day(LocalDate.parse(day.getKey()), movies));
+                    }
+                });
+        return new NowShowingDTO(view.getCinemaId(), view.getFromDate(), view.getToDate(), days);
+    }
+}
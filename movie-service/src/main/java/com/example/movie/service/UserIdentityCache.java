@@ -0,0 +1,138 @@
+package com.example.movie.service;
+
+import com.example.movie.client.UserClient;
+import com.example.movie.dto.UserIdentity;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// User identities for authorization checks, so an admin request costs a map lookup instead of a call
+// to user-service. Every cinema admin is preloaded from user-service's identity stream and reloaded
+// periodically. Other users are loaded on first use. Unknown ids are cached briefly, so repeated
+// bogus ids do not each cost a call. user-service pushes an event when a user changes (see
+// IdentityEventController), and the ttl bounds how long a missed event can leave an entry stale.
+@Service
+public class UserIdentityCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserIdentityCache.class);
+
+    @Autowired
+    private UserClient userClient;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${identity.cache.ttl-ms:600000}")
+    private long ttlMs;
+
+    @Value("${identity.cache.unknown-ttl-ms:10000}")
+    private long unknownTtlMs;
+
+    @Value("${identity.cache.max-entries:100000}")
+    private int maxEntries;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    // Bumped by every eviction; a load that overlapped one is used but not cached, since it may
+    // have read the user before the change
+    private final AtomicLong evictions = new AtomicLong();
+
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    public void start() {
+        hits = Counter.builder("identity.cache.requests").tag("result", "hit")
+                .description("Identity lookups answered from memory").register(meterRegistry);
+        misses = Counter.builder("identity.cache.requests").tag("result", "miss")
+                .description("Identity lookups that called user-service").register(meterRegistry);
+        Gauge.builder("identity.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    // null when user-service does not know the id
+    public UserIdentity get(String userId) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(userId);
+        if (entry != null && entry.expiresAt > now) {
+            hits.increment();
+            return entry.identity;
+        }
+        misses.increment();
+        long evictionsBefore = evictions.get();
+        List<UserIdentity> found = userClient.lookupIdentities(List.of(userId));
+        UserIdentity identity = found.isEmpty() ? null : found.get(0);
+        if (evictions.get() == evictionsBefore) {
+            put(userId, identity, now);
+        }
+        return identity;
+    }
+
+    public void evict(String userId) {
+        evictions.incrementAndGet();
+        entries.remove(userId);
+    }
+
+    // Also runs at startup, so admins are in memory before their first request
+    @Scheduled(fixedDelayString = "${identity.cache.admin-refresh-interval-ms:300000}")
+    public void preloadAdmins() {
+        long now = System.currentTimeMillis();
+        long evictionsBefore = evictions.get();
+        int loaded = 0;
+        try (Response response = userClient.streamIdentities(UserIdentity.CINEMA_ADMIN);
+             InputStream body = response.body().asInputStream();
+             MappingIterator<UserIdentity> identities = objectMapper.readerFor(UserIdentity.class).readValues(body)) {
+            while (identities.hasNext()) {
+                UserIdentity identity = identities.next();
+                if (evictions.get() == evictionsBefore) {
+                    put(identity.getId(), identity, now);
+                    loaded++;
+                }
+            }
+            logger.debug("Preloaded {} cinema admin identities", loaded);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not preload cinema admin identities; they are loaded on first use", e);
+        }
+    }
+
+    private void put(String userId, UserIdentity identity, long now) {
+        if (entries.size() >= maxEntries && !entries.containsKey(userId)) {
+            // Full: make room by dropping an arbitrary entry rather than growing without bound
+            Iterator<String> keys = entries.keySet().iterator();
+            if (keys.hasNext()) {
+                entries.remove(keys.next());
+            }
+        }
+        entries.put(userId, new Entry(identity, now + (identity != null ? ttlMs : unknownTtlMs)));
+    }
+
+    private static class Entry {
+        final UserIdentity identity;
+        final long expiresAt;
+
+        Entry(UserIdentity identity, long expiresAt) {
+            this.identity = identity;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.showtime.client;
+
+import com.example.showtime.dto.MovieDTO;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+
+@FeignClient(name = "admin-service", contextId = "movieClient", path = "/api/movies")
+public interface MovieClient {
+
+    @GetMapping("/{id}")
+    MovieDTO getMovieById(@PathVariable("id") String id);
+}
@@ -0,0 +1,13 @@
+package com.example.showtime.client;
+
+import com.example.showtime.dto.ShowtimeEvent;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+@FeignClient(name = "admin-service", path = "/api/admin/now-showing")
+public interface NowShowingClient {
+
+    @PostMapping("/showtime-events")
+    void publish(@RequestBody ShowtimeEvent event);
+}
@@ -0,0 +1,60 @@
+package com.example.showtime.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class MongoPoolConfig {
+
+    @Value("${mongodb.pool.min-size:0}")
+    private int minSize;
+
+    @Value("${mongodb.pool.max-size:100}")
+    private int maxSize;
+
+    @Value("${mongodb.pool.max-connecting:2}")
+    private int maxConnecting;
+
+    // How long a request waits for a free connection before failing with a MongoTimeoutException
+    @Value("${mongodb.pool.max-wait-time-ms:120000}")
+    private long maxWaitTimeMs;
+
+    @Value("${mongodb.pool.max-connection-idle-time-ms:0}")
+    private long maxConnectionIdleTimeMs;
+
+    @Value("${mongodb.pool.max-connection-life-time-ms:0}")
+    private long maxConnectionLifeTimeMs;
+
+    @Value("${mongodb.socket.connect-timeout-ms:10000}")
+    private int connectTimeoutMs;
+
+    // Upper bound for a single operation's round trip; 0 waits forever
+    @Value("${mongodb.socket.read-timeout-ms:0}")
+    private int readTimeoutMs;
+
+    @Bean
+    public MongoPoolMetricsListener mongoPoolMetricsListener(MeterRegistry meterRegistry) {
+        return new MongoPoolMetricsListener(meterRegistry);
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoPoolCustomizer(MongoPoolMetricsListener mongoPoolMetricsListener) {
+        return builder -> builder
+                .applyToConnectionPoolSettings(pool -> pool
+                        .minSize(minSize)
+                        .maxSize(maxSize)
+                        .maxConnecting(maxConnecting)
+                        .maxWaitTime(maxWaitTimeMs, TimeUnit.MILLISECONDS)
+                        .maxConnectionIdleTime(maxConnectionIdleTimeMs, TimeUnit.MILLISECONDS)
+                        .maxConnectionLifeTime(maxConnectionLifeTimeMs, TimeUnit.MILLISECONDS)
+                        .addConnectionPoolListener(mongoPoolMetricsListener))
+                .applyToSocketSettings(socket -> socket
+                        .connectTimeout(connectTimeoutMs, TimeUnit.MILLISECONDS)
+                        .readTimeout(readTimeoutMs, TimeUnit.MILLISECONDS));
+    }
+}
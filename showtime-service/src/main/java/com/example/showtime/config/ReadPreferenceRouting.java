@@ -0,0 +1,52 @@
+package com.example.showtime.config;
+
+import com.mongodb.ReadPreference;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Resolves the read preference for a named endpoint from mongodb.read-routing.endpoints.<name>.
+// Anything other than primary is bounded by max-staleness-seconds, so the driver skips secondaries
+// that lag further behind than that.
+@Component
+public class ReadPreferenceRouting {
+
+    // Lets a caller that must see the latest data (e.g. a seat check before a booking) force the primary
+    public static final String READ_PREFERENCE_HEADER = "X-Read-Preference";
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${mongodb.read-routing.default:primary}")
+    private String defaultMode;
+
+    @Value("${mongodb.read-routing.max-staleness-seconds:90}")
+    private long maxStalenessSeconds;
+
+    private final Map<String, ReadPreference> endpoints = new ConcurrentHashMap<>();
+
+    public ReadPreference forEndpoint(String endpoint) {
+        return endpoints.computeIfAbsent(endpoint, name ->
+                toReadPreference(environment.getProperty("mongodb.read-routing.endpoints." + name, defaultMode)));
+    }
+
+    public ReadPreference forEndpoint(String endpoint, String requestedMode) {
+        if (requestedMode != null && "primary".equalsIgnoreCase(requestedMode.trim())) {
+            return ReadPreference.primary();
+        }
+        return forEndpoint(endpoint);
+    }
+
+    public ReadPreference toReadPreference(String mode) {
+        if ("primary".equalsIgnoreCase(mode)) {
+            return ReadPreference.primary();
+        }
+        return ReadPreference.valueOf(mode, Collections.emptyList(), maxStalenessSeconds, TimeUnit.SECONDS);
+    }
+}
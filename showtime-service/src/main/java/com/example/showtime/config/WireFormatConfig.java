@@ -0,0 +1,19 @@
+package com.example.showtime.config;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+// Binary Smile encoding (application/x-jackson-smile) for service-to-service calls that ask for it in
+// their Accept header. It replaces Spring's default Smile converter in place, i.e. after the JSON one,
+// so browsers and anything sending */* still get JSON. Same Jackson setup and @JsonFormat handling as JSON.
+@Configuration
+public class WireFormatConfig {
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
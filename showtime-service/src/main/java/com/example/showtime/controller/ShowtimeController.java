@@ -1,14 +1,30 @@
 package com.example.showtime.controller;
 
+import com.example.showtime.config.ReadPreferenceRouting;
+import com.example.showtime.dto.FieldSelection;
+import com.example.showtime.dto.OccupancyReportDTO;
 import com.example.showtime.dto.ShowtimeDTO;
+import com.example.showtime.dto.ShowtimeScheduleDTO;
+import com.example.showtime.dto.ShowtimeScheduleResultDTO;
+import com.example.showtime.exception.ForbiddenException;
+import com.example.showtime.exception.UnauthorizedException;
+import com.example.showtime.service.OccupancyStatsService;
+import com.example.showtime.service.OperatorAccess;
+import com.example.showtime.service.SeatAvailabilityFeed;
 import com.example.showtime.service.ShowtimeService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/showtimes")
@@ -17,27 +33,103 @@ public class ShowtimeController {
     @Autowired
     private ShowtimeService showtimeService;
 
+    @Autowired
+    private SeatAvailabilityFeed seatAvailabilityFeed;
+
+    @Autowired
+    private OccupancyStatsService occupancyStatsService;
+
+    @Autowired
+    private OperatorAccess operatorAccess;
+
+    @Value("${seat-feed.max-showtimes-per-stream:50}")
+    private int maxShowtimesPerStream;
+
     @PostMapping
     public ResponseEntity<ShowtimeDTO> createShowtime(@Valid @RequestBody ShowtimeDTO showtimeDTO) {
         ShowtimeDTO createdShowtime = showtimeService.createShowtime(showtimeDTO);
         return new ResponseEntity<>(createdShowtime, HttpStatus.CREATED);
     }
 
+    // Creates a recurring schedule in one call; 409 with the conflicts and nothing written if any
+    // showtime would overlap another on its screen. Only the cinema's own admins may schedule it.
+    @PostMapping("/bulk")
+    public ResponseEntity<ShowtimeScheduleResultDTO> scheduleShowtimes(
+            @Valid @RequestBody ShowtimeScheduleDTO scheduleDTO,
+            @RequestHeader(value = "X-User-Type", required = false) String userType,
+            @RequestHeader(value = "X-Cinema-Id", required = false) String callerCinemaId) {
+        if (userType == null) {
+            throw new UnauthorizedException("Scheduling needs a cinema admin's X-User-Id");
+        }
+        if (!"CINEMA_ADMIN".equals(userType) || !scheduleDTO.getCinemaId().equals(callerCinemaId)) {
+            throw new ForbiddenException("Only the cinema's admins can schedule its showtimes");
+        }
+        ShowtimeScheduleResultDTO result = showtimeService.scheduleShowtimes(scheduleDTO);
+        HttpStatus status = !result.getConflicts().isEmpty() ? HttpStatus.CONFLICT
+                : result.isDryRun() ? HttpStatus.OK : HttpStatus.CREATED;
+        return new ResponseEntity<>(result, status);
+    }
+
+    // List endpoints return full showtimes unless ?view=card|summary or ?fields=a,b,c narrows them
     @GetMapping("/movie/{movieId}")
-    public ResponseEntity<List<ShowtimeDTO>> getShowtimesByMovieId(@PathVariable String movieId) {
-        List<ShowtimeDTO> showtimes = showtimeService.getShowtimesByMovieId(movieId);
+    public ResponseEntity<List<?>> getShowtimesByMovieId(
+            @PathVariable String movieId,
+            @RequestParam(required = false) String cinemaId,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) String fields) {
+        List<?> showtimes = showtimeService.getShowtimesByMovieId(movieId, cinemaId, selection(view, fields));
         return ResponseEntity.ok(showtimes);
     }
 
     @GetMapping("/cinema/{cinemaId}")
-    public ResponseEntity<List<ShowtimeDTO>> getShowtimesByCinemaId(@PathVariable String cinemaId) {
-        List<ShowtimeDTO> showtimes = showtimeService.getShowtimesByCinemaId(cinemaId);
+    public ResponseEntity<List<?>> getShowtimesByCinemaId(
+            @PathVariable String cinemaId,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) String fields) {
+        List<?> showtimes = showtimeService.getShowtimesByCinemaId(cinemaId, selection(view, fields));
         return ResponseEntity.ok(showtimes);
     }
 
+    // Server-Sent Events: "seats" whenever availableSeats changes, "removed" when the showtime is deleted.
+    // One stream can watch several showtimes, so a listing page needs a single connection.
+    @GetMapping(value = "/seats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamSeatAvailability(@RequestParam List<String> showtimeIds) {
+        List<String> distinctIds = showtimeIds.stream().filter(id -> !id.isBlank()).distinct().collect(Collectors.toList());
+        if (distinctIds.isEmpty() || distinctIds.size() > maxShowtimesPerStream) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no")
+                .body(seatAvailabilityFeed.subscribe(distinctIds));
+    }
+
+    // Occupancy and revenue of a cinema's showtimes between two show dates (inclusive).
+    // Cinema admins only get their own cinema, operators any; customers and anonymous callers get nothing.
+    @GetMapping("/analytics/occupancy")
+    public ResponseEntity<OccupancyReportDTO> getOccupancy(
+            @RequestParam String cinemaId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "movie") String groupBy,
+            @RequestHeader(value = "X-User-Type", required = false) String userType,
+            @RequestHeader(value = "X-Cinema-Id", required = false) String callerCinemaId,
+            @RequestHeader(value = OperatorAccess.OPERATOR_TOKEN_HEADER, required = false) String operatorToken) {
+        if (!operatorAccess.isOperator(operatorToken)) {
+            if (userType == null) {
+                throw new UnauthorizedException("Occupancy needs a cinema admin's X-User-Id or an operator token");
+            }
+            if (!"CINEMA_ADMIN".equals(userType) || !cinemaId.equals(callerCinemaId)) {
+                throw new ForbiddenException("Only the cinema's admins can see its occupancy");
+            }
+        }
+        return ResponseEntity.ok(occupancyStatsService.report(cinemaId, from, to, OccupancyStatsService.GroupBy.of(groupBy)));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<ShowtimeDTO> getShowtimeById(@PathVariable String id) {
-        ShowtimeDTO showtime = showtimeService.getShowtimeById(id);
+    public ResponseEntity<ShowtimeDTO> getShowtimeById(
+            @PathVariable String id,
+            @RequestHeader(value = ReadPreferenceRouting.READ_PREFERENCE_HEADER, required = false) String readPreference) {
+        ShowtimeDTO showtime = showtimeService.getShowtimeById(id, readPreference);
         return ResponseEntity.ok(showtime);
     }
 
@@ -53,9 +145,20 @@ public class ShowtimeController {
         return ResponseEntity.ok().build();
     }
 
+    // Called by booking-service when a booking could not be saved after its seats were reduced
+    @PutMapping("/{id}/release")
+    public ResponseEntity<Void> releaseSeats(@PathVariable String id, @RequestParam int count) {
+        showtimeService.releaseSeats(id, count);
+        return ResponseEntity.ok().build();
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteShowtime(@PathVariable String id) {
         showtimeService.deleteShowtime(id);
         return ResponseEntity.noContent().build();
     }
+
+    private static FieldSelection selection(String view, String fields) {
+        return FieldSelection.of(view, fields, ShowtimeService.VIEWS, ShowtimeService.FIELDS);
+    }
 }
@@ -0,0 +1,51 @@
+package com.example.showtime.dto;
+
+// The part of an admin-service movie that scheduling needs
+public class MovieDTO {
+    private String id;
+    private String cinemaId;
+    private String title;
+    private Integer duration;
+
+    public MovieDTO() {
+    }
+
+    public MovieDTO(String id, String cinemaId, String title, Integer duration) {
+        this.id = id;
+        this.cinemaId = cinemaId;
+        this.title = title;
+        this.duration = duration;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getCinemaId() {
+        return cinemaId;
+    }
+
+    public void setCinemaId(String cinemaId) {
+        this.cinemaId = cinemaId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public Integer getDuration() {
+        return duration;
+    }
+
+    public void setDuration(Integer duration) {
+        this.duration = duration;
+    }
+}
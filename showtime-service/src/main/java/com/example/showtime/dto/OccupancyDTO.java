@@ -0,0 +1,71 @@
+package com.example.showtime.dto;
+
+// One row of an occupancy report: the showtimes of one movie, screen, day or start hour
+public class OccupancyDTO {
+    private String key;
+    private long showtimes;
+    private long totalSeats;
+    private long seatsSold;
+    private double revenue;
+    private double fillRate;
+
+    public OccupancyDTO() {
+    }
+
+    public OccupancyDTO(String key, long showtimes, long totalSeats, long seatsSold, double revenue, double fillRate) {
+        this.key = key;
+        this.showtimes = showtimes;
+        this.totalSeats = totalSeats;
+        this.seatsSold = seatsSold;
+        this.revenue = revenue;
+        this.fillRate = fillRate;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public long getShowtimes() {
+        return showtimes;
+    }
+
+    public void setShowtimes(long showtimes) {
+        this.showtimes = showtimes;
+    }
+
+    public long getTotalSeats() {
+        return totalSeats;
+    }
+
+    public void setTotalSeats(long totalSeats) {
+        this.totalSeats = totalSeats;
+    }
+
+    public long getSeatsSold() {
+        return seatsSold;
+    }
+
+    public void setSeatsSold(long seatsSold) {
+        this.seatsSold = seatsSold;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(double revenue) {
+        this.revenue = revenue;
+    }
+
+    public double getFillRate() {
+        return fillRate;
+    }
+
+    public void setFillRate(double fillRate) {
+        this.fillRate = fillRate;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.showtime.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Occupancy and revenue of one cinema between two show dates (inclusive), grouped by groupBy
+public class OccupancyReportDTO {
+    private String cinemaId;
+    private LocalDate from;
+    private LocalDate to;
+    private String groupBy;
+    private OccupancyDTO totals;
+    private List<OccupancyDTO> rows;
+
+    public OccupancyReportDTO() {
+    }
+
+    public OccupancyReportDTO(String cinemaId, LocalDate from, LocalDate to, String groupBy, OccupancyDTO totals,
+                              List<OccupancyDTO> rows) {
+        this.cinemaId = cinemaId;
+        this.from = from;
+        this.to = to;
+        this.groupBy = groupBy;
+        this.totals = totals;
+        this.rows = rows;
+    }
+
+    public String getCinemaId() {
+        return cinemaId;
+    }
+
+    public void setCinemaId(String cinemaId) {
+        this.cinemaId = cinemaId;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public String getGroupBy() {
+        return groupBy;
+    }
+
+    public void setGroupBy(String groupBy) {
+        this.groupBy = groupBy;
+    }
+
+    public OccupancyDTO getTotals() {
+        return totals;
+    }
+
+    public void setTotals(OccupancyDTO totals) {
+        this.totals = totals;
+    }
+
+    public List<OccupancyDTO> getRows() {
+        return rows;
+    }
+
+    public void setRows(List<OccupancyDTO> rows) {
+        this.rows = rows;
+    }
+}
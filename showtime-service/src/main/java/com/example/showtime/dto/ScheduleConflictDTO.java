@@ -0,0 +1,108 @@
+package com.example.showtime.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// A requested showtime that would share its screen with another one. conflictsWithId is the
+// existing showtime, or null when the other one is part of the same request.
+public class ScheduleConflictDTO {
+    private String movieId;
+    private String screenNumber;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate showDate;
+
+    @JsonFormat(pattern = "HH:mm")
+    private LocalTime startTime;
+
+    private String conflictsWithId;
+    private String conflictsWithMovieId;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate conflictsWithShowDate;
+
+    @JsonFormat(pattern = "HH:mm")
+    private LocalTime conflictsWithStartTime;
+
+    public ScheduleConflictDTO() {
+    }
+
+    public ScheduleConflictDTO(String movieId, String screenNumber, LocalDate showDate, LocalTime startTime,
+                               String conflictsWithId, String conflictsWithMovieId, LocalDate conflictsWithShowDate,
+                               LocalTime conflictsWithStartTime) {
+        this.movieId = movieId;
+        this.screenNumber = screenNumber;
+        this.showDate = showDate;
+        this.startTime = startTime;
+        this.conflictsWithId = conflictsWithId;
+        this.conflictsWithMovieId = conflictsWithMovieId;
+        this.conflictsWithShowDate = conflictsWithShowDate;
+        this.conflictsWithStartTime = conflictsWithStartTime;
+    }
+
+    public String getMovieId() {
+        return movieId;
+    }
+
+    public void setMovieId(String movieId) {
+        this.movieId = movieId;
+    }
+
+    public String getScreenNumber() {
+        return screenNumber;
+    }
+
+    public void setScreenNumber(String screenNumber) {
+        this.screenNumber = screenNumber;
+    }
+
+    public LocalDate getShowDate() {
+        return showDate;
+    }
+
+    public void setShowDate(LocalDate showDate) {
+        this.showDate = showDate;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public String getConflictsWithId() {
+        return conflictsWithId;
+    }
+
+    public void setConflictsWithId(String conflictsWithId) {
+        this.conflictsWithId = conflictsWithId;
+    }
+
+    public String getConflictsWithMovieId() {
+        return conflictsWithMovieId;
+    }
+
+    public void setConflictsWithMovieId(String conflictsWithMovieId) {
+        this.conflictsWithMovieId = conflictsWithMovieId;
+    }
+
+    public LocalDate getConflictsWithShowDate() {
+        return conflictsWithShowDate;
+    }
+
+    public void setConflictsWithShowDate(LocalDate conflictsWithShowDate) {
+        this.conflictsWithShowDate = conflictsWithShowDate;
+    }
+
+    public LocalTime getConflictsWithStartTime() {
+        return conflictsWithStartTime;
+    }
+
+    public void setConflictsWithStartTime(LocalTime conflictsWithStartTime) {
+        this.conflictsWithStartTime = conflictsWithStartTime;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.showtime.dto;
+
+// Payload of a "seats" event on the live seat availability stream
+public class SeatAvailabilityDTO {
+    private String showtimeId;
+    private Integer availableSeats;
+
+    public SeatAvailabilityDTO() {
+    }
+
+    public SeatAvailabilityDTO(String showtimeId, Integer availableSeats) {
+        this.showtimeId = showtimeId;
+        this.availableSeats = availableSeats;
+    }
+
+    public String getShowtimeId() {
+        return showtimeId;
+    }
+
+    public void setShowtimeId(String showtimeId) {
+        this.showtimeId = showtimeId;
+    }
+
+    public Integer getAvailableSeats() {
+        return availableSeats;
+    }
+
+    public void setAvailableSeats(Integer availableSeats) {
+        this.availableSeats = availableSeats;
+    }
+}
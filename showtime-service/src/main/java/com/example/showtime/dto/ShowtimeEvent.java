@@ -0,0 +1,59 @@
+package com.example.showtime.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDate;
+
+// Change notification pushed to the now-showing read model in admin-service
+public class ShowtimeEvent {
+
+    public enum Type {
+        UPSERTED,
+        SEATS_CHANGED,
+        REMOVED
+    }
+
+    private Type type;
+    private ShowtimeDTO showtime;
+
+    // Where the showtime was listed before an update moved it to another movie or day
+    private String previousMovieId;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate previousShowDate;
+
+    public ShowtimeEvent() {
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public ShowtimeDTO getShowtime() {
+        return showtime;
+    }
+
+    public void setShowtime(ShowtimeDTO showtime) {
+        this.showtime = showtime;
+    }
+
+    public String getPreviousMovieId() {
+        return previousMovieId;
+    }
+
+    public void setPreviousMovieId(String previousMovieId) {
+        this.previousMovieId = previousMovieId;
+    }
+
+    public LocalDate getPreviousShowDate() {
+        return previousShowDate;
+    }
+
+    public void setPreviousShowDate(LocalDate previousShowDate) {
+        this.previousShowDate = previousShowDate;
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.showtime.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+// Recurrence template for POST /api/showtimes/bulk: every entry is expanded to one showtime per
+// day in [from, to] (only daysOfWeek, when given) x screen x start time
+public class ShowtimeScheduleDTO {
+
+    @NotBlank(message = "Cinema ID is required")
+    private String cinemaId;
+
+    @NotNull(message = "From date is required")
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate from;
+
+    @NotNull(message = "To date is required")
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate to;
+
+    private List<DayOfWeek> daysOfWeek;
+
+    @NotEmpty(message = "At least one entry is required")
+    @Valid
+    private List<Entry> entries;
+
+    // Only check and report conflicts, write nothing
+    private boolean dryRun;
+
+    public String getCinemaId() {
+        return cinemaId;
+    }
+
+    public void setCinemaId(String cinemaId) {
+        this.cinemaId = cinemaId;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public List<DayOfWeek> getDaysOfWeek() {
+        return daysOfWeek;
+    }
+
+    public void setDaysOfWeek(List<DayOfWeek> daysOfWeek) {
+        this.daysOfWeek = daysOfWeek;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public void setEntries(List<Entry> entries) {
+        this.entries = entries;
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    public void setDryRun(boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+
+    public static class Entry {
+
+        @NotBlank(message = "Movie ID is required")
+        private String movieId;
+
+        @NotEmpty(message = "At least one screen is required")
+        private List<@NotBlank String> screens;
+
+        @NotEmpty(message = "At least one start time is required")
+        private List<@NotNull LocalTime> startTimes;
+
+        @NotNull(message = "Price is required")
+        @Positive(message = "Price must be positive")
+        private Double price;
+
+        @NotNull(message = "Total seats is required")
+        @Positive(message = "Total seats must be positive")
+        private Integer totalSeats;
+
+        public String getMovieId() {
+            return movieId;
+        }
+
+        public void setMovieId(String movieId) {
+            this.movieId = movieId;
+        }
+
+        public List<String> getScreens() {
+            return screens;
+        }
+
+        public void setScreens(List<String> screens) {
+            this.screens = screens;
+        }
+
+        public List<LocalTime> getStartTimes() {
+            return startTimes;
+        }
+
+        public void setStartTimes(List<LocalTime> startTimes) {
+            this.startTimes = startTimes;
+        }
+
+        public Double getPrice() {
+            return price;
+        }
+
+        public void setPrice(Double price) {
+            this.price = price;
+        }
+
+        public Integer getTotalSeats() {
+            return totalSeats;
+        }
+
+        public void setTotalSeats(Integer totalSeats) {
+            this.totalSeats = totalSeats;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.showtime.dto;
+
+import java.util.List;
+
+// Outcome of a bulk schedule: either every showtime was created, or none was and conflicts says why
+public class ShowtimeScheduleResultDTO {
+    private int requested;
+    private int created;
+    private boolean dryRun;
+    private List<ShowtimeDTO> showtimes;
+    private List<ScheduleConflictDTO> conflicts;
+
+    public ShowtimeScheduleResultDTO() {
+    }
+
+    public ShowtimeScheduleResultDTO(int requested, int created, boolean dryRun, List<ShowtimeDTO> showtimes,
+                                     List<ScheduleConflictDTO> conflicts) {
+        this.requested = requested;
+        this.created = created;
+        this.dryRun = dryRun;
+        this.showtimes = showtimes;
+        this.conflicts = conflicts;
+    }
+
+    public int getRequested() {
+        return requested;
+    }
+
+    public void setRequested(int requested) {
+        this.requested = requested;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    public void setDryRun(boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+
+    public List<ShowtimeDTO> getShowtimes() {
+        return showtimes;
+    }
+
+    public void setShowtimes(List<ShowtimeDTO> showtimes) {
+        this.showtimes = showtimes;
+    }
+
+    public List<ScheduleConflictDTO> getConflicts() {
+        return conflicts;
+    }
+
+    public void setConflicts(List<ScheduleConflictDTO> conflicts) {
+        this.conflicts = conflicts;
+    }
+}
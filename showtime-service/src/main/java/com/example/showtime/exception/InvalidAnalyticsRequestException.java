@@ -0,0 +1,9 @@
+package com.example.showtime.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class InvalidAnalyticsRequestException extends DomainException {
+    public InvalidAnalyticsRequestException(String message) {
+        super(HttpStatus.BAD_REQUEST, message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.showtime.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ScheduleConflictException extends DomainException {
+    public ScheduleConflictException(String message) {
+        super(HttpStatus.CONFLICT, message);
+    }
+}
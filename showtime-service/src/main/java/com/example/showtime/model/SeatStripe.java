@@ -0,0 +1,57 @@
+package com.example.showtime.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// One slice of a hot showtime's seat inventory. Bookings decrement different stripes in parallel
+// instead of all contending on the showtime document; the showtime's availableSeats is the
+// reconciled sum of its stripes.
+@Document(collection = "seat_stripes")
+public class SeatStripe {
+    @Id
+    private String id;
+    @Indexed
+    private String showtimeId;
+    private Integer stripe;
+    private Integer available;
+
+    public SeatStripe() {
+    }
+
+    public static String idOf(String showtimeId, int stripe) {
+        return showtimeId + "#" + stripe;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getShowtimeId() {
+        return showtimeId;
+    }
+
+    public void setShowtimeId(String showtimeId) {
+        this.showtimeId = showtimeId;
+    }
+
+    public Integer getStripe() {
+        return stripe;
+    }
+
+    public void setStripe(Integer stripe) {
+        this.stripe = stripe;
+    }
+
+    public Integer getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(Integer available) {
+        this.available = available;
+    }
+}
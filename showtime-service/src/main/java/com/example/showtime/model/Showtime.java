@@ -1,15 +1,26 @@
 package com.example.showtime.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Sharded;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 
+// Shard key { cinemaId: 1, _id: 1 }: every hot query knows the cinema (ids embed it, see ShowtimeIds)
+// and showtimes for different cinemas spread across chunks. showDate is not part of the key because
+// updateShowtime may move a showtime to another day while its id must stay stable for bookings.
 @Document(collection = "showtimes")
+@Sharded(shardKey = {"cinemaId", "_id"})
+@CompoundIndex(name = "cinema_show_date", def = "{'cinemaId': 1, 'showDate': 1}")
+// Screen overlap checks: start-time ranges of one screen on one show date
+@CompoundIndex(name = "cinema_screen_show_date_start", def = "{'cinemaId': 1, 'screenNumber': 1, 'showDate': 1, 'startTime': 1}")
 public class Showtime {
     @Id
     private String id;
+    @Indexed
     private String movieId;
     private String cinemaId;
     private String screenNumber;
@@ -18,6 +29,14 @@ public class Showtime {
     private Double price;
     private Integer totalSeats;
     private Integer availableSeats;
+    // Set once the showtime is switched to striped seat counters (see SeatStripe): the number of
+    // stripes and the availableSeats they were split from
+    @Indexed(sparse = true)
+    private Integer seatStripes;
+    private Integer stripeBase;
+    // Running time of the movie when scheduled: the screen is busy from startTime for this many
+    // minutes. Null for showtimes created before it was recorded
+    private Integer durationMinutes;
 
     public Showtime() {
     }
@@ -105,4 +124,28 @@ public class Showtime {
     public void setAvailableSeats(Integer availableSeats) {
         this.availableSeats = availableSeats;
     }
+
+    public Integer getSeatStripes() {
+        return seatStripes;
+    }
+
+    public void setSeatStripes(Integer seatStripes) {
+        this.seatStripes = seatStripes;
+    }
+
+    public Integer getStripeBase() {
+        return stripeBase;
+    }
+
+    public void setStripeBase(Integer stripeBase) {
+        this.stripeBase = stripeBase;
+    }
+
+    public Integer getDurationMinutes() {
+        return durationMinutes;
+    }
+
+    public void setDurationMinutes(Integer durationMinutes) {
+        this.durationMinutes = durationMinutes;
+    }
 }
@@ -0,0 +1,33 @@
+package com.example.showtime.model;
+
+import org.bson.types.ObjectId;
+
+import java.util.Optional;
+
+// Showtime ids carry the cinema they belong to ("<cinemaId>_<ObjectId>"), so a lookup by id alone
+// can include the shard key and be routed to a single shard. Ids created before this scheme are
+// plain ObjectIds and fall back to an untargeted lookup.
+public final class ShowtimeIds {
+
+    private static final char SEPARATOR = '_';
+    private static final int OBJECT_ID_LENGTH = 24;
+
+    private ShowtimeIds() {
+    }
+
+    public static String generate(String cinemaId) {
+        return cinemaId + SEPARATOR + new ObjectId().toHexString();
+    }
+
+    public static Optional<String> cinemaIdOf(String showtimeId) {
+        if (showtimeId == null) {
+            return Optional.empty();
+        }
+        int separator = showtimeId.length() - OBJECT_ID_LENGTH - 1;
+        if (separator <= 0 || showtimeId.charAt(separator) != SEPARATOR
+                || !ObjectId.isValid(showtimeId.substring(separator + 1))) {
+            return Optional.empty();
+        }
+        return Optional.of(showtimeId.substring(0, separator));
+    }
+}
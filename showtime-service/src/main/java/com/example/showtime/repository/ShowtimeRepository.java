@@ -5,9 +5,11 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ShowtimeRepository extends MongoRepository<Showtime, String> {
     List<Showtime> findByMovieId(String movieId);
     List<Showtime> findByCinemaId(String cinemaId);
+    Optional<Showtime> findByCinemaIdAndId(String cinemaId, String id);
 }
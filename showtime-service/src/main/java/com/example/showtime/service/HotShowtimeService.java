@@ -0,0 +1,283 @@
+package com.example.showtime.service;
+
+import com.example.showtime.exception.InsufficientSeatsException;
+import com.example.showtime.model.SeatStripe;
+import com.example.showtime.model.Showtime;
+import com.example.showtime.model.ShowtimeIds;
+import com.mongodb.ReadPreference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.Fields;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Striped seat inventory for hot showtimes. Switching a showtime over atomically freezes its
+// availableSeats into stripeBase; the stripes are then created with $setOnInsert from that base, so
+// any instance can (re)create a missing stripe without double-counting seats. Every decrement is a
+// conditional $inc on one stripe document, which keeps the no-oversell guarantee of the single-document
+// path while spreading the writes. The showtime's availableSeats is only a reconciled view.
+//
+// Once its show date has passed a showtime can no longer be booked: its final count is written back,
+// the stripe fields are unset and the stripes deleted, so reconciling only ever covers current shows.
+// Showtimes still on sale stay striped; other instances route their decrements to the stripes. An
+// instance that still routes a deleted or retired showtime here finds its stripes gone and forgets it.
+@Service
+public class HotShowtimeService {
+
+    private static final Logger log = LoggerFactory.getLogger(HotShowtimeService.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${hot-showtime.stripes:16}")
+    private int stripes;
+
+    // Activation snapshot (id, cinemaId, seatStripes, stripeBase) of showtimes known to be hot; never changes
+    private final Map<String, Showtime> hotShowtimes = new ConcurrentHashMap<>();
+
+    public boolean isHot(String showtimeId) {
+        return hotShowtimes.containsKey(showtimeId);
+    }
+
+    public void remember(Showtime showtime) {
+        if (showtime.getSeatStripes() != null) {
+            hotShowtimes.putIfAbsent(showtime.getId(), showtime);
+        }
+    }
+
+    // Splits the showtime's current availableSeats into stripes; a no-op when it already is hot
+    public void activate(String showtimeId, Criteria byId) {
+        Query query = new Query(byId).addCriteria(Criteria.where("seatStripes").exists(false));
+        AggregationUpdate update = AggregationUpdate.update()
+                .set("seatStripes").toValue(stripes)
+                .set("stripeBase").toValueOf(Fields.field("availableSeats"));
+        Showtime showtime = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Showtime.class);
+        if (showtime == null) {
+            return;
+        }
+        ensureStripes(showtime);
+        remember(showtime);
+        log.info("Showtime {} switched to {} seat stripes ({} seats)", showtimeId, stripes, showtime.getStripeBase());
+    }
+
+    // Returns false if the showtime turned out to be deleted or retired by another instance, or was
+    // forgotten meanwhile; the caller then goes through the single-document path
+    public boolean reduceSeats(String showtimeId, int count) {
+        Showtime showtime = hotShowtimes.get(showtimeId);
+        if (showtime == null) {
+            return false;
+        }
+        if (takeFromOneStripe(showtime, count) || takeAcrossStripes(showtime, count)) {
+            return true;
+        }
+        // A stripe may be missing if the instance that activated the showtime died halfway
+        if (!stillHot(showtime)) {
+            return false;
+        }
+        if (ensureStripes(showtime)) {
+            if (!keptStripes(showtime)) {
+                return false;
+            }
+            if (takeFromOneStripe(showtime, count) || takeAcrossStripes(showtime, count)) {
+                return true;
+            }
+        }
+        throw InsufficientSeatsException.available(availableSeats(showtimeId, ReadPreference.primary()));
+    }
+
+    // Back onto one stripe; which one does not matter, as a booking may take across stripes.
+    // Returns false, like reduceSeats, if the showtime is no longer hot.
+    public boolean releaseSeats(String showtimeId, int count) {
+        Showtime showtime = hotShowtimes.get(showtimeId);
+        if (showtime == null) {
+            return false;
+        }
+        String stripeId = SeatStripe.idOf(showtimeId, ThreadLocalRandom.current().nextInt(showtime.getSeatStripes()));
+        Query query = new Query(Criteria.where("_id").is(stripeId));
+        if (mongoTemplate.updateFirst(query, new Update().inc("available", count), SeatStripe.class).getModifiedCount() == 1) {
+            return true;
+        }
+        if (!stillHot(showtime)) {
+            return false;
+        }
+        if (ensureStripes(showtime) && !keptStripes(showtime)) {
+            return false;
+        }
+        mongoTemplate.updateFirst(query, new Update().inc("available", count), SeatStripe.class);
+        return true;
+    }
+
+    // Applies a change of totalSeats to the stripes; seats can only be removed while they are unsold
+    public boolean adjustSeats(String showtimeId, int change) {
+        if (change == 0) {
+            return true;
+        }
+        return change > 0 ? releaseSeats(showtimeId, change) : reduceSeats(showtimeId, -change);
+    }
+
+    public int availableSeats(String showtimeId, ReadPreference readPreference) {
+        Query query = new Query(Criteria.where("showtimeId").is(showtimeId)).withReadPreference(readPreference);
+        return mongoTemplate.find(query, SeatStripe.class).stream()
+                .mapToInt(SeatStripe::getAvailable)
+                .sum();
+    }
+
+    // The showtime was deleted or retired, here or on another instance
+    public void forget(String showtimeId) {
+        hotShowtimes.remove(showtimeId);
+    }
+
+    public void removeStripes(String showtimeId) {
+        forget(showtimeId);
+        mongoTemplate.remove(new Query(Criteria.where("showtimeId").is(showtimeId)), SeatStripe.class);
+    }
+
+    // Writes the sum of the stripes back to the availableSeats of every hot showtime from today on;
+    // returns the ones that changed
+    public List<Showtime> reconcile() {
+        List<Showtime> changed = new ArrayList<>();
+        Query hot = new Query(Criteria.where("seatStripes").exists(true).and("showDate").gte(LocalDate.now()));
+        for (Showtime showtime : mongoTemplate.find(hot, Showtime.class)) {
+            remember(showtime);
+            if (ensureStripes(showtime)) {
+                log.warn("Recreated missing seat stripes for showtime {}", showtime.getId());
+            }
+            int available = availableSeats(showtime.getId(), ReadPreference.primary());
+            if (showtime.getAvailableSeats() != null && showtime.getAvailableSeats() == available) {
+                continue;
+            }
+            Query query = new Query(byId(showtime).and("seatStripes").exists(true));
+            Showtime updated = mongoTemplate.findAndModify(query, new Update().set("availableSeats", available),
+                    FindAndModifyOptions.options().returnNew(true), Showtime.class);
+            if (updated != null) {
+                changed.add(updated);
+            }
+        }
+        return changed;
+    }
+
+    // Runs on every instance: each forgets its past showtimes, and whichever instance unsets a showtime's
+    // stripe fields first deletes its stripes
+    @Scheduled(cron = "${hot-showtime.retire-cron:0 15 * * * *}")
+    public void retirePastShowtimes() {
+        LocalDate today = LocalDate.now();
+        hotShowtimes.values().removeIf(showtime -> showtime.getShowDate() != null && showtime.getShowDate().isBefore(today));
+        Query past = new Query(Criteria.where("seatStripes").exists(true).and("showDate").lt(today));
+        for (Showtime showtime : mongoTemplate.find(past, Showtime.class)) {
+            int available = availableSeats(showtime.getId(), ReadPreference.primary());
+            Query query = new Query(byId(showtime).and("seatStripes").exists(true));
+            Update update = new Update().set("availableSeats", available).unset("seatStripes").unset("stripeBase");
+            if (mongoTemplate.updateFirst(query, update, Showtime.class).getModifiedCount() == 1) {
+                mongoTemplate.remove(new Query(Criteria.where("showtimeId").is(showtime.getId())), SeatStripe.class);
+                log.info("Showtime {} is over; removed its seat stripes ({} seats left)", showtime.getId(), available);
+            }
+        }
+    }
+
+    private boolean takeFromOneStripe(Showtime showtime, int count) {
+        int start = ThreadLocalRandom.current().nextInt(showtime.getSeatStripes());
+        for (int i = 0; i < showtime.getSeatStripes(); i++) {
+            int stripe = (start + i) % showtime.getSeatStripes();
+            if (take(SeatStripe.idOf(showtime.getId(), stripe), count)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // For bookings larger than what any single stripe has left: take what each stripe can give and
+    // put everything back if the total still falls short
+    private boolean takeAcrossStripes(Showtime showtime, int count) {
+        List<SeatStripe> candidates = mongoTemplate.find(
+                new Query(Criteria.where("showtimeId").is(showtime.getId()).and("available").gt(0)), SeatStripe.class);
+        candidates.sort(Comparator.comparing(SeatStripe::getAvailable).reversed());
+
+        int remaining = count;
+        Map<String, Integer> taken = new LinkedHashMap<>();
+        for (SeatStripe stripe : candidates) {
+            if (remaining == 0) {
+                break;
+            }
+            int amount = Math.min(stripe.getAvailable(), remaining);
+            if (take(stripe.getId(), amount)) {
+                taken.put(stripe.getId(), amount);
+                remaining -= amount;
+            }
+        }
+        if (remaining == 0) {
+            return true;
+        }
+        taken.forEach((stripeId, amount) -> mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(stripeId)),
+                new Update().inc("available", amount), SeatStripe.class));
+        return false;
+    }
+
+    private boolean take(String stripeId, int count) {
+        Query query = new Query(Criteria.where("_id").is(stripeId).and("available").gte(count));
+        return mongoTemplate.updateFirst(query, new Update().inc("available", -count), SeatStripe.class)
+                .getModifiedCount() == 1;
+    }
+
+    // Stripes are only recreated for a showtime that still exists, is striped and is not over. Another
+    // instance may have deleted or retired it, and stripes recreated from stripeBase would sell its
+    // seats again.
+    private boolean stillHot(Showtime showtime) {
+        Query current = new Query(byId(showtime).and("seatStripes").exists(true).and("showDate").gte(LocalDate.now()));
+        if (mongoTemplate.exists(current, Showtime.class)) {
+            return true;
+        }
+        forget(showtime.getId());
+        return false;
+    }
+
+    // Covers a delete or retire that ran between stillHot and the upserts: whoever unset the stripe
+    // fields has already removed the stripes, so the recreated ones are removed here
+    private boolean keptStripes(Showtime showtime) {
+        if (mongoTemplate.exists(new Query(byId(showtime).and("seatStripes").exists(true)), Showtime.class)) {
+            return true;
+        }
+        removeStripes(showtime.getId());
+        return false;
+    }
+
+    // Idempotent: stripes that already exist keep their current count. Returns true if any was created.
+    private boolean ensureStripes(Showtime showtime) {
+        int stripeCount = showtime.getSeatStripes();
+        int base = showtime.getStripeBase() != null ? showtime.getStripeBase() : 0;
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SeatStripe.class);
+        for (int stripe = 0; stripe < stripeCount; stripe++) {
+            int share = base / stripeCount + (stripe < base % stripeCount ? 1 : 0);
+            bulk.upsert(new Query(Criteria.where("_id").is(SeatStripe.idOf(showtime.getId(), stripe))),
+                    new Update()
+                            .setOnInsert("showtimeId", showtime.getId())
+                            .setOnInsert("stripe", stripe)
+                            .setOnInsert("available", share));
+        }
+        return bulk.execute().getUpserts().size() > 0;
+    }
+
+    private Criteria byId(Showtime showtime) {
+        return ShowtimeIds.cinemaIdOf(showtime.getId()).isPresent()
+                ? Criteria.where("cinemaId").is(showtime.getCinemaId()).and("_id").is(showtime.getId())
+                : Criteria.where("_id").is(showtime.getId());
+    }
+}
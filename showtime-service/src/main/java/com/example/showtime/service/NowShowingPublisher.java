@@ -0,0 +1,89 @@
+package com.example.showtime.service;
+
+import com.example.showtime.client.NowShowingClient;
+import com.example.showtime.dto.ShowtimeDTO;
+import com.example.showtime.dto.ShowtimeEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Sends showtime changes to admin-service off the request thread, so bookings never wait on
+// the read model. A single sender keeps events in order; if admin-service is down the oldest
+// events are dropped and the nightly rebuild repairs the view.
+@Service
+public class NowShowingPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(NowShowingPublisher.class);
+
+    @Autowired
+    private NowShowingClient nowShowingClient;
+
+    @Value("${now-showing.publish.enabled:true}")
+    private boolean enabled;
+
+    @Value("${now-showing.publish.queue-capacity:10000}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void start() {
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "now-showing-publisher");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardOldestPolicy());
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+
+    public void showtimeUpserted(ShowtimeDTO showtime, String previousMovieId, LocalDate previousShowDate) {
+        ShowtimeEvent event = event(ShowtimeEvent.Type.UPSERTED, showtime);
+        event.setPreviousMovieId(previousMovieId);
+        event.setPreviousShowDate(previousShowDate);
+        publish(event);
+    }
+
+    public void seatsChanged(ShowtimeDTO showtime) {
+        publish(event(ShowtimeEvent.Type.SEATS_CHANGED, showtime));
+    }
+
+    public void showtimeRemoved(ShowtimeDTO showtime) {
+        publish(event(ShowtimeEvent.Type.REMOVED, showtime));
+    }
+
+    private ShowtimeEvent event(ShowtimeEvent.Type type, ShowtimeDTO showtime) {
+        ShowtimeEvent event = new ShowtimeEvent();
+        event.setType(type);
+        event.setShowtime(showtime);
+        return event;
+    }
+
+    private void publish(ShowtimeEvent event) {
+        if (!enabled) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                nowShowingClient.publish(event);
+            } catch (RuntimeException e) {
+                logger.warn("Could not publish {} for showtime {}", event.getType(), event.getShowtime().getId(), e);
+            }
+        });
+    }
+}
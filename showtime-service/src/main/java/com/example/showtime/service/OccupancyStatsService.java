@@ -0,0 +1,299 @@
+package com.example.showtime.service;
+
+import com.example.showtime.config.ReadPreferenceRouting;
+import com.example.showtime.dto.OccupancyDTO;
+import com.example.showtime.dto.OccupancyReportDTO;
+import com.example.showtime.exception.InvalidAnalyticsRequestException;
+import com.example.showtime.exception.InvalidDateException;
+import com.example.showtime.model.Showtime;
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.BsonField;
+import com.mongodb.client.model.Facet;
+import com.mongodb.client.model.Field;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.MergeOptions;
+import com.mongodb.client.model.Sorts;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Occupancy and revenue per movie, screen, day and start hour, served from a daily rollup: one
+// document per cinema and show date in showtime_daily_stats, holding that day's totals and its
+// breakdowns. A write marks its (cinema, show date) dirty and the day is recomputed from its own
+// showtimes, a few dozen documents found through the { cinemaId, showDate } index, so a report
+// reads one small document per day instead of every showtime.
+@Service
+public class OccupancyStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(OccupancyStatsService.class);
+
+    public static final String ROLLUP_COLLECTION = "showtime_daily_stats";
+
+    public enum GroupBy {
+        MOVIE("byMovie"),
+        SCREEN("byScreen"),
+        DAY(null),
+        HOUR("byHour");
+
+        private final String buckets;
+
+        GroupBy(String buckets) {
+            this.buckets = buckets;
+        }
+
+        public static GroupBy of(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidAnalyticsRequestException("Unsupported groupBy '" + value + "', use movie, screen, day or hour");
+            }
+        }
+    }
+
+    private static final List<BsonField> SUMS = List.of(
+            Accumulators.sum("showtimes", 1),
+            Accumulators.sum("totalSeats", "$totalSeats"),
+            Accumulators.sum("seatsSold", "$seatsSold"),
+            Accumulators.sum("revenue", "$revenue"));
+
+    private static final Document EMPTY_TOTALS = new Document("showtimes", 0).append("totalSeats", 0)
+            .append("seatsSold", 0).append("revenue", 0.0);
+
+    // 1 - availableSeats / totalSeats, with availableSeats = totalSeats - seatsSold
+    private static final Document FILL_RATE = new Document("$cond", Arrays.asList(
+            new Document("$gt", Arrays.asList("$totalSeats", 0)),
+            new Document("$subtract", Arrays.asList(1, new Document("$divide", Arrays.asList(
+                    new Document("$subtract", Arrays.asList("$totalSeats", "$seatsSold")), "$totalSeats")))),
+            0));
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ReadPreferenceRouting readPreferenceRouting;
+
+    @Value("${analytics.rollup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${analytics.rollup.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @Value("${analytics.max-days:366}")
+    private int maxDays;
+
+    // "<cinemaId>|<showDate>" of days whose rollup is out of date
+    private final Set<String> dirtyDays = ConcurrentHashMap.newKeySet();
+
+    private String timezone;
+
+    @PostConstruct
+    public void start() {
+        // Spring Data stores LocalDate/LocalTime as dates in the JVM's zone; hours are read back in it
+        ZoneId zone = ZoneId.systemDefault();
+        timezone = zone.equals(ZoneOffset.UTC) ? "+00:00" : zone.getId();
+        if (enabled && backfillOnStartup) {
+            Thread backfill = new Thread(this::backfillMissingDays, "occupancy-rollup-backfill");
+            backfill.setDaemon(true);
+            backfill.start();
+        }
+    }
+
+    // Called after every write to a showtime; cheap, the day is recomputed on the next refresh
+    public void showtimeChanged(String cinemaId, LocalDate showDate) {
+        if (enabled && cinemaId != null && showDate != null) {
+            dirtyDays.add(key(cinemaId, showDate));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.rollup.refresh-interval-ms:2000}")
+    public void refresh() {
+        for (String day : new ArrayList<>(dirtyDays)) {
+            dirtyDays.remove(day);
+            int separator = day.lastIndexOf('|');
+            try {
+                refreshDay(day.substring(0, separator), LocalDate.parse(day.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                log.warn("Could not refresh occupancy rollup {}, retrying", day, e);
+                dirtyDays.add(day);
+                return;
+            }
+        }
+    }
+
+    public OccupancyReportDTO report(String cinemaId, LocalDate from, LocalDate to, GroupBy groupBy) {
+        if (to.isBefore(from)) {
+            throw new InvalidDateException("'to' must not be before 'from'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxDays) {
+            throw new InvalidAnalyticsRequestException("Reports cover at most " + maxDays + " days");
+        }
+
+        // Rollup ids sort by cinema, then ISO date: the range is one _id index scan
+        List<Bson> pipeline = new ArrayList<>();
+        pipeline.add(Aggregates.match(Filters.and(
+                Filters.gte("_id", key(cinemaId, from)),
+                Filters.lte("_id", key(cinemaId, to)))));
+        if (groupBy == GroupBy.DAY) {
+            pipeline.add(Aggregates.project(new Document("_id", 0)
+                    .append("key", "$day")
+                    .append("showtimes", "$totals.showtimes")
+                    .append("totalSeats", "$totals.totalSeats")
+                    .append("seatsSold", "$totals.seatsSold")
+                    .append("revenue", "$totals.revenue")));
+        } else {
+            String buckets = "$" + groupBy.buckets;
+            pipeline.add(Aggregates.unwind(buckets));
+            pipeline.add(Aggregates.group(buckets + ".key",
+                    Accumulators.sum("showtimes", buckets + ".showtimes"),
+                    Accumulators.sum("totalSeats", buckets + ".totalSeats"),
+                    Accumulators.sum("seatsSold", buckets + ".seatsSold"),
+                    Accumulators.sum("revenue", buckets + ".revenue")));
+            pipeline.add(Aggregates.project(bucketFields()));
+        }
+        pipeline.add(Aggregates.addFields(new Field<>("fillRate", FILL_RATE)));
+        pipeline.add(Aggregates.sort(Sorts.ascending("key")));
+
+        List<OccupancyDTO> rows = new ArrayList<>();
+        long showtimes = 0;
+        long totalSeats = 0;
+        long seatsSold = 0;
+        double revenue = 0;
+        for (Document row : mongoTemplate.getCollection(ROLLUP_COLLECTION)
+                .withReadPreference(readPreferenceRouting.forEndpoint("occupancy-analytics"))
+                .aggregate(pipeline)) {
+            OccupancyDTO occupancy = new OccupancyDTO(
+                    groupBy == GroupBy.HOUR ? hourKey(row.get("key")) : String.valueOf(row.get("key")),
+                    number(row, "showtimes").longValue(),
+                    number(row, "totalSeats").longValue(),
+                    number(row, "seatsSold").longValue(),
+                    number(row, "revenue").doubleValue(),
+                    number(row, "fillRate").doubleValue());
+            rows.add(occupancy);
+            showtimes += occupancy.getShowtimes();
+            totalSeats += occupancy.getTotalSeats();
+            seatsSold += occupancy.getSeatsSold();
+            revenue += occupancy.getRevenue();
+        }
+        double fillRate = totalSeats > 0 ? 1 - (double) (totalSeats - seatsSold) / totalSeats : 0;
+        OccupancyDTO totals = new OccupancyDTO("total", showtimes, totalSeats, seatsSold, revenue, fillRate);
+        return new OccupancyReportDTO(cinemaId, from, to, groupBy.name().toLowerCase(Locale.ROOT), totals, rows);
+    }
+
+    // Recomputes one rollup document from the day's showtimes and replaces it with $merge. A day
+    // whose showtimes were all deleted gets zero totals and empty breakdowns.
+    void refreshDay(String cinemaId, LocalDate day) {
+        Object showDate = mongoTemplate.getConverter().convertToMongoType(day);
+        Document seatsSold = new Document("$max", Arrays.asList(0, new Document("$subtract", Arrays.asList(
+                new Document("$ifNull", Arrays.asList("$totalSeats", 0)),
+                new Document("$ifNull", Arrays.asList("$availableSeats", 0))))));
+
+        List<Bson> pipeline = List.of(
+                Aggregates.match(Filters.and(Filters.eq("cinemaId", cinemaId), Filters.eq("showDate", showDate))),
+                Aggregates.project(new Document("movieId", 1)
+                        .append("screenNumber", 1)
+                        .append("totalSeats", new Document("$ifNull", Arrays.asList("$totalSeats", 0)))
+                        .append("seatsSold", seatsSold)
+                        .append("price", 1)
+                        .append("hour", new Document("$hour", new Document("date", "$startTime").append("timezone", timezone)))),
+                Aggregates.addFields(new Field<>("revenue", new Document("$multiply", Arrays.asList(
+                        new Document("$ifNull", Arrays.asList("$price", 0)), "$seatsSold")))),
+                Aggregates.facet(
+                        new Facet("totals", Aggregates.group(null, SUMS)),
+                        bucketFacet("byMovie", "$movieId"),
+                        bucketFacet("byScreen", "$screenNumber"),
+                        bucketFacet("byHour", "$hour")),
+                Aggregates.project(new Document("_id", new Document("$literal", key(cinemaId, day)))
+                        .append("cinemaId", new Document("$literal", cinemaId))
+                        .append("day", new Document("$literal", day.toString()))
+                        .append("refreshedAt", "$$NOW")
+                        .append("totals", new Document("$ifNull", Arrays.asList(
+                                new Document("$arrayElemAt", Arrays.asList("$totals", 0)),
+                                new Document("$literal", EMPTY_TOTALS))))
+                        .append("byMovie", 1)
+                        .append("byScreen", 1)
+                        .append("byHour", 1)),
+                Aggregates.merge(ROLLUP_COLLECTION, new MergeOptions()
+                        .whenMatched(MergeOptions.WhenMatched.REPLACE)
+                        .whenNotMatched(MergeOptions.WhenNotMatched.INSERT)));
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(Showtime.class)).aggregate(pipeline).toCollection();
+    }
+
+    // Days that have showtimes but no rollup yet, e.g. data from before the rollup existed
+    private void backfillMissingDays() {
+        try {
+            Set<String> existing = new HashSet<>();
+            mongoTemplate.getCollection(ROLLUP_COLLECTION).find().projection(new Document("_id", 1))
+                    .forEach(rollup -> existing.add(rollup.getString("_id")));
+            List<Bson> days = List.of(Aggregates.group(
+                    new Document("cinemaId", "$cinemaId").append("showDate", "$showDate")));
+            int missing = 0;
+            for (Document day : mongoTemplate.getCollection(mongoTemplate.getCollectionName(Showtime.class)).aggregate(days)) {
+                Document id = day.get("_id", Document.class);
+                Date showDate = id.getDate("showDate");
+                if (id.getString("cinemaId") == null || showDate == null) {
+                    continue;
+                }
+                String key = key(id.getString("cinemaId"), LocalDate.ofInstant(showDate.toInstant(), ZoneId.systemDefault()));
+                if (!existing.contains(key)) {
+                    dirtyDays.add(key);
+                    missing++;
+                }
+            }
+            if (missing > 0) {
+                log.info("Building occupancy rollups for {} cinema days", missing);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Occupancy rollup backfill failed; days are still rolled up as showtimes change", e);
+        }
+    }
+
+    private static Facet bucketFacet(String name, String groupKey) {
+        return new Facet(name,
+                Aggregates.group(groupKey, SUMS),
+                Aggregates.project(bucketFields()),
+                Aggregates.sort(Sorts.ascending("key")));
+    }
+
+    private static Document bucketFields() {
+        return new Document("_id", 0)
+                .append("key", "$_id")
+                .append("showtimes", 1)
+                .append("totalSeats", 1)
+                .append("seatsSold", 1)
+                .append("revenue", 1);
+    }
+
+    private static String key(String cinemaId, LocalDate day) {
+        return cinemaId + "|" + day;
+    }
+
+    private static String hourKey(Object hour) {
+        return hour instanceof Number ? String.format("%02d:00", ((Number) hour).intValue()) : String.valueOf(hour);
+    }
+
+    private static Number number(Document row, String field) {
+        Object value = row.get(field);
+        return value instanceof Number ? (Number) value : 0;
+    }
+}
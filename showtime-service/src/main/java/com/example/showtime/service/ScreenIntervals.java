@@ -0,0 +1,78 @@
+package com.example.showtime.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+// In-memory index of when each screen of one cinema is busy. Intervals are kept per screen in a
+// TreeMap by start time together with the longest duration seen, so an overlap lookup only visits
+// the intervals starting in [start - longest, end) instead of the whole screen. Showtimes that run
+// past midnight are simply intervals that end on the next day.
+class ScreenIntervals {
+
+    private final Map<String, Screen> screens = new HashMap<>();
+
+    void add(Interval interval) {
+        screens.computeIfAbsent(interval.screenNumber, screenNumber -> new Screen()).add(interval);
+    }
+
+    // The first interval on the same screen that overlaps [start, end), or null
+    Interval findOverlap(String screenNumber, LocalDateTime start, LocalDateTime end) {
+        Screen screen = screens.get(screenNumber);
+        return screen == null ? null : screen.findOverlap(start, end);
+    }
+
+    private static class Screen {
+        private final TreeMap<LocalDateTime, List<Interval>> byStart = new TreeMap<>();
+        private Duration longest = Duration.ZERO;
+
+        void add(Interval interval) {
+            byStart.computeIfAbsent(interval.start, start -> new ArrayList<>(1)).add(interval);
+            Duration duration = Duration.between(interval.start, interval.end);
+            if (duration.compareTo(longest) > 0) {
+                longest = duration;
+            }
+        }
+
+        Interval findOverlap(LocalDateTime start, LocalDateTime end) {
+            // Anything starting before start - longest has ended by start
+            NavigableMap<LocalDateTime, List<Interval>> candidates = byStart.subMap(start.minus(longest), true, end, false);
+            for (List<Interval> intervals : candidates.values()) {
+                for (Interval interval : intervals) {
+                    if (interval.end.isAfter(start)) {
+                        return interval;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    static class Interval {
+        final String showtimeId;
+        final String movieId;
+        final String screenNumber;
+        final LocalDate showDate;
+        final LocalTime startTime;
+        final LocalDateTime start;
+        final LocalDateTime end;
+
+        Interval(String showtimeId, String movieId, String screenNumber, LocalDate showDate, LocalTime startTime,
+                 long busyMinutes) {
+            this.showtimeId = showtimeId;
+            this.movieId = movieId;
+            this.screenNumber = screenNumber;
+            this.showDate = showDate;
+            this.startTime = startTime;
+            this.start = showDate.atTime(startTime);
+            this.end = start.plusMinutes(busyMinutes);
+        }
+    }
+}
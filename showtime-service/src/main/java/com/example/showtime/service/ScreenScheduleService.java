@@ -0,0 +1,157 @@
+package com.example.showtime.service;
+
+import com.example.showtime.client.MovieClient;
+import com.example.showtime.dto.MovieDTO;
+import com.example.showtime.exception.InvalidScheduleException;
+import com.example.showtime.exception.ResourceNotFoundException;
+import com.example.showtime.model.Showtime;
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// When a cinema's screens are busy. A showtime occupies its screen from startTime for the movie's
+// duration plus changeover-minutes, and no two showtimes on a screen may overlap.
+//
+// A single create or update only reads the showtimes that could overlap it: those on the same
+// screen on the show dates from max-duration-minutes before it until it ends. That is one query on
+// { cinemaId, screenNumber, showDate }, a screen's showtimes for a day or two whatever the size of the
+// cinema, with the start times compared in memory. Bulk scheduling loads the period once instead and
+// checks every showtime in memory (ScreenIntervals).
+@Service
+public class ScreenScheduleService {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MovieClient movieClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Cleaning and ads between two showtimes on a screen
+    @Value("${showtime.schedule.changeover-minutes:0}")
+    private int changeoverMinutes;
+
+    // Assumed running time of existing showtimes whose movie has no known duration
+    @Value("${showtime.schedule.unknown-duration-minutes:180}")
+    private int unknownDurationMinutes;
+
+    // Longest movie that can be scheduled; bounds how far back an overlapping showtime can start
+    @Value("${showtime.schedule.max-duration-minutes:360}")
+    private int maxDurationMinutes;
+
+    private Timer checkTimer;
+
+    @PostConstruct
+    public void start() {
+        checkTimer = Timer.builder("showtimes.conflict.check")
+                .description("Screen overlap check of a single showtime create or update")
+                .register(meterRegistry);
+    }
+
+    // The showtime on the same screen that the given one would overlap, or null. The showtime's own
+    // id is skipped, so an update does not conflict with the version it replaces.
+    ScreenIntervals.Interval findConflict(Showtime showtime, int durationMinutes) {
+        long startNanos = System.nanoTime();
+        try {
+            ScreenIntervals.Interval candidate = new ScreenIntervals.Interval(showtime.getId(), showtime.getMovieId(),
+                    showtime.getScreenNumber(), showtime.getShowDate(), showtime.getStartTime(), busyMinutes(durationMinutes));
+            LocalDateTime windowStart = candidate.start.minusMinutes(busyMinutes(maxDurationMinutes));
+            LocalDate lastDay = candidate.end.minusNanos(1).toLocalDate();
+
+            // By day only: startTime is stored as a date on the day the document was written, so a
+            // range on it would miss showtimes written on other days. Times are compared in memory.
+            Criteria criteria = Criteria.where("cinemaId").is(showtime.getCinemaId())
+                    .and("screenNumber").is(showtime.getScreenNumber())
+                    .and("showDate").gte(windowStart.toLocalDate()).lte(lastDay);
+            if (showtime.getId() != null) {
+                criteria.and("_id").ne(showtime.getId());
+            }
+            Query query = new Query(criteria);
+            query.fields().include("movieId", "screenNumber", "showDate", "startTime", "durationMinutes");
+
+            ScreenIntervals intervals = new ScreenIntervals();
+            Map<String, Integer> durations = new HashMap<>();
+            for (Showtime existing : mongoTemplate.find(query, Showtime.class)) {
+                if (existing.getStartTime() != null) {
+                    intervals.add(intervalOf(existing, durations));
+                }
+            }
+            return intervals.findOverlap(candidate.screenNumber, candidate.start, candidate.end);
+        } finally {
+            checkTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Index of a cinema's screens with the showtimes that can overlap show dates from..to: those of
+    // the days themselves and of the days before and after. durations is filled with the movies'
+    // durations looked up on the way.
+    ScreenIntervals load(String cinemaId, LocalDate from, LocalDate to, Map<String, Integer> durations) {
+        Query query = new Query(Criteria.where("cinemaId").is(cinemaId)
+                .and("showDate").gte(from.minusDays(1)).lte(to.plusDays(1)));
+        query.fields().include("movieId", "screenNumber", "showDate", "startTime", "durationMinutes");
+        ScreenIntervals intervals = new ScreenIntervals();
+        for (Showtime existing : mongoTemplate.find(query, Showtime.class)) {
+            if (existing.getScreenNumber() != null && existing.getStartTime() != null) {
+                intervals.add(intervalOf(existing, durations));
+            }
+        }
+        return intervals;
+    }
+
+    // Running time of a movie being scheduled at cinemaId; the movie must exist there and have a duration
+    public int movieDuration(String cinemaId, String movieId) {
+        MovieDTO movie;
+        try {
+            movie = movieClient.getMovieById(movieId);
+        } catch (FeignException.NotFound e) {
+            throw new ResourceNotFoundException("Movie not found with id: " + movieId);
+        }
+        if (!cinemaId.equals(movie.getCinemaId())) {
+            throw new InvalidScheduleException("Movie " + movieId + " does not belong to cinema " + cinemaId);
+        }
+        if (movie.getDuration() == null || movie.getDuration() <= 0) {
+            throw new InvalidScheduleException("Movie " + movieId + " has no duration");
+        }
+        if (movie.getDuration() > maxDurationMinutes) {
+            throw new InvalidScheduleException("Movie " + movieId + " runs longer than " + maxDurationMinutes + " minutes");
+        }
+        return movie.getDuration();
+    }
+
+    public long busyMinutes(Integer durationMinutes) {
+        int duration = durationMinutes != null && durationMinutes > 0 ? durationMinutes : unknownDurationMinutes;
+        return (long) duration + changeoverMinutes;
+    }
+
+    private ScreenIntervals.Interval intervalOf(Showtime existing, Map<String, Integer> durations) {
+        Integer duration = existing.getDurationMinutes() != null ? existing.getDurationMinutes()
+                : durations.computeIfAbsent(existing.getMovieId(), this::knownDuration);
+        return new ScreenIntervals.Interval(existing.getId(), existing.getMovieId(), existing.getScreenNumber(),
+                existing.getShowDate(), existing.getStartTime(), busyMinutes(duration));
+    }
+
+    // Showtimes created before durations were recorded: 0 when admin-service cannot tell
+    private Integer knownDuration(String movieId) {
+        try {
+            MovieDTO movie = movieId != null ? movieClient.getMovieById(movieId) : null;
+            return movie != null && movie.getDuration() != null ? movie.getDuration() : 0;
+        } catch (FeignException e) {
+            return 0;
+        }
+    }
+}
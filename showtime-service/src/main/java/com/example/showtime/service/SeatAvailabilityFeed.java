@@ -0,0 +1,279 @@
+package com.example.showtime.service;
+
+import com.example.showtime.dto.SeatAvailabilityDTO;
+import com.example.showtime.model.Showtime;
+import com.example.showtime.model.ShowtimeIds;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.ReadPreference;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Live availableSeats per showtime for SSE subscribers. Changes come from one source per instance
+// (SeatChangeStream, or this instance's own writes when no change stream is available) and are
+// coalesced: within a coalesce window only the latest count per showtime survives, it is serialized
+// once and pushed to every subscriber of that showtime. Showtimes nobody on this instance watches
+// are ignored, so the feed costs nothing for them. Each showtime is pinned to one single-thread
+// fan-out lane, so its updates reach every subscriber in order and a slow client only holds up
+// the showtimes that share its lane.
+@Service
+public class SeatAvailabilityFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatAvailabilityFeed.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private HotShowtimeService hotShowtimeService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${seat-feed.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${seat-feed.fan-out-threads:4}")
+    private int fanOutThreads;
+
+    private final Map<String, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final Set<SseEmitter> emitters = ConcurrentHashMap.newKeySet();
+
+    // Latest count per showtime since the last flush; RECOUNT when it has to be read (hot showtimes)
+    private final Map<String, Integer> pendingCounts = new ConcurrentHashMap<>();
+    private final Set<String> pendingRemovals = ConcurrentHashMap.newKeySet();
+    private final Map<String, Integer> lastSent = new ConcurrentHashMap<>();
+
+    private static final Integer RECOUNT = -1;
+
+    private volatile boolean changeStreamActive;
+    private ExecutorService[] fanOut;
+    private Counter broadcasts;
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        fanOut = new ExecutorService[Math.max(1, fanOutThreads)];
+        for (int i = 0; i < fanOut.length; i++) {
+            fanOut[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "seat-feed-fan-out-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        Gauge.builder("seat.feed.subscribers", emitters, Set::size)
+                .description("Open seat availability streams")
+                .register(meterRegistry);
+        Gauge.builder("seat.feed.showtimes", subscribers, Map::size)
+                .description("Showtimes with at least one subscriber on this instance")
+                .register(meterRegistry);
+        broadcasts = Counter.builder("seat.feed.broadcasts")
+                .description("Coalesced seat updates pushed, one per showtime per window")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (ExecutorService lane : fanOut) {
+            lane.shutdownNow();
+        }
+        emitters.forEach(SseEmitter::complete);
+    }
+
+    public SseEmitter subscribe(List<String> showtimeIds) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        emitters.add(emitter);
+        for (String showtimeId : showtimeIds) {
+            subscribers.computeIfAbsent(showtimeId, id -> ConcurrentHashMap.newKeySet()).add(emitter);
+        }
+        Runnable unsubscribe = () -> unsubscribe(emitter, showtimeIds);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+
+        // Current counts first; sent before the handler returns, they are flushed with the headers
+        for (String showtimeId : showtimeIds) {
+            Integer availableSeats = lastSent.get(showtimeId);
+            if (availableSeats == null) {
+                availableSeats = currentSeats(showtimeId);
+            }
+            String event = availableSeats != null ? "seats" : "removed";
+            if (!send(emitter, event, json(new SeatAvailabilityDTO(showtimeId, availableSeats)))) {
+                break;
+            }
+        }
+        return emitter;
+    }
+
+    // From the change stream; null when the count has to be read. A hot showtime's own availableSeats
+    // is only the last reconciled value, so its stripes are always summed instead.
+    public void seatsChanged(String showtimeId, Integer availableSeats) {
+        if (subscribers.containsKey(showtimeId)) {
+            boolean recount = availableSeats == null || hotShowtimeService.isHot(showtimeId);
+            pendingCounts.put(showtimeId, recount ? RECOUNT : availableSeats);
+        }
+    }
+
+    public void showtimeRemoved(String showtimeId) {
+        if (subscribers.containsKey(showtimeId)) {
+            pendingRemovals.add(showtimeId);
+        }
+    }
+
+    // This instance's own writes; only used while no change stream is running, because the stream
+    // already carries them and mixing both sources could reorder updates
+    public void localSeatsChanged(String showtimeId, Integer availableSeats) {
+        if (!changeStreamActive) {
+            seatsChanged(showtimeId, availableSeats);
+        }
+    }
+
+    public void localShowtimeRemoved(String showtimeId) {
+        if (!changeStreamActive) {
+            showtimeRemoved(showtimeId);
+        }
+    }
+
+    // Changes may have been missed while switching sources: re-read everything watched
+    public void changeStreamStarted(boolean resumed) {
+        changeStreamActive = true;
+        if (!resumed) {
+            subscribers.keySet().forEach(showtimeId -> pendingCounts.put(showtimeId, RECOUNT));
+        }
+    }
+
+    public void changeStreamStopped() {
+        changeStreamActive = false;
+        subscribers.keySet().forEach(showtimeId -> pendingCounts.put(showtimeId, RECOUNT));
+    }
+
+    @Scheduled(fixedDelayString = "${seat-feed.coalesce-window-ms:250}")
+    public void flush() {
+        for (String showtimeId : new ArrayList<>(pendingRemovals)) {
+            pendingRemovals.remove(showtimeId);
+            pendingCounts.remove(showtimeId);
+            lastSent.remove(showtimeId);
+            broadcast(showtimeId, "removed", json(new SeatAvailabilityDTO(showtimeId, null)));
+        }
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (String showtimeId : new ArrayList<>(pendingCounts.keySet())) {
+            Integer availableSeats = pendingCounts.remove(showtimeId);
+            if (RECOUNT.equals(availableSeats)) {
+                availableSeats = currentSeats(showtimeId);
+            }
+            if (availableSeats != null) {
+                counts.put(showtimeId, availableSeats);
+            }
+        }
+        counts.forEach((showtimeId, availableSeats) -> {
+            Integer previous = lastSent.put(showtimeId, availableSeats);
+            if (!availableSeats.equals(previous)) {
+                broadcast(showtimeId, "seats", json(new SeatAvailabilityDTO(showtimeId, availableSeats)));
+            }
+        });
+    }
+
+    // Keeps idle streams open through proxies and detects clients that went away
+    @Scheduled(fixedDelayString = "${seat-feed.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (SseEmitter emitter : emitters) {
+            lane(System.identityHashCode(emitter)).execute(() -> {
+                try {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                } catch (IOException | IllegalStateException e) {
+                    emitter.complete();
+                }
+            });
+        }
+    }
+
+    private void broadcast(String showtimeId, String event, String payload) {
+        Set<SseEmitter> watching = subscribers.get(showtimeId);
+        if (watching == null) {
+            return;
+        }
+        broadcasts.increment();
+        lane(showtimeId.hashCode()).execute(() -> watching.forEach(emitter -> send(emitter, event, payload)));
+    }
+
+    private ExecutorService lane(int hash) {
+        return fanOut[Math.floorMod(hash, fanOut.length)];
+    }
+
+    private boolean send(SseEmitter emitter, String event, String payload) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(payload));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // Client disconnected; completing triggers unsubscribe
+            emitter.complete();
+            return false;
+        }
+    }
+
+    private void unsubscribe(SseEmitter emitter, List<String> showtimeIds) {
+        emitters.remove(emitter);
+        for (String showtimeId : showtimeIds) {
+            subscribers.computeIfPresent(showtimeId, (id, watching) -> {
+                watching.remove(emitter);
+                if (watching.isEmpty()) {
+                    lastSent.remove(id);
+                    return null;
+                }
+                return watching;
+            });
+        }
+    }
+
+    // One primary read per showtime, shared by all of its subscribers; null when the showtime is gone
+    private Integer currentSeats(String showtimeId) {
+        Criteria byId = ShowtimeIds.cinemaIdOf(showtimeId)
+                .map(cinemaId -> Criteria.where("cinemaId").is(cinemaId).and("_id").is(showtimeId))
+                .orElseGet(() -> Criteria.where("_id").is(showtimeId));
+        Query query = new Query(byId).withReadPreference(ReadPreference.primary());
+        query.fields().include("availableSeats").include("seatStripes");
+        Showtime showtime = mongoTemplate.findOne(query, Showtime.class);
+        if (showtime == null) {
+            return null;
+        }
+        return showtime.getSeatStripes() != null
+                ? hotShowtimeService.availableSeats(showtimeId, ReadPreference.primary())
+                : showtime.getAvailableSeats();
+    }
+
+    private String json(SeatAvailabilityDTO availability) {
+        try {
+            return objectMapper.writeValueAsString(availability);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
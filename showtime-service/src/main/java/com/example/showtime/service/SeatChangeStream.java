@@ -0,0 +1,171 @@
+package com.example.showtime.service;
+
+import com.example.showtime.model.SeatStripe;
+import com.example.showtime.model.Showtime;
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The shared change source of the seat feed: one change stream per instance over showtimes and
+// seat_stripes, so a booking taken by any instance reaches every instance's subscribers without
+// anyone polling Mongo. Only seat-relevant changes are sent by the server. Resumes from the last
+// token after errors; on a standalone mongod (no change streams) the feed falls back to this
+// instance's own writes.
+@Component
+public class SeatChangeStream {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatChangeStream.class);
+
+    // "The $changeStream stage is only supported on replica sets"
+    private static final int CHANGE_STREAMS_UNSUPPORTED = 40573;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private SeatAvailabilityFeed seatAvailabilityFeed;
+
+    @Autowired
+    private HotShowtimeService hotShowtimeService;
+
+    @Value("${seat-feed.change-stream.enabled:true}")
+    private boolean enabled;
+
+    @Value("${seat-feed.change-stream.retry-delay-ms:1000}")
+    private long retryDelayMs;
+
+    private volatile boolean running = true;
+    private Thread watcher;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        watcher = new Thread(this::run, "seat-change-stream");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (watcher != null) {
+            watcher.interrupt();
+        }
+    }
+
+    private void run() {
+        String showtimes = mongoTemplate.getCollectionName(Showtime.class);
+        String stripes = mongoTemplate.getCollectionName(SeatStripe.class);
+        List<Bson> pipeline = List.of(Aggregates.match(Filters.or(
+                Filters.and(Filters.eq("ns.coll", showtimes), Filters.in("operationType", "replace", "delete")),
+                Filters.and(Filters.eq("ns.coll", showtimes), Filters.eq("operationType", "update"),
+                        Filters.or(Filters.exists("updateDescription.updatedFields.availableSeats"),
+                                Filters.eq("updateDescription.removedFields", "seatStripes"))),
+                Filters.and(Filters.eq("ns.coll", stripes), Filters.in("operationType", "insert", "update", "replace"))
+        )));
+
+        BsonDocument resumeToken = null;
+        while (running) {
+            ChangeStreamIterable<Document> stream = mongoTemplate.getDb().watch(pipeline);
+            if (resumeToken != null) {
+                stream = stream.resumeAfter(resumeToken);
+            }
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+                seatAvailabilityFeed.changeStreamStarted(resumeToken != null);
+                while (running) {
+                    ChangeStreamDocument<Document> change = cursor.tryNext();
+                    if (change == null) {
+                        continue;
+                    }
+                    resumeToken = change.getResumeToken();
+                    dispatch(change, showtimes);
+                }
+            } catch (MongoCommandException e) {
+                if (e.getErrorCode() == CHANGE_STREAMS_UNSUPPORTED) {
+                    log.warn("Change streams need a replica set; live seat updates only include this instance's writes");
+                    seatAvailabilityFeed.changeStreamStopped();
+                    return;
+                }
+                // The token may have rolled off the oplog; start over and let the feed re-read
+                log.warn("Seat change stream failed, restarting", e);
+                resumeToken = null;
+                seatAvailabilityFeed.changeStreamStopped();
+                pause();
+            } catch (RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Seat change stream interrupted, resuming", e);
+                seatAvailabilityFeed.changeStreamStopped();
+                pause();
+            }
+        }
+    }
+
+    private void dispatch(ChangeStreamDocument<Document> change, String showtimes) {
+        BsonValue id = change.getDocumentKey() != null ? change.getDocumentKey().get("_id") : null;
+        if (id == null || !id.isString()) {
+            return;
+        }
+        if (!showtimes.equals(change.getNamespace().getCollectionName())) {
+            // "<showtimeId>#<stripe>": the stripes of a hot showtime are summed when the window closes
+            String stripeId = id.asString().getValue();
+            seatAvailabilityFeed.seatsChanged(stripeId.substring(0, stripeId.lastIndexOf('#')), null);
+            return;
+        }
+
+        String showtimeId = id.asString().getValue();
+        // A showtime deleted or retired by any instance leaves this instance's hot set here
+        if (change.getOperationType() == OperationType.DELETE) {
+            hotShowtimeService.forget(showtimeId);
+            seatAvailabilityFeed.showtimeRemoved(showtimeId);
+        } else if (change.getOperationType() == OperationType.REPLACE) {
+            Document showtime = change.getFullDocument();
+            boolean hot = showtime == null || showtime.get("seatStripes") != null;
+            if (!hot) {
+                hotShowtimeService.forget(showtimeId);
+            }
+            seatAvailabilityFeed.seatsChanged(showtimeId, hot ? null : showtime.getInteger("availableSeats"));
+        } else {
+            List<String> removedFields = change.getUpdateDescription().getRemovedFields();
+            if (removedFields != null && removedFields.contains("seatStripes")) {
+                hotShowtimeService.forget(showtimeId);
+            }
+            BsonValue availableSeats = change.getUpdateDescription().getUpdatedFields().get("availableSeats");
+            if (availableSeats == null) {
+                return;
+            }
+            seatAvailabilityFeed.seatsChanged(showtimeId, availableSeats.isNumber() ? availableSeats.asNumber().intValue() : null);
+        }
+    }
+
+    private void pause() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(retryDelayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.showtime.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Per-showtime write contention seen by this instance: seat decrements in flight at the same time
+// and decrements in the current second. Crossing either threshold marks the showtime as hot.
+@Component
+public class SeatContentionTracker {
+
+    @Value("${hot-showtime.activation.concurrent-writers:8}")
+    private int concurrentWritersThreshold;
+
+    @Value("${hot-showtime.activation.writes-per-second:200}")
+    private int writesPerSecondThreshold;
+
+    private final Map<String, Contention> showtimes = new ConcurrentHashMap<>();
+
+    // Call before a seat decrement and always pair with exit; true when this write crosses a threshold
+    public boolean enter(String showtimeId) {
+        Contention contention = showtimes.computeIfAbsent(showtimeId, id -> new Contention());
+        int inFlight = contention.inFlight.incrementAndGet();
+        int writes = contention.recordWrite(System.currentTimeMillis() / 1000);
+        return inFlight >= concurrentWritersThreshold || writes >= writesPerSecondThreshold;
+    }
+
+    public void exit(String showtimeId) {
+        Contention contention = showtimes.get(showtimeId);
+        if (contention != null) {
+            contention.inFlight.decrementAndGet();
+        }
+    }
+
+    public void forget(String showtimeId) {
+        showtimes.remove(showtimeId);
+    }
+
+    // Drops showtimes with no write in flight and none in the last second
+    public void evictIdle() {
+        long second = System.currentTimeMillis() / 1000;
+        showtimes.entrySet().removeIf(entry -> entry.getValue().isIdle(second));
+    }
+
+    private static class Contention {
+        final AtomicInteger inFlight = new AtomicInteger();
+        private long second;
+        private int writes;
+
+        synchronized int recordWrite(long now) {
+            if (now != second) {
+                second = now;
+                writes = 0;
+            }
+            return ++writes;
+        }
+
+        synchronized boolean isIdle(long now) {
+            return inFlight.get() == 0 && now - second > 1;
+        }
+    }
+}
@@ -1,87 +1,433 @@
 package com.example.showtime.service;
 
+import com.example.showtime.config.ReadPreferenceRouting;
+import com.example.showtime.dto.FieldSelection;
+import com.example.showtime.dto.ScheduleConflictDTO;
 import com.example.showtime.dto.ShowtimeDTO;
+import com.example.showtime.dto.ShowtimeScheduleDTO;
+import com.example.showtime.dto.ShowtimeScheduleResultDTO;
 import com.example.showtime.exception.InvalidDateException;
+import com.example.showtime.exception.InvalidScheduleException;
 import com.example.showtime.exception.ResourceNotFoundException;
+import com.example.showtime.exception.ScheduleConflictException;
 import com.example.showtime.exception.InsufficientSeatsException;
 import com.example.showtime.model.Showtime;
+import com.example.showtime.model.ShowtimeIds;
 import com.example.showtime.repository.ShowtimeRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.ReadPreference;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
 public class ShowtimeService {
 
+    // Fields of ShowtimeDTO that list requests can select; card is what a movie page's time picker shows
+    public static final List<String> FIELDS = List.of("id", "movieId", "cinemaId", "screenNumber", "showDate",
+            "startTime", "price", "totalSeats", "availableSeats");
+    public static final Map<String, List<String>> VIEWS = Map.of(
+            "card", List.of("id", "movieId", "showDate", "startTime"),
+            "summary", List.of("id", "movieId", "screenNumber", "showDate", "startTime", "price", "availableSeats"));
+
     @Autowired
     private ShowtimeRepository showtimeRepository;
 
+    @Autowired
+    private NowShowingPublisher nowShowingPublisher;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ReadPreferenceRouting readPreferenceRouting;
+
+    @Autowired
+    private HotShowtimeService hotShowtimeService;
+
+    @Autowired
+    private SeatContentionTracker seatContentionTracker;
+
+    @Autowired
+    private SeatAvailabilityFeed seatAvailabilityFeed;
+
+    @Autowired
+    private OccupancyStatsService occupancyStatsService;
+
+    @Autowired
+    private ScreenScheduleService screenScheduleService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${hot-showtime.enabled:true}")
+    private boolean hotShowtimesEnabled;
+
+    @Value("${showtime.schedule.max-showtimes:2000}")
+    private int maxScheduledShowtimes;
+
     private static final int MAX_DAYS_AHEAD = 7;
 
+    private static final InvalidDateException SHOW_DATE_IN_PAST =
+            new InvalidDateException("Show date cannot be in the past");
+    private static final InvalidDateException SHOW_DATE_TOO_FAR_AHEAD =
+            new InvalidDateException("Show date must be within the next " + MAX_DAYS_AHEAD + " days");
+
     public ShowtimeDTO createShowtime(ShowtimeDTO showtimeDTO) {
         validateShowDate(showtimeDTO.getShowDate());
         
         Showtime showtime = convertToEntity(showtimeDTO);
+        if (showtime.getId() == null) {
+            showtime.setId(ShowtimeIds.generate(showtime.getCinemaId()));
+        }
+        showtime.setDurationMinutes(screenScheduleService.movieDuration(showtime.getCinemaId(), showtime.getMovieId()));
+        checkScreenIsFree(showtime);
         Showtime savedShowtime = showtimeRepository.save(showtime);
-        return convertToDTO(savedShowtime);
+        ShowtimeDTO savedShowtimeDTO = convertToDTO(savedShowtime);
+        nowShowingPublisher.showtimeUpserted(savedShowtimeDTO, null, null);
+        occupancyStatsService.showtimeChanged(savedShowtime.getCinemaId(), savedShowtime.getShowDate());
+        return savedShowtimeDTO;
     }
 
-    public List<ShowtimeDTO> getShowtimesByMovieId(String movieId) {
-        return showtimeRepository.findByMovieId(movieId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    // Expands the template to one showtime per day x screen x start time and checks every one
+    // against the cinema's existing showtimes and the rest of the request, screen by screen, using
+    // the movies' durations. Nothing is written if any showtime would overlap another one on its
+    // screen; otherwise all of them go to MongoDB in one ordered insertMany.
+    public ShowtimeScheduleResultDTO scheduleShowtimes(ShowtimeScheduleDTO scheduleDTO) {
+        String cinemaId = scheduleDTO.getCinemaId();
+        if (scheduleDTO.getTo().isBefore(scheduleDTO.getFrom())) {
+            throw new InvalidDateException("'to' must not be before 'from'");
+        }
+        validateShowDate(scheduleDTO.getFrom());
+        validateShowDate(scheduleDTO.getTo());
+
+        List<LocalDate> days = new ArrayList<>();
+        for (LocalDate day = scheduleDTO.getFrom(); !day.isAfter(scheduleDTO.getTo()); day = day.plusDays(1)) {
+            if (scheduleDTO.getDaysOfWeek() == null || scheduleDTO.getDaysOfWeek().isEmpty()
+                    || scheduleDTO.getDaysOfWeek().contains(day.getDayOfWeek())) {
+                days.add(day);
+            }
+        }
+        long requested = 0;
+        for (ShowtimeScheduleDTO.Entry entry : scheduleDTO.getEntries()) {
+            requested += (long) days.size() * entry.getScreens().size() * entry.getStartTimes().size();
+        }
+        if (requested == 0) {
+            throw new InvalidScheduleException("The schedule does not produce any showtime");
+        }
+        if (requested > maxScheduledShowtimes) {
+            throw new InvalidScheduleException("A schedule may create at most " + maxScheduledShowtimes
+                    + " showtimes, this one creates " + requested);
+        }
+
+        Map<String, Integer> durations = new HashMap<>();
+        for (ShowtimeScheduleDTO.Entry entry : scheduleDTO.getEntries()) {
+            durations.computeIfAbsent(entry.getMovieId(), movieId -> screenScheduleService.movieDuration(cinemaId, movieId));
+        }
+        ScreenIntervals intervals = screenScheduleService.load(cinemaId, days.get(0), days.get(days.size() - 1), durations);
+
+        List<Showtime> showtimes = new ArrayList<>((int) requested);
+        List<ScheduleConflictDTO> conflicts = new ArrayList<>();
+        for (LocalDate day : days) {
+            for (ShowtimeScheduleDTO.Entry entry : scheduleDTO.getEntries()) {
+                int duration = durations.get(entry.getMovieId());
+                for (String screenNumber : entry.getScreens()) {
+                    for (LocalTime startTime : entry.getStartTimes()) {
+                        ScreenIntervals.Interval interval = new ScreenIntervals.Interval(null, entry.getMovieId(),
+                                screenNumber, day, startTime, screenScheduleService.busyMinutes(duration));
+                        ScreenIntervals.Interval overlap = intervals.findOverlap(screenNumber, interval.start, interval.end);
+                        if (overlap != null) {
+                            conflicts.add(new ScheduleConflictDTO(entry.getMovieId(), screenNumber, day, startTime,
+                                    overlap.showtimeId, overlap.movieId, overlap.showDate, overlap.startTime));
+                            continue;
+                        }
+                        intervals.add(interval);
+                        Showtime showtime = new Showtime(ShowtimeIds.generate(cinemaId), entry.getMovieId(), cinemaId,
+                                screenNumber, day, startTime, entry.getPrice(), entry.getTotalSeats(), entry.getTotalSeats());
+                        showtime.setDurationMinutes(duration);
+                        showtimes.add(showtime);
+                    }
+                }
+            }
+        }
+
+        if (!conflicts.isEmpty() || scheduleDTO.isDryRun()) {
+            List<ShowtimeDTO> planned = conflicts.isEmpty()
+                    ? showtimes.stream().map(this::convertToDTO).collect(Collectors.toList())
+                    : List.of();
+            return new ShowtimeScheduleResultDTO((int) requested, 0, scheduleDTO.isDryRun(), planned, conflicts);
+        }
+
+        mongoTemplate.insert(showtimes, Showtime.class);
+        List<ShowtimeDTO> created = new ArrayList<>(showtimes.size());
+        for (Showtime showtime : showtimes) {
+            ShowtimeDTO showtimeDTO = convertToDTO(showtime);
+            nowShowingPublisher.showtimeUpserted(showtimeDTO, null, null);
+            created.add(showtimeDTO);
+        }
+        days.forEach(day -> occupancyStatsService.showtimeChanged(cinemaId, day));
+        return new ShowtimeScheduleResultDTO((int) requested, created.size(), false, created, List.of());
     }
 
-    public List<ShowtimeDTO> getShowtimesByCinemaId(String cinemaId) {
-        return showtimeRepository.findByCinemaId(cinemaId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    // Passing the cinema keeps the query on one shard; without it every shard is asked
+    public List<?> getShowtimesByMovieId(String movieId, String cinemaId, FieldSelection selection) {
+        Criteria criteria = cinemaId != null
+                ? Criteria.where("cinemaId").is(cinemaId).and("movieId").is(movieId)
+                : Criteria.where("movieId").is(movieId);
+        return findShowtimes(new Query(criteria), "showtimes-by-movie", selection);
     }
 
-    public ShowtimeDTO getShowtimeById(String id) {
-        Showtime showtime = showtimeRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Showtime not found with id: " + id));
-        return convertToDTO(showtime);
+    public List<?> getShowtimesByCinemaId(String cinemaId, FieldSelection selection) {
+        return findShowtimes(new Query(Criteria.where("cinemaId").is(cinemaId)), "showtimes-by-cinema", selection);
+    }
+
+    // requestedReadPreference "primary" is sent by booking-service for its seat check before reduceSeats
+    public ShowtimeDTO getShowtimeById(String id, String requestedReadPreference) {
+        ReadPreference readPreference = readPreferenceRouting.forEndpoint("showtime-by-id", requestedReadPreference);
+        Showtime showtime = mongoTemplate.findOne(new Query(byId(id)).withReadPreference(readPreference), Showtime.class);
+        if (showtime == null) {
+            throw new ResourceNotFoundException("Showtime not found with id: " + id);
+        }
+        ShowtimeDTO showtimeDTO = convertToDTO(showtime);
+        if (showtime.getSeatStripes() != null) {
+            // The document only holds the last reconciled count; the stripes are current
+            showtimeDTO.setAvailableSeats(hotShowtimeService.availableSeats(id, readPreference));
+        }
+        return showtimeDTO;
     }
 
     public ShowtimeDTO updateShowtime(String id, ShowtimeDTO showtimeDTO) {
-        Showtime showtime = showtimeRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Showtime not found with id: " + id));
+        Showtime showtime = findShowtime(id);
+        // The id carries the cinema (ShowtimeIds) and every lookup is routed by it
+        if (!showtime.getCinemaId().equals(showtimeDTO.getCinemaId())) {
+            throw new InvalidScheduleException("A showtime cannot move to another cinema; create a new one there instead");
+        }
         
         validateShowDate(showtimeDTO.getShowDate());
         
+        String previousMovieId = showtime.getMovieId();
+        LocalDate previousShowDate = showtime.getShowDate();
+        int seatChange = seatChange(showtime, showtimeDTO);
         showtime.setMovieId(showtimeDTO.getMovieId());
-        showtime.setCinemaId(showtimeDTO.getCinemaId());
         showtime.setScreenNumber(showtimeDTO.getScreenNumber());
         showtime.setShowDate(showtimeDTO.getShowDate());
         showtime.setStartTime(showtimeDTO.getStartTime());
         showtime.setPrice(showtimeDTO.getPrice());
         showtime.setTotalSeats(showtimeDTO.getTotalSeats());
-        showtime.setAvailableSeats(showtimeDTO.getAvailableSeats());
+        if (!showtimeDTO.getMovieId().equals(previousMovieId) || showtime.getDurationMinutes() == null) {
+            showtime.setDurationMinutes(screenScheduleService.movieDuration(showtime.getCinemaId(), showtime.getMovieId()));
+        }
+        checkScreenIsFree(showtime);
         
-        Showtime updatedShowtime = showtimeRepository.save(showtime);
-        return convertToDTO(updatedShowtime);
+        Showtime updatedShowtime = writeUpdate(id, showtime, seatChange);
+        ShowtimeDTO updatedShowtimeDTO = convertToDTO(updatedShowtime);
+        nowShowingPublisher.showtimeUpserted(updatedShowtimeDTO, previousMovieId, previousShowDate);
+        seatAvailabilityFeed.localSeatsChanged(id, updatedShowtime.getSeatStripes() == null ? updatedShowtime.getAvailableSeats() : null);
+        occupancyStatsService.showtimeChanged(updatedShowtime.getCinemaId(), previousShowDate);
+        occupancyStatsService.showtimeChanged(updatedShowtime.getCinemaId(), updatedShowtime.getShowDate());
+        return updatedShowtimeDTO;
+    }
+
+    // The change the admin made to availableSeats, or else the change to totalSeats. It is applied with
+    // $inc, so bookings made since the showtime was read are kept.
+    private static int seatChange(Showtime current, ShowtimeDTO edited) {
+        Integer available = current.getAvailableSeats();
+        if (edited.getAvailableSeats() != null && available != null && !edited.getAvailableSeats().equals(available)) {
+            return edited.getAvailableSeats() - available;
+        }
+        int total = current.getTotalSeats() != null ? current.getTotalSeats() : 0;
+        return edited.getTotalSeats() != null ? edited.getTotalSeats() - total : 0;
+    }
+
+    // Sets only the editable fields; seats are never written from the earlier read. While the showtime
+    // has no seat stripes availableSeats moves by seatChange. A hot showtime's inventory lives in its
+    // stripes, also when it was switched to stripes after the read, so seatChange is applied there
+    // before the fields are written.
+    private Showtime writeUpdate(String id, Showtime edited, int seatChange) {
+        FindAndModifyOptions returnNew = FindAndModifyOptions.options().returnNew(true);
+        Criteria cold = byId(id).and("seatStripes").exists(false);
+        Update coldUpdate = editableFields(edited);
+        if (seatChange != 0) {
+            cold = cold.and("availableSeats").gte(-seatChange);
+            coldUpdate.inc("availableSeats", seatChange);
+        }
+        Showtime updated = mongoTemplate.findAndModify(new Query(cold), coldUpdate, returnNew, Showtime.class);
+        if (updated != null) {
+            return updated;
+        }
+
+        Query hot = new Query(byId(id).and("seatStripes").exists(true));
+        Showtime current = mongoTemplate.findOne(hot, Showtime.class);
+        if (current == null) {
+            current = findShowtime(id);
+            throw new InsufficientSeatsException("Cannot remove " + -seatChange + " seats, only "
+                    + current.getAvailableSeats() + " are still available");
+        }
+        hotShowtimeService.remember(current);
+        if (!hotShowtimeService.adjustSeats(id, seatChange)) {
+            throw noLongerOnSale(id);
+        }
+        updated = mongoTemplate.findAndModify(hot, editableFields(edited), returnNew, Showtime.class);
+        if (updated == null) {
+            // Deleted or retired since; its stripes go with it
+            throw noLongerOnSale(id);
+        }
+        return updated;
+    }
+
+    private static Update editableFields(Showtime edited) {
+        return new Update()
+                .set("movieId", edited.getMovieId())
+                .set("screenNumber", edited.getScreenNumber())
+                .set("showDate", edited.getShowDate())
+                .set("startTime", edited.getStartTime())
+                .set("price", edited.getPrice())
+                .set("totalSeats", edited.getTotalSeats())
+                .set("durationMinutes", edited.getDurationMinutes());
     }
 
     public void deleteShowtime(String id) {
-        Showtime showtime = showtimeRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Showtime not found with id: " + id));
+        Showtime showtime = findShowtime(id);
         showtimeRepository.delete(showtime);
+        if (showtime.getSeatStripes() != null) {
+            hotShowtimeService.removeStripes(id);
+        }
+        seatContentionTracker.forget(id);
+        nowShowingPublisher.showtimeRemoved(convertToDTO(showtime));
+        seatAvailabilityFeed.localShowtimeRemoved(id);
+        occupancyStatsService.showtimeChanged(showtime.getCinemaId(), showtime.getShowDate());
     }
 
+    // Single conditional $inc routed by the shard key: the seat check and the decrement are one
+    // atomic operation, so concurrent bookings cannot oversell. Showtimes whose document becomes a
+    // write hotspot are switched to striped counters (HotShowtimeService) with the same guarantee.
     public void reduceSeats(String id, int count) {
-        Showtime showtime = showtimeRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Showtime not found with id: " + id));
-        
-        if (showtime.getAvailableSeats() < count) {
-            throw new InsufficientSeatsException("Not enough seats available. Available: " + showtime.getAvailableSeats());
+        if (hotShowtimeService.isHot(id) && hotShowtimeService.reduceSeats(id, count)) {
+            seatAvailabilityFeed.localSeatsChanged(id, null);
+            return;
         }
-        
-        showtime.setAvailableSeats(showtime.getAvailableSeats() - count);
-        showtimeRepository.save(showtime);
+
+        boolean contended = seatContentionTracker.enter(id);
+        try {
+            Query query = new Query(byId(id).and("availableSeats").gte(count).and("seatStripes").exists(false));
+            Update update = new Update().inc("availableSeats", -count);
+
+            Showtime updatedShowtime = mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().returnNew(true), Showtime.class);
+            if (updatedShowtime == null) {
+                Showtime showtime = findShowtime(id);
+                if (showtime.getSeatStripes() != null) {
+                    // Switched to stripes by another instance
+                    hotShowtimeService.remember(showtime);
+                    if (!hotShowtimeService.reduceSeats(id, count)) {
+                        throw noLongerOnSale(id);
+                    }
+                    seatAvailabilityFeed.localSeatsChanged(id, null);
+                    return;
+                }
+                throw InsufficientSeatsException.available(showtime.getAvailableSeats());
+            }
+            nowShowingPublisher.seatsChanged(convertToDTO(updatedShowtime));
+            seatAvailabilityFeed.localSeatsChanged(id, updatedShowtime.getAvailableSeats());
+            occupancyStatsService.showtimeChanged(updatedShowtime.getCinemaId(), updatedShowtime.getShowDate());
+
+            if (contended && hotShowtimesEnabled) {
+                hotShowtimeService.activate(id, byId(id));
+            }
+        } finally {
+            seatContentionTracker.exit(id);
+        }
+    }
+
+    // Gives back seats a booking took with reduceSeats when the booking could not be saved
+    public void releaseSeats(String id, int count) {
+        if (count <= 0) {
+            throw new InvalidScheduleException("Seats to release must be positive");
+        }
+        if (hotShowtimeService.isHot(id) && hotShowtimeService.releaseSeats(id, count)) {
+            seatAvailabilityFeed.localSeatsChanged(id, null);
+            return;
+        }
+        Query query = new Query(byId(id).and("seatStripes").exists(false));
+        Showtime updatedShowtime = mongoTemplate.findAndModify(query, new Update().inc("availableSeats", count),
+                FindAndModifyOptions.options().returnNew(true), Showtime.class);
+        if (updatedShowtime == null) {
+            Showtime showtime = findShowtime(id);
+            // Switched to stripes by another instance
+            hotShowtimeService.remember(showtime);
+            if (!hotShowtimeService.releaseSeats(id, count)) {
+                throw noLongerOnSale(id);
+            }
+            seatAvailabilityFeed.localSeatsChanged(id, null);
+            return;
+        }
+        nowShowingPublisher.seatsChanged(convertToDTO(updatedShowtime));
+        seatAvailabilityFeed.localSeatsChanged(id, updatedShowtime.getAvailableSeats());
+        occupancyStatsService.showtimeChanged(updatedShowtime.getCinemaId(), updatedShowtime.getShowDate());
+    }
+
+    // Hot showtimes do not update availableSeats per booking; publish the reconciled counts instead
+    @Scheduled(fixedDelayString = "${hot-showtime.reconcile-interval-ms:1000}")
+    public void reconcileHotShowtimes() {
+        hotShowtimeService.reconcile().forEach(showtime -> {
+            nowShowingPublisher.seatsChanged(convertToDTO(showtime));
+            occupancyStatsService.showtimeChanged(showtime.getCinemaId(), showtime.getShowDate());
+        });
+        seatContentionTracker.evictIdle();
+    }
+
+    private List<?> findShowtimes(Query query, String endpoint, FieldSelection selection) {
+        selection.applyTo(query).withReadPreference(readPreferenceRouting.forEndpoint(endpoint));
+        List<Showtime> showtimes = mongoTemplate.find(query, Showtime.class);
+        if (selection.isAll()) {
+            return showtimes.stream().map(this::convertToDTO).collect(Collectors.toList());
+        }
+        return showtimes.stream()
+                .map(showtime -> selection.project(convertToDTO(showtime), objectMapper))
+                .collect(Collectors.toList());
+    }
+
+    // Best effort: the check and the following write are not atomic, so two concurrent saves of the
+    // same slot can both pass it
+    private void checkScreenIsFree(Showtime showtime) {
+        ScreenIntervals.Interval conflict = screenScheduleService.findConflict(showtime, showtime.getDurationMinutes());
+        if (conflict != null) {
+            throw new ScheduleConflictException("Screen " + showtime.getScreenNumber() + " is taken by showtime "
+                    + conflict.showtimeId + " on " + conflict.showDate + " at " + conflict.startTime);
+        }
+    }
+
+    // The hot path gave up on a showtime another instance deleted (404) or retired after its show date
+    private InvalidDateException noLongerOnSale(String id) {
+        findShowtime(id);
+        return new InvalidDateException("Showtime " + id + " has already taken place");
+    }
+
+    private Criteria byId(String id) {
+        return ShowtimeIds.cinemaIdOf(id)
+                .map(cinemaId -> Criteria.where("cinemaId").is(cinemaId).and("_id").is(id))
+                .orElseGet(() -> Criteria.where("_id").is(id));
+    }
+
+    private Showtime findShowtime(String id) {
+        return ShowtimeIds.cinemaIdOf(id)
+                .flatMap(cinemaId -> showtimeRepository.findByCinemaIdAndId(cinemaId, id))
+                .or(() -> showtimeRepository.findById(id))
+                .orElseThrow(() -> new ResourceNotFoundException("Showtime not found with id: " + id));
     }
 
     private void validateShowDate(LocalDate showDate) {
@@ -89,11 +435,11 @@ public class ShowtimeService {
         LocalDate maxDate = today.plusDays(MAX_DAYS_AHEAD);
         
         if (showDate.isBefore(today)) {
-            throw new InvalidDateException("Show date cannot be in the past");
+            throw SHOW_DATE_IN_PAST;
         }
         
         if (showDate.isAfter(maxDate)) {
-            throw new InvalidDateException("Show date must be within the next " + MAX_DAYS_AHEAD + " days");
+            throw SHOW_DATE_TOO_FAR_AHEAD;
         }
     }
 
@@ -0,0 +1,75 @@
+package com.example.showtime.service;
+
+import com.example.showtime.model.SeatStripe;
+import com.example.showtime.model.Showtime;
+import com.mongodb.client.result.UpdateResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HotShowtimeServiceTest {
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final HotShowtimeService service = new HotShowtimeService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(service, "stripes", 4);
+        // Every stripe is gone, as after a delete or retirement on another instance
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(SeatStripe.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+        service.remember(hotShowtime());
+    }
+
+    @Test
+    void staleEntryIsForgottenInsteadOfRecreatingStripes() {
+        when(mongoTemplate.exists(any(Query.class), eq(Showtime.class))).thenReturn(false);
+
+        assertThat(service.reduceSeats("s1", 2)).isFalse();
+
+        assertThat(service.isHot("s1")).isFalse();
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(SeatStripe.class));
+    }
+
+    @Test
+    void releaseOnStaleEntryDoesNotRecreateStripes() {
+        when(mongoTemplate.exists(any(Query.class), eq(Showtime.class))).thenReturn(false);
+
+        assertThat(service.releaseSeats("s1", 2)).isFalse();
+
+        assertThat(service.isHot("s1")).isFalse();
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(SeatStripe.class));
+    }
+
+    @Test
+    void forgottenShowtimeFallsBackToSingleDocumentPath() {
+        service.forget("s1");
+
+        assertThat(service.reduceSeats("s1", 2)).isFalse();
+        assertThat(service.releaseSeats("s1", 2)).isFalse();
+    }
+
+    private static Showtime hotShowtime() {
+        Showtime showtime = new Showtime();
+        showtime.setId("s1");
+        showtime.setShowDate(LocalDate.now().plusDays(1));
+        showtime.setSeatStripes(4);
+        showtime.setStripeBase(100);
+        return showtime;
+    }
+}
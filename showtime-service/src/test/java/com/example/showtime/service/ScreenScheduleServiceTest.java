@@ -0,0 +1,95 @@
+package com.example.showtime.service;
+
+import com.example.showtime.model.Showtime;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ScreenScheduleServiceTest {
+
+    private static final LocalDate SHOW_DATE = LocalDate.of(2030, 3, 14);
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final ScreenScheduleService service = new ScreenScheduleService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(service, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "changeoverMinutes", 0);
+        ReflectionTestUtils.setField(service, "unknownDurationMinutes", 180);
+        ReflectionTestUtils.setField(service, "maxDurationMinutes", 360);
+        service.start();
+    }
+
+    // startTime is stored as a date on the day the document was written, so the query must not
+    // range on it: a showtime written on another day would never match
+    @Test
+    void findConflictDoesNotRangeOnStoredStartTime() {
+        when(mongoTemplate.find(any(Query.class), eq(Showtime.class))).thenReturn(List.of());
+
+        service.findConflict(showtime(null, "1", LocalTime.of(20, 0)), 120);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Showtime.class));
+        Document filter = query.getValue().getQueryObject();
+        assertThat(filter.keySet()).doesNotContain("startTime");
+        assertThat(filter.get("cinemaId")).isEqualTo("cinema-1");
+        assertThat(filter.get("screenNumber")).isEqualTo("1");
+        Document showDate = (Document) filter.get("showDate");
+        assertThat(showDate.get("$gte")).isEqualTo(SHOW_DATE);
+        assertThat(showDate.get("$lte")).isEqualTo(SHOW_DATE);
+    }
+
+    @Test
+    void findConflictComparesStartTimesInMemory() {
+        Showtime evening = showtime("existing", "1", LocalTime.of(19, 0));
+        evening.setDurationMinutes(120);
+        Showtime morning = showtime("morning", "1", LocalTime.of(10, 0));
+        morning.setDurationMinutes(120);
+        when(mongoTemplate.find(any(Query.class), eq(Showtime.class))).thenReturn(List.of(morning, evening));
+
+        ScreenIntervals.Interval conflict = service.findConflict(showtime(null, "1", LocalTime.of(20, 0)), 120);
+        assertThat(conflict).isNotNull();
+        assertThat(conflict.showtimeId).isEqualTo("existing");
+
+        assertThat(service.findConflict(showtime(null, "1", LocalTime.of(21, 0)), 120)).isNull();
+    }
+
+    // A showtime just after midnight can be overlapped by one that started the evening before
+    @Test
+    void findConflictReadsThePreviousDayAfterMidnight() {
+        Showtime lateShow = showtime("late", "1", LocalTime.of(23, 0));
+        lateShow.setShowDate(SHOW_DATE.minusDays(1));
+        lateShow.setDurationMinutes(150);
+        when(mongoTemplate.find(any(Query.class), eq(Showtime.class))).thenReturn(List.of(lateShow));
+
+        ScreenIntervals.Interval conflict = service.findConflict(showtime(null, "1", LocalTime.of(0, 30)), 90);
+
+        assertThat(conflict).isNotNull();
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Showtime.class));
+        Document showDate = (Document) query.getValue().getQueryObject().get("showDate");
+        assertThat(showDate.get("$gte")).isEqualTo(SHOW_DATE.minusDays(1));
+    }
+
+    private static Showtime showtime(String id, String screenNumber, LocalTime startTime) {
+        return new Showtime(id, "movie-1", "cinema-1", screenNumber, SHOW_DATE, startTime, 10.0, 100, 100);
+    }
+}
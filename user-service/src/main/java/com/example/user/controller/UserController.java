@@ -1,13 +1,22 @@
 package com.example.user.controller;
 
 import com.example.user.dto.UserDTO;
+import com.example.user.dto.UserIdentity;
+import com.example.user.model.UserType;
 import com.example.user.service.UserService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -17,6 +26,9 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping
     public ResponseEntity<UserDTO> createUser(@Valid @RequestBody UserDTO userDTO) {
         UserDTO createdUser = userService.createUser(userDTO);
@@ -29,6 +41,34 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    @GetMapping("/by-email")
+    public ResponseEntity<UserDTO> getUserByEmail(@RequestParam String email) {
+        UserDTO user = userService.getUserByEmail(email);
+        return ResponseEntity.ok(user);
+    }
+
+    // Bulk lookup for identity caches: one round trip for any number of ids
+    @PostMapping("/identities/lookup")
+    public ResponseEntity<List<UserIdentity>> lookupIdentities(@RequestBody List<String> ids) {
+        return ResponseEntity.ok(userService.getIdentities(ids));
+    }
+
+    // Newline-delimited JSON, written while the cursor is read, so caches can preload every admin
+    // (or every user) without either side holding the whole list
+    @GetMapping(value = "/identities", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamIdentities(@RequestParam(required = false) UserType userType) {
+        ObjectWriter writer = objectMapper.writerFor(UserIdentity.class).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        StreamingResponseBody body = out -> userService.streamIdentities(userType, identity -> {
+            try {
+                writer.writeValue(out, identity);
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<UserDTO> getUserById(@PathVariable String id) {
         UserDTO user = userService.getUserById(id);
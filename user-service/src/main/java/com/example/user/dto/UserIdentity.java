@@ -0,0 +1,35 @@
+package com.example.user.dto;
+
+import com.example.user.model.UserType;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// What other services need to authorize a request: who the caller is, and which cinema a
+// CINEMA_ADMIN manages. Immutable, so cached instances can be shared between request threads.
+public final class UserIdentity {
+
+    private final String id;
+    private final UserType userType;
+    private final String cinemaId;
+
+    @JsonCreator
+    public UserIdentity(@JsonProperty("id") String id,
+                        @JsonProperty("userType") UserType userType,
+                        @JsonProperty("cinemaId") String cinemaId) {
+        this.id = id;
+        this.userType = userType;
+        this.cinemaId = cinemaId;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public UserType getUserType() {
+        return userType;
+    }
+
+    public String getCinemaId() {
+        return cinemaId;
+    }
+}
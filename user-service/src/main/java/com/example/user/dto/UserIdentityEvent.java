@@ -0,0 +1,39 @@
+package com.example.user.dto;
+
+// Sent to every gateway and admin-service instance after a user is created, changed or deleted;
+// receivers drop their cached identity and load it again on the next request
+public class UserIdentityEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private Type type;
+    private String userId;
+
+    public UserIdentityEvent() {
+    }
+
+    public UserIdentityEvent(Type type, String userId) {
+        this.type = type;
+        this.userId = userId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+}
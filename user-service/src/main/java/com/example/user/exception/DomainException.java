@@ -0,0 +1,22 @@
+package com.example.user.exception;
+
+import org.springframework.http.HttpStatus;
+
+// Base for errors that are ordinary outcomes of a request (unknown id, sold out, date out of range)
+// rather than bugs. They are answered with a 4xx and never logged with a trace, so they are created
+// without one: filling in the stack below a Spring MVC handler costs more than the rest of the error
+// response. Without a stack trace an instance is immutable, so fixed-message errors can be
+// preallocated once and thrown from any thread.
+public abstract class DomainException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    protected DomainException(HttpStatus status, String message) {
+        super(message, null, false, false);
+        this.status = status;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.user.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class EmailAlreadyExistsException extends DomainException {
+    public EmailAlreadyExistsException(String email) {
+        super(HttpStatus.CONFLICT, "A user with email " + email + " already exists");
+    }
+}
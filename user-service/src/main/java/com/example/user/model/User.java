@@ -8,7 +8,7 @@ public class User {
     @Id
     private String id;
     private String name;
-    private String email;
+    private String email; // Stored trimmed and lower-cased; unique index created by EmailIndexMigration
     private String phone;
     private UserType userType;
     private String cinemaId; // Only for CINEMA_ADMIN
@@ -0,0 +1,95 @@
+package com.example.user.repository;
+
+import com.example.user.model.User;
+import com.example.user.service.KnownEmails;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.Updates;
+import jakarta.annotation.PostConstruct;
+import org.bson.BsonType;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Creates the unique index on users.email, after bringing existing data in line with it: emails
+// stored before they were normalized are trimmed and lower-cased, and where several users then share
+// an email the first one (by _id) keeps it while the others are renamed to "<email>#duplicate-<id>",
+// which no lookup matches, and logged so they can be merged by hand. Runs at startup with
+// auto-index-creation, as the @Indexed annotation would, and does nothing once the index exists.
+// Sparse, so users without an email do not collide with each other.
+@Component
+@ConditionalOnProperty(name = "spring.data.mongodb.auto-index-creation", havingValue = "true")
+public class EmailIndexMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailIndexMigration.class);
+
+    private static final String EMAIL = "email";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @PostConstruct
+    public void migrate() {
+        IndexOperations indexes = mongoTemplate.indexOps(User.class);
+        boolean exists = indexes.getIndexInfo().stream().anyMatch(index -> index.isUnique()
+                && index.getIndexFields().size() == 1
+                && EMAIL.equals(index.getIndexFields().get(0).getKey()));
+        if (exists) {
+            return;
+        }
+        MongoCollection<Document> users = mongoTemplate.getCollection(mongoTemplate.getCollectionName(User.class));
+        int normalized = normalizeEmails(users);
+        int renamed = renameDuplicates(users);
+        indexes.ensureIndex(new Index(EMAIL, Sort.Direction.ASC).unique().sparse().named(EMAIL));
+        log.info("Created the unique email index ({} emails normalized, {} duplicates renamed)", normalized, renamed);
+    }
+
+    private int normalizeEmails(MongoCollection<Document> users) {
+        int changed = 0;
+        for (Document user : users.find(Filters.type(EMAIL, BsonType.STRING)).projection(Projections.include(EMAIL))) {
+            String email = user.getString(EMAIL);
+            String normalized = KnownEmails.normalize(email);
+            if (!normalized.equals(email)) {
+                users.updateOne(Filters.eq("_id", user.get("_id")), Updates.set(EMAIL, normalized));
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    private int renameDuplicates(MongoCollection<Document> users) {
+        List<Document> shared = users.aggregate(List.of(
+                        Aggregates.match(Filters.type(EMAIL, BsonType.STRING)),
+                        Aggregates.sort(Sorts.ascending("_id")),
+                        Aggregates.group("$" + EMAIL, Accumulators.push("ids", "$_id"), Accumulators.sum("count", 1)),
+                        Aggregates.match(Filters.gt("count", 1))))
+                .allowDiskUse(true)
+                .into(new ArrayList<>());
+        int renamed = 0;
+        for (Document group : shared) {
+            String email = group.getString("_id");
+            List<Object> ids = group.getList("ids", Object.class);
+            for (Object id : ids.subList(1, ids.size())) {
+                users.updateOne(Filters.eq("_id", id), Updates.set(EMAIL, email + "#duplicate-" + id));
+                renamed++;
+            }
+            log.warn("Users {} shared email {}: {} keeps it, the others were renamed to {}#duplicate-<id>",
+                    ids, email, ids.get(0), email);
+        }
+        return renamed;
+    }
+}
@@ -1,12 +1,33 @@
 package com.example.user.repository;
 
 import com.example.user.model.User;
+import com.example.user.model.UserType;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends MongoRepository<User, String> {
     Optional<User> findByEmail(String email);
+
+    boolean existsByEmail(String email);
+
+    @Query(value = "{}", fields = "{ 'email': 1 }")
+    Stream<User> streamAllEmails();
+
+    // Identity lookups only read the fields UserIdentity carries
+
+    @Query(value = "{ '_id': { '$in': ?0 } }", fields = "{ 'userType': 1, 'cinemaId': 1 }")
+    List<User> findIdentitiesByIdIn(Collection<String> ids);
+
+    @Query(value = "{ 'userType': ?0 }", fields = "{ 'userType': 1, 'cinemaId': 1 }")
+    Stream<User> streamIdentitiesByUserType(UserType userType);
+
+    @Query(value = "{}", fields = "{ 'userType': 1, 'cinemaId': 1 }")
+    Stream<User> streamAllIdentities();
 }
@@ -0,0 +1,82 @@
+package com.example.user.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Fixed-size Bloom filter over normalized email addresses. mightContain == false is definite; true
+// means "ask MongoDB". Safe for concurrent add/mightContain without locking; entries cannot be
+// removed, so deleted or changed emails only add false positives until the next rebuild.
+class EmailBloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long mask;
+    private final int hashes;
+    private final long capacity;
+    private final AtomicLong added = new AtomicLong();
+
+    EmailBloomFilter(long expectedEmails, double falsePositiveRate) {
+        long n = Math.max(1000, expectedEmails);
+        double optimalBits = -n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        // Power of two, so an index is a mask instead of a division
+        long bitCount = Long.highestOneBit((long) Math.ceil(optimalBits) - 1) << 1;
+        this.bits = new AtomicLongArray((int) Math.max(1, bitCount >>> 6));
+        this.mask = bitCount - 1;
+        this.hashes = (int) Math.max(1, Math.round((double) bitCount / n * Math.log(2)));
+        this.capacity = n;
+    }
+
+    void add(String email) {
+        long h1 = hash(email);
+        long h2 = mix(h1) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = (h1 + i * h2) & mask;
+            long word = 1L << bit;
+            bits.getAndAccumulate((int) (bit >>> 6), word, (current, set) -> current | set);
+        }
+        added.incrementAndGet();
+    }
+
+    boolean mightContain(String email) {
+        long h1 = hash(email);
+        long h2 = mix(h1) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = (h1 + i * h2) & mask;
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Past capacity the false-positive rate climbs above the configured one
+    boolean isSaturated() {
+        return added.get() > capacity;
+    }
+
+    long size() {
+        return added.get();
+    }
+
+    long capacity() {
+        return capacity;
+    }
+
+    // FNV-1a over the UTF-16 chars, then a 64-bit finalizer so nearby addresses spread out
+    private static long hash(String email) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < email.length(); i++) {
+            h ^= email.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.user.service;
+
+import com.example.user.model.User;
+import com.example.user.repository.UserRepository;
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// In-memory Bloom filter of every registered email, so asking about an email that is not registered
+// (a registration, or a login with a typo) is answered without a MongoDB query. The filter is built
+// from users at startup. This instance's own writes are added as they are made, so it never answers
+// "absent" for a user it just created; every instance's writes also reach it through a change stream
+// on users, so another instance's registration is not missed. It is rebuilt when the stream had to
+// restart without a resume token, and when it fills up. Until a build completes, every check goes
+// to MongoDB. Without change streams (standalone mongod) it is rebuilt every reload-interval-ms
+// instead, so another instance's registration can be answered "absent" for up to that long. The
+// unique index on email stays the authority: the filter only skips queries whose answer it knows.
+@Service
+public class KnownEmails {
+
+    private static final Logger log = LoggerFactory.getLogger(KnownEmails.class);
+
+    // "The $changeStream stage is only supported on replica sets"
+    private static final int CHANGE_STREAMS_UNSUPPORTED = 40573;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${users.email-filter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${users.email-filter.expected-emails:1000000}")
+    private long expectedEmails;
+
+    @Value("${users.email-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${users.email-filter.change-stream.retry-delay-ms:1000}")
+    private long retryDelayMs;
+
+    // Only without change streams
+    @Value("${users.email-filter.reload-interval-ms:60000}")
+    private long reloadIntervalMs;
+
+    // null until the first build has finished
+    private volatile EmailBloomFilter filter;
+    // Set while a rebuild reads users, so writes made meanwhile reach the new filter too
+    private volatile EmailBloomFilter building;
+    private volatile boolean running = true;
+    private Thread worker;
+
+    private Counter definitelyAbsent;
+    private Counter mightExist;
+    private Counter falsePositives;
+
+    @PostConstruct
+    public void start() {
+        definitelyAbsent = Counter.builder("users.email-filter.checks").tag("result", "absent")
+                .description("Email checks answered from memory").register(meterRegistry);
+        mightExist = Counter.builder("users.email-filter.checks").tag("result", "maybe")
+                .description("Email checks that went to MongoDB").register(meterRegistry);
+        falsePositives = Counter.builder("users.email-filter.false-positives")
+                .description("Checks that went to MongoDB and found no user").register(meterRegistry);
+        Gauge.builder("users.email-filter.size", this, known -> known.filter != null ? known.filter.size() : 0)
+                .register(meterRegistry);
+        if (!enabled) {
+            return;
+        }
+        worker = new Thread(this::run, "email-filter");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    public static String normalize(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // false only when no user has this (normalized) email
+    public boolean mightExist(String email) {
+        EmailBloomFilter current = filter;
+        if (current != null && !current.mightContain(email)) {
+            definitelyAbsent.increment();
+            return false;
+        }
+        mightExist.increment();
+        return true;
+    }
+
+    // For a check that went to MongoDB and found nothing
+    public void falsePositive() {
+        falsePositives.increment();
+    }
+
+    // This instance's own writes, so they are known before their change event arrives; adding an
+    // email again is harmless
+    public void added(String email) {
+        add(email);
+    }
+
+    private void add(String email) {
+        if (email == null) {
+            return;
+        }
+        EmailBloomFilter current = filter;
+        EmailBloomFilter next = building;
+        if (current != null) {
+            current.add(email);
+        }
+        if (next != null) {
+            next.add(email);
+        }
+    }
+
+    private void rebuild() {
+        long count = userRepository.count();
+        EmailBloomFilter next = new EmailBloomFilter(Math.max(expectedEmails, 2 * count), falsePositiveRate);
+        building = next;
+        try (Stream<User> users = userRepository.streamAllEmails()) {
+            users.forEach(user -> next.add(normalize(user.getEmail())));
+        }
+        filter = next;
+        building = null;
+        log.info("Email filter built with {} emails (capacity {})", next.size(), next.capacity());
+    }
+
+    // Builds the filter, then keeps it current from the users change stream
+    private void run() {
+        Bson inserts = Filters.in("operationType", "insert", "replace");
+        Bson emailUpdates = Filters.and(Filters.eq("operationType", "update"),
+                Filters.exists("updateDescription.updatedFields.email"));
+        List<Bson> pipeline = List.of(Aggregates.match(Filters.or(inserts, emailUpdates)));
+        String users = mongoTemplate.getCollectionName(User.class);
+
+        BsonDocument resumeToken = null;
+        while (running) {
+            try {
+                ChangeStreamIterable<Document> stream = mongoTemplate.getCollection(users).watch(pipeline);
+                if (resumeToken != null) {
+                    stream = stream.resumeAfter(resumeToken);
+                }
+                try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+                    // Opened before the build, so no write between the two is missed
+                    if (resumeToken == null || filter == null) {
+                        rebuild();
+                    }
+                    while (running) {
+                        ChangeStreamDocument<Document> change = cursor.tryNext();
+                        if (change != null) {
+                            resumeToken = change.getResumeToken();
+                            add(normalize(emailOf(change)));
+                        } else if (filter.isSaturated()) {
+                            rebuild();
+                        }
+                    }
+                }
+            } catch (MongoCommandException e) {
+                if (e.getErrorCode() == CHANGE_STREAMS_UNSUPPORTED) {
+                    log.warn("Change streams need a replica set; reloading the email filter every {} ms instead",
+                            reloadIntervalMs);
+                    reloadPeriodically();
+                    return;
+                }
+                log.warn("Email filter change stream failed, rebuilding", e);
+                resumeToken = null;
+                pause();
+            } catch (RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Email filter change stream interrupted, resuming", e);
+                pause();
+            }
+        }
+    }
+
+    // Registrations through other instances are seen at the next reload
+    private void reloadPeriodically() {
+        while (running) {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Email filter reload failed", e);
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(reloadIntervalMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+        }
+    }
+
+    private String emailOf(ChangeStreamDocument<Document> change) {
+        if (change.getFullDocument() != null) {
+            return change.getFullDocument().getString("email");
+        }
+        BsonValue email = change.getUpdateDescription() != null
+                ? change.getUpdateDescription().getUpdatedFields().get("email")
+                : null;
+        return email != null && email.isString() ? email.asString().getValue() : null;
+    }
+
+    private void pause() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(retryDelayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.user.service;
+
+import com.example.user.dto.UserIdentityEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Tells every instance that caches user identities (gateway, admin-service) that a user changed.
+// Unlike the now-showing events, this is not sent through the load balancer: each instance holds its
+// own cache, so each one is sent the event. Sent off the request thread, and in order. An instance
+// that misses an event serves the old identity until its cache entry expires (identity.cache.ttl-ms).
+@Service
+public class UserIdentityPublisher {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserIdentityPublisher.class);
+
+    @Autowired
+    private DiscoveryClient discoveryClient;
+
+    @Value("${identity.events.enabled:true}")
+    private boolean enabled;
+
+    @Value("${identity.events.subscribers:api-gateway,admin-service}")
+    private List<String> subscribers;
+
+    @Value("${identity.events.path:/internal/identity-events}")
+    private String path;
+
+    @Value("${identity.events.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${identity.events.timeout-ms:1000}")
+    private int timeoutMs;
+
+    private ThreadPoolExecutor executor;
+    private RestClient restClient;
+
+    @PostConstruct
+    public void start() {
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "identity-publisher");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardOldestPolicy());
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeoutMs);
+        requestFactory.setReadTimeout(timeoutMs);
+        restClient = RestClient.builder().requestFactory(requestFactory).build();
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+
+    public void userChanged(UserIdentityEvent.Type type, String userId) {
+        if (!enabled) {
+            return;
+        }
+        UserIdentityEvent event = new UserIdentityEvent(type, userId);
+        executor.execute(() -> {
+            for (String subscriber : subscribers) {
+                for (ServiceInstance instance : discoveryClient.getInstances(subscriber)) {
+                    send(instance, event);
+                }
+            }
+        });
+    }
+
+    private void send(ServiceInstance instance, UserIdentityEvent event) {
+        try {
+            restClient.post()
+                    .uri(instance.getUri().resolve(path))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(event)
+                    .retrieve()
+                    .toBodilessEntity();
+        } catch (RuntimeException e) {
+            logger.warn("Could not send {} for user {} to {}", event.getType(), event.getUserId(), instance.getUri(), e);
+        }
+    }
+}
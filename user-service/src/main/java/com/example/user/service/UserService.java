@@ -1,14 +1,22 @@
 package com.example.user.service;
 
 import com.example.user.dto.UserDTO;
+import com.example.user.dto.UserIdentity;
+import com.example.user.dto.UserIdentityEvent;
+import com.example.user.exception.EmailAlreadyExistsException;
 import com.example.user.exception.ResourceNotFoundException;
 import com.example.user.model.User;
+import com.example.user.model.UserType;
 import com.example.user.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class UserService {
@@ -16,9 +24,21 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserIdentityPublisher userIdentityPublisher;
+
+    @Autowired
+    private KnownEmails knownEmails;
+
     public UserDTO createUser(UserDTO userDTO) {
         User user = convertToEntity(userDTO);
-        User savedUser = userRepository.save(user);
+        if (emailTaken(user.getEmail())) {
+            throw new EmailAlreadyExistsException(user.getEmail());
+        }
+        User savedUser = save(user);
+        knownEmails.added(savedUser.getEmail());
+        // Caches may hold the id as unknown, e.g. when a client reused it
+        userIdentityPublisher.userChanged(UserIdentityEvent.Type.CREATED, savedUser.getId());
         return convertToDTO(savedUser);
     }
 
@@ -34,17 +54,39 @@ public class UserService {
         return convertToDTO(user);
     }
 
+    // Most registrations use an unknown email; the filter answers those without a query
+    public UserDTO getUserByEmail(String email) {
+        String normalized = KnownEmails.normalize(email);
+        if (!knownEmails.mightExist(normalized)) {
+            throw new ResourceNotFoundException("User not found with email: " + normalized);
+        }
+        User user = userRepository.findByEmail(normalized).orElseThrow(() -> {
+            knownEmails.falsePositive();
+            return new ResourceNotFoundException("User not found with email: " + normalized);
+        });
+        return convertToDTO(user);
+    }
+
     public UserDTO updateUser(String id, UserDTO userDTO) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
         
+        String email = KnownEmails.normalize(userDTO.getEmail());
+        boolean emailChanged = !email.equals(user.getEmail());
+        if (emailChanged && emailTaken(email)) {
+            throw new EmailAlreadyExistsException(email);
+        }
         user.setName(userDTO.getName());
-        user.setEmail(userDTO.getEmail());
+        user.setEmail(email);
         user.setPhone(userDTO.getPhone());
         user.setUserType(userDTO.getUserType());
         user.setCinemaId(userDTO.getCinemaId());
         
-        User updatedUser = userRepository.save(user);
+        User updatedUser = save(user);
+        if (emailChanged) {
+            knownEmails.added(email);
+        }
+        userIdentityPublisher.userChanged(UserIdentityEvent.Type.UPDATED, id);
         return convertToDTO(updatedUser);
     }
 
@@ -52,6 +94,47 @@ public class UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
         userRepository.delete(user);
+        userIdentityPublisher.userChanged(UserIdentityEvent.Type.DELETED, id);
+    }
+
+    private boolean emailTaken(String email) {
+        if (!knownEmails.mightExist(email)) {
+            return false;
+        }
+        boolean taken = userRepository.existsByEmail(email);
+        if (!taken) {
+            knownEmails.falsePositive();
+        }
+        return taken;
+    }
+
+    // The unique index catches a registration racing another one for the same email
+    private User save(User user) {
+        try {
+            return userRepository.save(user);
+        } catch (DuplicateKeyException e) {
+            throw new EmailAlreadyExistsException(user.getEmail());
+        }
+    }
+
+    // Unknown ids are left out of the result
+    public List<UserIdentity> getIdentities(Collection<String> ids) {
+        return userRepository.findIdentitiesByIdIn(ids).stream()
+                .map(this::convertToIdentity)
+                .collect(Collectors.toList());
+    }
+
+    // Hands identities to the consumer one at a time, straight off the cursor
+    public void streamIdentities(UserType userType, Consumer<UserIdentity> consumer) {
+        try (Stream<User> users = userType != null
+                ? userRepository.streamIdentitiesByUserType(userType)
+                : userRepository.streamAllIdentities()) {
+            users.map(this::convertToIdentity).forEach(consumer);
+        }
+    }
+
+    private UserIdentity convertToIdentity(User user) {
+        return new UserIdentity(user.getId(), user.getUserType(), user.getCinemaId());
     }
 
     private UserDTO convertToDTO(User user) {
@@ -69,7 +152,7 @@ public class UserService {
         return new User(
                 userDTO.getId(),
                 userDTO.getName(),
-                userDTO.getEmail(),
+                KnownEmails.normalize(userDTO.getEmail()),
                 userDTO.getPhone(),
                 userDTO.getUserType(),
                 userDTO.getCinemaId()
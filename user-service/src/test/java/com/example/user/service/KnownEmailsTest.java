@@ -0,0 +1,108 @@
+package com.example.user.service;
+
+import com.example.user.model.User;
+import com.example.user.repository.UserRepository;
+import com.mongodb.MongoCommandException;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.MongoCollection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class KnownEmailsTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final KnownEmails knownEmails = new KnownEmails();
+
+    @AfterEach
+    void tearDown() {
+        knownEmails.stop();
+    }
+
+    // Between the insert and its change event the filter must already know the new email
+    @Test
+    void ownRegistrationIsKnownBeforeItsChangeEvent() {
+        start(false);
+        ReflectionTestUtils.setField(knownEmails, "filter", new EmailBloomFilter(1000, 0.01));
+
+        assertThat(knownEmails.mightExist("new@example.com")).isFalse();
+        knownEmails.added("new@example.com");
+
+        assertThat(knownEmails.mightExist("new@example.com")).isTrue();
+        assertThat(knownEmails.mightExist("other@example.com")).isFalse();
+    }
+
+    // A standalone mongod rejects change streams; the filter is then reloaded from users periodically
+    @Test
+    void reloadsWithoutChangeStreams() throws InterruptedException {
+        @SuppressWarnings("unchecked")
+        MongoCollection<Document> users = mock(MongoCollection.class);
+        when(mongoTemplate.getCollectionName(User.class)).thenReturn("users");
+        when(mongoTemplate.getCollection(anyString())).thenReturn(users);
+        BsonDocument response = new BsonDocument("ok", new BsonInt32(0))
+                .append("code", new BsonInt32(40573))
+                .append("errmsg", new BsonString("The $changeStream stage is only supported on replica sets"));
+        when(users.watch(anyList())).thenThrow(new MongoCommandException(response, new ServerAddress()));
+        when(userRepository.count()).thenReturn(1L);
+        when(userRepository.streamAllEmails())
+                .thenAnswer(invocation -> Stream.of(user("first@example.com")))
+                .thenAnswer(invocation -> Stream.of(user("first@example.com"), user("second@example.com")));
+        ReflectionTestUtils.setField(knownEmails, "reloadIntervalMs", 50L);
+
+        start(true);
+
+        // Until the first build every check is a "maybe"
+        assertThat(eventually(() -> !knownEmails.mightExist("unknown@example.com"))).isTrue();
+        assertThat(knownEmails.mightExist("first@example.com")).isTrue();
+
+        // The second reload sees a registration made elsewhere
+        assertThat(eventually(() -> knownEmails.mightExist("second@example.com"))).isTrue();
+        verify(userRepository, atLeast(2)).streamAllEmails();
+    }
+
+    private void start(boolean enabled) {
+        ReflectionTestUtils.setField(knownEmails, "userRepository", userRepository);
+        ReflectionTestUtils.setField(knownEmails, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(knownEmails, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(knownEmails, "enabled", enabled);
+        ReflectionTestUtils.setField(knownEmails, "expectedEmails", 1000L);
+        ReflectionTestUtils.setField(knownEmails, "falsePositiveRate", 0.01);
+        knownEmails.start();
+    }
+
+    private static User user(String email) {
+        User user = new User();
+        user.setEmail(email);
+        return user;
+    }
+
+    private static boolean eventually(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+        return false;
+    }
+}